@@ -0,0 +1,55 @@
+package org.example.m295nick.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Request-Deadlines für die Fahrzeug- und Rental-API: der {@link DeadlineInterceptor} setzt sie,
+ * die {@link DeadlineDataSource} setzt sie in JDBC-Timeouts und {@code Statement.cancel()} um.
+ */
+@Configuration
+public class DeadlineConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final long defaultMs;
+    private final long maxMs;
+
+    public DeadlineConfig(@Value("${deadlines.enabled:true}") boolean enabled,
+                          @Value("${deadlines.default-ms:10000}") long defaultMs,
+                          @Value("${deadlines.max-ms:60000}") long maxMs) {
+        this.enabled = enabled;
+        this.defaultMs = defaultMs;
+        this.maxMs = maxMs;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new DeadlineInterceptor(defaultMs, maxMs))
+                    .addPathPatterns("/api/v1/vehicles/**", "/api/v1/rentals/**");
+        }
+    }
+
+    // static, damit der Post-Processor nicht die ganze Konfiguration vorzeitig instanziiert;
+    // Platzhalter sind so früh noch nicht auflösbar, daher über das Environment
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DeadlineDataSource)
+                        && environment.getProperty("deadlines.enabled", Boolean.class, true)) {
+                    return new DeadlineDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
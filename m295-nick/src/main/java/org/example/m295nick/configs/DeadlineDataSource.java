@@ -0,0 +1,87 @@
+package org.example.m295nick.configs;
+
+import org.example.m295nick.services.RequestDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Überträgt die {@link RequestDeadline} auf JDBC: jedes Statement bekommt die Restzeit als
+ * Query-Timeout und wird bei Ablauf per {@link Statement#cancel()} abgebrochen, damit eine
+ * aufgegebene Abfrage ihre Pool-Verbindung nicht minutenlang belegt.
+ * <p>
+ * Ist die Deadline schon vor dem Bezug einer Verbindung oder vor der Ausführung verstrichen,
+ * wird mit {@link SQLTimeoutException} abgebrochen, ohne die DB zu belasten. Ohne Deadline
+ * (Jobs, Schreibzugriffe) werden Statements unverändert durchgereicht.
+ */
+public class DeadlineDataSource extends StatementInterceptingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineDataSource.class);
+
+    private final ScheduledThreadPoolExecutor canceller;
+
+    public DeadlineDataSource(DataSource target) {
+        super(target);
+        this.canceller = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "jdbc-deadline-cancel");
+            t.setDaemon(true);
+            return t;
+        });
+        this.canceller.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void close() throws Exception {
+        canceller.shutdownNow();
+        super.close();
+    }
+
+    @Override
+    protected void beforeConnection() throws SQLTimeoutException {
+        checkDeadline();
+    }
+
+    private static void checkDeadline() throws SQLTimeoutException {
+        if (RequestDeadline.isExpired()) {
+            throw new SQLTimeoutException("Deadline der Anfrage überschritten");
+        }
+    }
+
+    @Override
+    protected Object execute(Execution execution) throws Throwable {
+        long remaining = RequestDeadline.remainingMillis();
+        if (remaining == Long.MAX_VALUE) {
+            return execution.proceed();
+        }
+        checkDeadline();
+        Statement statement = execution.statement();
+        // Sekunden-Timeout als Rückfallebene im Treiber, der Abbruch auf die Millisekunde kommt vom Timer
+        int seconds = (int) Math.min(Integer.MAX_VALUE, TimeUnit.MILLISECONDS.toSeconds(remaining + 999));
+        int current = statement.getQueryTimeout();
+        if (current == 0 || current > seconds) {
+            statement.setQueryTimeout(seconds);
+        }
+        ScheduledFuture<?> cancel = canceller.schedule(() -> cancel(statement), remaining, TimeUnit.MILLISECONDS);
+        try {
+            return execution.proceed();
+        } finally {
+            cancel.cancel(false);
+        }
+    }
+
+    private static void cancel(Statement statement) {
+        try {
+            statement.cancel();
+            logger.warn("Statement nach Ablauf der Request-Deadline abgebrochen");
+        } catch (SQLException e) {
+            logger.debug("Abbruch des Statements fehlgeschlagen", e);
+        }
+    }
+}
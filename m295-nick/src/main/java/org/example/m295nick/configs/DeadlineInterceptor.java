@@ -0,0 +1,66 @@
+package org.example.m295nick.configs;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.m295nick.exceptions.DeadlineExceededException;
+import org.example.m295nick.services.RequestDeadline;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Setzt die {@link RequestDeadline} für lesende Anfragen (GET/HEAD).
+ * <p>
+ * Budget = Minimum aus {@link EndpointDeadline} bzw. {@code deadlines.default-ms},
+ * dem Client-Header {@value #HEADER} und {@code deadlines.max-ms}. Schreibende Anfragen
+ * bekommen keine Deadline, damit keine halb ausgeführten Änderungen entstehen.
+ */
+public class DeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    /** Verbleibendes Zeitbudget des Clients in Millisekunden. */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private final long defaultMs;
+    private final long maxMs;
+
+    public DeadlineInterceptor(long defaultMs, long maxMs) {
+        this.defaultMs = defaultMs;
+        this.maxMs = maxMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        long budget = defaultMs;
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(EndpointDeadline.class)) {
+            budget = method.getMethodAnnotation(EndpointDeadline.class).value();
+        }
+        String header = request.getHeader(HEADER);
+        if (header != null) {
+            try {
+                budget = Math.min(budget, Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültiger Wert für Header '" + HEADER + "'");
+            }
+        }
+        budget = Math.min(budget, maxMs);
+        if (budget <= 0) {
+            throw new DeadlineExceededException("Deadline der Anfrage bereits abgelaufen");
+        }
+        RequestDeadline.start(budget);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Asynchrone Antworten laufen auf anderen Threads weiter, der Request-Thread geht zurück in den Pool
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+}
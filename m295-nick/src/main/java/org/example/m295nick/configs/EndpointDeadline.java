@@ -0,0 +1,19 @@
+package org.example.m295nick.configs;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Eigene Deadline (ms) für einen lesenden Endpunkt statt {@code deadlines.default-ms}.
+ * Ein kürzerer Client-Header {@value DeadlineInterceptor#HEADER} hat Vorrang.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointDeadline {
+
+    long value();
+}
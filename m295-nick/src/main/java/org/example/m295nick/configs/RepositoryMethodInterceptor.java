@@ -0,0 +1,39 @@
+package org.example.m295nick.configs;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Merkt sich pro Thread die gerade laufende Repository-Methode (z. B.
+ * {@code RentalRepository.findByEndDateBefore}), damit die {@link SlowQueryDataSource}
+ * Statements ihrem Aufrufer zuordnen kann. Wird in jeden Spring-Data-Repository-Proxy gehängt.
+ */
+public class RepositoryMethodInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repository;
+
+    public RepositoryMethodInterceptor(String repository) {
+        this.repository = repository;
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set(repository + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -53,6 +53,22 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/v1/rentals/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/rentals/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/rentals/**").hasAnyRole("ADMIN","USER")
+                        // RENTAL v2 (reaktiv, nur lesen):
+                        .requestMatchers(HttpMethod.GET, "/api/v2/rentals/**").hasAnyRole("ADMIN","USER")
+                        // HOLDS:
+                        .requestMatchers(HttpMethod.POST, "/api/v1/holds/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/v1/holds/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/holds/**").hasAnyRole("ADMIN","USER")
+                        // EVENTS (SSE-Change-Feed):
+                        .requestMatchers(HttpMethod.GET, "/api/v1/events/**").hasAnyRole("ADMIN","USER")
+                        // REPORTS (nur lesen):
+                        .requestMatchers(HttpMethod.GET, "/api/v1/reports/**").hasAnyRole("ADMIN","USER")
+                        // SYNC (Delta-Sync der Terminals):
+                        .requestMatchers(HttpMethod.GET, "/api/v1/sync/**").hasAnyRole("ADMIN","USER")
+                        // AUDIT:
+                        .requestMatchers("/api/v1/audit/**").hasRole("ADMIN")
+                        // ADMIN (Cache, Diagnose):
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                         // Alle anderen Anfragen erfordern Authentifizierung
                         .anyRequest().authenticated()
                 )
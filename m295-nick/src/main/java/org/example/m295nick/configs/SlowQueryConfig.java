@@ -0,0 +1,52 @@
+package org.example.m295nick.configs;
+
+import org.example.m295nick.services.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Slow-Query-Log: die DataSource wird in eine {@link SlowQueryDataSource} gehüllt und jedes
+ * Spring-Data-Repository bekommt einen {@link RepositoryMethodInterceptor}, damit Einträge im
+ * {@link SlowQueryLog} ihrer Repository-Methode zugeordnet werden.
+ */
+@Configuration
+public class SlowQueryConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(Environment environment,
+                                                                     ObjectProvider<SlowQueryLog> log) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)
+                        && environment.getProperty("slow-query.enabled", Boolean.class, true)) {
+                    return new SlowQueryDataSource(dataSource, log);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Vor afterPropertiesSet der Factory-Bean, dort wird der Repository-Proxy gebaut
+    @Bean
+    public static BeanPostProcessor repositoryMethodPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                        && environment.getProperty("slow-query.enabled", Boolean.class, true)) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryMethodInterceptor(
+                                    information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
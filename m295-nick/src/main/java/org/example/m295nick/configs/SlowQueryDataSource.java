@@ -0,0 +1,76 @@
+package org.example.m295nick.configs;
+
+import org.example.m295nick.services.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * Misst jede Statement-Ausführung und meldet alles ab der Schwelle an das {@link SlowQueryLog},
+ * samt gebundener Parameter, Repository-Methode ({@link RepositoryMethodInterceptor}) und
+ * aufrufender Service-Methode. Der Stack wird nur für langsame Statements untersucht.
+ */
+public class SlowQueryDataSource extends StatementInterceptingDataSource {
+
+    private static final String SERVICES_PACKAGE = "org.example.m295nick.services.";
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final ObjectProvider<SlowQueryLog> logProvider;
+    private volatile SlowQueryLog log;
+
+    public SlowQueryDataSource(DataSource target, ObjectProvider<SlowQueryLog> logProvider) {
+        super(target);
+        this.logProvider = logProvider;
+    }
+
+    @Override
+    protected boolean captureParameters() {
+        return true;
+    }
+
+    @Override
+    protected Object execute(Execution execution) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return execution.proceed();
+        } finally {
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            SlowQueryLog l = log();
+            if (durationMs >= l.getThresholdMs() && execution.sql() != null && !isExplain(execution.sql())) {
+                l.record(execution.sql(), execution.parameters(), durationMs,
+                        RepositoryMethodInterceptor.current(), serviceMethod());
+            }
+        }
+    }
+
+    // Innerster Frame aus dem Service-Paket, ohne CGLIB-Proxys; Lambdas auf die umschliessende Methode abbilden
+    static String serviceMethod() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(SERVICES_PACKAGE) && !f.getClassName().contains("$$"))
+                .findFirst()
+                .map(f -> {
+                    String className = f.getClassName().substring(SERVICES_PACKAGE.length());
+                    String method = f.getMethodName();
+                    if (method.startsWith("lambda$")) {
+                        int end = method.indexOf('$', 7);
+                        method = end > 7 ? method.substring(7, end) : method;
+                    }
+                    return className + "." + method;
+                })
+                .orElse(null));
+    }
+
+    private static boolean isExplain(String sql) {
+        return sql.stripLeading().toUpperCase(Locale.ROOT).startsWith("EXPLAIN");
+    }
+
+    private SlowQueryLog log() {
+        SlowQueryLog l = log;
+        if (l == null) {
+            l = logProvider.getObject();
+            log = l;
+        }
+        return l;
+    }
+}
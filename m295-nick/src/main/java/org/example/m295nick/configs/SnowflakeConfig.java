@@ -0,0 +1,21 @@
+package org.example.m295nick.configs;
+
+import org.example.m295nick.models.SnowflakeIdentifierGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Prüft die Snowflake-Node-ID beim Aufbau der EntityManagerFactory, damit ein
+ * fehlendes SNOWFLAKE_NODE_ID den Start mit einer klaren Meldung abbricht
+ * (im Generator selbst würde der Fehler vom Spring-Bean-Container überdeckt).
+ */
+@Configuration
+public class SnowflakeConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeNodeIdCheck() {
+        return properties -> SnowflakeIdentifierGenerator.parseNodeId(
+                properties.get(SnowflakeIdentifierGenerator.NODE_ID_SETTING));
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.m295nick.configs;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Basis für DataSource-Wrapper, die jede Statement-Ausführung ({@code execute*}) abfangen.
+ * Verbindungen und Statements werden per {@link Proxy} umhüllt, alles andere geht unverändert
+ * an den Treiber. Mehrere Wrapper lassen sich verschachteln.
+ */
+public abstract class StatementInterceptingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    /**
+     * Eine abgefangene Ausführung; {@link #proceed()} führt sie auf dem echten Statement aus.
+     * {@code parameters} (Index → Wert, bei Batches die letzte Zeile) nur mit {@link #captureParameters()}.
+     */
+    protected record Execution(Statement statement, String sql, int batchSize, Map<Integer, Object> parameters,
+                               Method method, Object[] args) {
+
+        public Object proceed() throws Throwable {
+            return invoke(statement, method, args);
+        }
+    }
+
+    protected StatementInterceptingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /** Vor dem Bezug einer Verbindung, z. B. um früh abzubrechen. */
+    protected void beforeConnection() throws SQLException {
+    }
+
+    protected abstract Object execute(Execution execution) throws Throwable;
+
+    /** Gebundene Parameter mitschreiben (kostet eine Map pro Statement). */
+    protected boolean captureParameters() {
+        return false;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        beforeConnection();
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        beforeConnection();
+        return wrap(super.getConnection(username, password));
+    }
+
+    /** Schliesst den Pool dahinter (Spring ruft {@code close()} auf der exponierten Bean). */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        // prepareStatement/prepareCall: SQL steht schon fest, createStatement: erst bei execute(sql)
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return wrap(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, Class<?> type, String preparedSql) {
+        Class<?> iface = type == CallableStatement.class ? CallableStatement.class
+                : type == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+        int[] batchSize = {0};
+        Map<Integer, Object> parameters = captureParameters() ? new TreeMap<>() : Map.of();
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{iface}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                        int batch = name.contains("Batch") ? batchSize[0] : 0;
+                        try {
+                            return execute(new Execution(statement, sql, batch, parameters, method, args));
+                        } finally {
+                            if (batch > 0) {
+                                batchSize[0] = 0;
+                            }
+                        }
+                    }
+                    if (name.equals("addBatch")) {
+                        batchSize[0]++;
+                    } else if (name.equals("clearBatch")) {
+                        batchSize[0] = 0;
+                    } else if (parameters instanceof TreeMap<Integer, Object> captured) {
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                            captured.put(index, name.equals("setNull") ? null : args[1]);
+                        } else if (name.equals("clearParameters")) {
+                            captured.clear();
+                        }
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.m295nick.configs;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Jede öffentliche Methode der Klasse bekommt einen eigenen Tracing-Span
+ * ({@code Klasse.methode}), siehe {@link TracingConfig}.
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Traced {
+}
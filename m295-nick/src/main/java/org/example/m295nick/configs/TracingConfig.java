@@ -0,0 +1,120 @@
+package org.example.m295nick.configs;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * OpenTelemetry-Tracing: Server-Span pro Anfrage ({@link TracingFilter}), Spans für die Methoden
+ * der {@link Traced}-Klassen (Controller, Service-Impls) und pro JDBC-Statement ({@link TracingDataSource}).
+ * <p>
+ * Export über {@code tracing.exporter}: {@code otlp} (HTTP an {@code tracing.otlp.endpoint}),
+ * {@code logging} (OTLP-JSON ins Applikations-Log, mit {@code logging.file.name} also in eine Datei)
+ * oder {@code none}. Ist eine {@link SpanExporter}-Bean vorhanden (Tests: In-Memory), wird diese
+ * synchron verwendet.
+ */
+@Configuration
+public class TracingConfig {
+
+    private static final String INSTRUMENTATION = "org.example.m295nick";
+
+    @Bean(destroyMethod = "close")
+    public OpenTelemetrySdk openTelemetry(@Value("${tracing.enabled:true}") boolean enabled,
+                                          @Value("${tracing.exporter:none}") String exporter,
+                                          @Value("${tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint,
+                                          @Value("${tracing.sample-ratio:1.0}") double sampleRatio,
+                                          @Value("${spring.application.name:m295-nick}") String serviceName,
+                                          ObjectProvider<SpanExporter> customExporter) {
+        SdkTracerProviderBuilder tracerProvider = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(
+                        Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                // Eingehende Sampling-Entscheidung (traceparent) übernehmen, sonst nach Quote
+                .setSampler(enabled ? Sampler.parentBased(Sampler.traceIdRatioBased(sampleRatio)) : Sampler.alwaysOff());
+        SpanExporter custom = customExporter.getIfAvailable();
+        if (custom != null) {
+            tracerProvider.addSpanProcessor(SimpleSpanProcessor.create(custom));
+        } else {
+            SpanExporter configured = switch (exporter) {
+                case "otlp" -> OtlpHttpSpanExporter.builder().setEndpoint(endpoint).build();
+                case "logging" -> OtlpJsonLoggingSpanExporter.create();
+                case "none" -> null;
+                default -> throw new IllegalArgumentException("Unbekannter tracing.exporter: " + exporter);
+            };
+            if (configured != null) {
+                tracerProvider.addSpanProcessor(BatchSpanProcessor.builder(configured).build());
+            }
+        }
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider.build())
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION);
+    }
+
+    // Vor Security, damit auch abgewiesene Anfragen einen Span und eine Trace-ID haben
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(OpenTelemetry openTelemetry, Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(openTelemetry, tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Infrastruktur-Rolle: wird vom vorhandenen Auto-Proxy (Transaktionen, Method Security) mit angewendet;
+    // äusserster Advice, damit Commit und Berechtigungsprüfung in der Span-Dauer enthalten sind
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor(ObjectProvider<Tracer> tracer) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Traced.class, true), new TracingInterceptor(tracer));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(Environment environment,
+                                                                   ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)
+                        && environment.getProperty("tracing.enabled", Boolean.class, true)) {
+                    return new TracingDataSource(dataSource, tracer);
+                }
+                return bean;
+            }
+        };
+    }
+}
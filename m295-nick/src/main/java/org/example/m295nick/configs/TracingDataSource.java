@@ -0,0 +1,94 @@
+package org.example.m295nick.configs;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client-Span pro JDBC-Ausführung ({@code SELECT}, {@code INSERT}, Batch mit Anzahl Zeilen).
+ * <p>
+ * Nur innerhalb eines laufenden Traces: Hintergrund-Jobs (Outbox-Relay, Überfällig-Prüfung)
+ * erzeugen so keine Flut einzelner Root-Spans. Das SQL stammt von Hibernate und enthält
+ * nur Platzhalter, keine Werte.
+ */
+public class TracingDataSource extends StatementInterceptingDataSource {
+
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+([\\w.]+)", Pattern.CASE_INSENSITIVE);
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public TracingDataSource(DataSource target, ObjectProvider<Tracer> tracerProvider) {
+        super(target);
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    protected Object execute(Execution execution) throws Throwable {
+        if (!Span.current().getSpanContext().isValid()) {
+            return execution.proceed();
+        }
+        String operation = operation(execution.sql());
+        String table = table(execution.sql());
+        var builder = tracer().spanBuilder(table == null ? operation : operation + " " + table)
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.operation.name", operation);
+        if (table != null) {
+            builder.setAttribute("db.collection.name", table);
+        }
+        if (execution.sql() != null) {
+            builder.setAttribute("db.query.text", execution.sql());
+        }
+        if (execution.batchSize() > 0) {
+            builder.setAttribute("db.operation.batch.size", execution.batchSize());
+        }
+        Span span = builder.startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return execution.proceed();
+        } catch (Throwable t) {
+            span.recordException(t);
+            span.setStatus(StatusCode.ERROR);
+            throw t;
+        } finally {
+            span.end();
+        }
+    }
+
+    public static String operation(String sql) {
+        if (sql == null || sql.isBlank()) {
+            return "JDBC";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "JDBC" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    // Erste Tabelle nach FROM / INTO / UPDATE, z. B. "rental" für "select r1_0.id ... from rental r1_0"
+    public static String table(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        Matcher m = TABLE.matcher(sql);
+        return m.find() ? m.group(1).toLowerCase(Locale.ROOT) : null;
+    }
+
+    private Tracer tracer() {
+        Tracer t = tracer;
+        if (t == null) {
+            t = tracerProvider.getObject();
+            tracer = t;
+        }
+        return t;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.m295nick.configs;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Server-Span pro HTTP-Anfrage. Übernimmt einen eingehenden W3C-{@code traceparent}, legt
+ * Trace- und Span-ID ins MDC (Log-Muster {@code logging.pattern.level}) und gibt die Trace-ID
+ * im Header {@value #TRACE_ID_HEADER} zurück, damit Clients sie bei Rückfragen angeben können.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    static final String MDC_TRACE_ID = "traceId";
+    static final String MDC_SPAN_ID = "spanId";
+
+    private static final TextMapGetter<HttpServletRequest> HEADERS = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String key) {
+            return request == null ? null : request.getHeader(key);
+        }
+    };
+
+    private final OpenTelemetry openTelemetry;
+    private final Tracer tracer;
+
+    public TracingFilter(OpenTelemetry openTelemetry, Tracer tracer) {
+        this.openTelemetry = openTelemetry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Context parent = openTelemetry.getPropagators().getTextMapPropagator()
+                .extract(Context.root(), request, HEADERS);
+        Span span = tracer.spanBuilder(request.getMethod())
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .setAttribute("http.request.method", request.getMethod())
+                .setAttribute("url.path", request.getRequestURI())
+                .startSpan();
+        if (span.getSpanContext().isValid()) {
+            response.setHeader(TRACE_ID_HEADER, span.getSpanContext().getTraceId());
+        }
+        try (Scope ignored = span.makeCurrent()) {
+            putMdc(span);
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            // Route erst nach dem Handler-Mapping bekannt: "POST /api/v1/rentals/bulk" statt der konkreten URL
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.updateName(request.getMethod() + " " + route);
+                span.setAttribute("http.route", route.toString());
+            }
+            span.setAttribute("http.response.status_code", response.getStatus());
+            if (response.getStatus() >= 500) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+            MDC.remove(MDC_TRACE_ID);
+            MDC.remove(MDC_SPAN_ID);
+        }
+    }
+
+    static void putMdc(Span span) {
+        if (span.getSpanContext().isValid()) {
+            MDC.put(MDC_TRACE_ID, span.getSpanContext().getTraceId());
+            MDC.put(MDC_SPAN_ID, span.getSpanContext().getSpanId());
+        }
+    }
+
+    static void restoreSpanId(String previousSpanId) {
+        if (previousSpanId != null) {
+            MDC.put(MDC_SPAN_ID, previousSpanId);
+        } else {
+            MDC.remove(MDC_SPAN_ID);
+            MDC.remove(MDC_TRACE_ID);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.m295nick.configs;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.MDC;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Span pro Methodenaufruf einer {@link Traced}-Klasse; die Span-ID steht während des Aufrufs im MDC.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public TracingInterceptor(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String className = AopUtils.getTargetClass(invocation.getThis()).getSimpleName();
+        String methodName = invocation.getMethod().getName();
+        Span span = tracer().spanBuilder(className + "." + methodName)
+                .setAttribute("code.namespace", className)
+                .setAttribute("code.function", methodName)
+                .startSpan();
+        String previousSpanId = MDC.get(TracingFilter.MDC_SPAN_ID);
+        try (Scope ignored = span.makeCurrent()) {
+            TracingFilter.putMdc(span);
+            return invocation.proceed();
+        } catch (Throwable t) {
+            span.recordException(t);
+            span.setStatus(StatusCode.ERROR);
+            throw t;
+        } finally {
+            span.end();
+            TracingFilter.restoreSpanId(previousSpanId);
+        }
+    }
+
+    private Tracer tracer() {
+        Tracer t = tracer;
+        if (t == null) {
+            // Erst beim ersten Aufruf auflösen: der Advisor entsteht vor den übrigen Beans
+            t = tracerProvider.getObject();
+            tracer = t;
+        }
+        return t;
+    }
+}
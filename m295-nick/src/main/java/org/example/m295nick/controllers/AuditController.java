@@ -0,0 +1,36 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.AuditRecord;
+import org.example.m295nick.services.AuditJournalReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/api/v1/audit", produces = "application/json")
+public class AuditController {
+
+    private final Path journalDirectory;
+
+    public AuditController(@Value("${audit.journal.dir:data/audit}") String journalDirectory) {
+        this.journalDirectory = Path.of(journalDirectory);
+    }
+
+    /** GET /api/v1/audit?entity=Rental&entityId=1&from=2025-01-01T00:00:00Z&to=... → Audit-Journal filtern */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AuditRecord>> getAuditRecords(
+            @RequestParam(required = false) String entity,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(AuditJournalReader.read(journalDirectory, entity, entityId, from, to, limit));
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.CacheRegionStats;
+import org.example.m295nick.models.CoalescingStats;
+import org.example.m295nick.services.CacheStatisticsService;
+import org.example.m295nick.services.ReadCoalescer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/api/v1/admin/cache", produces = "application/json")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+    private final ReadCoalescer readCoalescer;
+
+    public CacheController(CacheStatisticsService cacheStatisticsService,
+                           ReadCoalescer readCoalescer) {
+        this.cacheStatisticsService = cacheStatisticsService;
+        this.readCoalescer = readCoalescer;
+    }
+
+    /** GET /api/v1/admin/cache → Treffer/Fehlgriffe/Grösse je Cache-Region */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheRegionStats>> getRegionStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStatistics());
+    }
+
+    /** GET /api/v1/admin/cache/coalescing → Ausgeführte vs. gebündelte Leseabfragen je Operation */
+    @GetMapping("/coalescing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CoalescingStats>> getCoalescingStatistics() {
+        return ResponseEntity.ok(readCoalescer.getStatistics());
+    }
+
+    /** DELETE /api/v1/admin/cache → Alle Regionen leeren (z. B. nach Änderungen direkt in der DB) */
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> evictAll() {
+        cacheStatisticsService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.SlowQuery;
+import org.example.m295nick.models.SlowQueryShape;
+import org.example.m295nick.services.ContinuousRecording;
+import org.example.m295nick.services.SlowQueryLog;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/api/v1/admin/diagnostics")
+public class DiagnosticsController {
+
+    private final ContinuousRecording continuousRecording;
+    private final SlowQueryLog slowQueryLog;
+
+    public DiagnosticsController(ContinuousRecording continuousRecording, SlowQueryLog slowQueryLog) {
+        this.continuousRecording = continuousRecording;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /** POST /api/v1/admin/diagnostics/jfr?minutes=10 → Letzte N Minuten der JFR-Daueraufzeichnung als .jfr-Datei */
+    @PostMapping(path = "/jfr", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> dumpFlightRecording(@RequestParam(defaultValue = "10") int minutes) throws IOException {
+        if (!continuousRecording.isRunning()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Path file = continuousRecording.dump(minutes);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .contentLength(Files.size(file))
+                .body(new FileSystemResource(file));
+    }
+
+    /** GET /api/v1/admin/diagnostics/slow-queries → Letzte langsame Statements, neueste zuerst */
+    @GetMapping(path = "/slow-queries", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SlowQuery>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryLog.getRecent());
+    }
+
+    /** GET /api/v1/admin/diagnostics/slow-queries/report?limit=20&repository=RentalRepository → Teuerste Abfrageformen mit Plan und Index-Vorschlägen */
+    @GetMapping(path = "/slow-queries/report", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SlowQueryShape>> getSlowQueryReport(@RequestParam(defaultValue = "20") int limit,
+                                                                   @RequestParam(required = false) String repository) {
+        return ResponseEntity.ok(slowQueryLog.getReport(repository, limit));
+    }
+
+    /** DELETE /api/v1/admin/diagnostics/slow-queries → Slow-Query-Log leeren */
+    @DeleteMapping(path = "/slow-queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetSlowQueries() {
+        slowQueryLog.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.services.EventStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping(path = "/api/v1/events")
+public class EventController {
+
+    private final EventStreamService eventStreamService;
+
+    public EventController(EventStreamService eventStreamService) {
+        this.eventStreamService = eventStreamService;
+    }
+
+    /** GET /api/v1/events → Change-Feed (SSE) für Vehicles und Rentals, Resume via Last-Event-ID */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventStreamService.subscribe(lastEventId);
+    }
+}
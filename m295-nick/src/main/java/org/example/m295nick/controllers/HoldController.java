@@ -0,0 +1,53 @@
+package org.example.m295nick.controllers;
+
+import jakarta.validation.Valid;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.Hold;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.services.HoldService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(path = "/api/v1/holds", produces = "application/json")
+public class HoldController {
+
+    private final HoldService holdService;
+
+    public HoldController(HoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    /** GET /api/v1/holds/{id} → Aktiven Hold lesen */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<Hold> getHoldById(@PathVariable String id) {
+        Hold hold = holdService.getById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold", "id", id));
+        return ResponseEntity.ok(hold);
+    }
+
+    /** POST /api/v1/holds → Fahrzeug für einen Zeitraum befristet reservieren */
+    @PostMapping(consumes = "application/json")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Hold> createHold(@Valid @RequestBody Hold hold) {
+        return new ResponseEntity<>(holdService.create(hold), HttpStatus.CREATED);
+    }
+
+    /** POST /api/v1/holds/{id}/rental → Hold in eine Miete umwandeln */
+    @PostMapping("/{id}/rental")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Rental> convertHold(@PathVariable String id) {
+        return new ResponseEntity<>(holdService.convertToRental(id), HttpStatus.CREATED);
+    }
+
+    /** DELETE /api/v1/holds/{id} → Hold freigeben */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> releaseHold(@PathVariable String id) {
+        holdService.release(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.services.ReactiveRentalService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Reaktive Lese-API. Listen werden als NDJSON oder SSE gestreamt: Spring MVC gibt den
+ * Request-Thread frei und schreibt die Elemente, sobald der Client sie abnimmt.
+ */
+@RestController
+@Profile("!inmemory")
+@RequestMapping(path = "/api/v2/rentals")
+public class ReactiveRentalController {
+
+    private final ReactiveRentalService reactiveRentalService;
+
+    public ReactiveRentalController(ReactiveRentalService reactiveRentalService) {
+        this.reactiveRentalService = reactiveRentalService;
+    }
+
+    /** GET /api/v2/rentals/{id} → Eine Miete nach ID lesen */
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Mono<Rental> getRentalById(@PathVariable Long id) {
+        return reactiveRentalService.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Rental", "id", id)));
+    }
+
+    /** GET /api/v2/rentals → Alle Rentals als Stream */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Flux<Rental> getAllRentals() {
+        return reactiveRentalService.getAll();
+    }
+
+    /** GET /api/v2/rentals/filter/start-after?after=2024-01-01 */
+    @GetMapping(path = "/filter/start-after", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Flux<Rental> getRentalsByStartDateAfter(
+            @RequestParam("after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate) {
+        return reactiveRentalService.getByStartDateAfter(afterDate);
+    }
+
+    /** GET /api/v2/rentals/filter/end-before?before=2024-12-31 */
+    @GetMapping(path = "/filter/end-before", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Flux<Rental> getRentalsByEndDateBefore(
+            @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate) {
+        return reactiveRentalService.getByEndDateBefore(beforeDate);
+    }
+}
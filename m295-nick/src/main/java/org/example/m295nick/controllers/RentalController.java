@@ -1,7 +1,13 @@
 package org.example.m295nick.controllers;
 
+import org.example.m295nick.configs.EndpointDeadline;
+import org.example.m295nick.configs.Traced;
 import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.FieldSet;
 import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RentalWithVehicle;
+import org.example.m295nick.services.FieldProjectionService;
 import org.example.m295nick.services.RentalService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -12,15 +18,22 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@Traced
 @RequestMapping(path = "/api/v1/rentals", produces = "application/json")
 public class RentalController {
 
+    // Bereichsfilter können lange laufen; länger wartet kein Client auf die Antwort
+    private static final long FILTER_DEADLINE_MS = 5000;
+
     private final RentalService rentalService;
+    private final FieldProjectionService fieldProjectionService;
 
-    public RentalController(RentalService rentalService) {
+    public RentalController(RentalService rentalService, FieldProjectionService fieldProjectionService) {
         this.rentalService = rentalService;
+        this.fieldProjectionService = fieldProjectionService;
     }
 
     // ─────── READ ───────
@@ -34,6 +47,25 @@ public class RentalController {
         return ResponseEntity.ok(rental);
     }
 
+    /** GET /api/v1/rentals/{id}?expand=vehicle → Miete mit Fahrzeugdaten (ein Query) */
+    @GetMapping(path = "/{id}", params = "expand=vehicle")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<RentalWithVehicle> getRentalByIdWithVehicle(@PathVariable Long id) {
+        Rental rental = rentalService.getByIdWithVehicle(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Rental", "id", id));
+        return ResponseEntity.ok(RentalWithVehicle.of(rental));
+    }
+
+    /** GET /api/v1/rentals/{id}?fields=id,startDate,endDate → Nur ausgewählte Felder */
+    @GetMapping(path = "/{id}", params = {"fields", "!expand"})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRentalFieldsById(@PathVariable Long id,
+                                                                   @RequestParam String fields) {
+        Map<String, Object> rental = fieldProjectionService.getRentalById(id, rentalFields(fields))
+                .orElseThrow(() -> new ResourceNotFoundException("Rental", "id", id));
+        return ResponseEntity.ok(rental);
+    }
+
     /** HEAD /api/v1/rentals/{id} → Existenz prüfen */
     @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -50,8 +82,23 @@ public class RentalController {
         return ResponseEntity.ok(alle);
     }
 
+    /** GET /api/v1/rentals?expand=vehicle → Alle Rentals mit Fahrzeugdaten */
+    @GetMapping(params = "expand=vehicle")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<RentalWithVehicle>> getAllRentalsWithVehicle() {
+        return ResponseEntity.ok(expand(rentalService.getAllWithVehicle()));
+    }
+
+    /** GET /api/v1/rentals?fields=id,vehicleId → Alle Rentals, nur ausgewählte Felder */
+    @GetMapping(params = {"fields", "!expand"})
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getAllRentalFields(@RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getRentals(rentalFields(fields)));
+    }
+
     /** GET /api/v1/rentals/filter/start-after?after=2024-01-01 */
     @GetMapping("/filter/start-after")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<List<Rental>> getRentalsByStartDateAfter(
             @RequestParam("after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate) {
@@ -59,8 +106,28 @@ public class RentalController {
         return ResponseEntity.ok(filtered);
     }
 
+    /** GET /api/v1/rentals/filter/start-after?after=2024-01-01&expand=vehicle */
+    @GetMapping(path = "/filter/start-after", params = "expand=vehicle")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<RentalWithVehicle>> getRentalsByStartDateAfterWithVehicle(
+            @RequestParam("after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate) {
+        return ResponseEntity.ok(expand(rentalService.getByStartDateAfterWithVehicle(afterDate)));
+    }
+
+    /** GET /api/v1/rentals/filter/start-after?after=2024-01-01&fields=id,startDate */
+    @GetMapping(path = "/filter/start-after", params = {"fields", "!expand"})
+    @EndpointDeadline(FILTER_DEADLINE_MS)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getRentalFieldsByStartDateAfter(
+            @RequestParam("after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getRentalsByStartDateAfter(afterDate, rentalFields(fields)));
+    }
+
     /** GET /api/v1/rentals/filter/end-before?before=2024-12-31 */
     @GetMapping("/filter/end-before")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<List<Rental>> getRentalsByEndDateBefore(
             @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate) {
@@ -68,6 +135,51 @@ public class RentalController {
         return ResponseEntity.ok(filtered);
     }
 
+    /** GET /api/v1/rentals/filter/end-before?before=2024-12-31&expand=vehicle */
+    @GetMapping(path = "/filter/end-before", params = "expand=vehicle")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<RentalWithVehicle>> getRentalsByEndDateBeforeWithVehicle(
+            @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate) {
+        return ResponseEntity.ok(expand(rentalService.getByEndDateBeforeWithVehicle(beforeDate)));
+    }
+
+    /** GET /api/v1/rentals/filter/end-before?before=2024-12-31&fields=id,endDate */
+    @GetMapping(path = "/filter/end-before", params = {"fields", "!expand"})
+    @EndpointDeadline(FILTER_DEADLINE_MS)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getRentalFieldsByEndDateBefore(
+            @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getRentalsByEndDateBefore(beforeDate, rentalFields(fields)));
+    }
+
+    /** GET /api/v1/rentals/overdue → Nicht zurückgegebene Rentals mit verstrichenem Enddatum, älteste zuerst */
+    @GetMapping("/overdue")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Rental>> getOverdueRentals() {
+        return ResponseEntity.ok(rentalService.getOverdue());
+    }
+
+    /** GET /api/v1/rentals/by-customer?name=Muster&fuzzy=true → Rentals eines Kunden (optional tippfehlertolerant) */
+    @GetMapping("/by-customer")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Rental>> getRentalsByCustomer(
+            @RequestParam("name") String name,
+            @RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
+        return ResponseEntity.ok(rentalService.getByCustomer(name, fuzzy));
+    }
+
+    /** GET /api/v1/rentals/by-customer?name=Muster&fields=id,startDate → Nur ausgewählte Felder */
+    @GetMapping(path = "/by-customer", params = "fields")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getRentalFieldsByCustomer(
+            @RequestParam("name") String name,
+            @RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getRentalsByCustomer(name, fuzzy, rentalFields(fields)));
+    }
+
     // ─────── CREATE ───────
 
     /** POST /api/v1/rentals → Eine Miete anlegen */
@@ -86,6 +198,18 @@ public class RentalController {
         return new ResponseEntity<>(createdList, HttpStatus.CREATED);
     }
 
+    /**
+     * POST /api/v1/rentals/bulk?partial=true → Mehrere Rentals anlegen, gültige auch dann,
+     * wenn andere abgelehnt werden (207 mit Status pro Index)
+     */
+    @PostMapping(path = "/bulk", params = "partial=true", consumes = "application/json")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> createRentalsBulkPartial(@RequestBody List<Rental> rentals) {
+        // Kein @Valid: Bean Validation läuft pro Element im Service
+        BulkResult result = rentalService.createAllPartial(rentals);
+        return new ResponseEntity<>(result, HttpStatus.MULTI_STATUS);
+    }
+
     // ─────── UPDATE ───────
 
     /** PUT /api/v1/rentals/{id} → Eine Miete aktualisieren */
@@ -98,6 +222,13 @@ public class RentalController {
         return ResponseEntity.ok(updated);
     }
 
+    /** POST /api/v1/rentals/{id}/return → Fahrzeug zurückgegeben (idempotent) */
+    @PostMapping("/{id}/return")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Rental> returnRental(@PathVariable Long id) {
+        return ResponseEntity.ok(rentalService.markReturned(id));
+    }
+
     // ─────── DELETE ───────
 
     /** DELETE /api/v1/rentals/{id} → Miete nach ID löschen */
@@ -124,4 +255,12 @@ public class RentalController {
         rentalService.deleteAll();
         return ResponseEntity.noContent().build();
     }
+
+    private static FieldSet rentalFields(String fields) {
+        return FieldSet.parse(fields, FieldSet.RENTAL_FIELDS);
+    }
+
+    private static List<RentalWithVehicle> expand(List<Rental> rentals) {
+        return rentals.stream().map(RentalWithVehicle::of).toList();
+    }
 }
@@ -0,0 +1,32 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.OccupancyReport;
+import org.example.m295nick.services.ReportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+// Nur mit JPA-Backend, siehe ReportServiceImpl
+@RestController
+@Profile("!inmemory")
+@RequestMapping(path = "/api/v1/reports", produces = "application/json")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /** GET /api/v1/reports/occupancy?month=2025-06 → Belegung aller Fahrzeuge als Bitset pro Fahrzeug */
+    @GetMapping("/occupancy")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<OccupancyReport> getOccupancy(
+            @RequestParam("month") @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(reportService.getOccupancy(month));
+    }
+}
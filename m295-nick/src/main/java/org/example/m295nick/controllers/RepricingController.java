@@ -0,0 +1,37 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.RepricingResult;
+import org.example.m295nick.services.RepricingService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Nur mit JPA-Backend, siehe RepricingServiceImpl
+@RestController
+@Profile("!inmemory")
+@RequestMapping(path = "/api/v1/vehicles", produces = "application/json")
+public class RepricingController {
+
+    private final RepricingService repricingService;
+
+    public RepricingController(RepricingService repricingService) {
+        this.repricingService = repricingService;
+    }
+
+    /** POST /api/v1/vehicles/{id}/reprice?dryRun=true → Offene Rentals eines Fahrzeugs neu bepreisen */
+    @PostMapping("/{id}/reprice")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RepricingResult> repriceVehicle(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.ok(repricingService.repriceVehicle(id, dryRun));
+    }
+
+    /** POST /api/v1/vehicles/reprice?dryRun=true → Offene Rentals der ganzen Flotte neu bepreisen */
+    @PostMapping("/reprice")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RepricingResult> repriceFleet(@RequestParam(defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.ok(repricingService.repriceFleet(dryRun));
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.SyncResponse;
+import org.example.m295nick.services.SyncService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Nur mit JPA-Backend, siehe SyncServiceImpl
+@RestController
+@Profile("!inmemory")
+@RequestMapping(path = "/api/v1/sync", produces = "application/json")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /** GET /api/v1/sync?since=<token> → Änderungen und Löschungen seit dem Token (ohne Token: alles) */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<SyncResponse> sync(@RequestParam(name = "since", required = false) String since) {
+        return ResponseEntity.ok(syncService.getChanges(since));
+    }
+}
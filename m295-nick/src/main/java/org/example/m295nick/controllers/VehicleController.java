@@ -1,26 +1,50 @@
 package org.example.m295nick.controllers;
 
+import org.example.m295nick.configs.EndpointDeadline;
+import org.example.m295nick.configs.Traced;
 import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.FieldSet;
 import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.services.FieldProjectionService;
+import org.example.m295nick.services.ResponseByteCache;
 import org.example.m295nick.services.VehicleService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@Traced
 @RequestMapping(path = "/api/v1/vehicles", produces = "application/json")
 public class VehicleController {
 
+    // Bereichsfilter können lange laufen; länger wartet kein Client auf die Antwort
+    private static final long FILTER_DEADLINE_MS = 5000;
+
     private final VehicleService vehicleService;
+    private final FieldProjectionService fieldProjectionService;
+    private final ResponseByteCache responseByteCache;
 
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService, FieldProjectionService fieldProjectionService,
+                             ResponseByteCache responseByteCache) {
         this.vehicleService = vehicleService;
+        this.fieldProjectionService = fieldProjectionService;
+        this.responseByteCache = responseByteCache;
     }
 
     // ─────── READ ───────
@@ -34,6 +58,16 @@ public class VehicleController {
         return ResponseEntity.ok(vehicle);
     }
 
+    /** 1b) GET /api/v1/vehicles/{id}?fields=id,brand,pricePerDay → Nur ausgewählte Felder */
+    @GetMapping(path = "/{id}", params = "fields")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<Map<String, Object>> getVehicleFieldsById(@PathVariable Long id,
+                                                                    @RequestParam String fields) {
+        Map<String, Object> vehicle = fieldProjectionService.getVehicleById(id, vehicleFields(fields))
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", id));
+        return ResponseEntity.ok(vehicle);
+    }
+
     /** 2) HEAD /api/v1/vehicles/{id} → Existenz prüfen */
     @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -42,30 +76,82 @@ public class VehicleController {
         return exists ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
-    /** 3) GET /api/v1/vehicles → Alle Fahrzeuge lesen */
+    /**
+     * 3) GET /api/v1/vehicles → Alle Fahrzeuge lesen. Die Antwort kommt vorserialisiert (und bei
+     * {@code Accept-Encoding: gzip} vorkomprimiert) aus dem {@link ResponseByteCache}; mit passendem
+     * {@code If-None-Match} gibt es 304.
+     */
     @GetMapping
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<List<Vehicle>> getAllVehicles() {
-        List<Vehicle> alle = vehicleService.getAll();
-        return ResponseEntity.ok(alle);
+    public void getAllVehicles(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ResponseByteCache.Entry cached = responseByteCache.get("vehicles.all", vehicleService::getAll);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = cached.etag(gzip);
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        ByteBuffer body = cached.body(gzip);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.remaining());
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    /** 3b) GET /api/v1/vehicles?fields=id,brand,pricePerDay → Alle Fahrzeuge, nur ausgewählte Felder */
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getAllVehicleFields(@RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getVehicles(vehicleFields(fields)));
     }
 
     /** 4) GET /api/v1/vehicles/filter/air-conditioning?enabled=true */
     @GetMapping("/filter/air-conditioning")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<List<Vehicle>> getByAirConditioning(@RequestParam Boolean enabled) {
         List<Vehicle> filtered = vehicleService.getByAirConditioning(enabled);
         return ResponseEntity.ok(filtered);
     }
 
+    /** 4b) GET /api/v1/vehicles/filter/air-conditioning?enabled=true&fields=id,brand */
+    @GetMapping(path = "/filter/air-conditioning", params = "fields")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getFieldsByAirConditioning(@RequestParam Boolean enabled,
+                                                                                @RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getVehiclesByAirConditioning(enabled, vehicleFields(fields)));
+    }
+
     /** 5) GET /api/v1/vehicles/filter/brand?brand=VW */
     @GetMapping("/filter/brand")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<List<Vehicle>> getByBrand(@RequestParam String brand) {
         List<Vehicle> filtered = vehicleService.getByBrand(brand);
         return ResponseEntity.ok(filtered);
     }
 
+    /** 5b) GET /api/v1/vehicles/filter/brand?brand=VW&fields=id,pricePerDay */
+    @GetMapping(path = "/filter/brand", params = "fields")
+    @EndpointDeadline(FILTER_DEADLINE_MS)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getFieldsByBrand(@RequestParam String brand,
+                                                                      @RequestParam String fields) {
+        return ResponseEntity.ok(fieldProjectionService.getVehiclesByBrand(brand, vehicleFields(fields)));
+    }
+
     // ─────── CREATE ───────
 
     /** 6) POST /api/v1/vehicles → Ein Fahrzeug anlegen */
@@ -84,6 +170,18 @@ public class VehicleController {
         return new ResponseEntity<>(createdList, HttpStatus.CREATED);
     }
 
+    /**
+     * 7b) POST /api/v1/vehicles/bulk?partial=true → Mehrere Fahrzeuge anlegen, gültige auch dann,
+     * wenn andere abgelehnt werden (207 mit Status pro Index)
+     */
+    @PostMapping(path = "/bulk", params = "partial=true", consumes = "application/json")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> createVehiclesBulkPartial(@RequestBody List<Vehicle> vehicles) {
+        // Kein @Valid: Bean Validation läuft pro Element im Service
+        BulkResult result = vehicleService.createAllPartial(vehicles);
+        return new ResponseEntity<>(result, HttpStatus.MULTI_STATUS);
+    }
+
     // ─────── UPDATE ───────
 
     /** 8) PUT /api/v1/vehicles/{id} → Fahrzeug updaten */
@@ -123,4 +221,22 @@ public class VehicleController {
         vehicleService.deleteAll();
         return ResponseEntity.noContent().build();
     }
+
+    private static FieldSet vehicleFields(String fields) {
+        return FieldSet.parse(fields, FieldSet.VEHICLE_FIELDS);
+    }
+
+    // "gzip" in Accept-Encoding, sofern nicht mit q=0 ausgeschlossen
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,232 @@
+package org.example.m295nick.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.m295nick.configs.Traced;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.VehicleMedia;
+import org.example.m295nick.services.ThumbnailGenerator;
+import org.example.m295nick.services.VehicleMediaService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Fotos und Dokumente zu Fahrzeugen. Inhalte werden ohne Umweg über den Heap ausgeliefert: per
+ * Tomcat-sendfile, sonst per {@link FileChannel#transferTo}. ETag ist der Inhalts-Hash; einzelne
+ * Byte-Bereiche ({@code Range}, {@code If-Range}) werden mit 206 beantwortet.
+ */
+@RestController
+@Traced
+@RequestMapping(path = "/api/v1/vehicles/{vehicleId}/media")
+public class VehicleMediaController {
+
+    // Vom Tomcat-Connector ausgewertete Request-Attribute für sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Inhalt unter einer Medien-ID ändert sich nie, nur Berechtigungen: privat cachen
+    private static final String CACHE_CONTROL = "private, max-age=86400";
+
+    private final VehicleMediaService vehicleMediaService;
+    private final long sendfileMinBytes;
+
+    public VehicleMediaController(VehicleMediaService vehicleMediaService,
+                                  @Value("${media.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+        this.vehicleMediaService = vehicleMediaService;
+        this.sendfileMinBytes = sendfileMinBytes;
+    }
+
+    // ─────── READ ───────
+
+    /** 1) GET /api/v1/vehicles/{vehicleId}/media → Alle Medien eines Fahrzeugs (Metadaten) */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<VehicleMedia>> getMedia(@PathVariable Long vehicleId) {
+        return ResponseEntity.ok(vehicleMediaService.getByVehicle(vehicleId));
+    }
+
+    /**
+     * 2) GET /api/v1/vehicles/{vehicleId}/media/{mediaId} → Inhalt; mit {@code If-None-Match} 304,
+     * mit {@code Range: bytes=...} 206 bzw. 416, wenn der Bereich ausserhalb der Datei liegt
+     */
+    @GetMapping("/{mediaId}")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public void getContent(@PathVariable Long vehicleId, @PathVariable Long mediaId,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        VehicleMedia media = find(vehicleId, mediaId);
+        Path file = vehicleMediaService.getContent(media);
+        String etag = "\"" + media.getSha256() + "\"";
+        long length = Files.size(file);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (notModified(request, etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(media.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(media.getFileName(), StandardCharsets.UTF_8).build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Mehrere Bereiche (multipart/byteranges) werden nicht unterstützt: dann ganze Datei
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                // HttpRange begrenzt nur das Ende; ein Anfang hinter der Datei ist nicht erfüllbar
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        transfer(file, start, end - start + 1, request, response);
+    }
+
+    /**
+     * 3) GET /api/v1/vehicles/{vehicleId}/media/{mediaId}/thumbnail → Vorschaubild (JPEG); 202, solange
+     * es im Hintergrund erzeugt wird, 404 für Dokumente und nicht lesbare Bilder
+     */
+    @GetMapping("/{mediaId}/thumbnail")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public void getThumbnail(@PathVariable Long vehicleId, @PathVariable Long mediaId,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        VehicleMedia media = find(vehicleId, mediaId);
+        ThumbnailGenerator.State state = vehicleMediaService.requestThumbnail(media);
+        if (state == ThumbnailGenerator.State.UNSUPPORTED) {
+            throw new ResourceNotFoundException("Thumbnail", "mediaId", mediaId);
+        }
+        if (state == ThumbnailGenerator.State.PENDING) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.ACCEPTED.value());
+            return;
+        }
+
+        Path file = vehicleMediaService.getThumbnail(media);
+        String etag = "\"" + media.getSha256() + "-thumbnail\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (notModified(request, etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        transfer(file, 0, Files.size(file), request, response);
+    }
+
+    // ─────── CREATE ───────
+
+    /** 4) POST /api/v1/vehicles/{vehicleId}/media (multipart, Feld "file") → Foto/Dokument hochladen */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VehicleMedia> upload(@PathVariable Long vehicleId,
+                                               @RequestParam("file") MultipartFile file) throws IOException {
+        VehicleMedia created;
+        try (InputStream content = file.getInputStream()) {
+            created = vehicleMediaService.upload(vehicleId, file.getOriginalFilename(), file.getContentType(), content);
+        }
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{mediaId}").buildAndExpand(created.getId()).toUri())
+                .body(created);
+    }
+
+    // ─────── DELETE ───────
+
+    /** 5) DELETE /api/v1/vehicles/{vehicleId}/media/{mediaId} → Medium löschen */
+    @DeleteMapping("/{mediaId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> delete(@PathVariable Long vehicleId, @PathVariable Long mediaId) throws IOException {
+        vehicleMediaService.deleteById(vehicleId, mediaId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ─────── Hilfsmethoden ───────
+
+    private VehicleMedia find(Long vehicleId, Long mediaId) {
+        return vehicleMediaService.getById(vehicleId, mediaId)
+                .orElseThrow(() -> new ResourceNotFoundException("VehicleMedia", "id", mediaId));
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        return ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"));
+    }
+
+    // If-Range mit abweichendem ETag (oder Datum): Range ignorieren und die ganze Datei senden
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        return ifRange == null || ifRange.trim().equals(etag);
+    }
+
+    /**
+     * Bytes {@code [start, start + count)} senden. Unter Tomcat ab {@code media.sendfile-min-bytes}
+     * per sendfile (der Connector schreibt nach dem Handler direkt aus dem Page-Cache in den Socket),
+     * sonst per {@link FileChannel#transferTo} in den Ausgabekanal.
+     */
+    private void transfer(Path file, long start, long count, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long written = channel.transferTo(position, end - position, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+            }
+        }
+    }
+}
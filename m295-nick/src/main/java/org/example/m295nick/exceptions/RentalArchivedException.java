@@ -0,0 +1,15 @@
+package org.example.m295nick.exceptions;
+
+public class RentalArchivedException extends RuntimeException {
+
+    private final Long rentalId;
+
+    public RentalArchivedException(Long rentalId) {
+        super(String.format("Rental %s ist archiviert und kann nicht mehr geändert werden", rentalId));
+        this.rentalId = rentalId;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+}
@@ -1,12 +1,17 @@
 package org.example.m295nick.exceptions;
 
 import io.swagger.v3.oas.annotations.Hidden;
+import org.example.m295nick.services.RequestDeadline;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -49,9 +54,61 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
-    // 4) Alle anderen Exceptions → 500
+    // 4) Fahrzeug im Zeitraum bereits reserviert/vermietet → 409
+    @ExceptionHandler(VehicleNotAvailableException.class)
+    public ResponseEntity<Object> handleNotAvailable(VehicleNotAvailableException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    // 5) Archivierte Rentals sind schreibgeschützt → 409
+    @ExceptionHandler(RentalArchivedException.class)
+    public ResponseEntity<Object> handleArchived(RentalArchivedException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    // 6) Ungültige oder fehlende Query-/Pfad-Parameter (z. B. ?month=Juni) → 400
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+    public ResponseEntity<Object> handleBadParameter(Exception ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex instanceof MethodArgumentTypeMismatchException mismatch
+                ? "Ungültiger Wert für Parameter '" + mismatch.getName() + "'"
+                : ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    // 7) Deadline der Anfrage verstrichen bzw. Abfrage abgebrochen → 504
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class,
+            jakarta.persistence.QueryTimeoutException.class})
+    public ResponseEntity<Object> handleDeadline(Exception ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Zeitlimit der Anfrage überschritten");
+        return new ResponseEntity<>(body, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    // 8) Upload grösser als spring.servlet.multipart.max-file-size → 413
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Object> handleMaxUploadSize(MaxUploadSizeExceededException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Die Datei ist zu gross");
+        return new ResponseEntity<>(body, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    // 9) Alle anderen Exceptions → 500 (oder 504, wenn sie Folge einer abgelaufenen Deadline sind)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAll(Exception ex, WebRequest request) {
+        if (RequestDeadline.isActive() && RequestDeadline.isExpired()) {
+            // z. B. vom Treiber abgebrochenes Statement, in Transaktions-Exceptions verpackt
+            return handleDeadline(ex, request);
+        }
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("message", "Interner Serverfehler");
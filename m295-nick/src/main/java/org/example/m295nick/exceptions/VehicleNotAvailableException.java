@@ -0,0 +1,17 @@
+package org.example.m295nick.exceptions;
+
+import java.time.LocalDate;
+
+public class VehicleNotAvailableException extends RuntimeException {
+
+    private final Long vehicleId;
+
+    public VehicleNotAvailableException(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        super(String.format("Vehicle %s ist von %s bis %s nicht verfügbar", vehicleId, startDate, endDate));
+        this.vehicleId = vehicleId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+}
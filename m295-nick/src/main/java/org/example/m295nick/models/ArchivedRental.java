@@ -0,0 +1,142 @@
+package org.example.m295nick.models;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Abgeschlossene Miete im Archiv (kalte Tabelle). Die ID wird aus der
+ * heissen Tabelle übernommen; das Fahrzeug wird nur als ID gespeichert
+ * (ohne Fremdschlüssel). Beim Löschen eines Fahrzeugs entfernt der
+ * VehicleService die zugehörigen Archiv-Einträge selbst.
+ */
+@Entity
+@Table(name = "rental_archive", indexes = {
+        @Index(name = "idx_rental_archive_start_date", columnList = "start_date"),
+        @Index(name = "idx_rental_archive_end_date", columnList = "end_date"),
+        @Index(name = "idx_rental_archive_customer_id", columnList = "customer_id"),
+        @Index(name = "idx_rental_archive_vehicle_id", columnList = "vehicle_id")
+})
+public class ArchivedRental {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String customer;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "total_cost", nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(name = "vehicle_id")
+    private Long vehicleId;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    public ArchivedRental() {
+    }
+
+    // Kopie aus der heissen Tabelle erstellen
+    public static ArchivedRental of(Rental rental) {
+        ArchivedRental a = new ArchivedRental();
+        a.setId(rental.getId());
+        a.setCustomer(rental.getCustomer());
+        a.setCustomerId(rental.getCustomerId());
+        a.setStartDate(rental.getStartDate());
+        a.setEndDate(rental.getEndDate());
+        a.setTotalCost(rental.getTotalCost());
+        a.setVehicleId(rental.getVehicleId());
+        a.setArchivedAt(Instant.now());
+        return a;
+    }
+
+    // Für die API wieder als (nicht verwaltetes) Rental darstellen
+    public Rental toRental() {
+        Rental r = new Rental();
+        r.setId(id);
+        r.setCustomer(customer);
+        r.setCustomerId(customerId);
+        r.setStartDate(startDate);
+        r.setEndDate(endDate);
+        r.setTotalCost(totalCost);
+        r.setVehicleId(vehicleId);
+        return r;
+    }
+
+    // Getter und Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(String customer) {
+        this.customer = customer;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Instant archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.m295nick.models;
+
+import java.time.Instant;
+
+/**
+ * Ein Eintrag im Audit-Journal (Create/Update/Delete auf Vehicle oder Rental).
+ *
+ * @param timestamp Commit-Zeitpunkt der Änderung (im Journal monoton steigend)
+ * @param entity    "Vehicle" oder "Rental"
+ * @param entityId  ID der Entität, null bei Sammel-Löschungen
+ * @param action    z. B. "CREATED", "UPDATED", "DELETED"
+ * @param payload   JSON-Zustand zum Zeitpunkt der Änderung
+ */
+public record AuditRecord(Instant timestamp, String entity, @SnowflakeJson Long entityId, String action, String payload) {
+}
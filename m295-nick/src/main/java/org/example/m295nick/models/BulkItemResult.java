@@ -0,0 +1,27 @@
+package org.example.m295nick.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Ergebnis eines Elements einer Bulk-Anfrage im Teilerfolg-Modus.
+ *
+ * @param index  Position im Request-Array (0-basiert)
+ * @param status HTTP-Status des Elements (201, 400, 404, 409, 500)
+ * @param id     ID des angelegten Elements, nur bei 201
+ * @param error  Fehlermeldung, nur bei Fehlern
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(int index, int status, @SnowflakeJson Long id, String error) {
+
+    public static BulkItemResult created(int index, Long id) {
+        return new BulkItemResult(index, 201, id, null);
+    }
+
+    public static BulkItemResult failed(int index, int status, String error) {
+        return new BulkItemResult(index, status, null, error);
+    }
+
+    public boolean isSuccess() {
+        return status == 201;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.m295nick.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Antwort (207 Multi-Status) einer Bulk-Anfrage im Teilerfolg-Modus. Für einen
+ * erneuten Versuch reicht es, die Elemente mit Fehlerstatus noch einmal zu senden.
+ *
+ * @param total     Anzahl Elemente im Request
+ * @param succeeded davon angelegt
+ * @param failed    davon abgelehnt
+ * @param items     Ergebnis pro Element, nach Index sortiert
+ */
+public record BulkResult(int total, int succeeded, int failed, List<BulkItemResult> items) {
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        int ok = (int) items.stream().filter(BulkItemResult::isSuccess).count();
+        return new BulkResult(items.size(), ok, items.size() - ok, items);
+    }
+
+    @JsonIgnore
+    public List<Integer> failedIndexes() {
+        return items.stream().filter(i -> !i.isSuccess()).map(BulkItemResult::index).toList();
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.m295nick.models;
+
+/**
+ * Kennzahlen einer Region des Hibernate Second-Level- bzw. Query-Caches.
+ *
+ * @param region           Name der Region (siehe ehcache.xml)
+ * @param hits             Treffer seit Start
+ * @param misses           Fehlgriffe seit Start
+ * @param puts             Einträge geschrieben
+ * @param elementsInMemory aktuelle Anzahl Einträge (-1, falls der Provider es nicht liefert)
+ * @param hitRatio         hits / (hits + misses), 0 ohne Zugriffe
+ */
+public record CacheRegionStats(String region, long hits, long misses, long puts, long elementsInMemory,
+                               double hitRatio) {
+}
@@ -0,0 +1,18 @@
+package org.example.m295nick.models;
+
+import org.hibernate.annotations.ValueGenerationType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Änderungsnummer für den Delta-Sync: bei jedem INSERT und UPDATE bekommt das Feld
+ * einen neuen {@link Snowflake}-Wert (zeitlich sortiert, pro Knoten eindeutig).
+ */
+@ValueGenerationType(generatedBy = ChangeSeqGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ChangeSeq {
+}
@@ -0,0 +1,32 @@
+package org.example.m295nick.models;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate-Generator für {@link ChangeSeq}. Nutzt denselben {@link Snowflake} wie die IDs.
+ */
+public class ChangeSeqGenerator implements BeforeExecutionGenerator {
+
+    private final Snowflake snowflake;
+
+    public ChangeSeqGenerator(ChangeSeq config, Member member, GeneratorCreationContext context) {
+        this.snowflake = SnowflakeIdentifierGenerator.shared(context.getServiceRegistry());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return snowflake.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_AND_UPDATE;
+    }
+}
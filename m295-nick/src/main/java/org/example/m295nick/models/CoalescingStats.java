@@ -0,0 +1,13 @@
+package org.example.m295nick.models;
+
+/**
+ * Kennzahlen des Request-Coalescing für eine Leseoperation.
+ *
+ * @param operation Name der Operation, z. B. {@code vehicle.byBrand}
+ * @param executed  tatsächlich ausgeführte Abfragen (Leader)
+ * @param coalesced Aufrufe, die das Ergebnis einer laufenden Abfrage übernommen haben
+ * @param timeouts  Mitläufer, die nach dem Timeout selbst abgefragt haben
+ * @param inFlight  aktuell laufende Abfragen dieser Operation
+ */
+public record CoalescingStats(String operation, long executed, long coalesced, long timeouts, int inFlight) {
+}
@@ -0,0 +1,60 @@
+package org.example.m295nick.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Kunden-Dimension: jeder normalisierte Kundenname bekommt genau einen Code (die ID).
+ * Rentals referenzieren ihn über {@code customer_id}, damit "alle Rentals von X"
+ * über einen Index statt über einen Textvergleich auf jeder Zeile läuft.
+ */
+@Entity
+@Table(name = "customer", indexes = {
+        @Index(name = "idx_customer_normalized_name", columnList = "normalized_name", unique = true)
+})
+public class Customer {
+
+    @Id
+    @SnowflakeId
+    @SnowflakeJson
+    private Long id;
+
+    // Name, wie er zum ersten Mal erfasst wurde
+    @Column(nullable = false)
+    private String name;
+
+    // klein, ohne Akzente, Leerzeichen zusammengefasst (siehe CustomerIndex.normalize)
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
+    public Customer() {
+    }
+
+    public Customer(String name, String normalizedName) {
+        this.name = name;
+        this.normalizedName = normalizedName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public void setNormalizedName(String normalizedName) {
+        this.normalizedName = normalizedName;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.m295nick.models;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ausgewählte Felder für {@code ?fields=id,brand,pricePerDay} (Sparse Fieldsets),
+ * in der Reihenfolge der Anfrage und ohne Duplikate.
+ */
+public final class FieldSet {
+
+    public static final List<String> VEHICLE_FIELDS = List.of(
+            "id", "brand", "model", "firstRegistration", "hasAirConditioning", "pricePerDay", "seats");
+
+    public static final List<String> RENTAL_FIELDS = List.of(
+            "id", "customer", "startDate", "endDate", "totalCost", "vehicleId");
+
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    /** Unbekannte oder fehlende Felder → IllegalArgumentException (400). */
+    public static FieldSet parse(String raw, Collection<String> allowed) {
+        Set<String> names = new LinkedHashSet<>();
+        if (raw != null) {
+            Arrays.stream(raw.split(",")).map(String::trim).filter(f -> !f.isEmpty()).forEach(names::add);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Parameter 'fields' braucht mindestens ein Feld, erlaubt: " + allowed);
+        }
+        for (String name : names) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unbekanntes Feld '" + name + "', erlaubt: " + allowed);
+            }
+        }
+        return new FieldSet(names);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FieldSet other && names.equals(other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
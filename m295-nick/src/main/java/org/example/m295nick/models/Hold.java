@@ -0,0 +1,88 @@
+package org.example.m295nick.models;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Befristete Reservation eines Fahrzeugs für einen Zeitraum (z. B. während der Bezahlung).
+ * Wird nur im Speicher gehalten und läuft nach der TTL automatisch ab.
+ */
+public class Hold {
+
+    private String id;
+
+    @NotNull(message = "Fahrzeug-ID ist Pflicht")
+    @SnowflakeJson
+    private Long vehicleId;
+
+    @NotBlank(message = "Kunde ist Pflicht")
+    private String customer;
+
+    @NotNull(message = "Startdatum ist Pflicht")
+    private LocalDate startDate;
+
+    @NotNull(message = "Enddatum ist Pflicht")
+    private LocalDate endDate;
+
+    private Instant expiresAt;
+
+    public Hold() {
+    }
+
+    // Überschneidung mit einem anderen Zeitraum (beide Enden inklusive)
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return !startDate.isAfter(end) && !endDate.isBefore(start);
+    }
+
+    // Getter und Setter
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public String getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(String customer) {
+        this.customer = customer;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
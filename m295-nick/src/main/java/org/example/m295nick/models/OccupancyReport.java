@@ -0,0 +1,19 @@
+package org.example.m295nick.models;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Belegungskalender der Flotte für einen Monat.
+ * <p>
+ * Pro Fahrzeug ein Bitset als Base64: Bit {@code d - 1} (Byte {@code (d - 1) / 8},
+ * niederwertigstes Bit zuerst) ist gesetzt, wenn das Fahrzeug am Tag {@code d}
+ * vermietet ist. Ein Monat braucht so 4 Bytes bzw. 8 Zeichen pro Fahrzeug.
+ * Fahrzeuge ohne Miete im Monat fehlen in der Map.
+ *
+ * @param month    ausgewerteter Monat
+ * @param days     Anzahl Tage des Monats (gültige Bits)
+ * @param vehicles Fahrzeug-ID (als String) → Base64-Bitset
+ */
+public record OccupancyReport(YearMonth month, int days, Map<String, String> vehicles) {
+}
@@ -0,0 +1,48 @@
+package org.example.m295nick.models;
+
+import jakarta.persistence.*;
+
+/**
+ * Zähler für die Feed-Position der Outbox (genau eine Zeile).
+ * <p>
+ * Das Relay sperrt diese Zeile, während es neue Events nummeriert. Dadurch
+ * werden Feed-Positionen in Commit-Reihenfolge sichtbar – auch mit mehreren Knoten.
+ */
+@Entity
+@Table(name = "outbox_cursor")
+public class OutboxCursor {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    public OutboxCursor() {
+    }
+
+    public OutboxCursor(Long id, long lastSeq) {
+        this.id = id;
+        this.lastSeq = lastSeq;
+    }
+
+    // Getter und Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
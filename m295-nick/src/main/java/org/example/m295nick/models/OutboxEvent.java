@@ -0,0 +1,129 @@
+package org.example.m295nick.models;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Eintrag der Transactional Outbox. Wird in derselben Transaktion wie die
+ * eigentliche Änderung an Vehicle/Rental geschrieben und danach vom Relay
+ * an die SSE-Abonnenten verteilt.
+ * <p>
+ * Die ID legt <b>nicht</b> die Reihenfolge im Feed fest: IDs werden beim Insert vergeben,
+ * sichtbar wird eine Zeile aber erst beim Commit. Die Feed-Position ({@code seq}) vergibt
+ * das Relay erst, wenn der Eintrag committet ist.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_seq", columnList = "seq", unique = true)
+})
+public class OutboxEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String ALL_DELETED = "ALL_DELETED";
+    // Sammel-Event: payload enthält alle neu berechneten Rentals eines Chunks
+    public static final String REPRICED = "REPRICED";
+    // Rückgabe-Tracking (Rental)
+    public static final String RETURNED = "RETURNED";
+    public static final String OVERDUE = "OVERDUE";
+
+    // vorab vergeben, damit Outbox-Inserts mit den Entitäten gebatcht werden;
+    // die Reihenfolge im Feed kommt aus seq, nicht aus der ID
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    // z. B. "Vehicle" oder "Rental"
+    @Column(name = "aggregate_type", nullable = false, length = 30)
+    private String aggregateType;
+
+    // null bei Sammel-Events (z. B. "alle gelöscht")
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    // z. B. "CREATED", "UPDATED", "DELETED"
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+
+    // JSON-Repräsentation der Änderung
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Feed-Position, null = noch nicht veröffentlicht
+    @Column
+    private Long seq;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    // Getter und Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+}
@@ -4,20 +4,39 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "rental")
+@Table(name = "rental", indexes = {
+        @Index(name = "idx_rental_start_date", columnList = "start_date"),
+        @Index(name = "idx_rental_end_date", columnList = "end_date"),
+        @Index(name = "idx_rental_customer_id", columnList = "customer_id"),
+        @Index(name = "idx_rental_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_rental_open_due", columnList = "returned_at, overdue_at, end_date")
+})
 public class Rental {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @SnowflakeJson
     private Long id;
 
+    // Änderungsnummer für den Delta-Sync (GET /api/v1/sync), neu bei jedem Insert/Update
+    @ChangeSeq
+    @Column(name = "change_seq")
+    @JsonIgnore
+    private Long changeSeq;
+
     @NotBlank(message = "Kunde ist Pflicht")
     @Column(nullable = false)
     private String customer;
 
+    // Code aus der Kunden-Dimension (Customer), wird beim Speichern gesetzt
+    @Column(name = "customer_id")
+    @JsonIgnore
+    private Long customerId;
+
     @NotNull(message = "Startdatum ist Pflicht")
     @Column(name = "start_date", nullable = false)
     private LocalDate startDate;
@@ -31,6 +50,13 @@ public class Rental {
     @Column(name = "total_cost", nullable = false)
     private BigDecimal totalCost;
 
+    // Rückgabe-Tracking: vom Server gesetzt, null = noch nicht zurückgegeben bzw. nicht überfällig gemeldet
+    @Column(name = "returned_at")
+    private Instant returnedAt;
+
+    @Column(name = "overdue_at")
+    private Instant overdueAt;
+
     // Fahrzeug-Relation (viele Rentals können ein Vehicle haben)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = false)
@@ -39,6 +65,7 @@ public class Rental {
 
     // Hilfsfeld: Fahrzeug-ID für JSON-Ein-/Ausgabe (nicht in DB gespeichert)
     @Transient
+    @SnowflakeJson
     private Long vehicleId;
 
     // --- Konstruktor ---
@@ -56,6 +83,14 @@ public class Rental {
         this.id = id;
     }
 
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     public String getCustomer() {
         return customer;
     }
@@ -88,6 +123,22 @@ public class Rental {
         this.totalCost = totalCost;
     }
 
+    public Instant getReturnedAt() {
+        return returnedAt;
+    }
+
+    public void setReturnedAt(Instant returnedAt) {
+        this.returnedAt = returnedAt;
+    }
+
+    public Instant getOverdueAt() {
+        return overdueAt;
+    }
+
+    public void setOverdueAt(Instant overdueAt) {
+        this.overdueAt = overdueAt;
+    }
+
     public Vehicle getVehicle() {
         return vehicle;
     }
@@ -96,6 +147,14 @@ public class Rental {
         this.vehicle = vehicle;
     }
 
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
     // vehicleId für JSON-Serialisierung und Deserialisierung
     public Long getVehicleId() {
         if (vehicle != null) {
@@ -0,0 +1,9 @@
+package org.example.m295nick.models;
+
+import java.time.LocalDate;
+
+/**
+ * Fälligkeit einer offenen Miete (nur ID und Enddatum) für die Warteschlange des OverdueTracker.
+ */
+public record RentalDue(Long rentalId, LocalDate endDate) {
+}
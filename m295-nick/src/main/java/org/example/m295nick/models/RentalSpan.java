@@ -0,0 +1,10 @@
+package org.example.m295nick.models;
+
+import java.time.LocalDate;
+
+/**
+ * Schlanke Projektion einer Miete (nur Fahrzeug und Zeitraum) für Auswertungen,
+ * damit keine vollständigen Entities geladen werden.
+ */
+public record RentalSpan(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+}
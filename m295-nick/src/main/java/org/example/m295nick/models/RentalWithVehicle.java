@@ -0,0 +1,30 @@
+package org.example.m295nick.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Antwort für {@code ?expand=vehicle}: Rental mit den wichtigsten Fahrzeugdaten inline,
+ * damit der Client keinen zusätzlichen GET pro Zeile braucht.
+ *
+ * @param vehicle Fahrzeug-Zusammenfassung, null falls das Fahrzeug nicht mehr existiert
+ */
+public record RentalWithVehicle(@SnowflakeJson Long id,
+                                String customer,
+                                LocalDate startDate,
+                                LocalDate endDate,
+                                BigDecimal totalCost,
+                                @SnowflakeJson Long vehicleId,
+                                VehicleSummary vehicle) {
+
+    public record VehicleSummary(String brand, String model, BigDecimal pricePerDay) {
+    }
+
+    /** Erwartet ein bereits geladenes Fahrzeug (kein Lazy-Loading beim Serialisieren). */
+    public static RentalWithVehicle of(Rental r) {
+        Vehicle v = r.getVehicle();
+        VehicleSummary summary = v == null ? null : new VehicleSummary(v.getBrand(), v.getModel(), v.getPricePerDay());
+        return new RentalWithVehicle(r.getId(), r.getCustomer(), r.getStartDate(), r.getEndDate(),
+                r.getTotalCost(), r.getVehicleId(), summary);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.m295nick.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Ergebnis einer Neuberechnung von totalCost (für ein Fahrzeug oder die ganze Flotte).
+ */
+public class RepricingResult {
+
+    @SnowflakeJson
+    private Long vehicleId;
+    private boolean dryRun;
+    private long rentalsChecked;
+    private long rentalsChanged;
+    private BigDecimal oldTotal = BigDecimal.ZERO;
+    private BigDecimal newTotal = BigDecimal.ZERO;
+
+    public RepricingResult() {
+    }
+
+    public RepricingResult(Long vehicleId, boolean dryRun) {
+        this.vehicleId = vehicleId;
+        this.dryRun = dryRun;
+    }
+
+    // Eine Miete in die Summen aufnehmen
+    public void add(BigDecimal oldCost, BigDecimal newCost) {
+        rentalsChecked++;
+        if (oldCost.compareTo(newCost) != 0) {
+            rentalsChanged++;
+        }
+        oldTotal = oldTotal.add(oldCost);
+        newTotal = newTotal.add(newCost);
+    }
+
+    public BigDecimal getDelta() {
+        return newTotal.subtract(oldTotal);
+    }
+
+    // Getter und Setter
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public long getRentalsChecked() {
+        return rentalsChecked;
+    }
+
+    public void setRentalsChecked(long rentalsChecked) {
+        this.rentalsChecked = rentalsChecked;
+    }
+
+    public long getRentalsChanged() {
+        return rentalsChanged;
+    }
+
+    public void setRentalsChanged(long rentalsChanged) {
+        this.rentalsChanged = rentalsChanged;
+    }
+
+    public BigDecimal getOldTotal() {
+        return oldTotal;
+    }
+
+    public void setOldTotal(BigDecimal oldTotal) {
+        this.oldTotal = oldTotal;
+    }
+
+    public BigDecimal getNewTotal() {
+        return newTotal;
+    }
+
+    public void setNewTotal(BigDecimal newTotal) {
+        this.newTotal = newTotal;
+    }
+}
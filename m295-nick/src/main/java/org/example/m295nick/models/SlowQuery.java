@@ -0,0 +1,18 @@
+package org.example.m295nick.models;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Eine einzelne langsame Abfrage aus dem Slow-Query-Log.
+ *
+ * @param at               Zeitpunkt der Ausführung
+ * @param sql              SQL mit Platzhaltern, wie vom Treiber ausgeführt
+ * @param parameters       gebundene Werte in Platzhalter-Reihenfolge (gekürzt)
+ * @param durationMs       Ausführungsdauer
+ * @param repositoryMethod auslösende Repository-Methode, z. B. {@code RentalRepository.findByEndDateBefore}
+ * @param serviceMethod    aufrufende Service-Methode, z. B. {@code RentalServiceImpl.getByEndDateBefore}
+ */
+public record SlowQuery(Instant at, String sql, List<String> parameters, long durationMs,
+                        String repositoryMethod, String serviceMethod) {
+}
@@ -0,0 +1,19 @@
+package org.example.m295nick.models;
+
+import java.util.List;
+
+/**
+ * Aggregat aller langsamen Ausführungen einer Abfrageform (SQL ohne Werte, IN-Listen zusammengefasst).
+ *
+ * @param shape            normalisiertes SQL
+ * @param repositoryMethod zuletzt beobachtete Repository-Methode
+ * @param count            Anzahl langsamer Ausführungen
+ * @param totalMs          Summe der Dauer
+ * @param maxMs            längste Ausführung
+ * @param avgMs            Durchschnitt
+ * @param plan             zuletzt erfasster EXPLAIN-Plan (null, solange noch keiner vorliegt)
+ * @param suggestions      aus dem Plan abgeleitete Index-Vorschläge
+ */
+public record SlowQueryShape(String shape, String repositoryMethod, long count, long totalMs, long maxMs,
+                             double avgMs, String plan, List<String> suggestions) {
+}
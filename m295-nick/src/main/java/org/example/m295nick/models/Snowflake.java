@@ -0,0 +1,92 @@
+package org.example.m295nick.models;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Zeitlich sortierte 64-Bit-IDs im Snowflake-Format:
+ * {@code 41 Bit Millisekunden seit EPOCH | 10 Bit Node-ID | 12 Bit Sequenz}.
+ * <p>
+ * Jeder App-Knoten bekommt eine eigene Node-ID, dadurch sind IDs ohne
+ * Datenbank-Roundtrip und ohne Koordination eindeutig. Läuft die Uhr kurz
+ * rückwärts (NTP-Korrektur), wird bis zu {@link #MAX_BACKWARD_MS} gewartet,
+ * bei grösseren Sprüngen wird abgebrochen statt doppelte IDs zu riskieren.
+ * <p>
+ * Hinweis: die Werte sind grösser als 2^53 und damit in JavaScript-Numbers nicht exakt darstellbar.
+ */
+public final class Snowflake {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    public static final long MAX_BACKWARD_MS = 5;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public Snowflake(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public Snowflake(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node-ID muss zwischen 0 und " + MAX_NODE_ID + " liegen: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now < lastMillis) {
+            long skew = lastMillis - now;
+            if (skew > MAX_BACKWARD_MS) {
+                throw new IllegalStateException("Uhr läuft " + skew + " ms rückwärts, ID-Vergabe abgelehnt");
+            }
+            now = waitUntil(lastMillis);
+        }
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // 4096 IDs in dieser Millisekunde vergeben → auf die nächste warten
+                now = waitUntil(lastMillis + 1);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    // Zerlegung einer ID, z. B. für Diagnose
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    /** Grösste mögliche ID zum Zeitpunkt {@code epochMillis} (alle Knoten, volle Sequenz). */
+    public static long maxIdAt(long epochMillis) {
+        return ((epochMillis - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | ((1L << (NODE_BITS + SEQUENCE_BITS)) - 1);
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    private long waitUntil(long target) {
+        long now = clock.getAsLong();
+        while (now < target) {
+            Thread.onSpinWait();
+            now = clock.getAsLong();
+        }
+        return now;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.m295nick.models;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert eine ID, die vor dem INSERT per {@link Snowflake} vergeben wird
+ * (statt {@code GenerationType.IDENTITY}). Dadurch kann Hibernate Inserts batchen.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
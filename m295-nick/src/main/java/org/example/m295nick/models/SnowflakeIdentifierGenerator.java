@@ -0,0 +1,71 @@
+package org.example.m295nick.models;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate-Generator für {@link SnowflakeId}. Die Node-ID kommt aus der
+ * Hibernate-Einstellung {@code snowflake.node-id}
+ * (in Spring: {@code spring.jpa.properties.snowflake.node-id}); ohne sie startet die App nicht.
+ * Alle Entitäten eines Knotens teilen sich einen {@link Snowflake}.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+
+    public static final String NODE_ID_SETTING = "snowflake.node-id";
+
+    private static final Map<Long, Snowflake> INSTANCES = new ConcurrentHashMap<>();
+
+    private final Snowflake snowflake;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.snowflake = shared(context.getServiceRegistry());
+    }
+
+    // Ein Snowflake pro Node-ID, auch für ChangeSeqGenerator: so sind alle Werte eines Knotens eindeutig
+    static Snowflake shared(ServiceRegistry serviceRegistry) {
+        ConfigurationService settings = serviceRegistry.requireService(ConfigurationService.class);
+        long node = parseNodeId(settings.getSettings().get(NODE_ID_SETTING));
+        return INSTANCES.computeIfAbsent(node, Snowflake::new);
+    }
+
+    /**
+     * Liest die Node-ID aus der Konfiguration. Kein stiller Default: zwei Instanzen mit
+     * derselben Node-ID würden doppelte IDs erzeugen.
+     */
+    public static long parseNodeId(Object nodeId) {
+        if (nodeId == null || nodeId.toString().isBlank()) {
+            throw new IllegalStateException("Keine Snowflake-Node-ID konfiguriert: SNOWFLAKE_NODE_ID bzw. "
+                    + "spring.jpa.properties." + NODE_ID_SETTING + " setzen (0-" + Snowflake.MAX_NODE_ID + ")");
+        }
+        try {
+            long node = Long.parseLong(nodeId.toString().trim());
+            if (node < 0 || node > Snowflake.MAX_NODE_ID) {
+                throw new IllegalStateException("Snowflake-Node-ID muss zwischen 0 und " + Snowflake.MAX_NODE_ID
+                        + " liegen: " + node);
+            }
+            return node;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Ungültige Snowflake-Node-ID: " + nodeId, e);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return snowflake.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
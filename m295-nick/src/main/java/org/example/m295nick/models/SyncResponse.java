@@ -0,0 +1,19 @@
+package org.example.m295nick.models;
+
+import java.util.List;
+
+/**
+ * Antwort von {@code GET /api/v1/sync}. Der Client wendet zuerst die Tombstones an,
+ * danach die Entitäten (Upsert nach ID), und merkt sich {@code token} für den nächsten Aufruf.
+ *
+ * @param token      Änderungsnummer für den nächsten Aufruf ({@code ?since=})
+ * @param full       true: vollständiger Stand, lokale Daten vorher verwerfen
+ *                   (erster Sync oder Token älter als die Tombstone-Aufbewahrung)
+ * @param hasMore    true: Seite voll, sofort mit {@code token} weiterlesen
+ * @param vehicles   neue oder geänderte Fahrzeuge
+ * @param rentals    neue oder geänderte Rentals
+ * @param tombstones Löschungen ({@code entityId == null}: alle des Typs)
+ */
+public record SyncResponse(String token, boolean full, boolean hasMore,
+                           List<Vehicle> vehicles, List<Rental> rentals, List<Tombstone> tombstones) {
+}
@@ -0,0 +1,78 @@
+package org.example.m295nick.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Löschmarke für den Delta-Sync. Die ID ist zugleich die Änderungsnummer
+ * (gleicher Snowflake wie {@link ChangeSeq}), damit Tombstones und geänderte
+ * Entitäten in einer gemeinsamen Reihenfolge stehen.
+ * <p>
+ * {@code entityId == null} bedeutet: alle Entitäten dieses Typs wurden gelöscht.
+ */
+@Entity
+@Table(name = "sync_tombstone", indexes = {
+        @Index(name = "idx_sync_tombstone_deleted_at", columnList = "deleted_at")
+})
+public class Tombstone {
+
+    @Id
+    @SnowflakeId
+    @JsonIgnore
+    private Long id;
+
+    // "Vehicle" oder "Rental"
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    @SnowflakeJson
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone() {
+    }
+
+    public Tombstone(String entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = Instant.now();
+    }
+
+    // Getter und Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -3,19 +3,32 @@ package org.example.m295nick.models;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "vehicle")
+@Table(name = "vehicle", indexes = {
+        @Index(name = "idx_vehicle_change_seq", columnList = "change_seq")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicle") // Referenzdaten, siehe ehcache.xml
 public class Vehicle {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @SnowflakeJson
     private Long id;
 
+    // Änderungsnummer für den Delta-Sync (GET /api/v1/sync), neu bei jedem Insert/Update
+    @ChangeSeq
+    @Column(name = "change_seq")
+    @JsonIgnore
+    private Long changeSeq;
+
     @NotBlank(message = "Die Marke darf nicht leer sein")
     @Size(max = 50, message = "Die Marke darf maximal 50 Zeichen lang sein")
     @Column(nullable = false, length = 50)
@@ -70,6 +83,14 @@ public class Vehicle {
         this.id = id;
     }
 
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     public String getBrand() {
         return brand;
     }
@@ -0,0 +1,103 @@
+package org.example.m295nick.models;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Metadaten zu einem Foto oder Dokument eines Fahrzeugs. Der Inhalt liegt nicht in der DB,
+ * sondern content-adressiert (SHA-256) im {@code MediaStore} auf der Platte.
+ */
+@Entity
+@Table(name = "vehicle_media", indexes = {
+        @Index(name = "idx_vehicle_media_vehicle_id", columnList = "vehicle_id"),
+        @Index(name = "idx_vehicle_media_sha256", columnList = "sha256")
+})
+public class VehicleMedia {
+
+    @Id
+    @SnowflakeId
+    @SnowflakeJson
+    private Long id;
+
+    // Bewusst ohne Fremdschlüssel: im Profil "inmemory" liegen die Fahrzeuge nicht in der DB
+    @Column(name = "vehicle_id", nullable = false)
+    @SnowflakeJson
+    private Long vehicleId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    // Hex-SHA-256 des Inhalts, zugleich Dateiname im Store und ETag
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public VehicleMedia() {
+    }
+
+    // --- Getter / Setter ---
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.m295nick.repositories;
+
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.RentalSpan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedRentalRepository extends JpaRepository<ArchivedRental, Long> {
+
+    List<ArchivedRental> findByStartDateAfter(LocalDate date);
+
+    List<ArchivedRental> findByEndDateBefore(LocalDate date);
+
+    List<ArchivedRental> findByCustomerIdIn(Collection<Long> customerIds);
+
+    // Nachtrag der Kunden-Codes für Altbestände
+    List<ArchivedRental> findByCustomerIdIsNullOrderByIdAsc(Pageable pageable);
+
+    @Query("select new org.example.m295nick.models.RentalSpan(a.vehicleId, a.startDate, a.endDate) from ArchivedRental a "
+            + "where a.startDate <= :to and a.endDate >= :from")
+    List<RentalSpan> findSpansOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Archiv-Einträge gelöschter Fahrzeuge (idx_rental_archive_vehicle_id)
+    @Query("select a.id from ArchivedRental a where a.vehicleId in :vehicleIds")
+    List<Long> findIdsByVehicleIdIn(@Param("vehicleIds") Collection<Long> vehicleIds);
+
+    // Datumsbereich des Archivs, um unnötige Archiv-Abfragen zu vermeiden
+    @Query("select min(a.endDate) from ArchivedRental a")
+    LocalDate findMinEndDate();
+
+    @Query("select max(a.endDate) from ArchivedRental a")
+    LocalDate findMaxEndDate();
+}
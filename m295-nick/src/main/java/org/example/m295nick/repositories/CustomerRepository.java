@@ -0,0 +1,13 @@
+package org.example.m295nick.repositories;
+
+import org.example.m295nick.models.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    Optional<Customer> findByNormalizedName(String normalizedName);
+}
@@ -0,0 +1,20 @@
+package org.example.m295nick.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.example.m295nick.models.OutboxCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxCursorRepository extends JpaRepository<OutboxCursor, Long> {
+
+    // Sperrt den Zähler bis zum Commit: nur ein Relay nummeriert gleichzeitig
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from OutboxCursor c where c.id = :id")
+    Optional<OutboxCursor> findForUpdate(@Param("id") Long id);
+}
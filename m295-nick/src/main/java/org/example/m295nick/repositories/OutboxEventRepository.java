@@ -0,0 +1,29 @@
+package org.example.m295nick.repositories;
+
+import org.example.m295nick.models.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Committete, aber noch nicht nummerierte Events
+    List<OutboxEvent> findTop500BySeqIsNullOrderByIdAsc();
+
+    // Nächster Block veröffentlichter Events (aufsteigend nach Feed-Position)
+    List<OutboxEvent> findTop500BySeqGreaterThanOrderBySeqAsc(Long seq);
+
+    @Query("select coalesce(max(e.seq), 0) from OutboxEvent e")
+    Long findMaxSeq();
+
+    // Aufräumen: nur bereits veröffentlichte Events nach Ablauf der Aufbewahrungsfrist löschen
+    @Modifying
+    @Query("delete from OutboxEvent e where e.seq is not null and e.createdAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
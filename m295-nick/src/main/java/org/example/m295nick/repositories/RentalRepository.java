@@ -1,9 +1,19 @@
 package org.example.m295nick.repositories;
 
 import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RentalDue;
+import org.example.m295nick.models.RentalSpan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RentalRepository extends JpaRepository<Rental, Long> {
 
@@ -12,4 +22,71 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
 
     // Filter: alle Rentals, die vor einem bestimmten Enddatum enden
     List<Rental> findByEndDateBefore(LocalDate date);
+
+    // Kundensuche über den Index auf customer_id statt Textvergleich auf jeder Zeile
+    List<Rental> findByCustomerIdIn(Collection<Long> customerIds);
+
+    // Nachtrag der Kunden-Codes für Rentals, die vor der Kunden-Dimension erfasst wurden
+    List<Rental> findByCustomerIdIsNullOrderByIdAsc(Pageable pageable);
+
+    // ?expand=vehicle: Fahrzeug im selben Query mitladen (Join statt Lazy-Proxy pro Zeile)
+    @EntityGraph(attributePaths = "vehicle")
+    Optional<Rental> findWithVehicleById(Long id);
+
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("select r from Rental r")
+    List<Rental> findAllWithVehicle();
+
+    @EntityGraph(attributePaths = "vehicle")
+    List<Rental> findWithVehicleByStartDateAfter(LocalDate date);
+
+    @EntityGraph(attributePaths = "vehicle")
+    List<Rental> findWithVehicleByEndDateBefore(LocalDate date);
+
+    // Belegung: nur Fahrzeug und Zeitraum aller Rentals, die den Bereich überschneiden
+    @Query("select new org.example.m295nick.models.RentalSpan(r.vehicle.id, r.startDate, r.endDate) from Rental r "
+            + "where r.startDate <= :to and r.endDate >= :from")
+    List<RentalSpan> findSpansOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Rückgabe-Tracking: offene, noch nicht gemeldete Fälligkeiten bis bzw. im Bereich (after, until] (idx_rental_open_due)
+    @Query("select new org.example.m295nick.models.RentalDue(r.id, r.endDate) from Rental r "
+            + "where r.returnedAt is null and r.overdueAt is null and r.endDate <= :until")
+    List<RentalDue> findOpenDueUntil(@Param("until") LocalDate until);
+
+    @Query("select new org.example.m295nick.models.RentalDue(r.id, r.endDate) from Rental r "
+            + "where r.returnedAt is null and r.overdueAt is null and r.endDate > :after and r.endDate <= :until")
+    List<RentalDue> findOpenDueBetween(@Param("after") LocalDate after, @Param("until") LocalDate until);
+
+    // Überfällig-Markierung: Zeilen sperren, damit eine parallele Rückgabe oder Verlängerung nicht überschrieben wird
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Rental r where r.id in :ids order by r.id")
+    List<Rental> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Überfällig: Enddatum verstrichen, nicht zurückgegeben
+    List<Rental> findByReturnedAtIsNullAndEndDateBeforeOrderByEndDateAsc(LocalDate today);
+
+    // Delta-Sync: Änderungen im Bereich (since, upto], nach Änderungsnummer
+    @Query("select r from Rental r where r.changeSeq > :since and r.changeSeq <= :upto order by r.changeSeq")
+    List<Rental> findChangedBetween(@Param("since") Long since, @Param("upto") Long upto, Pageable pageable);
+
+    List<Rental> findByChangeSeqIsNull(Pageable pageable);
+
+    // Archivierung: nächster Block abgeschlossener Rentals (nach ID, damit die Batches stabil sind)
+    List<Rental> findByEndDateBeforeOrderByIdAsc(LocalDate date, Pageable pageable);
+
+    // Repricing: offene/zukünftige Rentals (optional eines Fahrzeugs) chunkweise per Keyset, Fahrzeug gleich mitladen
+    @Query("select r from Rental r join fetch r.vehicle v "
+            + "where r.endDate >= :from and r.id > :afterId and (:vehicleId is null or v.id = :vehicleId) "
+            + "order by r.id")
+    List<Rental> findOpenChunk(@Param("vehicleId") Long vehicleId,
+                               @Param("from") LocalDate from,
+                               @Param("afterId") Long afterId,
+                               Pageable pageable);
+
+    // Verfügbarkeit: gibt es für das Fahrzeug eine Miete, die den Zeitraum überschneidet?
+    @Query("select count(r) > 0 from Rental r where r.vehicle.id = :vehicleId "
+            + "and r.startDate <= :endDate and r.endDate >= :startDate")
+    boolean existsOverlapping(@Param("vehicleId") Long vehicleId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
 }
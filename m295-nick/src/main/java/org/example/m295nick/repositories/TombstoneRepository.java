@@ -0,0 +1,23 @@
+package org.example.m295nick.repositories;
+
+import org.example.m295nick.models.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("select t from Tombstone t where t.id > :since and t.id <= :upto order by t.id")
+    List<Tombstone> findChangedBetween(@Param("since") Long since, @Param("upto") Long upto, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") Instant before);
+}
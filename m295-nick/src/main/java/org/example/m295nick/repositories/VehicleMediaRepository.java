@@ -0,0 +1,22 @@
+package org.example.m295nick.repositories;
+
+import org.example.m295nick.models.VehicleMedia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VehicleMediaRepository extends JpaRepository<VehicleMedia, Long> {
+
+    List<VehicleMedia> findByVehicleIdOrderByIdAsc(Long vehicleId);
+
+    List<VehicleMedia> findByVehicleIdIn(Collection<Long> vehicleIds);
+
+    Optional<VehicleMedia> findByIdAndVehicleId(Long id, Long vehicleId);
+
+    // Wird der Inhalt noch von einem anderen Eintrag referenziert? (Deduplizierung im MediaStore)
+    boolean existsBySha256(String sha256);
+}
@@ -1,13 +1,37 @@
 package org.example.m295nick.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.example.m295nick.models.Vehicle;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+
+    // Query-Cache: Hibernate verwirft die Ergebnisse, sobald die Tabelle vehicle geändert wird
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vehicle-queries")
+    })
     List<Vehicle> findByHasAirConditioning(Boolean hasAirConditioning);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vehicle-queries")
+    })
     List<Vehicle> findByBrandContainingIgnoreCase(String brand);
+
+    // Delta-Sync: Änderungen im Bereich (since, upto], nach Änderungsnummer
+    @Query("select v from Vehicle v where v.changeSeq > :since and v.changeSeq <= :upto order by v.changeSeq")
+    List<Vehicle> findChangedBetween(@Param("since") Long since, @Param("upto") Long upto, Pageable pageable);
+
+    // Nachtrag der Änderungsnummer für Zeilen von vor dem Delta-Sync
+    List<Vehicle> findByChangeSeqIsNull(Pageable pageable);
 }
@@ -0,0 +1,263 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.m295nick.models.AuditRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only Audit-Journal über memory-mapped Segmentdateien.
+ * <p>
+ * Aufrufer legen Einträge nur in einen begrenzten Ring-Puffer; ein einzelner
+ * Writer-Thread schreibt sie ins aktuelle Segment. So kostet ein Audit-Eintrag
+ * auf dem Request-Pfad keinen Datenbank- oder Datei-Roundtrip.
+ * <p>
+ * Format pro Eintrag: {@code int länge | int crc32 | body}, body =
+ * {@code long ts | short len + entity | long id (-1 = null) | short len + action | int len + payload}.
+ * Ein Längenfeld 0 markiert das Ende der geschriebenen Daten im Segment.
+ */
+@Component
+public class AuditJournal {
+
+    public enum FsyncPolicy { NONE, BATCH, INTERVAL }
+
+    static final int HEADER_BYTES = 8;
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+    private static final long POLL_MS = 100;
+    private static final int MAX_BATCH = 256;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+    private final boolean enabled;
+    private final BlockingQueue<AuditRecord> ring;
+
+    private Thread writer;
+    private volatile boolean running;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentIndex;
+    private long lastForce;
+    // Seit dem letzten force() geschrieben (volatile, damit Tests den Stand lesen können)
+    private volatile boolean unsynced;
+    // Zeitstempel des zuletzt geschriebenen Eintrags; das Journal ist danach sortiert
+    private long lastTimestamp;
+
+    public AuditJournal(@Value("${audit.journal.dir:data/audit}") String directory,
+                        @Value("${audit.journal.segment-bytes:67108864}") int segmentBytes,
+                        @Value("${audit.journal.ring-capacity:65536}") int ringCapacity,
+                        @Value("${audit.journal.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+                        @Value("${audit.journal.fsync-interval-ms:1000}") long fsyncIntervalMs,
+                        @Value("${audit.journal.enabled:true}") boolean enabled) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.enabled = enabled;
+        this.ring = new ArrayBlockingQueue<>(ringCapacity);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> segments = AuditJournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0, 0);
+        } else {
+            // Am Ende des letzten Segments weiterschreiben (kaputter Rest wird überschrieben)
+            Path last = segments.get(segments.size() - 1);
+            long index = AuditJournalReader.segmentIndex(last);
+            openSegment(index, AuditJournalReader.validEnd(last));
+            List<AuditRecord> vorhandene = AuditJournalReader.readSegment(last);
+            if (!vorhandene.isEmpty()) {
+                lastTimestamp = vorhandene.get(vorhandene.size() - 1).timestamp().toEpochMilli();
+            }
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Audit-Journal gestartet in {} (Segment {}, fsync={})", directory, segmentIndex, fsyncPolicy);
+    }
+
+    /** Eintrag anhängen. Blockiert nur, wenn der Ring-Puffer voll ist (Backpressure statt Datenverlust). */
+    public void append(AuditRecord record) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ring.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Audit-Eintrag verworfen (unterbrochen): {} {}", record.entity(), record.entityId());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        // Kein interrupt(): ein Interrupt während FileChannel-I/O schliesst den Kanal (ClosedByInterruptException)
+        running = false;
+        writer.join(5000);
+        // Rest nach Thread-Ende synchron wegschreiben
+        List<AuditRecord> rest = new ArrayList<>();
+        ring.drainTo(rest);
+        for (AuditRecord r : rest) {
+            write(r);
+        }
+        force();
+        channel.close();
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                AuditRecord first = ring.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // auch im Leerlauf: bei INTERVAL dürfen die letzten Einträge nicht ungesichert bleiben
+                    maybeForce();
+                    continue;
+                }
+                batch.add(first);
+                ring.drainTo(batch, MAX_BATCH - 1);
+                for (AuditRecord r : batch) {
+                    write(r);
+                }
+                batch.clear();
+                maybeForce();
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Audit-Journal: Schreibfehler", e);
+                batch.clear();
+            }
+        }
+    }
+
+    void write(AuditRecord record) {
+        /*
+         * Commits (und damit Appends) verschiedener Threads kommen nicht streng nach Zeit
+         * sortiert an. Der Leser überspringt Segmente anhand des ersten Zeitstempels, daher
+         * hält der Writer die Zeitstempel monoton (ein verspäteter Eintrag wird angehoben).
+         */
+        long ts = Math.max(record.timestamp().toEpochMilli(), lastTimestamp);
+        if (ts != record.timestamp().toEpochMilli()) {
+            record = new AuditRecord(Instant.ofEpochMilli(ts), record.entity(), record.entityId(),
+                    record.action(), record.payload());
+        }
+        byte[] body = encode(record);
+        int total = HEADER_BYTES + body.length;
+        if (total + 4 > segmentBytes) {
+            logger.error("Audit-Eintrag zu gross für ein Segment ({} Bytes), verworfen", total);
+            return;
+        }
+        // Platz für den Eintrag plus Endmarker (Länge 0) muss im Segment bleiben
+        if (buffer.remaining() < total + 4) {
+            rollover();
+        }
+        int start = buffer.position();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        buffer.position(start + 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(body);
+        // Endmarker sicherstellen (nach einem Neustart kann dahinter noch Restmüll liegen)
+        buffer.putInt(start + total, 0);
+        // vor dem Sichtbarwerden markieren: wer den Eintrag lesen kann, sieht ihn auch als ungesichert
+        unsynced = true;
+        // Länge zuletzt schreiben: ein Leser sieht den Eintrag erst, wenn er vollständig ist
+        buffer.putInt(start, body.length);
+        lastTimestamp = ts;
+    }
+
+    static byte[] encode(AuditRecord record) {
+        byte[] entity = record.entity().getBytes(StandardCharsets.UTF_8);
+        byte[] action = record.action().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = record.payload() == null ? new byte[0] : record.payload().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer b = ByteBuffer.allocate(8 + 2 + entity.length + 8 + 2 + action.length + 4 + payload.length);
+        b.putLong(record.timestamp().toEpochMilli());
+        b.putShort((short) entity.length).put(entity);
+        b.putLong(record.entityId() == null ? -1L : record.entityId());
+        b.putShort((short) action.length).put(action);
+        b.putInt(payload.length).put(payload);
+        return b.array();
+    }
+
+    private void maybeForce() {
+        if (!unsynced) {
+            return;
+        }
+        switch (fsyncPolicy) {
+            case BATCH -> force();
+            case INTERVAL -> {
+                long now = System.currentTimeMillis();
+                if (now - lastForce >= fsyncIntervalMs) {
+                    force();
+                    lastForce = now;
+                }
+            }
+            case NONE -> {
+                // Betriebssystem entscheidet über das Zurückschreiben
+            }
+        }
+    }
+
+    private void force() {
+        buffer.force();
+        unsynced = false;
+    }
+
+    // Für Tests: gibt es geschriebene, aber noch nicht gesicherte Einträge?
+    boolean hasUnsyncedWrites() {
+        return unsynced;
+    }
+
+    private void rollover() {
+        try {
+            force();
+            channel.close();
+            openSegment(segmentIndex + 1, 0);
+            logger.info("Audit-Journal: neues Segment {}", segmentIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment(long index, int position) throws IOException {
+        Path file = directory.resolve(AuditJournalReader.segmentName(index));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        buffer.position(position);
+        segmentIndex = index;
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.AuditRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Liest das Audit-Journal (siehe {@link AuditJournal}) und filtert nach Entität und Zeitraum.
+ * <p>
+ * Kann auch als Kommandozeilenwerkzeug verwendet werden:
+ * <pre>
+ * java -cp m295-nick.jar -Dloader.main=org.example.m295nick.services.AuditJournalReader \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      --dir=data/audit --entity=Rental --id=42 --from=2025-01-01T00:00:00Z --to=2025-02-01T00:00:00Z
+ * </pre>
+ */
+public final class AuditJournalReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournalReader.class);
+
+    private AuditJournalReader() {
+    }
+
+    /**
+     * Alle Einträge lesen, die den Filtern entsprechen (null = kein Filter).
+     * Segmente, die vollständig vor {@code from} liegen, werden übersprungen.
+     */
+    public static List<AuditRecord> read(Path directory, String entity, Long entityId,
+                                         Instant from, Instant to, int limit) {
+        Predicate<AuditRecord> filter = r ->
+                (entity == null || entity.equalsIgnoreCase(r.entity()))
+                        && (entityId == null || entityId.equals(r.entityId()))
+                        && (from == null || !r.timestamp().isBefore(from))
+                        && (to == null || r.timestamp().isBefore(to));
+        List<AuditRecord> result = new ArrayList<>();
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size() && result.size() < limit; i++) {
+            // Beginnt schon das nächste Segment vor "from", enthält dieses keine Treffer
+            // (beginnt es genau bei "from", kann dieses noch Einträge mit Zeitstempel == from haben)
+            if (from != null && i + 1 < segments.size()) {
+                Instant nextFirst = firstTimestamp(segments.get(i + 1));
+                if (nextFirst != null && nextFirst.isBefore(from)) {
+                    continue;
+                }
+            }
+            for (AuditRecord r : readSegment(segments.get(i))) {
+                if (filter.test(r)) {
+                    result.add(r);
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Alle gültigen Einträge eines Segments; bricht beim ersten CRC-Fehler ab. */
+    public static List<AuditRecord> readSegment(Path segment) {
+        List<AuditRecord> records = new ArrayList<>();
+        scan(segment, records);
+        return records;
+    }
+
+    // ─── Segment-Verwaltung (auch vom Writer genutzt) ───
+
+    static List<Path> listSegments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(AuditJournal.SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(AuditJournal.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String segmentName(long index) {
+        return String.format("%s%020d%s", AuditJournal.SEGMENT_PREFIX, index, AuditJournal.SEGMENT_SUFFIX);
+    }
+
+    static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(AuditJournal.SEGMENT_PREFIX.length(),
+                name.length() - AuditJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    /** Position direkt hinter dem letzten gültigen Eintrag. */
+    static int validEnd(Path segment) {
+        return scan(segment, null);
+    }
+
+    private static Instant firstTimestamp(Path segment) {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (ch.size() < AuditJournal.HEADER_BYTES + 8) {
+                return null;
+            }
+            ByteBuffer b = ByteBuffer.allocate(AuditJournal.HEADER_BYTES + 8);
+            ch.read(b, 0);
+            return b.getInt(0) == 0 ? null : Instant.ofEpochMilli(b.getLong(AuditJournal.HEADER_BYTES));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int scan(Path segment, List<AuditRecord> out) {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            int pos = 0;
+            while (pos + AuditJournal.HEADER_BYTES <= buf.limit()) {
+                int length = buf.getInt(pos);
+                if (length <= 0 || pos + AuditJournal.HEADER_BYTES + length > buf.limit()) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                buf.get(pos + AuditJournal.HEADER_BYTES, body);
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != buf.getInt(pos + 4)) {
+                    logger.warn("Audit-Journal: CRC-Fehler in {} bei Position {}", segment.getFileName(), pos);
+                    break;
+                }
+                if (out != null) {
+                    out.add(decode(body));
+                }
+                pos += AuditJournal.HEADER_BYTES + length;
+            }
+            return pos;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static AuditRecord decode(byte[] body) {
+        ByteBuffer b = ByteBuffer.wrap(body);
+        Instant ts = Instant.ofEpochMilli(b.getLong());
+        String entity = readString(b, b.getShort());
+        long id = b.getLong();
+        String action = readString(b, b.getShort());
+        String payload = readString(b, b.getInt());
+        return new AuditRecord(ts, entity, id == -1L ? null : id, action, payload);
+    }
+
+    private static String readString(ByteBuffer b, int length) {
+        byte[] bytes = new byte[length];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ─── CLI ───
+
+    public static void main(String[] args) {
+        String dir = "data/audit";
+        String entity = null;
+        Long id = null;
+        Instant from = null;
+        Instant to = null;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            String value = kv.length > 1 ? kv[1] : "";
+            switch (kv[0]) {
+                case "--dir" -> dir = value;
+                case "--entity" -> entity = value;
+                case "--id" -> id = Long.valueOf(value);
+                case "--from" -> from = Instant.parse(value);
+                case "--to" -> to = Instant.parse(value);
+                default -> {
+                    System.err.println("Unbekanntes Argument: " + arg);
+                    System.err.println("Verwendung: --dir=<pfad> [--entity=Vehicle|Rental] [--id=<id>] [--from=<ISO>] [--to=<ISO>]");
+                    System.exit(2);
+                }
+            }
+        }
+        for (AuditRecord r : read(Path.of(dir), entity, id, from, to, Integer.MAX_VALUE)) {
+            System.out.println(r.timestamp() + "\t" + r.entity() + "\t" + r.entityId() + "\t" + r.action() + "\t" + r.payload());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.m295nick.services;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.m295nick.exceptions.RentalArchivedException;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.BulkItemResult;
+import org.example.m295nick.models.BulkResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-Anlage mit Teilerfolg: erst werden alle Elemente geprüft (Bean Validation und
+ * die fachliche Prüfung des Aufrufers), danach die gültigen in Blöcken zu je
+ * {@code bulk.batch-size} gespeichert, jeder Block in einer eigenen Transaktion.
+ * Scheitert ein Block beim Speichern, werden seine Elemente einzeln wiederholt,
+ * damit nur das fehlerhafte Element abgelehnt wird.
+ * <p>
+ * Fehler werden wie im {@code RestExceptionHandler} auf HTTP-Status abgebildet.
+ */
+@Component
+public class BulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkWriter.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int batchSize;
+
+    public BulkWriter(PlatformTransactionManager transactionManager,
+                      Validator validator,
+                      @Value("${bulk.batch-size:500}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param items     Elemente in Request-Reihenfolge
+     * @param prepare   fachliche Prüfung und Vorbereitung eines Elements, wirft bei Fehlern
+     *                  (dieselben Exceptions wie beim Einzel-Create)
+     * @param saveChunk speichert einen Block innerhalb der Transaktion und liefert die gespeicherten Elemente
+     * @param idOf      ID eines gespeicherten Elements
+     * @param resetId   setzt die ID vor einem Einzelversuch zurück (wurde beim gescheiterten Block vergeben)
+     */
+    public <T> BulkResult write(List<T> items,
+                                Consumer<T> prepare,
+                                Function<List<T>, List<T>> saveChunk,
+                                Function<T, Long> idOf,
+                                Consumer<T> resetId) {
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Integer> valid = new ArrayList<>(items.size());
+
+        // 1) Alles vorab prüfen, ohne etwas zu schreiben
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = BulkItemResult.failed(i, 400, "Element fehlt");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                results[i] = BulkItemResult.failed(i, 400, describe(violations));
+                continue;
+            }
+            try {
+                prepare.accept(item);
+                valid.add(i);
+            } catch (RuntimeException e) {
+                results[i] = BulkItemResult.failed(i, statusOf(e), e.getMessage());
+            }
+        }
+
+        // 2) Gültige Elemente blockweise speichern
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            List<T> chunkItems = chunk.stream().map(items::get).toList();
+            try {
+                List<T> saved = transactionTemplate.execute(status -> saveChunk.apply(chunkItems));
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[chunk.get(k)] = BulkItemResult.created(chunk.get(k), idOf.apply(saved.get(k)));
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Bulk-Block mit {} Elementen gescheitert, Einzelversuche: {}", chunk.size(), e.getMessage());
+                for (int index : chunk) {
+                    results[index] = saveSingle(index, items.get(index), saveChunk, idOf, resetId);
+                }
+            }
+        }
+
+        BulkResult result = BulkResult.of(Arrays.stream(results)
+                .sorted(Comparator.comparingInt(BulkItemResult::index)).toList());
+        logger.debug("Bulk: {} von {} angelegt", result.succeeded(), result.total());
+        return result;
+    }
+
+    private <T> BulkItemResult saveSingle(int index, T item, Function<List<T>, List<T>> saveChunk,
+                                          Function<T, Long> idOf, Consumer<T> resetId) {
+        resetId.accept(item);
+        try {
+            List<T> saved = transactionTemplate.execute(status -> saveChunk.apply(List.of(item)));
+            return BulkItemResult.created(index, idOf.apply(saved.get(0)));
+        } catch (RuntimeException e) {
+            int status = statusOf(e);
+            return BulkItemResult.failed(index, status, status == 500 ? "Interner Serverfehler" : e.getMessage());
+        }
+    }
+
+    static int statusOf(RuntimeException e) {
+        if (e instanceof ResourceNotFoundException) {
+            return 404;
+        }
+        if (e instanceof VehicleNotAvailableException || e instanceof RentalArchivedException
+                || e instanceof DataIntegrityViolationException) {
+            return 409;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return 400;
+        }
+        return 500;
+    }
+
+    private static <T> String describe(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.CacheRegionStats;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+
+    // ─── Lesen ───
+    List<CacheRegionStats> getRegionStatistics();
+
+    // ─── Verwalten ───
+    void evictAll();
+}
@@ -0,0 +1,57 @@
+package org.example.m295nick.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.m295nick.models.CacheRegionStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Liest die Region-Statistiken des Hibernate Second-Level-Caches
+ * (benötigt {@code hibernate.generate_statistics=true}).
+ */
+@Service
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatisticsServiceImpl.class);
+
+    private final SessionFactory sessionFactory;
+
+    public CacheStatisticsServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public List<CacheRegionStats> getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toStats(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+    }
+
+    @Override
+    public void evictAll() {
+        logger.info("Leere alle Second-Level- und Query-Cache-Regionen");
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private static CacheRegionStats toStats(String region, CacheRegionStatistics s) {
+        if (s == null) {
+            return new CacheRegionStats(region, 0, 0, 0, -1, 0);
+        }
+        long zugriffe = s.getHitCount() + s.getMissCount();
+        double ratio = zugriffe == 0 ? 0 : (double) s.getHitCount() / zugriffe;
+        long elemente = s.getElementCountInMemory();
+        if (elemente == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+            elemente = -1; // JCache liefert keine Grösse
+        }
+        return new CacheRegionStats(region, s.getHitCount(), s.getMissCount(), s.getPutCount(), elemente, ratio);
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Dauerhaft laufende JFR-Aufzeichnung (Ringpuffer über {@code jfr.max-age-minutes}) mit den
+ * JVM-Events des Profils {@code jfr.settings} und den {@link FlightEvents} der Fachlogik.
+ * <p>
+ * Das Profil {@code default} ist für Dauerbetrieb gedacht (&lt; 1 % Overhead). Fachliche
+ * Phasen-Events unter {@code jfr.threshold-ms} werden nicht aufgezeichnet, damit bei hoher Last
+ * nur die Ausreisser im Puffer landen. {@link #dump(int)} schreibt die letzten Minuten als
+ * {@code .jfr}-Datei, auswertbar mit JDK Mission Control oder {@code jfr print}. Im Dump-Verzeichnis
+ * bleiben nur die neuesten {@code jfr.dump-keep} Dateien liegen.
+ */
+@Component
+public class ContinuousRecording {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContinuousRecording.class);
+
+    private static final String NAME = "m295-continuous";
+    // Millisekunden, damit zwei Dumps in derselben Sekunde sich nicht überschreiben; sortiert chronologisch
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final boolean enabled;
+    private final String settings;
+    private final int maxAgeMinutes;
+    private final long maxSizeMb;
+    private final long thresholdMs;
+    private final Path dumpDirectory;
+    private final int dumpKeep;
+
+    private Recording recording;
+
+    public ContinuousRecording(@Value("${jfr.enabled:true}") boolean enabled,
+                               @Value("${jfr.settings:default}") String settings,
+                               @Value("${jfr.max-age-minutes:30}") int maxAgeMinutes,
+                               @Value("${jfr.max-size-mb:250}") long maxSizeMb,
+                               @Value("${jfr.threshold-ms:1}") long thresholdMs,
+                               @Value("${jfr.dump-dir:data/jfr}") String dumpDirectory,
+                               @Value("${jfr.dump-keep:5}") int dumpKeep) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAgeMinutes = maxAgeMinutes;
+        this.maxSizeMb = maxSizeMb;
+        this.thresholdMs = thresholdMs;
+        this.dumpDirectory = Path.of(dumpDirectory);
+        this.dumpKeep = Math.max(1, dumpKeep);
+    }
+
+    @PostConstruct
+    public synchronized void start() throws IOException, ParseException {
+        if (!enabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            logger.warn("JFR ist in dieser JVM nicht verfügbar, keine Daueraufzeichnung");
+            return;
+        }
+        recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.enable(FlightEvents.RentalCreatePhase.class).withThreshold(Duration.ofMillis(thresholdMs));
+        recording.enable(FlightEvents.BulkOperation.class);
+        recording.enable(FlightEvents.CacheLookup.class);
+        recording.start();
+        logger.info("JFR-Daueraufzeichnung gestartet (Profil {}, {} min, max. {} MB)", settings, maxAgeMinutes, maxSizeMb);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /** Die letzten {@code minutes} Minuten der Aufzeichnung in eine neue {@code .jfr}-Datei schreiben. */
+    public synchronized Path dump(int minutes) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("JFR-Daueraufzeichnung ist nicht aktiv");
+        }
+        if (minutes < 1 || minutes > maxAgeMinutes) {
+            throw new IllegalArgumentException("minutes muss zwischen 1 und " + maxAgeMinutes + " liegen");
+        }
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve("m295-" + LocalDateTime.now().format(FILE_TIME) + "-" + minutes + "m.jfr")
+                .toAbsolutePath();
+        // Recording.dump() kennt keinen Zeitbereich; JFR.dump schneidet über "begin" auf die letzten Minuten zu
+        try {
+            ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "jfrDump",
+                    new Object[]{new String[]{"name=" + recording.getId(), "filename=" + file, "begin=-" + minutes + "m"}},
+                    new String[]{String[].class.getName()});
+        } catch (JMException e) {
+            throw new IOException("JFR-Dump fehlgeschlagen", e);
+        }
+        if (!Files.exists(file)) {
+            throw new IOException("JFR-Dump hat keine Datei geschrieben: " + file);
+        }
+        logger.info("JFR-Dump der letzten {} min nach {} geschrieben", minutes, file);
+        deleteOldDumps();
+        return file;
+    }
+
+    // Ältere Dumps über jfr.dump-keep hinaus löschen (ein gerade gestreamter Dump bleibt lesbar, solange er offen ist)
+    private void deleteOldDumps() {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            dumps = files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith("m295-") && name.endsWith(".jfr");
+            }).sorted().toList();
+        } catch (IOException e) {
+            logger.warn("JFR-Dump-Verzeichnis {} nicht lesbar: {}", dumpDirectory, e.getMessage());
+            return;
+        }
+        for (Path old : dumps.subList(0, Math.max(0, dumps.size() - dumpKeep))) {
+            try {
+                Files.deleteIfExists(old);
+                logger.debug("Alten JFR-Dump {} gelöscht", old);
+            } catch (IOException e) {
+                logger.warn("Alter JFR-Dump {} konnte nicht gelöscht werden: {}", old, e.getMessage());
+            }
+        }
+    }
+}
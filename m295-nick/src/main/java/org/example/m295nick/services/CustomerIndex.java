@@ -0,0 +1,185 @@
+package org.example.m295nick.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-Memory-Trigramm-Index über die (wenigen) unterschiedlichen Kundennamen für die
+ * unscharfe Suche. Kandidaten kommen aus gemeinsamen Trigrammen (q-Gramm-Schranke),
+ * bestätigt wird mit einer begrenzten Levenshtein-Distanz, die abbricht, sobald die
+ * erlaubte Anzahl Änderungen überschritten ist.
+ */
+public class CustomerIndex {
+
+    /** Treffer der unscharfen Suche. */
+    public record Match(long id, String normalizedName, int distance) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Long> ids = new ArrayList<>();             // Position → ID
+    private final List<String> names = new ArrayList<>();         // Position → normalisierter Name
+    private final Map<String, Integer> positions = new HashMap<>(); // Name → Position
+    private final Map<String, Postings> trigrams = new HashMap<>();
+
+    // ─── Normalisierung ───
+
+    /** Kleinbuchstaben, ohne Akzente/Umlaut-Punkte, "ß" → "ss", Leerzeichen zusammengefasst. */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String n = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return n.toLowerCase(Locale.ROOT).replace("ß", "ss").trim().replaceAll("\\s+", " ");
+    }
+
+    /** Erlaubte Tippfehler je nach Länge: kurze Namen wären sonst mit fast allem "ähnlich". */
+    public static int maxEditsFor(String normalized, int maxEdits) {
+        if (normalized.length() <= 3) {
+            return 0;
+        }
+        return normalized.length() <= 5 ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    // ─── Schreiben ───
+
+    public void add(long id, String normalizedName) {
+        lock.writeLock().lock();
+        try {
+            if (positions.containsKey(normalizedName)) {
+                return;
+            }
+            int pos = names.size();
+            names.add(normalizedName);
+            ids.add(id);
+            positions.put(normalizedName, pos);
+            for (String gram : trigramsOf(normalizedName)) {
+                trigrams.computeIfAbsent(gram, g -> new Postings()).add(pos);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─── Suchen ───
+
+    /** Alle Namen mit höchstens {@code maxEdits} Änderungen, nach Distanz sortiert. */
+    public List<Match> search(String query, int maxEdits, int limit) {
+        String q = normalize(query);
+        int k = maxEditsFor(q, maxEdits);
+        Set<String> grams = trigramsOf(q);
+        // Jede Änderung zerstört höchstens 3 Trigramme der Anfrage
+        int minShared = grams.size() - 3 * k;
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (minShared <= 0) {
+                for (int pos = 0; pos < names.size(); pos++) {
+                    verify(q, pos, k, matches);
+                }
+            } else {
+                Map<Integer, Integer> shared = new HashMap<>();
+                for (String gram : grams) {
+                    Postings p = trigrams.get(gram);
+                    if (p != null) {
+                        for (int i = 0; i < p.size; i++) {
+                            shared.merge(p.positions[i], 1, Integer::sum);
+                        }
+                    }
+                }
+                shared.forEach((pos, count) -> {
+                    if (count >= minShared) {
+                        verify(q, pos, k, matches);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::normalizedName));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private void verify(String q, int pos, int k, List<Match> out) {
+        String name = names.get(pos);
+        int d = boundedLevenshtein(q, name, k);
+        if (d <= k) {
+            out.add(new Match(ids.get(pos), name, d));
+        }
+    }
+
+    static Set<String> trigramsOf(String normalized) {
+        String padded = "  " + normalized + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein-Distanz, aber nur bis {@code k}: berechnet wird lediglich das Band
+     * |i - j| ≤ k, und sobald eine Zeile komplett über k liegt, wird k + 1 geliefert.
+     */
+    static int boundedLevenshtein(String a, String b, int k) {
+        if (Math.abs(a.length() - b.length()) > k) {
+            return k + 1;
+        }
+        int inf = k + 1;
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j <= k ? j : inf;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            Arrays.fill(cur, inf);
+            int from = Math.max(1, i - k);
+            int to = Math.min(b.length(), i + k);
+            cur[0] = i <= k ? i : inf;
+            int rowMin = cur[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                cur[j] = Math.min(v, inf);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > k) {
+                return inf;
+            }
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(prev[b.length()], inf);
+    }
+
+    // Wachsende int-Liste der Positionen je Trigramm
+    private static final class Postings {
+        int[] positions = new int[4];
+        int size;
+
+        void add(int pos) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = pos;
+        }
+    }
+}
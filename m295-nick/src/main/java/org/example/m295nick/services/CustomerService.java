@@ -0,0 +1,15 @@
+package org.example.m295nick.services;
+
+import java.util.List;
+
+public interface CustomerService {
+
+    // ─── Kunden-Dimension ───
+    Long resolveId(String name);
+
+    // ─── Suche ───
+    List<Long> findIds(String name, boolean fuzzy);
+
+    // ─── Wartung ───
+    int backfill();
+}
@@ -0,0 +1,154 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.Customer;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.repositories.ArchivedRentalRepository;
+import org.example.m295nick.repositories.CustomerRepository;
+import org.example.m295nick.repositories.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kunden-Dimension: jeder normalisierte Name wird einmal in {@code customer} abgelegt
+ * und über seine ID referenziert. Exakte Suchen gehen über die Zuordnung Name → ID
+ * und den Index auf {@code customer_id}; unscharfe Suchen laufen über den
+ * {@link CustomerIndex} mit den (wenigen) unterschiedlichen Namen statt über alle Rentals.
+ * <p>
+ * Neue Namen werden in einer eigenen Transaktion angelegt, damit ein paralleler
+ * Insert desselben Namens (Unique-Index) die Miete nicht mitreisst.
+ */
+@Service
+@Profile("!inmemory")
+public class CustomerServiceImpl implements CustomerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerServiceImpl.class);
+
+    private final CustomerRepository customerRepository;
+    private final RentalRepository rentalRepository;
+    private final ArchivedRentalRepository archivedRentalRepository;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxEdits;
+    private final int fuzzyLimit;
+    private final int batchSize;
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    private final CustomerIndex index = new CustomerIndex();
+    private volatile boolean loaded;
+
+    public CustomerServiceImpl(CustomerRepository customerRepository,
+                               RentalRepository rentalRepository,
+                               ArchivedRentalRepository archivedRentalRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${customers.fuzzy.max-edits:2}") int maxEdits,
+                               @Value("${customers.fuzzy.limit:20}") int fuzzyLimit,
+                               @Value("${customers.backfill.batch-size:500}") int batchSize) {
+        this.customerRepository = customerRepository;
+        this.rentalRepository = rentalRepository;
+        this.archivedRentalRepository = archivedRentalRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxEdits = maxEdits;
+        this.fuzzyLimit = fuzzyLimit;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Long resolveId(String name) {
+        String normalized = CustomerIndex.normalize(name);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        ensureLoaded();
+        Long cached = idsByName.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        Customer customer;
+        try {
+            customer = requiresNew.execute(status -> customerRepository.findByNormalizedName(normalized)
+                    .orElseGet(() -> customerRepository.saveAndFlush(new Customer(name.trim(), normalized))));
+        } catch (DataIntegrityViolationException e) {
+            // Parallel von einer anderen Anfrage angelegt → deren Eintrag verwenden
+            logger.debug("Kunde '{}' wurde parallel angelegt", normalized);
+            customer = requiresNew.execute(status -> customerRepository.findByNormalizedName(normalized).orElseThrow());
+        }
+        remember(customer);
+        return customer.getId();
+    }
+
+    @Override
+    public List<Long> findIds(String name, boolean fuzzy) {
+        String normalized = CustomerIndex.normalize(name);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        ensureLoaded();
+        if (!fuzzy) {
+            Long id = idsByName.get(normalized);
+            return id != null ? List.of(id) : List.of();
+        }
+        List<CustomerIndex.Match> matches = index.search(normalized, maxEdits, fuzzyLimit);
+        logger.debug("Unscharfe Kundensuche '{}': {} Treffer", normalized, matches.size());
+        return matches.stream().map(CustomerIndex.Match::id).toList();
+    }
+
+    /** Trägt den Kunden-Code bei Rentals nach, die vor der Kunden-Dimension erfasst wurden. */
+    @Override
+    @Scheduled(initialDelayString = "${customers.backfill.initial-delay-ms:10000}",
+            fixedDelayString = "${customers.backfill.interval-ms:3600000}")
+    public int backfill() {
+        int total = 0;
+        int[] batch;
+        do {
+            // {Rentals, Archiv}; eine volle Seite bedeutet, dass noch mehr offen sein kann
+            batch = transactionTemplate.execute(status -> {
+                List<Rental> rentals = rentalRepository.findByCustomerIdIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                rentals.forEach(r -> r.setCustomerId(resolveId(r.getCustomer())));
+                List<ArchivedRental> archived = archivedRentalRepository.findByCustomerIdIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                archived.forEach(a -> a.setCustomerId(resolveId(a.getCustomer())));
+                return new int[]{rentals.size(), archived.size()};
+            });
+            total += batch[0] + batch[1];
+        } while (batch[0] == batchSize || batch[1] == batchSize);
+        if (total > 0) {
+            logger.info("Kunden-Codes für {} Rentals nachgetragen", total);
+        }
+        return total;
+    }
+
+    // Name → ID und Trigramm-Index beim ersten Zugriff aus der Tabelle aufbauen
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                List<Customer> customers = requiresNew.execute(status -> customerRepository.findAll());
+                customers.forEach(this::remember);
+                loaded = true;
+                logger.info("Kunden-Index geladen: {} Namen", customers.size());
+            }
+        }
+    }
+
+    private void remember(Customer customer) {
+        idsByName.put(customer.getNormalizedName(), customer.getId());
+        index.add(customer.getId(), customer.getNormalizedName());
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.m295nick.models.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relay der Outbox zu den SSE-Abonnenten von /api/v1/events.
+ * <p>
+ * Die Emitter laufen asynchron (Servlet-Async), es wird also kein Thread pro Client
+ * gehalten. Ein einzelner Scheduler-Thread veröffentlicht neue Outbox-Einträge
+ * (vergibt die Feed-Position) und legt sie in die Warteschlange jedes Abonnenten
+ * ({@code events.sse.queue-size}). Geschrieben wird ausserhalb der Sperre von einem kleinen
+ * Sender-Pool, pro Abonnent höchstens ein Auftrag gleichzeitig. Läuft die Warteschlange
+ * eines langsamen Clients voll, wird er getrennt und holt per Last-Event-ID nach.
+ * <p>
+ * Registrieren ({@link #subscribe}) und Verteilen ({@link #relay}) laufen unter derselben
+ * Sperre: ein neuer Abonnent bekommt alles bis zum aktuellen Relay-Stand aus der Outbox
+ * nachgeliefert (im Sender-Pool, vor seiner Warteschlange), alles danach live – dazwischen
+ * geht kein Event verloren.
+ */
+@Service
+public class EventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamService.class);
+
+    private final OutboxService outboxService;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Object relayLock = new Object();
+    private final long emitterTimeoutMs;
+    private final long retentionHours;
+    private final int queueSize;
+    private final ExecutorService senders;
+
+    // Höchste bereits an die Live-Abonnenten verteilte Feed-Position (nur unter relayLock ändern)
+    private long lastRelayedSeq = -1;
+
+    public EventStreamService(OutboxService outboxService,
+                              @Value("${events.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${events.outbox.retention-hours:72}") long retentionHours,
+                              @Value("${events.sse.queue-size:256}") int queueSize,
+                              @Value("${events.sse.sender-threads:4}") int senderThreads) {
+        this.outboxService = outboxService;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.retentionHours = retentionHours;
+        this.queueSize = queueSize;
+        // höchstens ein Auftrag pro Abonnent in der Warteschlange → durch die Anzahl Abonnenten begrenzt
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "sse-sender");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Neuen Abonnenten registrieren. Ist eine Last-Event-ID gesetzt, werden zuerst
+     * alle verpassten Events aus der Outbox nachgeliefert.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber subscriber = new Subscriber(createEmitter());
+        subscriber.emitter.onCompletion(() -> subscriber.close());
+        subscriber.emitter.onTimeout(() -> subscriber.close());
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        synchronized (relayLock) {
+            initCursor();
+            if (lastEventId != null && lastEventId < lastRelayedSeq) {
+                // bis zum aktuellen Relay-Stand nachliefern, danach übernimmt der Live-Feed
+                subscriber.replayFrom = lastEventId;
+                subscriber.replayUpTo = lastRelayedSeq;
+            }
+            subscribers.add(subscriber);
+        }
+        if (subscriber.replayFrom != null) {
+            subscriber.schedule();
+        }
+        logger.debug("Neuer SSE-Abonnent (Last-Event-ID={}), aktiv={}", lastEventId, subscribers.size());
+        return subscriber.emitter;
+    }
+
+    /** Committete Outbox-Einträge veröffentlichen und an alle Abonnenten verteilen. */
+    @Scheduled(fixedDelayString = "${events.relay.interval-ms:500}")
+    public void relay() {
+        try {
+            while (outboxService.publishPending() > 0) {
+                // so lange nummerieren, bis nichts mehr offen ist
+            }
+        } catch (DataIntegrityViolationException e) {
+            // anderer Knoten hat den Zähler gleichzeitig angelegt → nächster Durchlauf
+            logger.debug("Outbox-Zähler konkurrierend angelegt: {}", e.getMessage());
+        }
+        synchronized (relayLock) {
+            if (initCursor()) {
+                // beim Start keine Historie an Live-Abonnenten schicken
+                return;
+            }
+            List<OutboxEvent> batch = outboxService.getAfter(lastRelayedSeq);
+            while (!batch.isEmpty()) {
+                for (OutboxEvent event : batch) {
+                    // nur einreihen, geschrieben wird im Sender-Pool
+                    for (Subscriber subscriber : subscribers) {
+                        subscriber.offer(event);
+                    }
+                    lastRelayedSeq = event.getSeq();
+                }
+                batch = outboxService.getAfter(lastRelayedSeq);
+            }
+        }
+    }
+
+    /** Abgelaufene Outbox-Einträge entfernen (einmal pro Stunde). */
+    @Scheduled(fixedDelayString = "${events.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        outboxService.purgeOlderThanHours(retentionHours);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+    }
+
+    // Erweiterungspunkt für Tests
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    // true, wenn der Relay-Stand gerade erst initialisiert wurde
+    private boolean initCursor() {
+        if (lastRelayedSeq >= 0) {
+            return false;
+        }
+        lastRelayedSeq = outboxService.getLatestSeq();
+        return true;
+    }
+
+    /** Ein SSE-Client mit eigener, begrenzter Warteschlange. */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<OutboxEvent> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Exception failure;
+
+        // Nachlieferung aus der Outbox (exklusiv), vor der Warteschlange
+        private volatile Long replayFrom;
+        private volatile long replayUpTo;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Nur vom Relay unter relayLock; blockiert nie. */
+        private void offer(OutboxEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("SSE-Abonnent zu langsam ({} Events offen), wird getrennt", queueSize);
+                // beenden übernimmt der Sender, damit das Relay nie auf einen hängenden Client wartet
+                fail(new IOException("SSE-Abonnent zu langsam"));
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Pool bereits gestoppt (Shutdown)
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (replayFrom != null) {
+                    replay();
+                    replayFrom = null;
+                }
+                OutboxEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+                if (failure != null) {
+                    emitter.completeWithError(failure);
+                    return;
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // zwischen letztem poll und Freigabe eingereiht → erneut anstossen
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void replay() {
+            long cursor = replayFrom;
+            while (!closed && cursor < replayUpTo) {
+                List<OutboxEvent> batch = outboxService.getAfter(cursor);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                for (OutboxEvent event : batch) {
+                    if (closed || event.getSeq() > replayUpTo) {
+                        return;
+                    }
+                    send(event);
+                    cursor = event.getSeq();
+                }
+            }
+        }
+
+        private void send(OutboxEvent event) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSeq()))
+                        .name(event.getAggregateType() + "." + event.getEventType())
+                        .data(event.getPayload()));
+            } catch (IOException | IllegalStateException e) {
+                // Client weg → Abonnent entfernen, Relay läuft für die anderen weiter
+                logger.debug("SSE-Abonnent entfernt: {}", e.getMessage());
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            if (failure == null) {
+                failure = e;
+            }
+            close();
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
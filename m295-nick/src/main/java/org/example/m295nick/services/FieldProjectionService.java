@@ -0,0 +1,27 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.FieldSet;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lesezugriffe mit {@code ?fields=}: liefert pro Zeile nur die angefragten Felder.
+ */
+public interface FieldProjectionService {
+
+    // ─── Vehicles ───
+    Optional<Map<String, Object>> getVehicleById(Long id, FieldSet fields);
+    List<Map<String, Object>> getVehicles(FieldSet fields);
+    List<Map<String, Object>> getVehiclesByAirConditioning(Boolean hasAir, FieldSet fields);
+    List<Map<String, Object>> getVehiclesByBrand(String brandPart, FieldSet fields);
+
+    // ─── Rentals ───
+    Optional<Map<String, Object>> getRentalById(Long id, FieldSet fields);
+    List<Map<String, Object>> getRentals(FieldSet fields);
+    List<Map<String, Object>> getRentalsByStartDateAfter(LocalDate date, FieldSet fields);
+    List<Map<String, Object>> getRentalsByEndDateBefore(LocalDate date, FieldSet fields);
+    List<Map<String, Object>> getRentalsByCustomer(String name, boolean fuzzy, FieldSet fields);
+}
@@ -0,0 +1,183 @@
+package org.example.m295nick.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.FieldSet;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Sparse Fieldsets mit Projektion in der Datenbank: die angefragten Felder werden als
+ * Tuple-Query (Criteria API) selektiert, es werden keine Entities hydriert und nur die
+ * nötigen Spalten gelesen. Snowflake-IDs werden wie bei {@code @SnowflakeJson} als
+ * String ausgegeben.
+ * <p>
+ * Rentals berücksichtigen das Archiv nach denselben Regeln wie {@link RentalServiceImpl}.
+ */
+@Service
+@Profile("!inmemory")
+@Transactional(readOnly = true)
+public class FieldProjectionServiceImpl implements FieldProjectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FieldProjectionServiceImpl.class);
+
+    // Feld → Pfad in der Entity; vehicleId liegt bei Rental als Fremdschlüssel der Relation
+    private static final Map<String, Function<Root<?>, Path<?>>> RENTAL_PATHS = Map.of(
+            "vehicleId", r -> r.get("vehicle").get("id"));
+
+    // Felder, die als Snowflake-ID (String) ausgegeben werden
+    private static final Set<String> SNOWFLAKE_FIELDS = Set.of("id", "vehicleId");
+
+    private final EntityManager entityManager;
+    private final RentalArchiveService rentalArchiveService;
+    private final CustomerService customerService;
+
+    public FieldProjectionServiceImpl(EntityManager entityManager,
+                                      RentalArchiveService rentalArchiveService,
+                                      CustomerService customerService) {
+        this.entityManager = entityManager;
+        this.rentalArchiveService = rentalArchiveService;
+        this.customerService = customerService;
+    }
+
+    // ─── Vehicles ───
+
+    @Override
+    public Optional<Map<String, Object>> getVehicleById(Long id, FieldSet fields) {
+        return first(select(Vehicle.class, Map.of(), fields, (cb, v) -> cb.equal(v.get("id"), id)));
+    }
+
+    @Override
+    public List<Map<String, Object>> getVehicles(FieldSet fields) {
+        return select(Vehicle.class, Map.of(), fields, null);
+    }
+
+    @Override
+    public List<Map<String, Object>> getVehiclesByAirConditioning(Boolean hasAir, FieldSet fields) {
+        return select(Vehicle.class, Map.of(), fields, (cb, v) -> cb.equal(v.get("hasAirConditioning"), hasAir));
+    }
+
+    @Override
+    public List<Map<String, Object>> getVehiclesByBrand(String brandPart, FieldSet fields) {
+        // Wie findByBrandContainingIgnoreCase, Platzhalter im Suchtext werden maskiert
+        String pattern = "%" + brandPart.toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return select(Vehicle.class, Map.of(), fields,
+                (cb, v) -> cb.like(cb.lower(v.<String>get("brand")), pattern, '\\'));
+    }
+
+    // ─── Rentals ───
+
+    @Override
+    public Optional<Map<String, Object>> getRentalById(Long id, FieldSet fields) {
+        Optional<Map<String, Object>> hot = first(select(Rental.class, RENTAL_PATHS, fields,
+                (cb, r) -> cb.equal(r.get("id"), id)));
+        return hot.isPresent() ? hot : first(select(ArchivedRental.class, Map.of(), fields,
+                (cb, a) -> cb.equal(a.get("id"), id)));
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentals(FieldSet fields) {
+        // Operativ: nur die heisse Tabelle, wie RentalService.getAll
+        return select(Rental.class, RENTAL_PATHS, fields, null);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentalsByStartDateAfter(LocalDate date, FieldSet fields) {
+        BiFunction<CriteriaBuilder, Root<?>, Predicate> where = (cb, r) -> cb.greaterThan(r.<LocalDate>get("startDate"), date);
+        return withArchive(select(Rental.class, RENTAL_PATHS, fields, where),
+                rentalArchiveService.mayContainStartAfter(date), fields, where);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentalsByEndDateBefore(LocalDate date, FieldSet fields) {
+        BiFunction<CriteriaBuilder, Root<?>, Predicate> where = (cb, r) -> cb.lessThan(r.<LocalDate>get("endDate"), date);
+        return withArchive(select(Rental.class, RENTAL_PATHS, fields, where),
+                rentalArchiveService.mayContainEndBefore(date), fields, where);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentalsByCustomer(String name, boolean fuzzy, FieldSet fields) {
+        List<Long> customerIds = customerService.findIds(name, fuzzy);
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        BiFunction<CriteriaBuilder, Root<?>, Predicate> where = (cb, r) -> r.get("customerId").in(customerIds);
+        return withArchive(select(Rental.class, RENTAL_PATHS, fields, where), true, fields, where);
+    }
+
+    // ─── Hilfsmethoden ───
+
+    private List<Map<String, Object>> withArchive(List<Map<String, Object>> hot, boolean archiveRelevant,
+                                                  FieldSet fields,
+                                                  BiFunction<CriteriaBuilder, Root<?>, Predicate> where) {
+        if (!archiveRelevant) {
+            return hot;
+        }
+        List<Map<String, Object>> archived = select(ArchivedRental.class, Map.of(), fields, where);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Map<String, Object>> result = new ArrayList<>(hot.size() + archived.size());
+        result.addAll(hot);
+        result.addAll(archived);
+        return result;
+    }
+
+    // SELECT nur der angefragten Spalten; jedes Feld bekommt seinen Namen als Alias
+    private List<Map<String, Object>> select(Class<?> entity,
+                                             Map<String, Function<Root<?>, Path<?>>> paths,
+                                             FieldSet fields,
+                                             BiFunction<CriteriaBuilder, Root<?>, Predicate> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String f : fields.names()) {
+            selections.add(paths.getOrDefault(f, r -> r.get(f)).apply(root).alias(f));
+        }
+        query.multiselect(selections);
+        if (where != null) {
+            query.where(where.apply(cb, root));
+        }
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        logger.debug("Projektion {} [{}]: {} Zeilen", entity.getSimpleName(), fields, rows.size());
+
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String f : fields.names()) {
+                Object value = row.get(f);
+                map.put(f, value != null && SNOWFLAKE_FIELDS.contains(f) ? value.toString() : value);
+            }
+            result.add(map);
+        }
+        return result;
+    }
+
+    private static Optional<Map<String, Object>> first(List<Map<String, Object>> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
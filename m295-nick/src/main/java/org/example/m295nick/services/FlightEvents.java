@@ -0,0 +1,108 @@
+package org.example.m295nick.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Eigene JFR-Events der Fachlogik; aufgezeichnet von {@link ContinuousRecording}.
+ * <p>
+ * Ohne laufende Aufzeichnung kostet ein Event nur die Allokation, {@code commit()} verwirft es sofort.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    @Name("m295.RentalCreatePhase")
+    @Label("Rental anlegen: Phase")
+    @Category({"M295", "Rental"})
+    @Description("Dauer einer Phase beim Anlegen von Rentals (vehicleLookup, pricing, save)")
+    public static class RentalCreatePhase extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("Rentals")
+        int rentals;
+    }
+
+    @Name("m295.BulkOperation")
+    @Label("Bulk-Operation")
+    @Category({"M295", "Bulk"})
+    public static class BulkOperation extends Event {
+        @Label("Entität")
+        String entity;
+        @Label("Operation")
+        String operation;
+        @Label("Elemente")
+        int items;
+        @Label("Fehlgeschlagen")
+        int failed;
+    }
+
+    @Name("m295.CacheLookup")
+    @Label("Cache-Zugriff")
+    @Category({"M295", "Cache"})
+    public static class CacheLookup extends Event {
+        @Label("Cache")
+        String cache;
+        @Label("Schlüssel")
+        String key;
+        @Label("Treffer")
+        boolean hit;
+    }
+
+    /** {@code step} als Phase {@code phase} beim Anlegen von {@code rentals} Rentals messen. */
+    static <T> T rentalPhase(String phase, int rentals, Supplier<T> step) {
+        RentalCreatePhase event = new RentalCreatePhase();
+        event.begin();
+        try {
+            return step.get();
+        } finally {
+            event.phase = phase;
+            event.rentals = rentals;
+            event.commit();
+        }
+    }
+
+    static void rentalPhase(String phase, int rentals, Runnable step) {
+        rentalPhase(phase, rentals, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /** Bulk-Operation messen; {@code failed} wird aus dem Ergebnis bestimmt. */
+    static <T> T bulk(String entity, String operation, int items, Supplier<T> step,
+                      ToIntFunction<T> failed) {
+        BulkOperation event = new BulkOperation();
+        event.begin();
+        T result = null;
+        try {
+            result = step.get();
+            return result;
+        } finally {
+            event.entity = entity;
+            event.operation = operation;
+            event.items = items;
+            // Abbruch mit Exception: alle Elemente gelten als fehlgeschlagen
+            event.failed = result == null ? items : failed.applyAsInt(result);
+            event.commit();
+        }
+    }
+
+    /** Zugriff beginnen; der Aufrufer setzt {@code hit} und ruft {@code commit()}. */
+    static CacheLookup cacheLookup(String cache, Object key) {
+        CacheLookup event = new CacheLookup();
+        event.begin();
+        event.cache = cache;
+        if (event.isEnabled()) {
+            event.key = String.valueOf(key);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.Hold;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hält alle aktiven Holds im Speicher, indexiert nach Fahrzeug.
+ * Das Ablaufen erledigt ein {@link HashedTimerWheel} – kein DB-Polling.
+ */
+@Component
+public class HoldRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldRegistry.class);
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<Long, List<Hold>> byVehicle = new ConcurrentHashMap<>();
+    private final HashedTimerWheel timerWheel;
+    private final Duration ttl;
+
+    public HoldRegistry(@Value("${holds.ttl-seconds:900}") long ttlSeconds,
+                        @Value("${holds.wheel.tick-ms:100}") long tickMs,
+                        @Value("${holds.wheel.size:1024}") int wheelSize) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.timerWheel = new HashedTimerWheel(tickMs, TimeUnit.MILLISECONDS, wheelSize, "hold-expiry");
+    }
+
+    /**
+     * Hold atomar anlegen, falls für das Fahrzeug kein überlappender Hold existiert.
+     * ID und Ablaufzeit werden hier gesetzt.
+     */
+    public Hold add(Hold hold) {
+        return add(hold, () -> false);
+    }
+
+    /**
+     * Wie {@link #add(Hold)}; {@code blocked} (z.B. "bereits gebucht?") wird unter derselben
+     * Fahrzeug-Sperre geprüft wie die Hold-Überlappung und die Hold-Prüfung beim Anlegen einer Miete.
+     */
+    public Hold add(Hold hold, BooleanSupplier blocked) {
+        hold.setId(UUID.randomUUID().toString());
+        hold.setExpiresAt(Instant.now().plus(ttl));
+        register(hold, blocked);
+        return hold;
+    }
+
+    public Optional<Hold> get(String id) {
+        Entry e = byId.get(id);
+        return e == null || isExpired(e.hold) ? Optional.empty() : Optional.of(e.hold);
+    }
+
+    /** Hold freigeben (Abbruch oder Umwandlung in eine Miete). */
+    public Optional<Hold> remove(String id) {
+        Entry e = byId.remove(id);
+        if (e == null) {
+            return Optional.empty();
+        }
+        e.timeout.cancel();
+        unindex(e.hold);
+        return Optional.of(e.hold);
+    }
+
+    /** Blockiert ein aktiver Hold das Fahrzeug im Zeitraum? */
+    public boolean overlaps(Long vehicleId, LocalDate start, LocalDate end) {
+        return overlaps(vehicleId, start, end, null);
+    }
+
+    /** Wie {@link #overlaps(Long, LocalDate, LocalDate)}, ignoriert aber den Hold {@code exemptHoldId}. */
+    public boolean overlaps(Long vehicleId, LocalDate start, LocalDate end, String exemptHoldId) {
+        List<Hold> holds = byVehicle.get(vehicleId);
+        if (holds == null) {
+            return false;
+        }
+        synchronized (holds) {
+            return overlapsLocked(holds, start, end, exemptHoldId);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        timerWheel.stop();
+    }
+
+    private void register(Hold hold, BooleanSupplier blocked) {
+        List<Hold> holds = byVehicle.computeIfAbsent(hold.getVehicleId(), k -> new ArrayList<>());
+        synchronized (holds) {
+            if (overlapsLocked(holds, hold.getStartDate(), hold.getEndDate(), null) || blocked.getAsBoolean()) {
+                throw new VehicleNotAvailableException(hold.getVehicleId(), hold.getStartDate(), hold.getEndDate());
+            }
+            holds.add(hold);
+            // im Lock eintragen, damit ein paralleles remove() den Hold sicher findet
+            long delayMs = Math.max(0, Duration.between(Instant.now(), hold.getExpiresAt()).toMillis());
+            HashedTimerWheel.Timeout timeout =
+                    timerWheel.schedule(() -> expire(hold.getId()), delayMs, TimeUnit.MILLISECONDS);
+            byId.put(hold.getId(), new Entry(hold, timeout));
+        }
+    }
+
+    private void expire(String id) {
+        if (remove(id).isPresent()) {
+            logger.debug("Hold {} abgelaufen", id);
+        }
+    }
+
+    private void unindex(Hold hold) {
+        List<Hold> holds = byVehicle.get(hold.getVehicleId());
+        if (holds != null) {
+            synchronized (holds) {
+                holds.remove(hold);
+            }
+        }
+    }
+
+    private boolean overlapsLocked(List<Hold> holds, LocalDate start, LocalDate end, String exemptHoldId) {
+        for (Hold h : holds) {
+            // abgelaufene, aber vom Rad noch nicht entfernte Holds zählen nicht mehr
+            if (!isExpired(h) && !h.getId().equals(exemptHoldId) && h.overlaps(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isExpired(Hold hold) {
+        return hold.getExpiresAt().isBefore(Instant.now());
+    }
+
+    private record Entry(Hold hold, HashedTimerWheel.Timeout timeout) {
+    }
+}
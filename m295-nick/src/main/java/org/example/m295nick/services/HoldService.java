@@ -0,0 +1,20 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.Hold;
+import org.example.m295nick.models.Rental;
+import java.util.Optional;
+
+public interface HoldService {
+
+    // ─── Read ───
+    Optional<Hold> getById(String id);
+
+    // ─── Create ───
+    Hold create(Hold hold);
+
+    // ─── Umwandeln in eine Miete ───
+    Rental convertToRental(String id);
+
+    // ─── Delete ───
+    void release(String id);
+}
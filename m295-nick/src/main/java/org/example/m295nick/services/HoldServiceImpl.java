@@ -0,0 +1,90 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.Hold;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds über die Service-Interfaces prüfen – so funktioniert das Feature mit JPA
+ * und mit dem InMemoryStore (Profil {@code inmemory}) gleich.
+ */
+@Service
+public class HoldServiceImpl implements HoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldServiceImpl.class);
+
+    private final HoldRegistry holdRegistry;
+    private final RentalService rentalService;
+    private final VehicleService vehicleService;
+
+    // Holds, deren Umwandlung gerade läuft (verhindert doppelte Mieten aus einem Hold)
+    private final Set<String> converting = ConcurrentHashMap.newKeySet();
+
+    public HoldServiceImpl(HoldRegistry holdRegistry,
+                           RentalService rentalService,
+                           VehicleService vehicleService) {
+        this.holdRegistry = holdRegistry;
+        this.rentalService = rentalService;
+        this.vehicleService = vehicleService;
+    }
+
+    @Override
+    public Optional<Hold> getById(String id) {
+        return holdRegistry.get(id);
+    }
+
+    @Override
+    public Hold create(Hold hold) {
+        logger.debug("Erstelle Hold für Fahrzeug {} von {} bis {}", hold.getVehicleId(), hold.getStartDate(), hold.getEndDate());
+        RentalPricing.validateDates(hold.getStartDate(), hold.getEndDate());
+        if (!vehicleService.existsById(hold.getVehicleId())) {
+            throw new ResourceNotFoundException("Vehicle", "id", hold.getVehicleId());
+        }
+        // Buchungsprüfung und Eintragen unter der Fahrzeug-Sperre der Registry (kein check-then-act)
+        return holdRegistry.add(hold,
+                () -> rentalService.isBooked(hold.getVehicleId(), hold.getStartDate(), hold.getEndDate()));
+    }
+
+    @Override
+    public Rental convertToRental(String id) {
+        logger.debug("Wandle Hold {} in Rental um", id);
+        Hold hold = holdRegistry.get(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold", "id", id));
+        if (!converting.add(id)) {
+            throw new VehicleNotAvailableException(hold.getVehicleId(), hold.getStartDate(), hold.getEndDate());
+        }
+        try {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(hold.getVehicleId());
+            Rental rental = new Rental();
+            rental.setCustomer(hold.getCustomer());
+            rental.setStartDate(hold.getStartDate());
+            rental.setEndDate(hold.getEndDate());
+            rental.setVehicle(vehicle);
+            // Der Hold bleibt bis zum Erfolg aktiv und blockiert damit andere Kunden;
+            // nur die eigene Miete ist davon ausgenommen. Schlägt sie fehl, bleibt er einfach bestehen.
+            Rental saved = rentalService.createFromHold(rental, id);
+            holdRegistry.remove(id);
+            return saved;
+        } finally {
+            converting.remove(id);
+        }
+    }
+
+    @Override
+    public void release(String id) {
+        logger.debug("Gebe Hold {} frei", id);
+        if (holdRegistry.remove(id).isEmpty()) {
+            throw new ResourceNotFoundException("Hold", "id", id);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.m295nick.models.FieldSet;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sparse Fieldsets für das Profil {@code inmemory}: die Objekte liegen ohnehin im Speicher,
+ * gefiltert wird nur die Ausgabe (über die Jackson-Darstellung, inkl. {@code @SnowflakeJson}).
+ */
+@Service
+@Profile("inmemory")
+public class InMemoryFieldProjectionService implements FieldProjectionService {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final VehicleService vehicleService;
+    private final RentalService rentalService;
+    private final ObjectMapper objectMapper;
+
+    public InMemoryFieldProjectionService(VehicleService vehicleService, RentalService rentalService,
+                                          ObjectMapper objectMapper) {
+        this.vehicleService = vehicleService;
+        this.rentalService = rentalService;
+        this.objectMapper = objectMapper;
+    }
+
+    // ─── Vehicles ───
+
+    @Override
+    public Optional<Map<String, Object>> getVehicleById(Long id, FieldSet fields) {
+        return vehicleService.getById(id).map(v -> project(v, fields));
+    }
+
+    @Override
+    public List<Map<String, Object>> getVehicles(FieldSet fields) {
+        return projectAll(vehicleService.getAll(), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getVehiclesByAirConditioning(Boolean hasAir, FieldSet fields) {
+        return projectAll(vehicleService.getByAirConditioning(hasAir), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getVehiclesByBrand(String brandPart, FieldSet fields) {
+        return projectAll(vehicleService.getByBrand(brandPart), fields);
+    }
+
+    // ─── Rentals ───
+
+    @Override
+    public Optional<Map<String, Object>> getRentalById(Long id, FieldSet fields) {
+        return rentalService.getById(id).map(r -> project(r, fields));
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentals(FieldSet fields) {
+        return projectAll(rentalService.getAll(), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentalsByStartDateAfter(LocalDate date, FieldSet fields) {
+        return projectAll(rentalService.getByStartDateAfter(date), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentalsByEndDateBefore(LocalDate date, FieldSet fields) {
+        return projectAll(rentalService.getByEndDateBefore(date), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRentalsByCustomer(String name, boolean fuzzy, FieldSet fields) {
+        return projectAll(rentalService.getByCustomer(name, fuzzy), fields);
+    }
+
+    private List<Map<String, Object>> projectAll(List<?> beans, FieldSet fields) {
+        return beans.stream().map(b -> project(b, fields)).toList();
+    }
+
+    private Map<String, Object> project(Object bean, FieldSet fields) {
+        Map<String, Object> all = objectMapper.convertValue(bean, MAP_TYPE);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String f : fields.names()) {
+            result.put(f, all.get(f));
+        }
+        return result;
+    }
+}
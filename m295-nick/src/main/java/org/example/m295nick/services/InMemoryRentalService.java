@@ -0,0 +1,235 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * RentalService über den {@link InMemoryStore} (Profil {@code inmemory}, ohne MySQL).
+ * Preis- und Datumsregeln kommen aus {@link RentalPricing}, identisch zur JPA-Variante.
+ * Änderungen gehen wie dort in die Outbox, allerdings erst nach dem Schreiben in den Store.
+ */
+@Service
+@Profile("inmemory")
+public class InMemoryRentalService implements RentalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRentalService.class);
+    private static final String AGGREGATE = "Rental";
+
+    private final InMemoryStore store;
+    private final HoldRegistry holdRegistry;
+    private final BulkWriter bulkWriter;
+    private final OutboxService outboxService;
+
+    public InMemoryRentalService(InMemoryStore store, HoldRegistry holdRegistry, BulkWriter bulkWriter,
+                                 OutboxService outboxService) {
+        this.store = store;
+        this.holdRegistry = holdRegistry;
+        this.bulkWriter = bulkWriter;
+        this.outboxService = outboxService;
+    }
+
+    @Override
+    public Optional<Rental> getById(Long id) {
+        logger.debug("Lese Rental mit ID {}", id);
+        return Optional.ofNullable(store.findRental(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.findRental(id) != null;
+    }
+
+    @Override
+    public List<Rental> getAll() {
+        return store.findAllRentals();
+    }
+
+    @Override
+    public List<Rental> getByStartDateAfter(LocalDate date) {
+        return store.findRentalsStartingAfter(date);
+    }
+
+    @Override
+    public List<Rental> getByEndDateBefore(LocalDate date) {
+        return store.findRentalsEndingBefore(date);
+    }
+
+    // Kein Kunden-Index im Speicher-Backend: Namen werden beim Scan normalisiert und verglichen
+    @Override
+    public List<Rental> getByCustomer(String name, boolean fuzzy) {
+        String query = CustomerIndex.normalize(name);
+        int k = fuzzy ? CustomerIndex.maxEditsFor(query, 2) : 0;
+        return store.findAllRentals().stream()
+                .filter(r -> CustomerIndex.boundedLevenshtein(query, CustomerIndex.normalize(r.getCustomer()), k) <= k)
+                .toList();
+    }
+
+    // Fahrzeuge liegen im selben Speicher; Kopien bekommen die Referenz für ?expand=vehicle
+    @Override
+    public Optional<Rental> getByIdWithVehicle(Long id) {
+        return getById(id).map(this::withVehicle);
+    }
+
+    @Override
+    public List<Rental> getAllWithVehicle() {
+        return getAll().stream().map(this::withVehicle).toList();
+    }
+
+    @Override
+    public List<Rental> getByStartDateAfterWithVehicle(LocalDate date) {
+        return getByStartDateAfter(date).stream().map(this::withVehicle).toList();
+    }
+
+    @Override
+    public List<Rental> getByEndDateBeforeWithVehicle(LocalDate date) {
+        return getByEndDateBefore(date).stream().map(this::withVehicle).toList();
+    }
+
+    private Rental withVehicle(Rental r) {
+        if (r.getVehicleId() != null) {
+            r.setVehicle(store.findVehicle(r.getVehicleId()));
+        }
+        return r;
+    }
+
+    @Override
+    public boolean isBooked(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return store.existsOverlappingRental(vehicleId, startDate, endDate);
+    }
+
+    @Override
+    public Rental create(Rental rental) {
+        return createFromHold(rental, null);
+    }
+
+    @Override
+    public Rental createFromHold(Rental rental, String holdId) {
+        price(rental, holdId);
+        rental.setId(null);
+        return saveRentals(List.of(rental), OutboxEvent.CREATED).get(0);
+    }
+
+    @Override
+    public List<Rental> createAll(List<Rental> rentals) {
+        for (Rental r : rentals) {
+            price(r, null);
+            r.setId(null);
+        }
+        return saveRentals(rentals, OutboxEvent.CREATED);
+    }
+
+    @Override
+    public BulkResult createAllPartial(List<Rental> rentals) {
+        return bulkWriter.write(rentals,
+                r -> {
+                    if (r.getVehicle() == null && r.getVehicleId() == null) {
+                        throw new IllegalArgumentException("vehicleId fehlt");
+                    }
+                    price(r, null);
+                    r.setId(null);
+                },
+                batch -> saveRentals(batch, OutboxEvent.CREATED),
+                Rental::getId,
+                r -> r.setId(null));
+    }
+
+    @Override
+    public Rental update(Long id, Rental rentalToUpdate) {
+        Rental existing = store.findRental(id);
+        if (existing == null) {
+            throw new ResourceNotFoundException("Rental", "id", id);
+        }
+        price(rentalToUpdate, null);
+        rentalToUpdate.setId(id);
+        // Rückgabe-Status bleibt erhalten, Überfälligkeit nur bei gleichem Enddatum
+        rentalToUpdate.setReturnedAt(existing.getReturnedAt());
+        rentalToUpdate.setOverdueAt(rentalToUpdate.getEndDate().equals(existing.getEndDate())
+                ? existing.getOverdueAt() : null);
+        return saveRentals(List.of(rentalToUpdate), OutboxEvent.UPDATED).get(0);
+    }
+
+    @Override
+    public Rental markReturned(Long id) {
+        Rental existing = store.findRental(id);
+        if (existing == null) {
+            throw new ResourceNotFoundException("Rental", "id", id);
+        }
+        if (existing.getReturnedAt() != null) {
+            return existing;
+        }
+        existing.setReturnedAt(Instant.now());
+        return saveRentals(List.of(existing), OutboxEvent.RETURNED).get(0);
+    }
+
+    // Kein Scheduler im Speicher-Backend: überfällig ist, was beim Lesen überfällig ist
+    @Override
+    public List<Rental> getOverdue() {
+        LocalDate today = LocalDate.now();
+        return store.findRentalsEndingBefore(today).stream()
+                .filter(r -> r.getReturnedAt() == null)
+                .sorted(Comparator.comparing(Rental::getEndDate))
+                .toList();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        if (!store.deleteRental(id)) {
+            throw new ResourceNotFoundException("Rental", "id", id);
+        }
+        outboxService.record(AGGREGATE, id, OutboxEvent.DELETED, Map.of("id", id));
+    }
+
+    @Override
+    public void deleteAll() {
+        store.deleteAllRentals();
+        outboxService.record(AGGREGATE, null, OutboxEvent.ALL_DELETED, Map.of());
+    }
+
+    @Override
+    public void deleteByStartDateAfter(LocalDate date) {
+        for (Long id : store.deleteRentalsStartingAfter(date)) {
+            outboxService.record(AGGREGATE, id, OutboxEvent.DELETED, Map.of("id", id));
+        }
+    }
+
+    private List<Rental> saveRentals(List<Rental> rentals, String eventType) {
+        List<Rental> saved = store.saveRentals(rentals);
+        for (Rental r : saved) {
+            outboxService.record(AGGREGATE, r.getId(), eventType, r);
+        }
+        return saved;
+    }
+
+    // Fahrzeug auflösen, Daten und Holds prüfen und totalCost setzen (wie RentalServiceImpl)
+    private void price(Rental r, String exemptHoldId) {
+        Long vid = r.getVehicle() != null ? r.getVehicle().getId() : r.getVehicleId();
+        Vehicle v = store.findVehicle(vid);
+        if (v == null) {
+            throw new ResourceNotFoundException("Vehicle", "id", vid);
+        }
+        RentalPricing.validateDates(r.getStartDate(), r.getEndDate());
+        if (holdRegistry.overlaps(vid, r.getStartDate(), r.getEndDate(), exemptHoldId)) {
+            throw new VehicleNotAvailableException(vid, r.getStartDate(), r.getEndDate());
+        }
+        r.setTotalCost(RentalPricing.calculateTotalCost(v.getPricePerDay(), r.getStartDate(), r.getEndDate()));
+        r.setVehicle(null);
+        r.setVehicleId(vid);
+        r.setReturnedAt(null);
+        r.setOverdueAt(null);
+    }
+}
@@ -0,0 +1,517 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Speicher-Engine für das Profil {@code inmemory}: Vehicles und Rentals liegen in
+ * long-Schlüssel-Maps, die Datumsfelder der Rentals zusätzlich spaltenweise in
+ * int-Arrays (Epoch-Day), damit Datumsfilter als einfacher Array-Scan laufen.
+ * <p>
+ * Dauerhaftigkeit: jede Änderung wird als JSON-Zeile ins Journal geschrieben und
+ * vor der Rückgabe per fsync gesichert ({@code inmemory.fsync}, abschaltbar für
+ * Lasttests). Periodisch wird ein Snapshot erstellt und das Journal geleert. Beim
+ * Start wird Snapshot + Journal wieder eingelesen.
+ * <p>
+ * Nach aussen werden nur Kopien herausgegeben, damit niemand am Lock vorbei ändert.
+ */
+@Component
+@Profile("inmemory")
+public class InMemoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStore.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongHashMap<Vehicle> vehicles = new LongHashMap<>(1024);
+    private final LongHashMap<RentalRow> rentals = new LongHashMap<>(4096);
+    private final RentalColumns columns = new RentalColumns();
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final boolean persistent;
+    private final boolean fsync;
+
+    private long nextVehicleId = 1;
+    private long nextRentalId = 1;
+    private FileChannel journalChannel;
+    private BufferedWriter journal;
+    private long journalEntries;
+
+    public InMemoryStore(ObjectMapper objectMapper,
+                         @Value("${inmemory.dir:data/inmemory}") String directory,
+                         @Value("${inmemory.persistent:true}") boolean persistent,
+                         @Value("${inmemory.fsync:true}") boolean fsync) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.persistent = persistent;
+        this.fsync = fsync;
+    }
+
+    // ─── Lebenszyklus ───
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (!persistent) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve("snapshot.json");
+        if (Files.exists(snapshot)) {
+            JsonNode root = objectMapper.readTree(snapshot.toFile());
+            for (JsonNode v : root.path("vehicles")) {
+                applyPutVehicle(objectMapper.treeToValue(v, Vehicle.class));
+            }
+            for (JsonNode r : root.path("rentals")) {
+                applyPutRental(objectMapper.treeToValue(r, Rental.class));
+            }
+        }
+        Path journalFile = directory.resolve("journal.jsonl");
+        long replayed = 0;
+        if (Files.exists(journalFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        replay(objectMapper.readTree(line));
+                        replayed++;
+                    } catch (IOException e) {
+                        // unvollständige letzte Zeile nach Absturz
+                        logger.warn("InMemoryStore: Journal-Zeile übersprungen: {}", e.getMessage());
+                    }
+                }
+            }
+        }
+        openJournal(StandardOpenOption.APPEND);
+        journalEntries = replayed;
+        logger.info("InMemoryStore geladen: {} Fahrzeuge, {} Rentals ({} Journal-Einträge)",
+                vehicles.size(), rentals.size(), replayed);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            snapshot();
+            journal.close();
+        }
+    }
+
+    /** Snapshot schreiben und Journal leeren, sobald genug Einträge angefallen sind. */
+    @Scheduled(fixedDelayString = "${inmemory.snapshot-interval-ms:60000}")
+    public void snapshotIfNeeded() throws IOException {
+        if (journal != null && journalEntries > 0) {
+            snapshot();
+        }
+    }
+
+    public void snapshot() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            List<Object> vs = new ArrayList<>(vehicles.size());
+            vehicles.forEachValue(vs::add);
+            List<Object> rs = new ArrayList<>(rentals.size());
+            rentals.forEachValue(row -> rs.add(row.rental));
+            root.set("vehicles", objectMapper.valueToTree(vs));
+            root.set("rentals", objectMapper.valueToTree(rs));
+            Path tmp = directory.resolve("snapshot.json.tmp");
+            objectMapper.writeValue(tmp.toFile(), root);
+            Files.move(tmp, directory.resolve("snapshot.json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal.close();
+            openJournal(StandardOpenOption.TRUNCATE_EXISTING);
+            journalEntries = 0;
+            logger.debug("InMemoryStore: Snapshot geschrieben ({} Fahrzeuge, {} Rentals)", vs.size(), rs.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ─── Vehicles ───
+
+    public Vehicle findVehicle(long id) {
+        lock.readLock().lock();
+        try {
+            Vehicle v = vehicles.get(id);
+            return v == null ? null : copy(v);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Vehicle> findVehicles(Predicate<Vehicle> filter) {
+        lock.readLock().lock();
+        try {
+            List<Vehicle> result = new ArrayList<>();
+            vehicles.forEachValue(v -> {
+                if (filter.test(v)) {
+                    result.add(copy(v));
+                }
+            });
+            result.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Vehicle> saveVehicles(List<Vehicle> toSave) {
+        lock.writeLock().lock();
+        try {
+            List<Vehicle> saved = new ArrayList<>(toSave.size());
+            for (Vehicle v : toSave) {
+                Vehicle stored = copy(v);
+                if (stored.getId() == null || !vehicles.containsKey(stored.getId())) {
+                    stored.setId(nextVehicleId);
+                }
+                applyPutVehicle(stored);
+                log("V+", stored);
+                saved.add(copy(stored));
+            }
+            flush();
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Gelöschte Fahrzeuge und die mitgelöschten Rentals (für Outbox-Events). */
+    public record Deleted(List<Long> vehicleIds, List<Long> rentalIds) {
+    }
+
+    /** Fahrzeuge löschen; zugehörige Rentals werden wie bei JPA (orphanRemoval) mitgelöscht. */
+    public Deleted deleteVehicles(Predicate<Vehicle> filter) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            List<Long> rentalIds = new ArrayList<>();
+            vehicles.forEachValue(v -> {
+                if (filter.test(v)) {
+                    ids.add(v.getId());
+                }
+            });
+            for (Long id : ids) {
+                // Kaskade explizit journalisieren, damit ein Replay keine verwaisten Rentals zurückholt
+                for (long rentalId : columns.idsWhere(i -> columns.vehicleIds[i] == id)) {
+                    applyRemoveRental(rentalId);
+                    log("R-", rentalId);
+                    rentalIds.add(rentalId);
+                }
+                vehicles.remove(id);
+                log("V-", id);
+            }
+            flush();
+            return new Deleted(ids, rentalIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ─── Rentals ───
+
+    public Rental findRental(long id) {
+        lock.readLock().lock();
+        try {
+            RentalRow row = rentals.get(id);
+            return row == null ? null : copy(row.rental);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Rental> findAllRentals() {
+        return findRentals(i -> true);
+    }
+
+    public List<Rental> findRentalsStartingAfter(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        return findRentals(i -> columns.startDays[i] > day);
+    }
+
+    public List<Rental> findRentalsEndingBefore(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        return findRentals(i -> columns.endDays[i] < day);
+    }
+
+    /** Gibt es für das Fahrzeug eine Miete, die den Zeitraum überschneidet? */
+    public boolean existsOverlappingRental(long vehicleId, LocalDate start, LocalDate end) {
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        lock.readLock().lock();
+        try {
+            return columns.idsWhere(i -> columns.vehicleIds[i] == vehicleId
+                    && columns.startDays[i] <= endDay && columns.endDays[i] >= startDay).length > 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Rental> saveRentals(List<Rental> toSave) {
+        lock.writeLock().lock();
+        try {
+            List<Rental> saved = new ArrayList<>(toSave.size());
+            for (Rental r : toSave) {
+                Rental stored = copy(r);
+                if (stored.getId() == null || !rentals.containsKey(stored.getId())) {
+                    stored.setId(nextRentalId);
+                }
+                applyPutRental(stored);
+                log("R+", stored);
+                saved.add(copy(stored));
+            }
+            flush();
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> deleteAllRentals() {
+        return deleteRentals(i -> true);
+    }
+
+    private List<Long> deleteRentals(IntPredicate columnFilter) {
+        lock.writeLock().lock();
+        try {
+            long[] ids = columns.idsWhere(columnFilter);
+            for (long id : ids) {
+                applyRemoveRental(id);
+                log("R-", id);
+            }
+            flush();
+            return Arrays.stream(ids).boxed().toList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> deleteRentalsStartingAfter(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        return deleteRentals(i -> columns.startDays[i] > day);
+    }
+
+    public boolean deleteRental(long id) {
+        lock.writeLock().lock();
+        try {
+            if (!rentals.containsKey(id)) {
+                return false;
+            }
+            applyRemoveRental(id);
+            log("R-", id);
+            flush();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ─── intern ───
+
+    private List<Rental> findRentals(IntPredicate columnFilter) {
+        lock.readLock().lock();
+        try {
+            List<Rental> result = new ArrayList<>();
+            for (long id : columns.idsWhere(columnFilter)) {
+                result.add(copy(rentals.get(id).rental));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyPutVehicle(Vehicle v) {
+        vehicles.put(v.getId(), v);
+        nextVehicleId = Math.max(nextVehicleId, v.getId() + 1);
+    }
+
+    private void applyPutRental(Rental r) {
+        RentalRow row = rentals.get(r.getId());
+        if (row == null) {
+            row = new RentalRow();
+            row.column = columns.add(r.getId());
+            rentals.put(r.getId(), row);
+        }
+        row.rental = r;
+        columns.set(row.column, r);
+        nextRentalId = Math.max(nextRentalId, r.getId() + 1);
+    }
+
+    // Ältere Journale enthalten für mitgelöschte Rentals noch kein "R-" → beim Replay kaskadieren
+    private void applyRemoveVehicle(long id) {
+        for (long rentalId : columns.idsWhere(i -> columns.vehicleIds[i] == id)) {
+            applyRemoveRental(rentalId);
+        }
+        vehicles.remove(id);
+    }
+
+    private void applyRemoveRental(long id) {
+        RentalRow row = rentals.remove(id);
+        if (row == null) {
+            return;
+        }
+        // Letzte Spalte in die Lücke verschieben und deren Zeilenverweis nachführen
+        long moved = columns.removeAt(row.column);
+        if (moved != id) {
+            rentals.get(moved).column = row.column;
+        }
+    }
+
+    private void replay(JsonNode entry) throws IOException {
+        JsonNode data = entry.get("d");
+        switch (entry.get("op").asText()) {
+            case "V+" -> applyPutVehicle(objectMapper.treeToValue(data, Vehicle.class));
+            case "V-" -> applyRemoveVehicle(data.asLong());
+            case "R+" -> applyPutRental(objectMapper.treeToValue(data, Rental.class));
+            case "R-" -> applyRemoveRental(data.asLong());
+            default -> logger.warn("InMemoryStore: unbekannte Journal-Operation {}", entry.get("op"));
+        }
+    }
+
+    private void log(String op, Object data) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            ObjectNode entry = objectMapper.createObjectNode();
+            entry.put("op", op);
+            entry.set("d", objectMapper.valueToTree(data));
+            journal.write(objectMapper.writeValueAsString(entry));
+            journal.newLine();
+            journalEntries++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("InMemoryStore: Journal nicht beschreibbar", e);
+        }
+    }
+
+    private void flush() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.flush();
+            if (fsync) {
+                // erst nach force() gilt die Änderung als bestätigt
+                journalChannel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("InMemoryStore: Journal nicht beschreibbar", e);
+        }
+    }
+
+    private void openJournal(StandardOpenOption mode) throws IOException {
+        journalChannel = FileChannel.open(directory.resolve("journal.jsonl"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+        journal = new BufferedWriter(Channels.newWriter(journalChannel, StandardCharsets.UTF_8));
+    }
+
+    private static Vehicle copy(Vehicle v) {
+        Vehicle c = new Vehicle();
+        c.setId(v.getId());
+        c.setBrand(v.getBrand());
+        c.setModel(v.getModel());
+        c.setFirstRegistration(v.getFirstRegistration());
+        c.setHasAirConditioning(v.getHasAirConditioning());
+        c.setPricePerDay(v.getPricePerDay());
+        c.setSeats(v.getSeats());
+        return c;
+    }
+
+    private static Rental copy(Rental r) {
+        Rental c = new Rental();
+        c.setId(r.getId());
+        c.setCustomer(r.getCustomer());
+        c.setStartDate(r.getStartDate());
+        c.setEndDate(r.getEndDate());
+        c.setTotalCost(r.getTotalCost());
+        c.setVehicleId(r.getVehicleId());
+        c.setReturnedAt(r.getReturnedAt());
+        c.setOverdueAt(r.getOverdueAt());
+        return c;
+    }
+
+    private static final class RentalRow {
+        Rental rental;
+        int column;
+    }
+
+    /** Spaltenweise Ablage der für Filter relevanten Rental-Felder. */
+    private static final class RentalColumns {
+        long[] ids = new long[4096];
+        long[] vehicleIds = new long[4096];
+        int[] startDays = new int[4096];
+        int[] endDays = new int[4096];
+        int size;
+
+        int add(long id) {
+            if (size == ids.length) {
+                int n = size * 2;
+                ids = Arrays.copyOf(ids, n);
+                vehicleIds = Arrays.copyOf(vehicleIds, n);
+                startDays = Arrays.copyOf(startDays, n);
+                endDays = Arrays.copyOf(endDays, n);
+            }
+            ids[size] = id;
+            return size++;
+        }
+
+        void set(int i, Rental r) {
+            vehicleIds[i] = r.getVehicleId() == null ? -1 : r.getVehicleId();
+            startDays[i] = (int) r.getStartDate().toEpochDay();
+            endDays[i] = (int) r.getEndDate().toEpochDay();
+        }
+
+        // Entfernt Spalte i, indem die letzte Spalte dorthin kopiert wird; liefert die ID der verschobenen Zeile
+        long removeAt(int i) {
+            int last = --size;
+            ids[i] = ids[last];
+            vehicleIds[i] = vehicleIds[last];
+            startDays[i] = startDays[last];
+            endDays[i] = endDays[last];
+            return ids[i];
+        }
+
+        long[] idsWhere(IntPredicate filter) {
+            long[] out = new long[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (filter.test(i)) {
+                    out[n++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
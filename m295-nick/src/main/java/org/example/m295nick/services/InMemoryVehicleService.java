@@ -0,0 +1,159 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * VehicleService über den {@link InMemoryStore} (Profil {@code inmemory}, ohne MySQL).
+ * Jede Änderung geht wie bei der JPA-Variante in die Outbox (SSE-Feed, Löschmarken, Audit-Journal),
+ * allerdings erst nach dem Schreiben in den Store und nicht in derselben Transaktion.
+ */
+@Service
+@Profile("inmemory")
+public class InMemoryVehicleService implements VehicleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryVehicleService.class);
+    private static final String AGGREGATE = "Vehicle";
+    private static final String RENTAL_AGGREGATE = "Rental";
+
+    private final InMemoryStore store;
+    private final BulkWriter bulkWriter;
+    private final ResponseByteCache responseByteCache;
+    private final VehicleMediaService vehicleMediaService;
+    private final OutboxService outboxService;
+
+    public InMemoryVehicleService(InMemoryStore store, BulkWriter bulkWriter, ResponseByteCache responseByteCache,
+                                  VehicleMediaService vehicleMediaService, OutboxService outboxService) {
+        this.store = store;
+        this.bulkWriter = bulkWriter;
+        this.responseByteCache = responseByteCache;
+        this.vehicleMediaService = vehicleMediaService;
+        this.outboxService = outboxService;
+    }
+
+    @Override
+    public Optional<Vehicle> getById(Long id) {
+        logger.debug("Lese Fahrzeug mit ID {}", id);
+        return Optional.ofNullable(store.findVehicle(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.findVehicle(id) != null;
+    }
+
+    @Override
+    public List<Vehicle> getAll() {
+        return store.findVehicles(v -> true);
+    }
+
+    @Override
+    public List<Vehicle> getByAirConditioning(Boolean hasAir) {
+        return store.findVehicles(v -> hasAir.equals(v.getHasAirConditioning()));
+    }
+
+    @Override
+    public List<Vehicle> getByBrand(String brandPart) {
+        String needle = brandPart.toLowerCase();
+        return store.findVehicles(v -> v.getBrand().toLowerCase().contains(needle));
+    }
+
+    @Override
+    public Vehicle create(Vehicle vehicle) {
+        // Business‐Regel: Fahrzeugalter ≤ 30 Jahre
+        if (vehicle.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
+            throw new IllegalArgumentException("Fahrzeug darf nicht älter als 30 Jahre sein");
+        }
+        vehicle.setId(null);
+        return saveVehicles(List.of(vehicle), OutboxEvent.CREATED).get(0);
+    }
+
+    @Override
+    public List<Vehicle> createAll(List<Vehicle> vehicles) {
+        for (Vehicle v : vehicles) {
+            if (v.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
+                throw new IllegalArgumentException("Mindestens ein Fahrzeug ist älter als 30 Jahre");
+            }
+            v.setId(null);
+        }
+        return saveVehicles(vehicles, OutboxEvent.CREATED);
+    }
+
+    @Override
+    public BulkResult createAllPartial(List<Vehicle> vehicles) {
+        return bulkWriter.write(vehicles,
+                v -> {
+                    if (v.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
+                        throw new IllegalArgumentException("Fahrzeug darf nicht älter als 30 Jahre sein");
+                    }
+                    v.setId(null);
+                },
+                batch -> saveVehicles(batch, OutboxEvent.CREATED),
+                Vehicle::getId,
+                v -> v.setId(null));
+    }
+
+    @Override
+    public Vehicle update(Long id, Vehicle vehicleToUpdate) {
+        if (store.findVehicle(id) == null) {
+            throw new ResourceNotFoundException("Vehicle", "id", id);
+        }
+        vehicleToUpdate.setId(id);
+        return saveVehicles(List.of(vehicleToUpdate), OutboxEvent.UPDATED).get(0);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        List<Long> deleted = deleteVehicles(v -> v.getId().equals(id));
+        if (deleted.isEmpty()) {
+            throw new ResourceNotFoundException("Vehicle", "id", id);
+        }
+        outboxService.record(AGGREGATE, id, OutboxEvent.DELETED, Map.of("id", id));
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteVehicles(v -> true);
+        outboxService.record(AGGREGATE, null, OutboxEvent.ALL_DELETED, Map.of());
+    }
+
+    @Override
+    public void deleteByFirstRegistrationBefore(LocalDate date) {
+        for (Long id : deleteVehicles(v -> v.getFirstRegistration().isBefore(date))) {
+            outboxService.record(AGGREGATE, id, OutboxEvent.DELETED, Map.of("id", id));
+        }
+    }
+
+    // Alle Schreibzugriffe laufen hier durch, damit der Antwort-Cache invalidiert wird und die Outbox das Event bekommt
+    private List<Vehicle> saveVehicles(List<Vehicle> vehicles, String eventType) {
+        List<Vehicle> saved = store.saveVehicles(vehicles);
+        for (Vehicle v : saved) {
+            outboxService.record(AGGREGATE, v.getId(), eventType, v);
+        }
+        responseByteCache.invalidate();
+        return saved;
+    }
+
+    private List<Long> deleteVehicles(Predicate<Vehicle> filter) {
+        InMemoryStore.Deleted deleted = store.deleteVehicles(filter);
+        // Rentals werden im Store mitgelöscht – auch dafür braucht der Feed DELETED-Events
+        for (Long rentalId : deleted.rentalIds()) {
+            outboxService.record(RENTAL_AGGREGATE, rentalId, OutboxEvent.DELETED, Map.of("id", rentalId));
+        }
+        vehicleMediaService.deleteByVehicleIds(deleted.vehicleIds());
+        responseByteCache.invalidate();
+        return deleted.vehicleIds();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.m295nick.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-adressierte Ablage für Fahrzeug-Medien unter {@code media.dir}:
+ * {@code blobs/ab/cd/<sha256>} für Originale, {@code thumbnails/ab/<sha256>-<px>.jpg} für Vorschaubilder.
+ * <p>
+ * Identische Inhalte liegen nur einmal auf der Platte. Geschrieben wird zuerst in {@code tmp/},
+ * danach atomar verschoben, so dass unter einem Hash nie eine halbe Datei liegt.
+ */
+@Component
+public class MediaStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    /** Hochgeladener, noch nicht übernommener Inhalt in {@code tmp/}. */
+    public record Staged(Path file, String sha256, long size) {
+    }
+
+    private final Path root;
+
+    public MediaStore(@Value("${media.dir:data/media}") String directory) {
+        this.root = Path.of(directory);
+    }
+
+    /** Inhalt nach {@code tmp/} schreiben und dabei den SHA-256 berechnen. */
+    public Staged stage(InputStream content) throws IOException {
+        Path tmp = Files.createDirectories(root.resolve("tmp"));
+        Path file = Files.createTempFile(tmp, "upload-", ".part");
+        MessageDigest digest = sha256();
+        long size;
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+            size = content.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new Staged(file, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    /** Übernimmt den Inhalt unter seinem Hash; ist er schon vorhanden, wird die Kopie verworfen. */
+    public Path commit(Staged staged) throws IOException {
+        Path target = blob(staged.sha256());
+        if (Files.exists(target)) {
+            Files.delete(staged.file());
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    public void discard(Staged staged) throws IOException {
+        Files.deleteIfExists(staged.file());
+    }
+
+    public Path blob(String sha256) {
+        checkHash(sha256);
+        return root.resolve("blobs").resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public Path thumbnail(String sha256, int size) {
+        checkHash(sha256);
+        return root.resolve("thumbnails").resolve(sha256.substring(0, 2)).resolve(sha256 + "-" + size + ".jpg");
+    }
+
+    /** Original und Vorschaubild entfernen (nur aufrufen, wenn kein Eintrag mehr darauf verweist). */
+    public void delete(String sha256, int thumbnailSize) throws IOException {
+        Files.deleteIfExists(blob(sha256));
+        Files.deleteIfExists(thumbnail(sha256, thumbnailSize));
+    }
+
+    // Der Hash wird Teil des Pfads: nur Hex zulassen, damit nie ausserhalb von media.dir gelesen wird
+    private static void checkHash(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Ungültiger Inhalts-Hash: " + sha256);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
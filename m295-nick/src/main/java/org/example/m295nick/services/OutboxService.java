@@ -0,0 +1,20 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OutboxEvent;
+import java.util.List;
+
+public interface OutboxService {
+
+    // ─── Schreiben (innerhalb der Transaktion des Aufrufers) ───
+    void record(String aggregateType, Long aggregateId, String eventType, Object payload);
+
+    // ─── Veröffentlichen (Relay) ───
+    int publishPending();
+
+    // ─── Lesen (Fan-out / Resume über Last-Event-ID = Feed-Position) ───
+    List<OutboxEvent> getAfter(Long lastSeq);
+    Long getLatestSeq();
+
+    // ─── Aufräumen ───
+    int purgeOlderThanHours(long hours);
+}
@@ -0,0 +1,119 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.m295nick.models.AuditRecord;
+import org.example.m295nick.models.OutboxCursor;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Tombstone;
+import org.example.m295nick.repositories.OutboxCursorRepository;
+import org.example.m295nick.repositories.OutboxEventRepository;
+import org.example.m295nick.repositories.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@Transactional
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCursorRepository outboxCursorRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditJournal auditJournal;
+    private final TombstoneRepository tombstoneRepository;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                             OutboxCursorRepository outboxCursorRepository,
+                             ObjectMapper objectMapper,
+                             AuditJournal auditJournal,
+                             TombstoneRepository tombstoneRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxCursorRepository = outboxCursorRepository;
+        this.objectMapper = objectMapper;
+        this.auditJournal = auditJournal;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    // MANDATORY: ein Outbox-Eintrag ohne umgebende Geschäftstransaktion wäre ein Fehler
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        logger.debug("Outbox: {} {} id={}", aggregateType, eventType, aggregateId);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox-Payload konnte nicht serialisiert werden", e);
+        }
+        outboxEventRepository.save(new OutboxEvent(aggregateType, aggregateId, eventType, json));
+
+        // Jede Löschung (auch Bulk und Kaskade) hinterlässt eine Löschmarke für den Delta-Sync
+        if (OutboxEvent.DELETED.equals(eventType) || OutboxEvent.ALL_DELETED.equals(eventType)) {
+            tombstoneRepository.save(new Tombstone(aggregateType, aggregateId));
+        }
+
+        // Jede Mutation landet auch im Audit-Journal – aber erst nach erfolgreichem Commit,
+        // gestempelt mit dem Commit-Zeitpunkt (nicht mit createdAt vor dem Commit)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditJournal.append(new AuditRecord(Instant.now(), aggregateType, aggregateId, eventType, json));
+                }
+            });
+        } else {
+            auditJournal.append(new AuditRecord(Instant.now(), aggregateType, aggregateId, eventType, json));
+        }
+    }
+
+    /**
+     * Committete Events nummerieren. Der Zähler bleibt bis zum Commit gesperrt; ein zweites
+     * Relay (anderer Knoten) wartet und sieht danach nur noch höhere Positionen.
+     * So wird nie eine kleinere Feed-Position nach einer grösseren sichtbar.
+     */
+    @Override
+    public int publishPending() {
+        OutboxCursor cursor = outboxCursorRepository.findForUpdate(OutboxCursor.SINGLETON_ID)
+                .orElseGet(() -> outboxCursorRepository.saveAndFlush(new OutboxCursor(OutboxCursor.SINGLETON_ID, 0L)));
+        List<OutboxEvent> pending = outboxEventRepository.findTop500BySeqIsNullOrderByIdAsc();
+        long seq = cursor.getLastSeq();
+        for (OutboxEvent event : pending) {
+            event.setSeq(++seq);
+        }
+        cursor.setLastSeq(seq);
+        if (!pending.isEmpty()) {
+            logger.debug("Outbox: {} Events veröffentlicht (bis Position {})", pending.size(), seq);
+        }
+        return pending.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OutboxEvent> getAfter(Long lastSeq) {
+        return outboxEventRepository.findTop500BySeqGreaterThanOrderBySeqAsc(lastSeq == null ? 0L : lastSeq);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getLatestSeq() {
+        return outboxEventRepository.findMaxSeq();
+    }
+
+    @Override
+    public int purgeOlderThanHours(long hours) {
+        int geloescht = outboxEventRepository.deletePublishedBefore(Instant.now().minus(hours, ChronoUnit.HOURS));
+        logger.debug("Outbox: {} alte Events gelöscht", geloescht);
+        return geloescht;
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RentalDue;
+import org.example.m295nick.repositories.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Meldet Rentals, deren Enddatum ohne Rückgabe verstrichen ist (Outbox-Event {@code OVERDUE}).
+ * <p>
+ * Statt bei jedem Lauf alle Rentals zu scannen, hält der Tracker eine Prioritätswarteschlange
+ * der offenen Fälligkeiten der nächsten {@code overdue.horizon-days} Tage, geladen über
+ * {@code idx_rental_open_due}. Ein Tick entnimmt nur die fälligen Einträge und prüft sie
+ * gegen die DB; der Horizont wird tageweise nachgeladen. Neue und geänderte Rentals meldet
+ * {@link RentalServiceImpl} über {@link #track(Rental)}.
+ */
+@Component
+@Profile("!inmemory")
+public class OverdueTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueTracker.class);
+
+    private static final String AGGREGATE = "Rental";
+
+    private final RentalRepository rentalRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+
+    private final PriorityQueue<RentalDue> queue =
+            new PriorityQueue<>(Comparator.comparing(RentalDue::endDate).thenComparing(RentalDue::rentalId));
+    // Bis zu diesem Enddatum (inkl.) sind alle offenen Fälligkeiten in der Warteschlange; null = noch nichts geladen
+    private LocalDate loadedUntil;
+
+    public OverdueTracker(RentalRepository rentalRepository,
+                          OutboxService outboxService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${overdue.horizon-days:7}") int horizonDays) {
+        this.rentalRepository = rentalRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Neue oder geänderte Rental vormerken, falls ihre Fälligkeit im geladenen Horizont liegt.
+     * Innerhalb einer Transaktion erst nach dem Commit: sonst könnte ein Tick den Eintrag vorher
+     * entnehmen, den alten Stand lesen und ihn verwerfen.
+     */
+    public void track(Rental rental) {
+        if (rental.getId() == null || rental.getReturnedAt() != null || rental.getOverdueAt() != null) {
+            return;
+        }
+        RentalDue due = new RentalDue(rental.getId(), rental.getEndDate());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(due);
+                }
+            });
+        } else {
+            enqueue(due);
+        }
+    }
+
+    private synchronized void enqueue(RentalDue due) {
+        if (loadedUntil != null && !due.endDate().isAfter(loadedUntil)) {
+            queue.add(due);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${overdue.initial-delay-ms:10000}",
+            fixedDelayString = "${overdue.interval-ms:60000}")
+    public void tick() {
+        int gemeldet = tick(LocalDate.now());
+        if (gemeldet > 0) {
+            logger.info("{} Rentals als überfällig gemeldet", gemeldet);
+        }
+    }
+
+    /** Ein Lauf für den Stichtag {@code today}; liefert die Anzahl neu gemeldeter Rentals. */
+    int tick(LocalDate today) {
+        List<Long> due = takeDue(today);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        return transactionTemplate.execute(status -> {
+            int count = 0;
+            // Zustand kann sich seit dem Einreihen geändert haben (Rückgabe, Verlängerung, Löschung);
+            // gesperrt gelesen, weil Rental ohne @Version alle Spalten zurückschreibt
+            for (Rental r : rentalRepository.findAllByIdForUpdate(due)) {
+                if (r.getReturnedAt() == null && r.getOverdueAt() == null && r.getEndDate().isBefore(today)) {
+                    r.setOverdueAt(now);
+                    outboxService.record(AGGREGATE, r.getId(), OutboxEvent.OVERDUE, r);
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    // Horizont nachladen, dann alle Einträge mit Enddatum vor today entnehmen
+    private synchronized List<Long> takeDue(LocalDate today) {
+        LocalDate until = today.plusDays(horizonDays);
+        if (loadedUntil == null) {
+            // Erster Lauf: auch Fälligkeiten, die während einer Downtime verstrichen sind
+            queue.addAll(rentalRepository.findOpenDueUntil(until));
+            loadedUntil = until;
+        } else if (until.isAfter(loadedUntil)) {
+            queue.addAll(rentalRepository.findOpenDueBetween(loadedUntil, until));
+            loadedUntil = until;
+        }
+        List<Long> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().endDate().isBefore(today)) {
+            due.add(queue.poll().rentalId());
+        }
+        return due;
+    }
+}
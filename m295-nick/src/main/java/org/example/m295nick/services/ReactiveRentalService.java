@@ -0,0 +1,20 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.Rental;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Nicht-blockierende Lesezugriffe auf Rentals (für /api/v2/rentals).
+ * Gleiche Semantik wie die Lesemethoden von {@link RentalService}, inkl. Archiv bei den Filtern.
+ */
+public interface ReactiveRentalService {
+
+    // ─── Read ───
+    Mono<Rental> getById(Long id);
+    Flux<Rental> getAll();
+    Flux<Rental> getByStartDateAfter(LocalDate date);
+    Flux<Rental> getByEndDateBefore(LocalDate date);
+}
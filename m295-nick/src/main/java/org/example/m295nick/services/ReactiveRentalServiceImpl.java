@@ -0,0 +1,122 @@
+package org.example.m295nick.services;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.example.m295nick.models.Rental;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+/**
+ * Liest Rentals über R2DBC: die Zeilen werden nach Bedarf des Clients (Back-Pressure)
+ * aus dem Treiber geholt, ohne einen Thread pro offenem Stream zu belegen.
+ * <p>
+ * Der Pool gehört diesem Service und ist bewusst keine Bean (siehe application.properties).
+ * Nur Lesezugriffe: Schreiben samt Preis- und Datumsregeln ({@link RentalPricing})
+ * bleibt im {@link RentalServiceImpl}, damit es genau einen Schreibpfad gibt.
+ * Im Profil {@code inmemory} gibt es keine Tabellen und damit keine v2-API.
+ */
+@Service
+@Profile("!inmemory")
+public class ReactiveRentalServiceImpl implements ReactiveRentalService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRentalServiceImpl.class);
+
+    private static final String HOT = "select id, customer, start_date, end_date, total_cost, vehicle_id from rental";
+    private static final String ARCHIVE = "select id, customer, start_date, end_date, total_cost, vehicle_id from rental_archive";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+    private final RentalArchiveService rentalArchiveService;
+
+    public ReactiveRentalServiceImpl(RentalArchiveService rentalArchiveService,
+                                     @Value("${rentals.reactive.url}") String url,
+                                     @Value("${rentals.reactive.username:}") String username,
+                                     @Value("${rentals.reactive.password:}") String password,
+                                     @Value("${rentals.reactive.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        // Verbindungen werden erst beim ersten Zugriff aufgebaut
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+        this.rentalArchiveService = rentalArchiveService;
+    }
+
+    @Override
+    public Mono<Rental> getById(Long id) {
+        logger.debug("Lese Rental (reaktiv) mit ID {}", id);
+        return query(HOT + " where id = :id").bind("id", id).map(ReactiveRentalServiceImpl::toRental).one()
+                .switchIfEmpty(Mono.defer(() -> query(ARCHIVE + " where id = :id").bind("id", id)
+                        .map(ReactiveRentalServiceImpl::toRental).one()));
+    }
+
+    @Override
+    public Flux<Rental> getAll() {
+        // Operativ: nur die heisse Tabelle, wie RentalServiceImpl.getAll
+        return query(HOT + " order by id").map(ReactiveRentalServiceImpl::toRental).all();
+    }
+
+    @Override
+    public Flux<Rental> getByStartDateAfter(LocalDate date) {
+        return hotThenArchive(" where start_date > :date order by id", date, rentalArchiveService::mayContainStartAfter);
+    }
+
+    @Override
+    public Flux<Rental> getByEndDateBefore(LocalDate date) {
+        return hotThenArchive(" where end_date < :date order by id", date, rentalArchiveService::mayContainEndBefore);
+    }
+
+    /*
+     * Archiv erst, wenn die heisse Tabelle fertig gestreamt ist (eine Verbindung pro Stream), und nur,
+     * wenn sein Datumsbereich etwas beitragen kann – wie in RentalServiceImpl. Die Bereichsprüfung
+     * ist blockierend (JPA, gecacht) und läuft daher auf boundedElastic.
+     */
+    private Flux<Rental> hotThenArchive(String where, LocalDate date, Predicate<LocalDate> archiveMayContain) {
+        Flux<Rental> archive = Mono.fromCallable(() -> archiveMayContain.test(date))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(mayContain -> mayContain
+                        ? query(ARCHIVE + where).bind("date", date).map(ReactiveRentalServiceImpl::toRental).all()
+                        : Flux.empty());
+        return Flux.concat(
+                query(HOT + where).bind("date", date).map(ReactiveRentalServiceImpl::toRental).all(),
+                archive);
+    }
+
+    private DatabaseClient.GenericExecuteSpec query(String sql) {
+        return databaseClient.sql(sql);
+    }
+
+    private static Rental toRental(Readable row) {
+        Rental r = new Rental();
+        r.setId(row.get("id", Long.class));
+        r.setCustomer(row.get("customer", String.class));
+        r.setStartDate(row.get("start_date", LocalDate.class));
+        r.setEndDate(row.get("end_date", LocalDate.class));
+        r.setTotalCost(row.get("total_cost", BigDecimal.class));
+        r.setVehicleId(row.get("vehicle_id", Long.class));
+        return r;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
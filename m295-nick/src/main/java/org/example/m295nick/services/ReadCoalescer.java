@@ -0,0 +1,126 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.DeadlineExceededException;
+import org.example.m295nick.models.CoalescingStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-Flight für Leseabfragen: gleichzeitige, identische Aufrufe (gleiche Operation,
+ * gleiches Argument) teilen sich eine laufende DB-Abfrage und deren Ergebnis.
+ * <p>
+ * Mitläufer warten höchstens {@code coalescing.timeout-ms} (bzw. bis zu ihrer {@link RequestDeadline})
+ * und fragen danach selbst ab; scheitert der Leader an seiner kürzeren Deadline, ebenso.
+ * Innerhalb einer Transaktion wird nicht gebündelt, damit keine verwalteten Entities
+ * zwischen Sessions geteilt werden. Geteilte Ergebnisse dürfen nicht verändert werden.
+ */
+@Component
+public class ReadCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadCoalescer.class);
+
+    private record Key(String operation, Object argument) {
+    }
+
+    private static final class Counters {
+        final LongAdder executed = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+    }
+
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(@Value("${coalescing.enabled:true}") boolean enabled,
+                         @Value("${coalescing.timeout-ms:2000}") long timeoutMs) {
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Ergebnis von {@code loader} liefern; läuft dieselbe Abfrage schon, deren Ergebnis übernehmen. */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object argument, Supplier<T> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        Counters c = counters.computeIfAbsent(operation, k -> new Counters());
+        Key key = new Key(operation, argument);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        // Treffer = laufende Abfrage übernommen; die Dauer zeigt die Wartezeit des Mitläufers
+        FlightEvents.CacheLookup lookup = FlightEvents.cacheLookup("read-coalescing", operation);
+        lookup.hit = running != null;
+
+        if (running == null) {
+            lookup.commit();
+            c.executed.increment();
+            try {
+                T result = loader.get();
+                mine.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        c.coalesced.increment();
+        try {
+            return (T) running.get(RequestDeadline.bound(timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            c.timeouts.increment();
+            RequestDeadline.check();
+            logger.debug("Coalescing-Timeout für {}({}), frage selbst ab", operation, argument);
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (isTimeout(e.getCause()) && !RequestDeadline.isExpired()) {
+                // Die kürzere Deadline des Leaders gilt nicht für diesen Aufrufer
+                return loader.get();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Warten auf laufende Abfrage unterbrochen", e);
+        } finally {
+            lookup.commit();
+        }
+    }
+
+    private static boolean isTimeout(Throwable t) {
+        return t instanceof DeadlineExceededException || t instanceof QueryTimeoutException
+                || t instanceof jakarta.persistence.QueryTimeoutException;
+    }
+
+    public List<CoalescingStats> getStatistics() {
+        return counters.entrySet().stream()
+                .map(e -> new CoalescingStats(e.getKey(),
+                        e.getValue().executed.sum(),
+                        e.getValue().coalesced.sum(),
+                        e.getValue().timeouts.sum(),
+                        (int) inFlight.keySet().stream().filter(k -> k.operation().equals(e.getKey())).count()))
+                .sorted(Comparator.comparing(CoalescingStats::operation))
+                .toList();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.m295nick.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verschiebt abgeschlossene Rentals gedrosselt ins Archiv. Jeder Batch läuft
+ * in einer eigenen kurzen Transaktion, dazwischen wird pausiert, damit der
+ * laufende Betrieb nicht blockiert wird.
+ */
+@Component
+public class RentalArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalArchiveJob.class);
+
+    private final RentalArchiveService rentalArchiveService;
+    private final boolean enabled;
+    private final long throttleMs;
+    private final int maxBatchesPerRun;
+
+    public RentalArchiveJob(RentalArchiveService rentalArchiveService,
+                            @Value("${rentals.archive.enabled:true}") boolean enabled,
+                            @Value("${rentals.archive.throttle-ms:200}") long throttleMs,
+                            @Value("${rentals.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.rentalArchiveService = rentalArchiveService;
+        this.enabled = enabled;
+        this.throttleMs = throttleMs;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${rentals.archive.cron:0 30 2 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int archiviert = rentalArchiveService.archiveBatch();
+            total += archiviert;
+            if (archiviert == 0) {
+                break;
+            }
+            try {
+                Thread.sleep(throttleMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        logger.info("Archivierung beendet: {} Rentals verschoben (Horizont {})", total,
+                rentalArchiveService.getArchiveCutoff());
+    }
+}
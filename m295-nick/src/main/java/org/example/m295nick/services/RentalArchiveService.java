@@ -0,0 +1,32 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RentalSpan;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RentalArchiveService {
+
+    // ─── Archivierung ───
+    int archiveBatch();
+    LocalDate getArchiveCutoff();
+
+    // ─── Historische Abfragen (nur falls der Datumsbereich das Archiv betrifft) ───
+    Optional<Rental> getById(Long id);
+    boolean existsById(Long id);
+    List<Rental> getByStartDateAfter(LocalDate date);
+    List<Rental> getByEndDateBefore(LocalDate date);
+    List<Rental> getByCustomerIds(Collection<Long> customerIds);
+    List<RentalSpan> getSpansOverlapping(LocalDate from, LocalDate to);
+
+    // ─── Datumsbereich (Archiv überspringen, wenn es nichts beitragen kann) ───
+    boolean mayContainStartAfter(LocalDate date);
+    boolean mayContainEndBefore(LocalDate date);
+
+    // ─── Delete ───
+    boolean deleteById(Long id);
+    void deleteAll();
+    List<Long> deleteByVehicleIds(Collection<Long> vehicleIds);
+}
@@ -0,0 +1,199 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RentalSpan;
+import org.example.m295nick.repositories.ArchivedRentalRepository;
+import org.example.m295nick.repositories.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class RentalArchiveServiceImpl implements RentalArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalArchiveServiceImpl.class);
+
+    private final RentalRepository rentalRepository;
+    private final ArchivedRentalRepository archivedRentalRepository;
+    private final long horizonDays;
+    private final int batchSize;
+    private final long rangeTtlMs;
+
+    /*
+     * Zwischengespeicherter Datumsbereich des Archivs (null = noch nicht geladen).
+     * Der Cache ist pro JVM: archiviert ein anderer Knoten, erfährt dieser Knoten erst
+     * nach Ablauf der TTL (rentals.archive.range-ttl-ms) davon.
+     */
+    private volatile CachedRange archiveRange;
+
+    public RentalArchiveServiceImpl(RentalRepository rentalRepository,
+                                    ArchivedRentalRepository archivedRentalRepository,
+                                    @Value("${rentals.archive.horizon-days:365}") long horizonDays,
+                                    @Value("${rentals.archive.batch-size:500}") int batchSize,
+                                    @Value("${rentals.archive.range-ttl-ms:60000}") long rangeTtlMs) {
+        this.rentalRepository = rentalRepository;
+        this.archivedRentalRepository = archivedRentalRepository;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.rangeTtlMs = rangeTtlMs;
+    }
+
+    @Override
+    public LocalDate getArchiveCutoff() {
+        return LocalDate.now().minusDays(horizonDays);
+    }
+
+    @Override
+    public int archiveBatch() {
+        LocalDate cutoff = getArchiveCutoff();
+        List<Rental> batch = rentalRepository.findByEndDateBeforeOrderByIdAsc(cutoff, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        archivedRentalRepository.saveAll(batch.stream().map(ArchivedRental::of).toList());
+        rentalRepository.deleteAllInBatch(batch);
+        invalidateRangeAfterCommit();
+        logger.debug("{} Rentals mit EndDate vor {} archiviert", batch.size(), cutoff);
+        return batch.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Rental> getById(Long id) {
+        return archivedRentalRepository.findById(id).map(ArchivedRental::toRental);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return archivedRentalRepository.existsById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean mayContainStartAfter(LocalDate date) {
+        LocalDate[] range = loadRange();
+        // Archivierte Rentals enden spätestens am max. EndDate, starten also auch nicht später
+        return range != null && date.isBefore(range[1]);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean mayContainEndBefore(LocalDate date) {
+        LocalDate[] range = loadRange();
+        return range != null && date.isAfter(range[0]);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rental> getByStartDateAfter(LocalDate date) {
+        if (!mayContainStartAfter(date)) {
+            return List.of();
+        }
+        logger.debug("Archiv wird für StartDate nach {} einbezogen", date);
+        return archivedRentalRepository.findByStartDateAfter(date).stream().map(ArchivedRental::toRental).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rental> getByEndDateBefore(LocalDate date) {
+        if (!mayContainEndBefore(date)) {
+            return List.of();
+        }
+        logger.debug("Archiv wird für EndDate vor {} einbezogen", date);
+        return archivedRentalRepository.findByEndDateBefore(date).stream().map(ArchivedRental::toRental).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RentalSpan> getSpansOverlapping(LocalDate from, LocalDate to) {
+        LocalDate[] range = loadRange();
+        // Nichts im Archiv endet nach dem jüngsten Archiv-Enddatum
+        if (range == null || from.isAfter(range[1])) {
+            return List.of();
+        }
+        return archivedRentalRepository.findSpansOverlapping(from, to);
+    }
+
+    // Kunden-Codes sind indexiert, hier hilft der Datumsbereich nicht weiter
+    @Override
+    @Transactional(readOnly = true)
+    public List<Rental> getByCustomerIds(Collection<Long> customerIds) {
+        return archivedRentalRepository.findByCustomerIdIn(customerIds).stream().map(ArchivedRental::toRental).toList();
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        if (!archivedRentalRepository.existsById(id)) {
+            return false;
+        }
+        archivedRentalRepository.deleteById(id);
+        invalidateRangeAfterCommit();
+        return true;
+    }
+
+    @Override
+    public void deleteAll() {
+        archivedRentalRepository.deleteAllInBatch();
+        invalidateRangeAfterCommit();
+    }
+
+    /** Archiv-Einträge der Fahrzeuge löschen; liefert die IDs der gelöschten Rentals. */
+    @Override
+    public List<Long> deleteByVehicleIds(Collection<Long> vehicleIds) {
+        if (vehicleIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = archivedRentalRepository.findIdsByVehicleIdIn(vehicleIds);
+        if (!ids.isEmpty()) {
+            archivedRentalRepository.deleteAllByIdInBatch(ids);
+            invalidateRangeAfterCommit();
+        }
+        return ids;
+    }
+
+    // [minEndDate, maxEndDate] des Archivs oder null, falls leer
+    private LocalDate[] loadRange() {
+        CachedRange cached = archiveRange;
+        long now = System.currentTimeMillis();
+        if (cached == null || now - cached.loadedAt() > rangeTtlMs) {
+            LocalDate min = archivedRentalRepository.findMinEndDate();
+            LocalDate[] range = min == null ? new LocalDate[0] : new LocalDate[]{min, archivedRentalRepository.findMaxEndDate()};
+            cached = new CachedRange(range, now);
+            archiveRange = cached;
+        }
+        return cached.range().length == 0 ? null : cached.range();
+    }
+
+    /*
+     * Erst nach dem Commit verwerfen: sonst kann eine parallele Abfrage den Stand vor dem
+     * Commit neu laden und cachen – die frisch archivierten Zeilen wären dann unsichtbar.
+     */
+    private void invalidateRangeAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    archiveRange = null;
+                }
+            });
+        } else {
+            archiveRange = null;
+        }
+    }
+
+    private record CachedRange(LocalDate[] range, long loadedAt) {
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.m295nick.exceptions.DeadlineExceededException;
+import org.example.m295nick.models.Rental;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Group Commit für einzelne {@code POST /api/v1/rentals}: gleichzeitige Creates werden
+ * bis zu {@code rentals.group-commit.max-wait-ms} gesammelt und von einem Worker-Thread
+ * als ein Batch an den Service übergeben (eine Transaktion, ein Commit). Jeder Aufrufer
+ * wartet nur auf sein eigenes Ergebnis.
+ * <p>
+ * Standardmässig aus; die Batch-Logik liefert {@link RentalServiceImpl} über {@link #bind}.
+ */
+@Component
+@Profile("!inmemory")
+public class RentalGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalGroupCommitter.class);
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final int maxBatch;
+    private final long submitTimeoutMs;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private volatile Consumer<List<Pending>> handler;
+    private volatile boolean running;
+    private Thread worker;
+
+    public RentalGroupCommitter(@Value("${rentals.group-commit.enabled:false}") boolean enabled,
+                                @Value("${rentals.group-commit.max-wait-ms:5}") long maxWaitMs,
+                                @Value("${rentals.group-commit.max-batch:200}") int maxBatch,
+                                @Value("${rentals.group-commit.submit-timeout-ms:30000}") long submitTimeoutMs) {
+        this.enabled = enabled;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.submitTimeoutMs = submitTimeoutMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Batch-Verarbeitung registrieren und (falls aktiviert) den Worker starten. */
+    public synchronized void bind(Consumer<List<Pending>> handler) {
+        this.handler = handler;
+        if (enabled && worker == null) {
+            running = true;
+            worker = new Thread(this::run, "rental-group-commit");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Rental einreihen und blockierend auf das Ergebnis des Batches warten, höchstens
+     * {@code rentals.group-commit.submit-timeout-ms}. Nach dem Timeout wird der Eintrag nicht mehr
+     * verarbeitet, falls der Worker ihn noch nicht übernommen hat; sonst ist der Ausgang offen.
+     */
+    public Rental submit(Rental rental) {
+        if (!running) {
+            throw new IllegalStateException("Group Commit ist nicht aktiv");
+        }
+        Pending pending = new Pending(rental);
+        queue.add(pending);
+        try {
+            return pending.result.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group Commit fehlgeschlagen", e.getCause());
+        } catch (TimeoutException e) {
+            pending.fail(new DeadlineExceededException("Group Commit hat nicht rechtzeitig geantwortet"));
+            throw new DeadlineExceededException("Group Commit hat nicht innerhalb von " + submitTimeoutMs + " ms geantwortet");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.fail(new IllegalStateException("Aufrufer wurde unterbrochen"));
+            throw new IllegalStateException("Warten auf Group Commit unterbrochen", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        // Wer noch wartet, bekommt einen Fehler statt zu hängen
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.forEach(p -> p.fail(new IllegalStateException("Group Commit wurde gestoppt")));
+    }
+
+    private void run() {
+        while (running) {
+            List<Pending> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                handler.accept(batch);
+            } catch (Throwable t) {
+                // Auch Errors (OOM, StackOverflow) dürfen den Worker nicht beenden, sonst hängt jedes submit()
+                logger.warn("Group Commit Batch mit {} Rentals gescheitert: {}", batch.size(), t.toString());
+                RuntimeException failure = t instanceof RuntimeException e
+                        ? e : new IllegalStateException("Group Commit Batch gescheitert", t);
+                batch.forEach(p -> p.fail(failure));
+            }
+            // Nicht abgeschlossene Einträge nie hängen lassen
+            batch.stream().filter(p -> !p.result.isDone())
+                    .forEach(p -> p.fail(new IllegalStateException("Rental wurde im Batch nicht verarbeitet")));
+        }
+    }
+
+    // Erstes Element blockierend, danach bis max-wait bzw. max-batch weitere einsammeln
+    private List<Pending> nextBatch() throws InterruptedException {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<Pending> batch = new ArrayList<>();
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        // Bereits aufgegebene Einträge (Timeout beim Aufrufer) nicht mehr anlegen
+        batch.removeIf(p -> p.result.isDone());
+        logger.debug("Group Commit: Batch mit {} Rentals", batch.size());
+        return batch;
+    }
+
+    /** Ein wartender Create; wird genau einmal abgeschlossen. */
+    public static final class Pending {
+
+        private final Rental rental;
+        private final CompletableFuture<Rental> result = new CompletableFuture<>();
+
+        Pending(Rental rental) {
+            this.rental = rental;
+        }
+
+        public Rental rental() {
+            return rental;
+        }
+
+        public void complete(Rental saved) {
+            result.complete(saved);
+        }
+
+        public void fail(RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
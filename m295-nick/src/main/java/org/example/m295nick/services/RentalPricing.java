@@ -0,0 +1,28 @@
+package org.example.m295nick.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Gemeinsame Preis- und Validierungsregeln für Rentals, damit alle
+ * Service-Implementierungen dieselben Kosten berechnen.
+ */
+public final class RentalPricing {
+
+    private RentalPricing() {
+    }
+
+    // Cross‐Field‐Check: startDate ≤ endDate
+    public static void validateDates(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Startdatum darf nicht nach dem Enddatum liegen");
+        }
+    }
+
+    // Anzahl Tage inklusive (z. B. Start 2025-06-01, Ende 2025-06-03 = 3 Tage) × pricePerDay
+    public static BigDecimal calculateTotalCost(BigDecimal pricePerDay, LocalDate startDate, LocalDate endDate) {
+        long tage = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return pricePerDay.multiply(BigDecimal.valueOf(tage));
+    }
+}
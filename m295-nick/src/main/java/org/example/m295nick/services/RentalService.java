@@ -1,5 +1,6 @@
 package org.example.m295nick.services;
 
+import org.example.m295nick.models.BulkResult;
 import org.example.m295nick.models.Rental;
 import java.time.LocalDate;
 import java.util.List;
@@ -14,13 +15,31 @@ public interface RentalService {
     List<Rental> getByStartDateAfter(LocalDate date);
     List<Rental> getByEndDateBefore(LocalDate date);
 
+    // ─── Read mit geladenem Fahrzeug (?expand=vehicle) ───
+    Optional<Rental> getByIdWithVehicle(Long id);
+    List<Rental> getAllWithVehicle();
+    List<Rental> getByStartDateAfterWithVehicle(LocalDate date);
+    List<Rental> getByEndDateBeforeWithVehicle(LocalDate date);
+
+    // ─── Kundensuche ───
+    List<Rental> getByCustomer(String name, boolean fuzzy);
+
+    // ─── Verfügbarkeit ───
+    boolean isBooked(Long vehicleId, LocalDate startDate, LocalDate endDate);
+
     // ─── Create ───
     Rental create(Rental rental);
+    Rental createFromHold(Rental rental, String holdId);
     List<Rental> createAll(List<Rental> rentals);
+    BulkResult createAllPartial(List<Rental> rentals);
 
     // ─── Update ───
     Rental update(Long id, Rental rentalToUpdate);
 
+    // ─── Rückgabe ───
+    Rental markReturned(Long id);
+    List<Rental> getOverdue();
+
     // ─── Delete ───
     void deleteById(Long id);
     void deleteAll();
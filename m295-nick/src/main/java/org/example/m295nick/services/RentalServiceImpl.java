@@ -1,119 +1,340 @@
 package org.example.m295nick.services;
 
+import org.example.m295nick.configs.Traced;
+import org.example.m295nick.exceptions.RentalArchivedException;
 import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.OutboxEvent;
 import org.example.m295nick.models.Rental;
 import org.example.m295nick.models.Vehicle;
 import org.example.m295nick.repositories.RentalRepository;
 import org.example.m295nick.repositories.VehicleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.time.temporal.ChronoUnit;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Traced
+@Profile("!inmemory")
 @Transactional
 public class RentalServiceImpl implements RentalService {
 
     private static final Logger logger = LoggerFactory.getLogger(RentalServiceImpl.class);
 
+    private static final String AGGREGATE = "Rental";
+
     private final RentalRepository rentalRepository;
     private final VehicleRepository vehicleRepository;
+    private final OutboxService outboxService;
+    private final RentalArchiveService rentalArchiveService;
+    private final HoldRegistry holdRegistry;
+    private final CustomerService customerService;
+    private final BulkWriter bulkWriter;
+    private final RentalGroupCommitter groupCommitter;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadCoalescer readCoalescer;
+    private final OverdueTracker overdueTracker;
 
     public RentalServiceImpl(RentalRepository rentalRepository,
-                             VehicleRepository vehicleRepository) {
+                             VehicleRepository vehicleRepository,
+                             OutboxService outboxService,
+                             RentalArchiveService rentalArchiveService,
+                             HoldRegistry holdRegistry,
+                             CustomerService customerService,
+                             BulkWriter bulkWriter,
+                             RentalGroupCommitter groupCommitter,
+                             PlatformTransactionManager transactionManager,
+                             ReadCoalescer readCoalescer,
+                             OverdueTracker overdueTracker) {
         this.rentalRepository = rentalRepository;
         this.vehicleRepository = vehicleRepository;
+        this.outboxService = outboxService;
+        this.rentalArchiveService = rentalArchiveService;
+        this.holdRegistry = holdRegistry;
+        this.customerService = customerService;
+        this.bulkWriter = bulkWriter;
+        this.groupCommitter = groupCommitter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readCoalescer = readCoalescer;
+        this.overdueTracker = overdueTracker;
+        groupCommitter.bind(this::createBatch);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Rental> getById(Long id) {
         logger.debug("Lese Rental mit ID {}", id);
-        return rentalRepository.findById(id);
+        return readCoalescer.execute("rental.byId", id, () -> {
+            Optional<Rental> hot = rentalRepository.findById(id);
+            return hot.isPresent() ? hot : rentalArchiveService.getById(id);
+        });
     }
 
     @Override
     public boolean existsById(Long id) {
         logger.debug("Prüfe Existenz Rental-ID {}", id);
-        return rentalRepository.existsById(id);
+        return rentalRepository.existsById(id) || rentalArchiveService.existsById(id);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Rental> getAll() {
+        // Operativ: nur die heisse Tabelle (laufende und zukünftige Rentals)
         logger.debug("Lese alle Rentals");
-        return rentalRepository.findAll();
+        return readCoalescer.execute("rental.all", null, rentalRepository::findAll);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Rental> getByStartDateAfter(LocalDate date) {
         logger.debug("Filtere Rentals nach StartDate nach {}", date);
-        return rentalRepository.findByStartDateAfter(date);
+        return readCoalescer.execute("rental.byStartDateAfter", date,
+                () -> withArchive(rentalRepository.findByStartDateAfter(date),
+                        rentalArchiveService.getByStartDateAfter(date)));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Rental> getByEndDateBefore(LocalDate date) {
         logger.debug("Filtere Rentals nach EndDate vor {}", date);
-        return rentalRepository.findByEndDateBefore(date);
+        return readCoalescer.execute("rental.byEndDateBefore", date,
+                () -> withArchive(rentalRepository.findByEndDateBefore(date),
+                        rentalArchiveService.getByEndDateBefore(date)));
     }
 
     @Override
-    public Rental create(Rental rental) {
-        logger.debug("Erstelle neuen Rental: {}", rental);
+    public Optional<Rental> getByIdWithVehicle(Long id) {
+        logger.debug("Lese Rental mit Fahrzeug, ID {}", id);
+        Optional<Rental> hot = rentalRepository.findWithVehicleById(id);
+        return hot.isPresent() ? hot : rentalArchiveService.getById(id).map(r -> attachVehicles(List.of(r)).get(0));
+    }
 
-        Long vehicleId = rental.getVehicle().getId();
-        Vehicle fahrzeug = vehicleRepository.findById(vehicleId)
-                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId));
+    @Override
+    public List<Rental> getAllWithVehicle() {
+        logger.debug("Lese alle Rentals mit Fahrzeug");
+        return rentalRepository.findAllWithVehicle();
+    }
+
+    @Override
+    public List<Rental> getByStartDateAfterWithVehicle(LocalDate date) {
+        logger.debug("Filtere Rentals mit Fahrzeug nach StartDate nach {}", date);
+        return withArchive(rentalRepository.findWithVehicleByStartDateAfter(date),
+                attachVehicles(rentalArchiveService.getByStartDateAfter(date)));
+    }
 
-        // Cross‐Field‐Check: startDate ≤ endDate
-        if (rental.getStartDate().isAfter(rental.getEndDate())) {
-            throw new IllegalArgumentException("Startdatum darf nicht nach dem Enddatum liegen");
+    @Override
+    public List<Rental> getByEndDateBeforeWithVehicle(LocalDate date) {
+        logger.debug("Filtere Rentals mit Fahrzeug nach EndDate vor {}", date);
+        return withArchive(rentalRepository.findWithVehicleByEndDateBefore(date),
+                attachVehicles(rentalArchiveService.getByEndDateBefore(date)));
+    }
+
+    @Override
+    public List<Rental> getByCustomer(String name, boolean fuzzy) {
+        List<Long> customerIds = customerService.findIds(name, fuzzy);
+        logger.debug("Filtere Rentals nach Kunde '{}' (fuzzy={}): {} Kunden-Codes", name, fuzzy, customerIds.size());
+        if (customerIds.isEmpty()) {
+            return List.of();
         }
+        return withArchive(rentalRepository.findByCustomerIdIn(customerIds),
+                rentalArchiveService.getByCustomerIds(customerIds));
+    }
+
+    @Override
+    public boolean isBooked(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return rentalRepository.existsOverlapping(vehicleId, startDate, endDate);
+    }
 
-        // Berechne Anzahl der Tage inklusive (z. B. Start 2025-06-01, Ende 2025-06-03 = 3 Tage)
-        long tage = ChronoUnit.DAYS.between(rental.getStartDate(), rental.getEndDate()) + 1;
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Rental create(Rental rental) {
+        // Mit Group Commit hält der wartende Aufrufer keine Transaktion (und damit keine Connection) offen
+        if (groupCommitter.isEnabled()) {
+            return groupCommitter.submit(rental);
+        }
+        return transactionTemplate.execute(status -> createFromHold(rental, null));
+    }
 
-        // pricePerDay ist jetzt BigDecimal
-        BigDecimal pricePerDay = fahrzeug.getPricePerDay();
+    // Der umzuwandelnde Hold blockiert die eigene Miete nicht; er wird erst danach entfernt
+    @Override
+    public Rental createFromHold(Rental rental, String holdId) {
+        logger.debug("Erstelle neuen Rental: {}", rental);
 
-        // Multipliziere: tage × pricePerDay
-        BigDecimal tageBD = BigDecimal.valueOf(tage);
-        BigDecimal kosten = pricePerDay.multiply(tageBD);
+        Long vehicleId = rental.getVehicleId();
+        Vehicle fahrzeug = FlightEvents.rentalPhase("vehicleLookup", 1, () -> vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId)));
 
-        // Setze totalCost als BigDecimal
-        rental.setTotalCost(kosten);
+        FlightEvents.rentalPhase("pricing", 1, () -> {
+            RentalPricing.validateDates(rental.getStartDate(), rental.getEndDate());
+            checkNotHeld(vehicleId, rental, holdId);
+            rental.setTotalCost(RentalPricing.calculateTotalCost(
+                    fahrzeug.getPricePerDay(), rental.getStartDate(), rental.getEndDate()));
+        });
 
         rental.setVehicle(fahrzeug);
-        return rentalRepository.save(rental);
+        rental.setCustomerId(customerService.resolveId(rental.getCustomer()));
+        resetReturnState(rental);
+        return FlightEvents.rentalPhase("save", 1, () -> {
+            Rental saved = rentalRepository.save(rental);
+            outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.CREATED, saved);
+            overdueTracker.track(saved);
+            return saved;
+        });
     }
 
     @Override
     public List<Rental> createAll(List<Rental> rentals) {
         logger.debug("Erstelle mehrere Rentals, Anzahl={}", rentals.size());
+        return FlightEvents.bulk(AGGREGATE, "createAll", rentals.size(), () -> createAllInternal(rentals), list -> 0);
+    }
 
+    private List<Rental> createAllInternal(List<Rental> rentals) {
         for (Rental r : rentals) {
-            Long vid = r.getVehicle().getId();
+            Long vid = r.getVehicleId();
             Vehicle v = vehicleRepository.findById(vid)
                     .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vid));
 
-            if (r.getStartDate().isAfter(r.getEndDate())) {
-                throw new IllegalArgumentException("Startdatum darf nicht nach dem Enddatum liegen");
+            RentalPricing.validateDates(r.getStartDate(), r.getEndDate());
+            checkNotHeld(vid, r, null);
+            r.setTotalCost(RentalPricing.calculateTotalCost(v.getPricePerDay(), r.getStartDate(), r.getEndDate()));
+            r.setVehicle(v);
+            r.setCustomerId(customerService.resolveId(r.getCustomer()));
+            resetReturnState(r);
+        }
+
+        List<Rental> savedList = rentalRepository.saveAll(rentals);
+        for (Rental saved : savedList) {
+            outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.CREATED, saved);
+            overdueTracker.track(saved);
+        }
+        return savedList;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createAllPartial(List<Rental> rentals) {
+        // Ohne umschliessende Transaktion: BulkWriter committet blockweise
+        logger.debug("Erstelle mehrere Rentals (Teilerfolg), Anzahl={}", rentals.size());
+        return FlightEvents.bulk(AGGREGATE, "createAllPartial", rentals.size(), () -> {
+            Map<Long, Vehicle> vehicles = loadVehicles(rentals);
+            return bulkWriter.write(rentals,
+                    r -> prepareCreate(r, vehicles),
+                    this::saveCreated,
+                    Rental::getId,
+                    r -> r.setId(null));
+        }, BulkResult::failed);
+    }
+
+    // Group Commit: läuft auf dem Worker-Thread des RentalGroupCommitter, ohne Transaktion des Aufrufers
+    private void createBatch(List<RentalGroupCommitter.Pending> batch) {
+        FlightEvents.bulk(AGGREGATE, "groupCommit", batch.size(), () -> createBatchInternal(batch), failed -> failed);
+    }
+
+    // Liefert die Anzahl gescheiterter Aufrufer
+    private int createBatchInternal(List<RentalGroupCommitter.Pending> batch) {
+        List<Rental> rentals = batch.stream().map(RentalGroupCommitter.Pending::rental).toList();
+        Map<Long, Vehicle> vehicles = loadVehicles(rentals);
+
+        // Fachliche Fehler betreffen nur den jeweiligen Aufrufer
+        List<RentalGroupCommitter.Pending> accepted = new ArrayList<>(batch.size());
+        for (RentalGroupCommitter.Pending p : batch) {
+            try {
+                prepareCreate(p.rental(), vehicles);
+                accepted.add(p);
+            } catch (RuntimeException e) {
+                p.fail(e);
             }
+        }
+        int failed = batch.size() - accepted.size();
+        if (accepted.isEmpty()) {
+            return failed;
+        }
 
-            long tage = ChronoUnit.DAYS.between(r.getStartDate(), r.getEndDate()) + 1;
-            BigDecimal pricePerDay = v.getPricePerDay();
-            BigDecimal tageBD = BigDecimal.valueOf(tage);
-            BigDecimal kosten = pricePerDay.multiply(tageBD);
+        List<Rental> toSave = accepted.stream().map(RentalGroupCommitter.Pending::rental).toList();
+        try {
+            List<Rental> saved = transactionTemplate.execute(status -> saveCreated(toSave));
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            // Batch-Commit gescheitert: einzeln wiederholen, damit nur der Verursacher den Fehler sieht
+            logger.debug("Group Commit mit {} Rentals gescheitert, Einzelversuche: {}", accepted.size(), e.getMessage());
+            for (RentalGroupCommitter.Pending p : accepted) {
+                p.rental().setId(null);
+                try {
+                    p.complete(transactionTemplate.execute(status -> saveCreated(List.of(p.rental()))).get(0));
+                } catch (RuntimeException single) {
+                    p.fail(single);
+                    failed++;
+                }
+            }
+        }
+        return failed;
+    }
 
-            r.setTotalCost(kosten);
-            r.setVehicle(v);
+    // Fahrzeuge einmal vorab laden statt pro Rental
+    private Map<Long, Vehicle> loadVehicles(List<Rental> rentals) {
+        Set<Long> vehicleIds = rentals.stream()
+                .filter(Objects::nonNull)
+                .map(Rental::getVehicleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return FlightEvents.rentalPhase("vehicleLookup", rentals.size(), () -> vehicleRepository.findAllById(vehicleIds)
+                .stream()
+                .collect(Collectors.toMap(Vehicle::getId, v -> v)));
+    }
+
+    // Wie createFromHold, aber gegen vorab geladene Fahrzeuge
+    private void prepareCreate(Rental r, Map<Long, Vehicle> vehicles) {
+        Long vid = r.getVehicleId();
+        if (vid == null) {
+            throw new IllegalArgumentException("vehicleId fehlt");
+        }
+        Vehicle v = vehicles.get(vid);
+        if (v == null) {
+            throw new ResourceNotFoundException("Vehicle", "id", vid);
         }
+        FlightEvents.rentalPhase("pricing", 1, () -> {
+            RentalPricing.validateDates(r.getStartDate(), r.getEndDate());
+            checkNotHeld(vid, r, null);
+            r.setTotalCost(RentalPricing.calculateTotalCost(v.getPricePerDay(), r.getStartDate(), r.getEndDate()));
+        });
+        r.setVehicle(v);
+        r.setCustomerId(customerService.resolveId(r.getCustomer()));
+        resetReturnState(r);
+    }
+
+    private List<Rental> saveCreated(List<Rental> rentals) {
+        return FlightEvents.rentalPhase("save", rentals.size(), () -> {
+            List<Rental> savedList = rentalRepository.saveAll(rentals);
+            for (Rental saved : savedList) {
+                outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.CREATED, saved);
+                overdueTracker.track(saved);
+            }
+            return savedList;
+        });
+    }
 
-        return rentalRepository.saveAll(rentals);
+    // Rückgabe-Status setzt nur der Server, nie der Client
+    private static void resetReturnState(Rental r) {
+        r.setReturnedAt(null);
+        r.setOverdueAt(null);
     }
 
     @Override
@@ -122,46 +343,117 @@ public class RentalServiceImpl implements RentalService {
         return rentalRepository.findById(id)
                 .map(existing -> {
                     existing.setCustomer(rentalToUpdate.getCustomer());
+                    existing.setCustomerId(customerService.resolveId(rentalToUpdate.getCustomer()));
                     existing.setStartDate(rentalToUpdate.getStartDate());
+                    if (!rentalToUpdate.getEndDate().equals(existing.getEndDate())) {
+                        // Verlängert oder verkürzt: Überfälligkeit neu bewerten
+                        existing.setOverdueAt(null);
+                    }
                     existing.setEndDate(rentalToUpdate.getEndDate());
 
                     // Neues Fahrzeug ggf. verknüpfen
-                    Long newVid = rentalToUpdate.getVehicle().getId();
+                    Long newVid = rentalToUpdate.getVehicleId();
                     Vehicle v = vehicleRepository.findById(newVid)
                             .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", newVid));
                     existing.setVehicle(v);
+                    checkNotHeld(newVid, existing, null);
+
+                    // Kosten neu berechnen
+                    existing.setTotalCost(RentalPricing.calculateTotalCost(
+                            v.getPricePerDay(), existing.getStartDate(), existing.getEndDate()));
+                    Rental saved = rentalRepository.save(existing);
+                    outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.UPDATED, saved);
+                    overdueTracker.track(saved);
+                    return saved;
+                })
+                // Archivierte Rentals sind lesbar, aber abgeschlossen → 409 statt 404
+                .orElseThrow(() -> rentalArchiveService.existsById(id)
+                        ? new RentalArchivedException(id)
+                        : new ResourceNotFoundException("Rental", "id", id));
+    }
 
-                    // Kosten neu berechnen mit BigDecimal
-                    long tage = ChronoUnit.DAYS.between(existing.getStartDate(), existing.getEndDate()) + 1;
-                    BigDecimal pricePerDay = v.getPricePerDay();
-                    BigDecimal tageBD = BigDecimal.valueOf(tage);
-                    BigDecimal kosten = pricePerDay.multiply(tageBD);
-
-                    existing.setTotalCost(kosten);
-                    return rentalRepository.save(existing);
+    @Override
+    public Rental markReturned(Long id) {
+        logger.debug("Rückgabe Rental mit ID {}", id);
+        return rentalRepository.findById(id)
+                .map(existing -> {
+                    // Idempotent: eine zweite Rückgabe ändert nichts
+                    if (existing.getReturnedAt() != null) {
+                        return existing;
+                    }
+                    existing.setReturnedAt(Instant.now());
+                    Rental saved = rentalRepository.save(existing);
+                    outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.RETURNED, saved);
+                    return saved;
                 })
-                .orElseThrow(() -> new ResourceNotFoundException("Rental", "id", id));
+                .orElseThrow(() -> rentalArchiveService.existsById(id)
+                        ? new RentalArchivedException(id)
+                        : new ResourceNotFoundException("Rental", "id", id));
+    }
+
+    @Override
+    public List<Rental> getOverdue() {
+        logger.debug("Lese überfällige Rentals");
+        return rentalRepository.findByReturnedAtIsNullAndEndDateBeforeOrderByEndDateAsc(LocalDate.now());
     }
 
     @Override
     public void deleteById(Long id) {
         logger.debug("Lösche Rental mit ID {}", id);
-        if (!rentalRepository.existsById(id)) {
+        if (rentalRepository.existsById(id)) {
+            rentalRepository.deleteById(id);
+        } else if (!rentalArchiveService.deleteById(id)) {
             throw new ResourceNotFoundException("Rental", "id", id);
         }
-        rentalRepository.deleteById(id);
+        outboxService.record(AGGREGATE, id, OutboxEvent.DELETED, Map.of("id", id));
     }
 
     @Override
     public void deleteAll() {
         logger.debug("Lösche alle Rentals");
         rentalRepository.deleteAll();
+        rentalArchiveService.deleteAll();
+        outboxService.record(AGGREGATE, null, OutboxEvent.ALL_DELETED, Map.of());
     }
 
     @Override
     public void deleteByStartDateAfter(LocalDate date) {
+        // Archivierte Rentals sind abgeschlossen und bleiben hier unberührt
         logger.debug("Lösche Rentals mit StartDate nach {}", date);
         List<Rental> zuLoeschen = rentalRepository.findByStartDateAfter(date);
         rentalRepository.deleteAll(zuLoeschen);
+        for (Rental r : zuLoeschen) {
+            outboxService.record(AGGREGATE, r.getId(), OutboxEvent.DELETED, r);
+        }
+    }
+
+    // Aktive Holds (Checkout läuft) blockieren das Fahrzeug für andere Mieten
+    private void checkNotHeld(Long vehicleId, Rental rental, String exemptHoldId) {
+        if (holdRegistry.overlaps(vehicleId, rental.getStartDate(), rental.getEndDate(), exemptHoldId)) {
+            throw new VehicleNotAvailableException(vehicleId, rental.getStartDate(), rental.getEndDate());
+        }
+    }
+
+    // Archivierte Rentals kennen nur die vehicleId: Fahrzeuge gesammelt in einem Query nachladen
+    private List<Rental> attachVehicles(List<Rental> archived) {
+        if (archived.isEmpty()) {
+            return archived;
+        }
+        Set<Long> ids = archived.stream().map(Rental::getVehicleId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Vehicle> fahrzeuge = vehicleRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Vehicle::getId, v -> v));
+        archived.forEach(r -> r.setVehicle(fahrzeuge.get(r.getVehicleId())));
+        return archived;
+    }
+
+    // Heisse Treffer zuerst, Archiv nur anhängen, falls es etwas beiträgt
+    private static List<Rental> withArchive(List<Rental> hot, List<Rental> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Rental> result = new ArrayList<>(hot.size() + archived.size());
+        result.addAll(hot);
+        result.addAll(archived);
+        return result;
     }
 }
@@ -0,0 +1,11 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OccupancyReport;
+
+import java.time.YearMonth;
+
+public interface ReportService {
+
+    // ─── Belegung ───
+    OccupancyReport getOccupancy(YearMonth month);
+}
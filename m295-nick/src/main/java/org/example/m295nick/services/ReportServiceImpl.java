@@ -0,0 +1,81 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OccupancyReport;
+import org.example.m295nick.models.RentalSpan;
+import org.example.m295nick.repositories.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Berechnet den Belegungskalender serverseitig: eine Bereichsabfrage über
+ * startDate/endDate (nur Fahrzeug und Zeitraum, plus Archiv falls betroffen),
+ * danach in einem Durchlauf ein Bitset pro Fahrzeug.
+ * <p>
+ * Nur für das JPA-Backend.
+ */
+@Service
+@Profile("!inmemory")
+@Transactional(readOnly = true)
+public class ReportServiceImpl implements ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
+
+    private final RentalRepository rentalRepository;
+    private final RentalArchiveService rentalArchiveService;
+
+    public ReportServiceImpl(RentalRepository rentalRepository, RentalArchiveService rentalArchiveService) {
+        this.rentalRepository = rentalRepository;
+        this.rentalArchiveService = rentalArchiveService;
+    }
+
+    @Override
+    public OccupancyReport getOccupancy(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        List<RentalSpan> spans = rentalRepository.findSpansOverlapping(first, last);
+        List<RentalSpan> archived = rentalArchiveService.getSpansOverlapping(first, last);
+        logger.debug("Belegung {}: {} Rentals, {} aus dem Archiv", month, spans.size(), archived.size());
+
+        // Sortiert nach Fahrzeug-ID, damit die Antwort stabil ist
+        Map<Long, BitSet> occupancy = new TreeMap<>();
+        mark(spans, first, last, occupancy);
+        mark(archived, first, last, occupancy);
+
+        Map<String, String> vehicles = new LinkedHashMap<>();
+        occupancy.forEach((vehicleId, bits) -> vehicles.put(vehicleId.toString(), encode(bits, month.lengthOfMonth())));
+        return new OccupancyReport(month, month.lengthOfMonth(), vehicles);
+    }
+
+    // Tage jeder Miete, auf den Monat zugeschnitten, als Bits setzen
+    private static void mark(List<RentalSpan> spans, LocalDate first, LocalDate last, Map<Long, BitSet> occupancy) {
+        for (RentalSpan span : spans) {
+            if (span.vehicleId() == null) {
+                continue;
+            }
+            LocalDate from = span.startDate().isBefore(first) ? first : span.startDate();
+            LocalDate to = span.endDate().isAfter(last) ? last : span.endDate();
+            occupancy.computeIfAbsent(span.vehicleId(), id -> new BitSet(31))
+                    .set(from.getDayOfMonth() - 1, to.getDayOfMonth());
+        }
+    }
+
+    // Feste Länge (Tage / 8 aufgerundet), damit jedes Fahrzeug gleich lang kodiert ist
+    static String encode(BitSet bits, int days) {
+        byte[] bytes = new byte[(days + 7) / 8];
+        byte[] raw = bits.toByteArray();
+        System.arraycopy(raw, 0, bytes, 0, Math.min(raw.length, bytes.length));
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
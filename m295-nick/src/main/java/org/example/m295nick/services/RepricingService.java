@@ -0,0 +1,10 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.RepricingResult;
+
+public interface RepricingService {
+
+    // ─── totalCost offener/zukünftiger Rentals neu berechnen ───
+    RepricingResult repriceVehicle(Long vehicleId, boolean dryRun);
+    RepricingResult repriceFleet(boolean dryRun);
+}
@@ -0,0 +1,124 @@
+package org.example.m295nick.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RepricingResult;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Berechnet totalCost aller laufenden und zukünftigen Rentals nach einer Preisänderung neu.
+ * Die Rentals werden chunkweise (Keyset auf der ID, Fahrzeug per Fetch-Join) gelesen;
+ * geänderte Zeilen gehen über JDBC-Batching zurück, nach jedem Chunk wird der
+ * Persistence-Context geleert.
+ * <p>
+ * Jeder Chunk ist eine eigene kurze Transaktion mit genau einem Outbox-Event
+ * ({@code Rental REPRICED} mit den geänderten IDs und Beträgen) statt einem Event pro Zeile.
+ * Bricht ein Lauf ab, sind die bisherigen Chunks übernommen; ein erneuter Lauf setzt
+ * idempotent fort, da der Preis immer aus dem aktuellen Tagespreis berechnet wird.
+ * <p>
+ * Nur für das JPA-Backend; im Profil {@code inmemory} gibt es kein Repricing.
+ */
+@Service
+@Profile("!inmemory")
+public class RepricingServiceImpl implements RepricingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepricingServiceImpl.class);
+
+    private final RentalRepository rentalRepository;
+    private final VehicleRepository vehicleRepository;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public RepricingServiceImpl(RentalRepository rentalRepository,
+                                VehicleRepository vehicleRepository,
+                                OutboxService outboxService,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${repricing.chunk-size:500}") int chunkSize) {
+        this.rentalRepository = rentalRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.outboxService = outboxService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public RepricingResult repriceVehicle(Long vehicleId, boolean dryRun) {
+        if (!vehicleRepository.existsById(vehicleId)) {
+            throw new ResourceNotFoundException("Vehicle", "id", vehicleId);
+        }
+        return reprice(vehicleId, dryRun);
+    }
+
+    @Override
+    public RepricingResult repriceFleet(boolean dryRun) {
+        return reprice(null, dryRun);
+    }
+
+    private RepricingResult reprice(Long vehicleId, boolean dryRun) {
+        logger.debug("Repricing für Fahrzeug {} (dryRun={})", vehicleId == null ? "alle" : vehicleId, dryRun);
+        RepricingResult result = new RepricingResult(vehicleId, dryRun);
+        LocalDate today = LocalDate.now();
+        Long afterId = 0L;
+        while (afterId != null) {
+            long von = afterId;
+            afterId = transactionTemplate.execute(status -> repriceChunk(vehicleId, today, von, dryRun, result));
+        }
+
+        logger.info("Repricing: {} geprüft, {} geändert, Delta {} (dryRun={})",
+                result.getRentalsChecked(), result.getRentalsChanged(), result.getDelta(), dryRun);
+        return result;
+    }
+
+    // Ein Chunk in einer Transaktion; liefert die letzte ID oder null, wenn nichts mehr offen ist
+    private Long repriceChunk(Long vehicleId, LocalDate today, long afterId, boolean dryRun, RepricingResult result) {
+        List<Rental> chunk = rentalRepository.findOpenChunk(vehicleId, today, afterId, PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> geaendert = new ArrayList<>();
+        for (Rental r : chunk) {
+            BigDecimal neu = RentalPricing.calculateTotalCost(
+                    r.getVehicle().getPricePerDay(), r.getStartDate(), r.getEndDate());
+            BigDecimal alt = r.getTotalCost();
+            result.add(alt, neu);
+            if (!dryRun && alt.compareTo(neu) != 0) {
+                // Dirty Checking → gebatchtes UPDATE beim Flush
+                r.setTotalCost(neu);
+                geaendert.add(Map.of("id", r.getId(), "totalCost", neu));
+            }
+        }
+        if (!geaendert.isEmpty()) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("vehicleId", vehicleId);
+            payload.put("rentals", geaendert);
+            outboxService.record("Rental", null, OutboxEvent.REPRICED, payload);
+        }
+        if (!dryRun) {
+            entityManager.flush();
+        }
+        entityManager.clear();
+        return chunk.get(chunk.size() - 1).getId();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline der laufenden Anfrage, gebunden an den Request-Thread.
+ * <p>
+ * Gesetzt wird sie vom {@code DeadlineInterceptor}; die JDBC-Schicht
+ * ({@code DeadlineDataSource}) leitet daraus Query-Timeouts und {@code Statement.cancel()} ab,
+ * Dienste mit eigenen Wartezeiten (z. B. {@link ReadCoalescer}) begrenzen sie damit.
+ * Ohne gesetzte Deadline sind alle Methoden wirkungslos.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(long budgetMs) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    public static boolean isActive() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /** Verbleibende Zeit in ms (kann negativ sein); {@code Long.MAX_VALUE} ohne Deadline. */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? Long.MAX_VALUE
+                : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    public static boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    /** Bricht mit {@link DeadlineExceededException} ab, wenn die Deadline verstrichen ist. */
+    public static void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline der Anfrage überschritten");
+        }
+    }
+
+    /** {@code timeoutMs} auf die verbleibende Zeit kürzen. */
+    public static long bound(long timeoutMs) {
+        return Math.max(0, Math.min(timeoutMs, remainingMillis()));
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache fertig serialisierter Antworten (JSON und gzip) für häufig gelesene Listen,
+ * z. B. {@code GET /api/v1/vehicles}. Die Bytes liegen in Direct Buffers und werden
+ * ohne JPA und Jackson ausgeliefert.
+ * <p>
+ * Versioniert statt zeitgesteuert: jede Fahrzeugänderung ruft {@link #invalidate()} auf.
+ * Die Version startet bei der Startzeit, damit ETags nach einem Neustart nicht kollidieren.
+ */
+@Component
+public class ResponseByteCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseByteCache.class);
+
+    /** Serialisierte Antwort einer Version; die Buffer sind read-only und werden pro Request dupliziert. */
+    public record Entry(long version, ByteBuffer json, ByteBuffer gzip) {
+
+        public ByteBuffer body(boolean gzipped) {
+            return (gzipped ? gzip : json).duplicate();
+        }
+
+        /** Starker ETag; die gzip-Variante hat einen eigenen, weil sich die Bytes unterscheiden. */
+        public String etag(boolean gzipped) {
+            return "\"v" + version + (gzipped ? "-gz\"" : "\"");
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ResponseByteCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gecachte Antwort der aktuellen Version liefern oder über {@code loader} neu aufbauen.
+     * Pro Schlüssel baut nur ein Thread neu auf, die anderen warten auf dessen Ergebnis.
+     */
+    public Entry get(String key, Supplier<?> loader) {
+        FlightEvents.CacheLookup lookup = FlightEvents.cacheLookup("response-bytes", key);
+        long current = version.get();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.version() == current) {
+            lookup.hit = true;
+            lookup.commit();
+            return cached;
+        }
+        Entry entry = entries.compute(key, (k, old) -> old != null && old.version() == current ? old : build(k, current, loader));
+        // Miss inklusive Neuaufbau bzw. Warten auf den aufbauenden Thread
+        lookup.hit = false;
+        lookup.commit();
+        return entry;
+    }
+
+    /**
+     * Alle Einträge verwerfen. Innerhalb einer Transaktion wird nach dem Commit noch einmal
+     * hochgezählt, damit ein zwischenzeitlich gelesener, alter Stand nicht liegen bleibt.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private Entry build(String key, long forVersion, Supplier<?> loader) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(loader.get());
+            byte[] gzip = gzip(json);
+            logger.debug("Antwort-Cache '{}' neu aufgebaut: {} Bytes, gzip {} Bytes", key, json.length, gzip.length);
+            return new Entry(forVersion, direct(json), direct(gzip));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Antwort für '" + key + "' nicht serialisierbar", e);
+        }
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.m295nick.configs.TracingDataSource;
+import org.example.m295nick.models.SlowQuery;
+import org.example.m295nick.models.SlowQueryShape;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Slow-Query-Log: Statements ab {@code slow-query.threshold-ms} (gemessen in der
+ * {@code SlowQueryDataSource}) mit Parametern, Dauer, Repository- und Service-Methode.
+ * <p>
+ * Pro Abfrageform wird asynchron auf einer eigenen Verbindung ein {@code EXPLAIN} erfasst,
+ * höchstens alle {@code slow-query.explain-interval-ms}, und daraus werden Index-Vorschläge
+ * abgeleitet (Tabellenscan mit WHERE-Spalten, Filesort). Ersetzt {@code spring.jpa.show-sql}.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHERE = Pattern.compile(
+            "\\bwhere\\b(.*?)(\\border\\s+by\\b|\\bgroup\\s+by\\b|\\blimit\\b|\\bfetch\\b|\\boffset\\b|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ORDER_BY = Pattern.compile(
+            "\\border\\s+by\\b(.*?)(\\blimit\\b|\\bfetch\\b|\\boffset\\b|$)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CONDITION = Pattern.compile(
+            "(?:\\w+\\.)?(\\w+)\\s*(=|<>|!=|<=|>=|<|>|\\blike\\b|\\bbetween\\b|\\bin\\b|\\bis\\b)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COLUMN = Pattern.compile("(?:\\w+\\.)?(\\w+)");
+
+    private static final class Shape {
+        long count;
+        long totalMs;
+        long maxMs;
+        String repositoryMethod;
+        volatile String plan;
+        volatile List<String> suggestions = List.of();
+        volatile long explainedAt;
+        volatile boolean explaining;
+    }
+
+    private final boolean enabled;
+    private final long thresholdMs;
+    private final int recentCapacity;
+    private final long explainIntervalMs;
+    private final ObjectProvider<DataSource> dataSource;
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainer;
+
+    public SlowQueryLog(@Value("${slow-query.enabled:true}") boolean enabled,
+                        @Value("${slow-query.threshold-ms:200}") long thresholdMs,
+                        @Value("${slow-query.recent-capacity:200}") int recentCapacity,
+                        @Value("${slow-query.explain-interval-ms:600000}") long explainIntervalMs,
+                        ObjectProvider<DataSource> dataSource) {
+        this.enabled = enabled;
+        this.thresholdMs = thresholdMs;
+        this.recentCapacity = recentCapacity;
+        this.explainIntervalMs = explainIntervalMs;
+        this.dataSource = dataSource;
+        // Ein Thread, kurze Warteschlange: unter Last lieber einen EXPLAIN auslassen als die DB zusätzlich belasten
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), r -> {
+            Thread t = new Thread(r, "slow-query-explain");
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    /** Langsame Ausführung erfassen; {@code parameters} ist Platzhalter-Index → Wert. */
+    public void record(String sql, Map<Integer, Object> parameters, long durationMs,
+                       String repositoryMethod, String serviceMethod) {
+        List<String> values = parameters.values().stream().map(SlowQueryLog::abbreviate).toList();
+        SlowQuery query = new SlowQuery(Instant.now(), sql, values, durationMs, repositoryMethod, serviceMethod);
+        logger.warn("Langsame Abfrage ({} ms) in {} über {}: {} {}",
+                durationMs, serviceMethod, repositoryMethod, sql, values);
+        synchronized (recent) {
+            if (recent.size() == recentCapacity) {
+                recent.removeLast();
+            }
+            recent.addFirst(query);
+        }
+
+        String key = shape(sql);
+        Shape s = shapes.computeIfAbsent(key, k -> new Shape());
+        synchronized (s) {
+            s.count++;
+            s.totalMs += durationMs;
+            s.maxMs = Math.max(s.maxMs, durationMs);
+            if (repositoryMethod != null) {
+                s.repositoryMethod = repositoryMethod;
+            }
+        }
+        long now = System.currentTimeMillis();
+        if (!s.explaining && (s.plan == null || now - s.explainedAt >= explainIntervalMs) && isExplainable(sql)) {
+            s.explaining = true;
+            List<Object> bind = new ArrayList<>(parameters.values());
+            explainer.execute(() -> explain(s, sql, bind));
+        }
+    }
+
+    /** Neueste zuerst. */
+    public List<SlowQuery> getRecent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    /** Abfrageformen nach Gesamtdauer absteigend, optional nur eines Repositorys (z. B. {@code RentalRepository}). */
+    public List<SlowQueryShape> getReport(String repository, int limit) {
+        List<SlowQueryShape> report = new ArrayList<>();
+        shapes.forEach((key, s) -> {
+            synchronized (s) {
+                if (repository == null || (s.repositoryMethod != null && s.repositoryMethod.startsWith(repository + "."))) {
+                    report.add(new SlowQueryShape(key, s.repositoryMethod, s.count, s.totalMs, s.maxMs,
+                            (double) s.totalMs / s.count, s.plan, s.suggestions));
+                }
+            }
+        });
+        return report.stream()
+                .sorted(Comparator.comparingLong(SlowQueryShape::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        synchronized (recent) {
+            recent.clear();
+        }
+        shapes.clear();
+    }
+
+    @PreDestroy
+    public void stop() {
+        explainer.shutdownNow();
+    }
+
+    private void explain(Shape s, String sql, List<Object> bind) {
+        try (Connection c = dataSource.getObject().getConnection();
+             PreparedStatement ps = c.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < bind.size(); i++) {
+                ps.setObject(i + 1, bind.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                String plan = render(rs);
+                s.plan = plan;
+                s.suggestions = suggestIndexes(sql, plan);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.debug("EXPLAIN fehlgeschlagen für {}: {}", sql, e.getMessage());
+        } finally {
+            s.explainedAt = System.currentTimeMillis();
+            s.explaining = false;
+        }
+    }
+
+    private static String render(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        StringJoiner rows = new StringJoiner("\n");
+        while (rs.next()) {
+            StringJoiner row = new StringJoiner(", ");
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                row.add(meta.getColumnLabel(i).toLowerCase(Locale.ROOT) + "=" + rs.getString(i));
+            }
+            rows.add(row.toString());
+        }
+        return rows.toString();
+    }
+
+    static boolean isExplainable(String sql) {
+        String operation = TracingDataSource.operation(sql);
+        return operation.equals("SELECT") || operation.equals("UPDATE") || operation.equals("DELETE");
+    }
+
+    /** Normalisierte Form: Werte stehen ohnehin als Platzhalter, IN-Listen beliebiger Länge und Leerraum werden vereinheitlicht. */
+    static String shape(String sql) {
+        return IN_LIST.matcher(sql.strip().replaceAll("\\s+", " ")).replaceAll("(?...)");
+    }
+
+    /**
+     * Heuristik über den Plan: Tabellenscan (MySQL {@code type=ALL}, H2 {@code tableScan}) mit
+     * WHERE-Spalten → zusammengesetzter Index, Gleichheitsbedingungen vor Bereichsbedingungen;
+     * MySQL {@code Using filesort} → Index über die ORDER-BY-Spalten.
+     */
+    static List<String> suggestIndexes(String sql, String plan) {
+        String table = TracingDataSource.table(sql);
+        if (table == null || plan == null) {
+            return List.of();
+        }
+        String p = plan.toLowerCase(Locale.ROOT);
+        List<String> suggestions = new ArrayList<>();
+        boolean fullScan = p.contains("tablescan") || p.contains("type=all");
+        if (fullScan) {
+            List<String> columns = whereColumns(sql);
+            if (columns.isEmpty()) {
+                suggestions.add("Tabellenscan auf " + table + " ohne WHERE-Bedingung: Filter oder Pagination erwägen");
+            } else {
+                suggestions.add(createIndex(table, columns));
+            }
+        }
+        if (p.contains("using filesort")) {
+            List<String> columns = orderByColumns(sql);
+            if (!columns.isEmpty()) {
+                suggestions.add(createIndex(table, columns) + " -- vermeidet Filesort");
+            }
+        }
+        return suggestions;
+    }
+
+    private static List<String> whereColumns(String sql) {
+        Matcher where = WHERE.matcher(sql);
+        if (!where.find()) {
+            return List.of();
+        }
+        Set<String> equality = new LinkedHashSet<>();
+        Set<String> range = new LinkedHashSet<>();
+        Matcher m = CONDITION.matcher(where.group(1));
+        while (m.find()) {
+            String column = m.group(1).toLowerCase(Locale.ROOT);
+            String op = m.group(2).toLowerCase(Locale.ROOT);
+            if (op.equals("=") || op.equals("in") || op.equals("is")) {
+                equality.add(column);
+            } else {
+                range.add(column);
+            }
+        }
+        range.removeAll(equality);
+        List<String> columns = new ArrayList<>(equality);
+        columns.addAll(range);
+        return columns;
+    }
+
+    private static List<String> orderByColumns(String sql) {
+        Matcher order = ORDER_BY.matcher(sql);
+        if (!order.find()) {
+            return List.of();
+        }
+        List<String> columns = new ArrayList<>();
+        for (String part : order.group(1).split(",")) {
+            Matcher m = COLUMN.matcher(part.strip());
+            if (m.lookingAt()) {
+                columns.add(m.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    private static String createIndex(String table, List<String> columns) {
+        return "CREATE INDEX idx_" + table + "_" + String.join("_", columns)
+                + " ON " + table + " (" + String.join(", ", columns) + ")";
+    }
+
+    private static String abbreviate(Object value) {
+        String s = String.valueOf(value);
+        return s.length() <= MAX_PARAMETER_LENGTH ? s : s.substring(0, MAX_PARAMETER_LENGTH) + "…";
+    }
+}
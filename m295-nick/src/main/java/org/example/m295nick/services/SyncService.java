@@ -0,0 +1,13 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.SyncResponse;
+
+public interface SyncService {
+
+    // ─── Delta-Sync ───
+    SyncResponse getChanges(String sinceToken);
+
+    // ─── Wartung ───
+    int purgeTombstones();
+    int backfill();
+}
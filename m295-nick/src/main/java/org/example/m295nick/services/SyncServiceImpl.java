@@ -0,0 +1,164 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Snowflake;
+import org.example.m295nick.models.SyncResponse;
+import org.example.m295nick.models.Tombstone;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.TombstoneRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Delta-Sync für Filial-Terminals. Vehicle und Rental tragen eine Änderungsnummer
+ * ({@code change_seq}, Snowflake), Löschungen landen als {@link Tombstone} mit einer
+ * Nummer aus demselben Raum. Ein Token ist die letzte gelieferte Nummer.
+ * <p>
+ * Nummern werden beim Flush vergeben, sichtbar werden sie erst beim Commit. Deshalb wird
+ * nur bis {@code jetzt - sync.visibility-lag-ms} geliefert: alles darunter ist committet,
+ * solange Transaktionen kürzer sind als diese Verzögerung.
+ * <p>
+ * Nur für das JPA-Backend.
+ */
+@Service
+@Profile("!inmemory")
+@Transactional(readOnly = true)
+public class SyncServiceImpl implements SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncServiceImpl.class);
+
+    private final VehicleRepository vehicleRepository;
+    private final RentalRepository rentalRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final long visibilityLagMs;
+    private final long retentionDays;
+
+    public SyncServiceImpl(VehicleRepository vehicleRepository,
+                           RentalRepository rentalRepository,
+                           TombstoneRepository tombstoneRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${sync.page-size:1000}") int pageSize,
+                           @Value("${sync.visibility-lag-ms:5000}") long visibilityLagMs,
+                           @Value("${sync.tombstone.retention-days:30}") long retentionDays) {
+        this.vehicleRepository = vehicleRepository;
+        this.rentalRepository = rentalRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.visibilityLagMs = visibilityLagMs;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public SyncResponse getChanges(String sinceToken) {
+        long since = parseToken(sinceToken);
+        long now = System.currentTimeMillis();
+        // Token älter als die aufbewahrten Tombstones → Löschungen fehlen, also komplett neu
+        boolean full = since == 0
+                || Snowflake.timestampOf(since).isBefore(Instant.ofEpochMilli(now).minus(retentionDays, ChronoUnit.DAYS));
+        if (full) {
+            since = 0;
+        }
+        long upto = Snowflake.maxIdAt(now - visibilityLagMs);
+        if (since >= upto) {
+            return new SyncResponse(Long.toString(since), false, false, List.of(), List.of(), List.of());
+        }
+
+        // Je Quelle höchstens eine Seite + 1 laden, danach gemeinsam auf pageSize kürzen
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Vehicle> vehicles = vehicleRepository.findChangedBetween(since, upto, page);
+        List<Rental> rentals = rentalRepository.findChangedBetween(since, upto, page);
+        List<Tombstone> tombstones = full ? List.of() : tombstoneRepository.findChangedBetween(since, upto, page);
+
+        long[] seqs = Stream.of(seqs(vehicles, Vehicle::getChangeSeq), seqs(rentals, Rental::getChangeSeq),
+                        seqs(tombstones, Tombstone::getId))
+                .flatMapToLong(s -> s).sorted().toArray();
+        boolean hasMore = seqs.length > pageSize;
+        long last = hasMore ? seqs[pageSize - 1] : upto;
+
+        SyncResponse response = new SyncResponse(Long.toString(last), full, hasMore,
+                vehicles.stream().filter(v -> v.getChangeSeq() <= last).toList(),
+                rentals.stream().filter(r -> r.getChangeSeq() <= last).toList(),
+                tombstones.stream().filter(t -> t.getId() <= last).toList());
+        logger.debug("Sync seit {}: {} Fahrzeuge, {} Rentals, {} Tombstones (full={}, hasMore={})", since,
+                response.vehicles().size(), response.rentals().size(), response.tombstones().size(), full, hasMore);
+        return response;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${sync.tombstone.purge-interval-ms:3600000}")
+    public int purgeTombstones() {
+        int deleted = tombstoneRepository.deleteByDeletedAtBefore(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+        if (deleted > 0) {
+            logger.info("{} Sync-Tombstones gelöscht", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Vergibt Änderungsnummern an Zeilen, die vor dem Delta-Sync angelegt wurden. Das Flag
+     * macht die Entität nur "dirty", die Nummer selbst setzt der {@code ChangeSeq}-Generator.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(initialDelayString = "${sync.backfill.initial-delay-ms:10000}",
+            fixedDelayString = "${sync.backfill.interval-ms:3600000}")
+    public int backfill() {
+        int total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Vehicle> vehicles = vehicleRepository.findByChangeSeqIsNull(PageRequest.of(0, pageSize));
+                vehicles.forEach(v -> v.setChangeSeq(0L));
+                List<Rental> rentals = rentalRepository.findByChangeSeqIsNull(PageRequest.of(0, pageSize));
+                rentals.forEach(r -> r.setChangeSeq(0L));
+                return vehicles.size() + rentals.size();
+            });
+            total += batch;
+        } while (batch > 0);
+        if (total > 0) {
+            logger.info("Änderungsnummern für {} Zeilen nachgetragen", total);
+        }
+        return total;
+    }
+
+    private static <T> LongStream seqs(List<T> items, ToLongFunction<T> seq) {
+        return items.stream().mapToLong(seq);
+    }
+
+    private static long parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            long since = Long.parseLong(token.trim());
+            if (since < 0) {
+                throw new NumberFormatException(token);
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiges Sync-Token: " + token);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.m295nick.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Erzeugt Vorschaubilder (JPEG, längste Kante {@code media.thumbnail-size}) im Hintergrund und
+ * legt sie im {@link MediaStore} ab; dort dienen sie zugleich als Cache. Pro Hash läuft höchstens
+ * ein Auftrag, nicht lesbare Bilder werden bis zum Neustart nicht erneut versucht.
+ * <p>
+ * Die Abmessungen werden vor dem Dekodieren aus dem Header gelesen: Bilder über
+ * {@code media.thumbnail-max-pixels} werden abgewiesen, grosse Bilder nur unterabgetastet dekodiert.
+ */
+@Component
+public class ThumbnailGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+    // Formate, die ImageIO ohne Zusatzbibliotheken lesen kann
+    private static final Set<String> SUPPORTED = Set.of("image/jpeg", "image/png", "image/gif", "image/bmp");
+
+    public enum State { READY, PENDING, UNSUPPORTED }
+
+    private final MediaStore mediaStore;
+    private final int size;
+    private final long maxPixels;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    public ThumbnailGenerator(MediaStore mediaStore,
+                              @Value("${media.thumbnail-size:256}") int size,
+                              @Value("${media.thumbnail-threads:1}") int threads,
+                              @Value("${media.thumbnail-max-pixels:50000000}") long maxPixels) {
+        this.mediaStore = mediaStore;
+        this.size = size;
+        this.maxPixels = maxPixels;
+        // Abgewiesene Aufträge gehen nicht verloren: der nächste Abruf des Vorschaubilds stösst sie erneut an
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(256), r -> {
+            Thread t = new Thread(r, "thumbnail");
+            t.setDaemon(true);
+            return t;
+        }, (r, e) -> logger.warn("Vorschaubild-Warteschlange voll, Auftrag verworfen"));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean supports(String contentType) {
+        return contentType != null && SUPPORTED.contains(contentType);
+    }
+
+    /** Zustand des Vorschaubilds; fehlt es, wird es (erneut) in Auftrag gegeben. */
+    public State request(String sha256, String contentType) {
+        if (!supports(contentType) || failed.contains(sha256)) {
+            return State.UNSUPPORTED;
+        }
+        if (Files.exists(mediaStore.thumbnail(sha256, size))) {
+            return State.READY;
+        }
+        if (pending.add(sha256)) {
+            executor.execute(() -> {
+                try {
+                    generate(sha256);
+                } finally {
+                    pending.remove(sha256);
+                }
+            });
+        }
+        return State.PENDING;
+    }
+
+    public Path path(String sha256) {
+        return mediaStore.thumbnail(sha256, size);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void generate(String sha256) {
+        Path target = mediaStore.thumbnail(sha256, size);
+        try {
+            BufferedImage original = read(sha256);
+            if (original == null) {
+                failed.add(sha256);
+                return;
+            }
+            double scale = Math.min(1.0, (double) size / Math.max(original.getWidth(), original.getHeight()));
+            int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+            // JPEG kennt keine Transparenz: auf weissen Hintergrund zeichnen
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = thumbnail.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(original, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), sha256, ".part");
+            ImageIO.write(thumbnail, "jpg", tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Vorschaubild {}x{} für {} erzeugt", width, height, sha256);
+        } catch (IOException | RuntimeException e) {
+            failed.add(sha256);
+            logger.warn("Vorschaubild für {} fehlgeschlagen: {}", sha256, e.getMessage());
+        } catch (OutOfMemoryError e) {
+            // Trotz Prüfung zu gross (z.B. falsche Header-Angaben): nicht erneut versuchen, Worker läuft weiter
+            failed.add(sha256);
+            logger.warn("Vorschaubild für {} fehlgeschlagen: zu wenig Speicher", sha256);
+        }
+    }
+
+    /** Dekodiert das Bild unterabgetastet auf mindestens {@code size}; {@code null}, wenn nicht lesbar oder zu gross. */
+    private BufferedImage read(String sha256) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(mediaStore.blob(sha256).toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Vorschaubild für {} nicht möglich: Bildformat nicht lesbar", sha256);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("Vorschaubild für {} nicht möglich: {}x{} Pixel über Grenze {}", sha256, width, height, maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / size);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.VehicleMedia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface VehicleMediaService {
+
+    // ─── Read ───
+    List<VehicleMedia> getByVehicle(Long vehicleId);
+    Optional<VehicleMedia> getById(Long vehicleId, Long mediaId);
+    Path getContent(VehicleMedia media);
+    ThumbnailGenerator.State requestThumbnail(VehicleMedia media);
+    Path getThumbnail(VehicleMedia media);
+
+    // ─── Create ───
+    VehicleMedia upload(Long vehicleId, String fileName, String contentType, InputStream content) throws IOException;
+
+    // ─── Delete ───
+    void deleteById(Long vehicleId, Long mediaId) throws IOException;
+    void deleteByVehicleIds(Collection<Long> vehicleIds);
+}
@@ -0,0 +1,209 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.configs.Traced;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.VehicleMedia;
+import org.example.m295nick.repositories.VehicleMediaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fotos und Dokumente zu Fahrzeugen: Metadaten in {@code vehicle_media}, Inhalte im {@link MediaStore}.
+ * <p>
+ * Bewusst ohne umschliessende Transaktion, damit während des Uploads keine DB-Verbindung gehalten
+ * wird. Übernahme bzw. Löschen einer Datei und der zugehörige Metadaten-Eintrag laufen unter einer
+ * Sperre pro Hash, damit ein paralleler Upload desselben Inhalts nie auf eine gerade gelöschte Datei zeigt.
+ * <p>
+ * Beim Löschen eines Fahrzeugs ruft der VehicleService {@link #deleteByVehicleIds} auf; deshalb wird
+ * der VehicleService hier erst bei Bedarf geholt (sonst zyklische Abhängigkeit).
+ */
+@Service
+@Traced
+public class VehicleMediaServiceImpl implements VehicleMediaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleMediaServiceImpl.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final VehicleMediaRepository vehicleMediaRepository;
+    private final ObjectProvider<VehicleService> vehicleService;
+    private final MediaStore mediaStore;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final Set<String> allowedTypes;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public VehicleMediaServiceImpl(VehicleMediaRepository vehicleMediaRepository,
+                                   ObjectProvider<VehicleService> vehicleService,
+                                   MediaStore mediaStore,
+                                   ThumbnailGenerator thumbnailGenerator,
+                                   @Value("${media.allowed-types:image/jpeg,image/png,image/gif,application/pdf}")
+                                   String allowedTypes) {
+        this.vehicleMediaRepository = vehicleMediaRepository;
+        this.vehicleService = vehicleService;
+        this.mediaStore = mediaStore;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.allowedTypes = Set.of(allowedTypes.trim().split("\\s*,\\s*"));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public List<VehicleMedia> getByVehicle(Long vehicleId) {
+        logger.debug("Lese Medien zu Fahrzeug-ID {}", vehicleId);
+        requireVehicle(vehicleId);
+        return vehicleMediaRepository.findByVehicleIdOrderByIdAsc(vehicleId);
+    }
+
+    @Override
+    public Optional<VehicleMedia> getById(Long vehicleId, Long mediaId) {
+        logger.debug("Lese Medium {} zu Fahrzeug-ID {}", mediaId, vehicleId);
+        requireVehicle(vehicleId);
+        return vehicleMediaRepository.findByIdAndVehicleId(mediaId, vehicleId);
+    }
+
+    @Override
+    public Path getContent(VehicleMedia media) {
+        return mediaStore.blob(media.getSha256());
+    }
+
+    @Override
+    public ThumbnailGenerator.State requestThumbnail(VehicleMedia media) {
+        return thumbnailGenerator.request(media.getSha256(), media.getContentType());
+    }
+
+    @Override
+    public Path getThumbnail(VehicleMedia media) {
+        return thumbnailGenerator.path(media.getSha256());
+    }
+
+    @Override
+    public VehicleMedia upload(Long vehicleId, String fileName, String contentType, InputStream content)
+            throws IOException {
+        requireVehicle(vehicleId);
+        if (contentType == null || !allowedTypes.contains(contentType)) {
+            throw new IllegalArgumentException("Dateityp '" + contentType + "' ist nicht erlaubt, zulässig: "
+                    + String.join(", ", allowedTypes.stream().sorted().toList()));
+        }
+
+        MediaStore.Staged staged = mediaStore.stage(content);
+        if (staged.size() == 0) {
+            mediaStore.discard(staged);
+            throw new IllegalArgumentException("Die Datei ist leer");
+        }
+
+        VehicleMedia media = new VehicleMedia();
+        media.setVehicleId(vehicleId);
+        media.setFileName(fileName == null || fileName.isBlank() ? staged.sha256() : fileName);
+        media.setContentType(contentType);
+        media.setSize(staged.size());
+        media.setSha256(staged.sha256());
+        media.setCreatedAt(Instant.now());
+
+        VehicleMedia saved;
+        ReentrantLock lock = lockFor(staged.sha256());
+        lock.lock();
+        try {
+            mediaStore.commit(staged);
+            saved = vehicleMediaRepository.save(media);
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Medium {} ({} Bytes, {}) zu Fahrzeug-ID {} gespeichert",
+                saved.getId(), saved.getSize(), saved.getSha256(), vehicleId);
+
+        if (thumbnailGenerator.supports(contentType)) {
+            thumbnailGenerator.request(saved.getSha256(), contentType);
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Long vehicleId, Long mediaId) throws IOException {
+        logger.debug("Lösche Medium {} zu Fahrzeug-ID {}", mediaId, vehicleId);
+        VehicleMedia media = getById(vehicleId, mediaId)
+                .orElseThrow(() -> new ResourceNotFoundException("VehicleMedia", "id", mediaId));
+
+        ReentrantLock lock = lockFor(media.getSha256());
+        lock.lock();
+        try {
+            vehicleMediaRepository.delete(media);
+            // Gleicher Inhalt an anderem Fahrzeug bzw. mehrfach hochgeladen: Datei bleibt liegen
+            if (!vehicleMediaRepository.existsBySha256(media.getSha256())) {
+                mediaStore.delete(media.getSha256(), thumbnailGenerator.getSize());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Medien gelöschter Fahrzeuge entfernen. Die Einträge laufen in der Transaktion des Aufrufers,
+     * die Dateien erst nach dem Commit – und nur, wenn kein anderer Eintrag mehr darauf verweist.
+     */
+    @Override
+    public void deleteByVehicleIds(Collection<Long> vehicleIds) {
+        if (vehicleIds.isEmpty()) {
+            return;
+        }
+        List<VehicleMedia> media = vehicleMediaRepository.findByVehicleIdIn(vehicleIds);
+        if (media.isEmpty()) {
+            return;
+        }
+        logger.debug("Lösche {} Medien zu {} Fahrzeugen", media.size(), vehicleIds.size());
+        vehicleMediaRepository.deleteAllInBatch(media);
+        Set<String> hashes = media.stream().map(VehicleMedia::getSha256).collect(Collectors.toSet());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteUnreferenced(hashes);
+                }
+            });
+        } else {
+            deleteUnreferenced(hashes);
+        }
+    }
+
+    private void deleteUnreferenced(Set<String> hashes) {
+        for (String sha256 : hashes) {
+            ReentrantLock lock = lockFor(sha256);
+            lock.lock();
+            try {
+                if (!vehicleMediaRepository.existsBySha256(sha256)) {
+                    mediaStore.delete(sha256, thumbnailGenerator.getSize());
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Mediendatei {} konnte nicht gelöscht werden: {}", sha256, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void requireVehicle(Long vehicleId) {
+        if (!vehicleService.getObject().existsById(vehicleId)) {
+            throw new ResourceNotFoundException("Vehicle", "id", vehicleId);
+        }
+    }
+
+    private ReentrantLock lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.m295nick.services;
 
+import org.example.m295nick.models.BulkResult;
 import org.example.m295nick.models.Vehicle;
 import java.time.LocalDate;
 import java.util.List;
@@ -17,6 +18,7 @@ public interface VehicleService {
     // ─── Create ───
     Vehicle create(Vehicle vehicle);
     List<Vehicle> createAll(List<Vehicle> vehicles);
+    BulkResult createAllPartial(List<Vehicle> vehicles);
 
     // ─── Update ───
     Vehicle update(Long id, Vehicle vehicleToUpdate);
@@ -1,33 +1,64 @@
 package org.example.m295nick.services;
 
+import org.example.m295nick.configs.Traced;
 import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
 import org.example.m295nick.models.Vehicle;
 import org.example.m295nick.repositories.VehicleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Traced
+@Profile("!inmemory")
 @Transactional
 public class VehicleServiceImpl implements VehicleService {
 
     private static final Logger logger = LoggerFactory.getLogger(VehicleServiceImpl.class);
 
-    private final VehicleRepository vehicleRepository;
+    private static final String AGGREGATE = "Vehicle";
+    private static final String RENTAL_AGGREGATE = "Rental";
 
-    public VehicleServiceImpl(VehicleRepository vehicleRepository) {
+    private final VehicleRepository vehicleRepository;
+    private final OutboxService outboxService;
+    private final BulkWriter bulkWriter;
+    private final ReadCoalescer readCoalescer;
+    private final ResponseByteCache responseByteCache;
+    private final RentalArchiveService rentalArchiveService;
+    private final VehicleMediaService vehicleMediaService;
+
+    public VehicleServiceImpl(VehicleRepository vehicleRepository,
+                              OutboxService outboxService,
+                              BulkWriter bulkWriter,
+                              ReadCoalescer readCoalescer,
+                              ResponseByteCache responseByteCache,
+                              RentalArchiveService rentalArchiveService,
+                              VehicleMediaService vehicleMediaService) {
         this.vehicleRepository = vehicleRepository;
+        this.outboxService = outboxService;
+        this.bulkWriter = bulkWriter;
+        this.readCoalescer = readCoalescer;
+        this.responseByteCache = responseByteCache;
+        this.rentalArchiveService = rentalArchiveService;
+        this.vehicleMediaService = vehicleMediaService;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Vehicle> getById(Long id) {
         logger.debug("Lese Fahrzeug mit ID {}", id);
-        return vehicleRepository.findById(id);
+        return readCoalescer.execute("vehicle.byId", id, () -> vehicleRepository.findById(id));
     }
 
     @Override
@@ -37,21 +68,26 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Vehicle> getAll() {
         logger.debug("Lese alle Fahrzeuge");
-        return vehicleRepository.findAll();
+        return readCoalescer.execute("vehicle.all", null, vehicleRepository::findAll);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Vehicle> getByAirConditioning(Boolean hasAir) {
         logger.debug("Filtere Fahrzeuge nach Klimaanlage = {}", hasAir);
-        return vehicleRepository.findByHasAirConditioning(hasAir);
+        return readCoalescer.execute("vehicle.byAirConditioning", hasAir,
+                () -> vehicleRepository.findByHasAirConditioning(hasAir));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Vehicle> getByBrand(String brandPart) {
         logger.debug("Filtere Fahrzeuge nach Marke enthält '{}'", brandPart);
-        return vehicleRepository.findByBrandContainingIgnoreCase(brandPart);
+        return readCoalescer.execute("vehicle.byBrand", brandPart,
+                () -> vehicleRepository.findByBrandContainingIgnoreCase(brandPart));
     }
 
     @Override
@@ -61,18 +97,53 @@ public class VehicleServiceImpl implements VehicleService {
         if (vehicle.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
             throw new IllegalArgumentException("Fahrzeug darf nicht älter als 30 Jahre sein");
         }
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.CREATED, saved);
+        responseByteCache.invalidate();
+        return saved;
     }
 
     @Override
     public List<Vehicle> createAll(List<Vehicle> vehicles) {
         logger.debug("Erstelle mehrere Fahrzeuge: Anzahl={}", vehicles.size());
+        return FlightEvents.bulk(AGGREGATE, "createAll", vehicles.size(), () -> createAllInternal(vehicles), list -> 0);
+    }
+
+    private List<Vehicle> createAllInternal(List<Vehicle> vehicles) {
         for (Vehicle v : vehicles) {
             if (v.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
                 throw new IllegalArgumentException("Mindestens ein Fahrzeug ist älter als 30 Jahre");
             }
         }
-        return vehicleRepository.saveAll(vehicles);
+        List<Vehicle> savedList = vehicleRepository.saveAll(vehicles);
+        for (Vehicle saved : savedList) {
+            outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.CREATED, saved);
+        }
+        responseByteCache.invalidate();
+        return savedList;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createAllPartial(List<Vehicle> vehicles) {
+        // Ohne umschliessende Transaktion: BulkWriter committet blockweise
+        logger.debug("Erstelle mehrere Fahrzeuge (Teilerfolg): Anzahl={}", vehicles.size());
+        return FlightEvents.bulk(AGGREGATE, "createAllPartial", vehicles.size(), () -> bulkWriter.write(vehicles,
+                v -> {
+                    if (v.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
+                        throw new IllegalArgumentException("Fahrzeug darf nicht älter als 30 Jahre sein");
+                    }
+                },
+                chunk -> {
+                    List<Vehicle> savedList = vehicleRepository.saveAll(chunk);
+                    for (Vehicle saved : savedList) {
+                        outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.CREATED, saved);
+                    }
+                    responseByteCache.invalidate();
+                    return savedList;
+                },
+                Vehicle::getId,
+                v -> v.setId(null)), BulkResult::failed);
     }
 
     @Override
@@ -86,7 +157,10 @@ public class VehicleServiceImpl implements VehicleService {
                     existing.setHasAirConditioning(vehicleToUpdate.getHasAirConditioning());
                     existing.setPricePerDay(vehicleToUpdate.getPricePerDay());
                     existing.setSeats(vehicleToUpdate.getSeats());
-                    return vehicleRepository.save(existing);
+                    Vehicle saved = vehicleRepository.save(existing);
+                    outboxService.record(AGGREGATE, saved.getId(), OutboxEvent.UPDATED, saved);
+                    responseByteCache.invalidate();
+                    return saved;
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", id));
     }
@@ -94,16 +168,27 @@ public class VehicleServiceImpl implements VehicleService {
     @Override
     public void deleteById(Long id) {
         logger.debug("Lösche Fahrzeug mit ID {}", id);
-        if (!vehicleRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Vehicle", "id", id);
-        }
-        vehicleRepository.deleteById(id);
+        Vehicle vehicle = vehicleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", id));
+        recordCascadedRentalDeletes(vehicle);
+        deleteArchivedRentals(List.of(id));
+        vehicleMediaService.deleteByVehicleIds(List.of(id));
+        vehicleRepository.delete(vehicle);
+        outboxService.record(AGGREGATE, id, OutboxEvent.DELETED, Map.of("id", id));
+        responseByteCache.invalidate();
     }
 
     @Override
     public void deleteAll() {
         logger.debug("Lösche alle Fahrzeuge");
-        vehicleRepository.deleteAll();
+        List<Vehicle> alle = vehicleRepository.findAll();
+        alle.forEach(this::recordCascadedRentalDeletes);
+        List<Long> ids = alle.stream().map(Vehicle::getId).toList();
+        deleteArchivedRentals(ids);
+        vehicleMediaService.deleteByVehicleIds(ids);
+        vehicleRepository.deleteAll(alle);
+        outboxService.record(AGGREGATE, null, OutboxEvent.ALL_DELETED, Map.of());
+        responseByteCache.invalidate();
     }
 
     @Override
@@ -112,6 +197,28 @@ public class VehicleServiceImpl implements VehicleService {
         List<Vehicle> zuLoeschende = vehicleRepository.findAll().stream()
                 .filter(v -> v.getFirstRegistration().isBefore(date))
                 .toList();
+        zuLoeschende.forEach(this::recordCascadedRentalDeletes);
+        List<Long> ids = zuLoeschende.stream().map(Vehicle::getId).toList();
+        deleteArchivedRentals(ids);
+        vehicleMediaService.deleteByVehicleIds(ids);
         vehicleRepository.deleteAll(zuLoeschende);
+        for (Vehicle v : zuLoeschende) {
+            outboxService.record(AGGREGATE, v.getId(), OutboxEvent.DELETED, v);
+        }
+        responseByteCache.invalidate();
+    }
+
+    // Rentals werden per Kaskade mitgelöscht – auch dafür braucht der Feed DELETED-Events
+    private void recordCascadedRentalDeletes(Vehicle vehicle) {
+        for (Rental rental : vehicle.getRentals()) {
+            outboxService.record(RENTAL_AGGREGATE, rental.getId(), OutboxEvent.DELETED, Map.of("id", rental.getId()));
+        }
+    }
+
+    // Archivierte Rentals hängen nicht an der JPA-Kaskade: selbst löschen und ebenso melden
+    private void deleteArchivedRentals(List<Long> vehicleIds) {
+        for (Long rentalId : rentalArchiveService.deleteByVehicleIds(vehicleIds)) {
+            outboxService.record(RENTAL_AGGREGATE, rentalId, OutboxEvent.DELETED, Map.of("id", rentalId));
+        }
     }
 }
@@ -0,0 +1,70 @@
+package org.example.m295nick.configs;
+
+import org.example.m295nick.services.RequestDeadline;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLTimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Deadline-Umsetzung auf JDBC gegen H2; die "langsame" Abfrage ist ein grosser rekursiver CTE.
+ */
+class DeadlineDataSourceTest {
+
+    private static final String SLOW_QUERY = "WITH RECURSIVE t(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM t "
+            + "WHERE n < 100000000) SELECT COUNT(*) FROM t";
+
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        dataSource = new DeadlineDataSource(h2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestDeadline.clear();
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Langsame Abfrage wird bei Ablauf der Deadline abgebrochen")
+    void whenDeadlineExpires_thenStatementCancelled() throws Exception {
+        RequestDeadline.start(200);
+        long start = System.nanoTime();
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement(SLOW_QUERY)) {
+            assertThatThrownBy(ps::executeQuery).isInstanceOf(SQLTimeoutException.class);
+        }
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(5000);
+    }
+
+    @Test
+    @DisplayName("Abgelaufene Deadline: keine Verbindung wird bezogen")
+    void whenDeadlineAlreadyExpired_thenNoConnection() {
+        RequestDeadline.start(0);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("Ohne Deadline laufen Statements unverändert")
+    void whenNoDeadline_thenPassThrough() throws Exception {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT 42");
+             ResultSet rs = ps.executeQuery()) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getInt(1)).isEqualTo(42);
+            assertThat(ps.getQueryTimeout()).isZero();
+        }
+    }
+}
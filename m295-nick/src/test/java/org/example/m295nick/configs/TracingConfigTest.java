@@ -0,0 +1,188 @@
+package org.example.m295nick.configs;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tracing-Verdrahtung ohne Web-/JPA-Kontext: Advisor auf {@link Traced}-Beans, JDBC-Spans über die
+ * umhüllte DataSource und In-Memory-Export.
+ */
+@SpringJUnitConfig({TracingConfig.class, TracingConfigTest.TestBeans.class})
+class TracingConfigTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestBeans {
+
+        @Bean
+        InMemorySpanExporter spanExporter() {
+            return InMemorySpanExporter.create();
+        }
+
+        @Bean
+        DataSource dataSource() {
+            JdbcDataSource h2 = new JdbcDataSource();
+            h2.setURL("jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1");
+            return h2;
+        }
+
+        @Bean
+        Probe probe(DataSource dataSource) {
+            return new Probe(dataSource);
+        }
+    }
+
+    @Traced
+    static class Probe {
+
+        private final DataSource dataSource;
+        // statisch: Felder des CGLIB-Proxys selbst bleiben leer
+        static final AtomicReference<String> traceIdInMdc = new AtomicReference<>();
+
+        Probe(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        public void insertTwo() throws SQLException {
+            traceIdInMdc.set(MDC.get("traceId"));
+            try (Connection c = dataSource.getConnection()) {
+                try (Statement st = c.createStatement()) {
+                    st.execute("CREATE TABLE IF NOT EXISTS probe (id INT)");
+                }
+                try (PreparedStatement ps = c.prepareStatement("INSERT INTO probe (id) VALUES (?)")) {
+                    for (int i = 0; i < 2; i++) {
+                        ps.setInt(1, i);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+        }
+
+        public void fail() {
+            throw new IllegalArgumentException("kaputt");
+        }
+    }
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private Probe probe;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OpenTelemetry openTelemetry;
+
+    @Autowired
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        spanExporter.reset();
+    }
+
+    @Test
+    @DisplayName("Methoden-Span mit JDBC-Kindspans; Batch-Grösse und Tabelle als Attribute")
+    void whenTracedMethod_thenMethodAndStatementSpans() throws Exception {
+        assertThat(dataSource).isInstanceOf(TracingDataSource.class);
+
+        probe.insertTwo();
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData method = spans.stream().filter(s -> s.getName().equals("Probe.insertTwo")).findFirst().orElseThrow();
+        SpanData insert = spans.stream().filter(s -> s.getName().equals("INSERT probe")).findFirst().orElseThrow();
+        assertThat(insert.getParentSpanId()).isEqualTo(method.getSpanId());
+        assertThat(insert.getKind()).isEqualTo(SpanKind.CLIENT);
+        assertThat(insert.getAttributes().asMap().toString()).contains("db.operation.batch.size=2");
+        assertThat(spans).extracting(SpanData::getName).contains("CREATE");
+        assertThat(Probe.traceIdInMdc.get()).isEqualTo(method.getTraceId());
+        assertThat(MDC.get("traceId")).isNull();
+    }
+
+    @Test
+    @DisplayName("Exception markiert den Span als Fehler")
+    void whenMethodThrows_thenErrorStatus() {
+        assertThatThrownBy(probe::fail).isInstanceOf(IllegalArgumentException.class);
+
+        SpanData span = spanExporter.getFinishedSpanItems().get(0);
+        assertThat(span.getName()).isEqualTo("Probe.fail");
+        assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    }
+
+    @Test
+    @DisplayName("Statements ausserhalb eines Traces erzeugen keine Spans")
+    void whenNoTrace_thenNoStatementSpans() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("SELECT 1");
+        }
+        assertThat(spanExporter.getFinishedSpanItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Filter übernimmt traceparent, benennt den Span nach der Route und liefert X-Trace-Id")
+    void whenTraceparent_thenServerSpanContinuesTrace() throws Exception {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/rentals/bulk");
+        request.addHeader("traceparent", "00-" + traceId + "-00f067aa0ba902b7-01");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> mdcInChain = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                mdcInChain.set(MDC.get("traceId"));
+                req.setAttribute(org.springframework.web.servlet.HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                        "/api/v1/rentals/bulk");
+            }
+        };
+
+        new TracingFilter(openTelemetry, tracer).doFilter(request, response, chain);
+
+        SpanData server = spanExporter.getFinishedSpanItems().get(0);
+        assertThat(server.getTraceId()).isEqualTo(traceId);
+        assertThat(server.getParentSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(server.getKind()).isEqualTo(SpanKind.SERVER);
+        assertThat(server.getName()).isEqualTo("POST /api/v1/rentals/bulk");
+        assertThat(response.getHeader(TracingFilter.TRACE_ID_HEADER)).isEqualTo(traceId);
+        assertThat(mdcInChain.get()).isEqualTo(traceId);
+        assertThat(MDC.get("traceId")).isNull();
+    }
+
+    @Test
+    @DisplayName("SQL-Operation und Tabelle aus Hibernate-SQL")
+    void operationAndTable() {
+        String sql = "select r1_0.id,r1_0.end_date from rental r1_0 where r1_0.end_date<?";
+        assertThat(TracingDataSource.operation(sql)).isEqualTo("SELECT");
+        assertThat(TracingDataSource.table(sql)).isEqualTo("rental");
+        assertThat(TracingDataSource.operation(null)).isEqualTo("JDBC");
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.SlowQueryShape;
+import org.example.m295nick.services.ContinuousRecording;
+import org.example.m295nick.services.SlowQueryLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DiagnosticsController.class)
+class DiagnosticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContinuousRecording continuousRecording;
+
+    @MockBean
+    private SlowQueryLog slowQueryLog;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST /api/v1/admin/diagnostics/jfr liefert den Dump als Download")
+    void whenDump_thenAttachment() throws Exception {
+        Path file = Files.write(tempDir.resolve("m295-20300105-101500-5m.jfr"), new byte[]{1, 2, 3});
+        when(continuousRecording.isRunning()).thenReturn(true);
+        when(continuousRecording.dump(5)).thenReturn(file);
+
+        mockMvc.perform(post("/api/v1/admin/diagnostics/jfr").param("minutes", "5").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"m295-20300105-101500-5m.jfr\""))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Ohne laufende Aufzeichnung → 503")
+    void whenNotRunning_then503() throws Exception {
+        when(continuousRecording.isRunning()).thenReturn(false);
+
+        mockMvc.perform(post("/api/v1/admin/diagnostics/jfr").with(csrf()))
+                .andExpect(status().isServiceUnavailable());
+        verify(continuousRecording, never()).dump(anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("GET /api/v1/admin/diagnostics/slow-queries/report liefert die Abfrageformen des Repositorys")
+    void whenReport_thenShapes() throws Exception {
+        SlowQueryShape shape = new SlowQueryShape("select r1_0.id from rental r1_0 where r1_0.end_date<?",
+                "RentalRepository.findByEndDateBefore", 3, 900, 400, 300.0, "plan=...",
+                List.of("CREATE INDEX idx_rental_end_date ON rental (end_date)"));
+        when(slowQueryLog.getReport("RentalRepository", 5)).thenReturn(List.of(shape));
+
+        mockMvc.perform(get("/api/v1/admin/diagnostics/slow-queries/report")
+                        .param("repository", "RentalRepository").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].repositoryMethod").value("RentalRepository.findByEndDateBefore"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[0].suggestions[0]").value("CREATE INDEX idx_rental_end_date ON rental (end_date)"));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.m295nick.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.Hold;
+import org.example.m295nick.services.HoldService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HoldController.class)
+class HoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HoldService holdService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Hold sampleHold() {
+        Hold h = new Hold();
+        h.setVehicleId(1L);
+        h.setCustomer("Anna");
+        h.setStartDate(LocalDate.of(2025, 7, 1));
+        h.setEndDate(LocalDate.of(2025, 7, 3));
+        return h;
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST /api/v1/holds liefert 201 mit ID und Ablaufzeit")
+    void whenCreate_valid_then201() throws Exception {
+        Hold saved = sampleHold();
+        saved.setId("abc");
+        saved.setExpiresAt(Instant.parse("2025-06-01T10:15:00Z"));
+        when(holdService.create(any(Hold.class))).thenReturn(saved);
+
+        mockMvc.perform(post("/api/v1/holds")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleHold())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.vehicleId").value("1"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST /api/v1/holds liefert 409, wenn das Fahrzeug blockiert ist")
+    void whenCreate_conflict_then409() throws Exception {
+        when(holdService.create(any(Hold.class)))
+                .thenThrow(new VehicleNotAvailableException(1L, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 3)));
+
+        mockMvc.perform(post("/api/v1/holds")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleHold())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/holds/{id} liefert 404 für abgelaufene Holds")
+    void whenGetExpired_then404() throws Exception {
+        when(holdService.getById("alt")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/holds/alt"))
+                .andExpect(status().isNotFound());
+    }
+}
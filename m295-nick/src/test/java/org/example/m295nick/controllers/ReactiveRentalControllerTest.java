@@ -0,0 +1,74 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.services.ReactiveRentalService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveRentalController.class)
+class ReactiveRentalControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveRentalService reactiveRentalService;
+
+    private static Rental rental(long id, String customer) {
+        Rental r = new Rental();
+        r.setId(id);
+        r.setCustomer(customer);
+        r.setStartDate(LocalDate.of(2030, 1, 1));
+        r.setEndDate(LocalDate.of(2030, 1, 2));
+        r.setTotalCost(new BigDecimal("160.00"));
+        r.setVehicleId(3L);
+        return r;
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("GET /api/v2/rentals streamt NDJSON, eine Zeile pro Rental")
+    void whenGetAll_thenNdjsonStream() throws Exception {
+        when(reactiveRentalService.getAll()).thenReturn(Flux.just(rental(1, "Anna"), rental(2, "Ben")));
+
+        MvcResult async = mockMvc.perform(get("/api/v2/rentals").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"customer\":\"Anna\"")))
+                .andExpect(content().string(containsString("\"customer\":\"Ben\"")));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("GET /api/v2/rentals/{id} liefert 404 für unbekannte IDs")
+    void whenGetByIdMissing_thenNotFound() throws Exception {
+        when(reactiveRentalService.getById(9L)).thenReturn(Mono.empty());
+
+        MvcResult async = mockMvc.perform(get("/api/v2/rentals/9").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async)).andExpect(status().isNotFound());
+    }
+}
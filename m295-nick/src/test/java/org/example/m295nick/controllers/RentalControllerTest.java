@@ -1,8 +1,12 @@
 package org.example.m295nick.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.m295nick.models.BulkItemResult;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.FieldSet;
 import org.example.m295nick.models.Rental;
 import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.services.FieldProjectionService;
 import org.example.m295nick.services.RentalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,13 +14,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +41,9 @@ class RentalControllerTest {
     @MockBean
     private RentalService rentalService;
 
+    @MockBean
+    private FieldProjectionService fieldProjectionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -75,6 +85,74 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$.totalCost").value(300.0));
     }
 
+    // --- GET /api/v1/rentals/by-customer ---
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/rentals/by-customer?fuzzy=true liefert Rentals ohne internen Kunden-Code")
+    void whenGetByCustomerFuzzy_thenRentalsWithoutCustomerId() throws Exception {
+        Rental rental = new Rental();
+        rental.setId(7L);
+        rental.setCustomer("Max Mustermann");
+        rental.setCustomerId(42L);
+        rental.setStartDate(LocalDate.of(2025, 6, 10));
+        rental.setEndDate(LocalDate.of(2025, 6, 12));
+        rental.setVehicle(sampleVehicle);
+        rental.setTotalCost(new BigDecimal("300.00"));
+        when(rentalService.getByCustomer("Max Mustremann", true)).thenReturn(List.of(rental));
+
+        mockMvc.perform(get("/api/v1/rentals/by-customer")
+                        .param("name", "Max Mustremann").param("fuzzy", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("7"))
+                .andExpect(jsonPath("$[0].customer").value("Max Mustermann"))
+                .andExpect(jsonPath("$[0].customerId").doesNotExist());
+    }
+
+    // --- GET /api/v1/rentals/filter/start-after?fields= ---
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/rentals/filter/start-after?fields=id,startDate liefert nur diese Felder")
+    void whenFilterWithFields_thenProjection() throws Exception {
+        when(fieldProjectionService.getRentalsByStartDateAfter(LocalDate.of(2025, 1, 1),
+                FieldSet.parse("id,startDate", FieldSet.RENTAL_FIELDS)))
+                .thenReturn(List.of(Map.of("id", "7", "startDate", LocalDate.of(2025, 6, 10))));
+
+        mockMvc.perform(get("/api/v1/rentals/filter/start-after")
+                        .param("after", "2025-01-01").param("fields", "id,startDate")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("7"))
+                .andExpect(jsonPath("$[0].startDate").value("2025-06-10"))
+                .andExpect(jsonPath("$[0].customer").doesNotExist());
+        verify(rentalService, never()).getByStartDateAfter(any());
+    }
+
+    // --- GET /api/v1/rentals?expand=vehicle ---
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/rentals?expand=vehicle liefert Fahrzeugdaten inline")
+    void whenGetAllExpandVehicle_thenVehicleSummaryInline() throws Exception {
+        Rental rental = new Rental();
+        rental.setId(7L);
+        rental.setCustomer("Max Mustermann");
+        rental.setStartDate(LocalDate.of(2025, 6, 10));
+        rental.setEndDate(LocalDate.of(2025, 6, 12));
+        rental.setVehicle(sampleVehicle);
+        rental.setTotalCost(new BigDecimal("300.00"));
+        when(rentalService.getAllWithVehicle()).thenReturn(List.of(rental));
+
+        mockMvc.perform(get("/api/v1/rentals").param("expand", "vehicle")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("7"))
+                .andExpect(jsonPath("$[0].vehicleId").value("1"))
+                .andExpect(jsonPath("$[0].vehicle.brand").value("VW"))
+                .andExpect(jsonPath("$[0].vehicle.model").value("Golf"))
+                .andExpect(jsonPath("$[0].vehicle.pricePerDay").value(100.0));
+        verify(rentalService, never()).getAll();
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     @DisplayName("GET /api/v1/rentals/{id} returns 404, wenn nicht vorhanden")
@@ -202,7 +280,7 @@ class RentalControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(validJson))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.id").value(42))
+                .andExpect(jsonPath("$.id").value("42"))
                 .andExpect(jsonPath("$.customer").value("Anna"))
                 .andExpect(jsonPath("$.totalCost").value(100.0));
     }
@@ -292,4 +370,99 @@ class RentalControllerTest {
                         .with(csrf()))
                 .andExpect(status().isNoContent());
     }
+
+    // --- POST /api/v1/rentals/bulk?partial=true ---
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST /api/v1/rentals/bulk?partial=true liefert 207 mit Status pro Index")
+    void whenBulkPartial_then207() throws Exception {
+        BulkResult result = BulkResult.of(List.of(
+                BulkItemResult.created(0, 42L),
+                BulkItemResult.failed(1, 404, "Vehicle nicht gefunden mit id : '99'")));
+        when(rentalService.createAllPartial(anyList())).thenReturn(result);
+
+        // Ungültiges Element (ohne Kunde) führt nicht zu 400 für den ganzen Request
+        String body = """
+            [
+              {"customer": "Anna", "vehicleId": 1, "startDate": "2025-07-01", "endDate": "2025-07-02", "totalCost": 0},
+              {"vehicleId": 99, "startDate": "2025-07-01", "endDate": "2025-07-02", "totalCost": 0}
+            ]
+            """;
+
+        mockMvc.perform(post("/api/v1/rentals/bulk")
+                        .with(csrf())
+                        .param("partial", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.items[0].id").value("42"))
+                .andExpect(jsonPath("$.items[0].error").doesNotExist())
+                .andExpect(jsonPath("$.items[1].status").value(404));
+        verify(rentalService, never()).createAll(anyList());
+    }
+
+    // --- Rückgabe-Tracking ---
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/rentals/overdue liefert die überfälligen Rentals")
+    void whenGetOverdue_thenList() throws Exception {
+        Rental overdue = new Rental();
+        overdue.setId(3L);
+        overdue.setCustomer("Max Mustermann");
+        overdue.setStartDate(LocalDate.of(2025, 6, 1));
+        overdue.setEndDate(LocalDate.of(2025, 6, 2));
+        overdue.setVehicle(sampleVehicle);
+        when(rentalService.getOverdue()).thenReturn(List.of(overdue));
+
+        mockMvc.perform(get("/api/v1/rentals/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("3"))
+                .andExpect(jsonPath("$[0].endDate").value("2025-06-02"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST /api/v1/rentals/{id}/return liefert die zurückgegebene Rental")
+    void whenReturn_then200() throws Exception {
+        Rental returned = new Rental();
+        returned.setId(1L);
+        returned.setCustomer("Max Mustermann");
+        returned.setStartDate(LocalDate.of(2025, 6, 1));
+        returned.setEndDate(LocalDate.of(2025, 6, 2));
+        returned.setVehicle(sampleVehicle);
+        returned.setReturnedAt(Instant.parse("2025-06-03T10:15:30Z"));
+        when(rentalService.markReturned(1L)).thenReturn(returned);
+
+        mockMvc.perform(post("/api/v1/rentals/1/return").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.returnedAt").exists());
+    }
+
+    // --- Request-Deadlines ---
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Abgelaufenes Client-Budget → 504, ohne den Service aufzurufen")
+    void whenClientBudgetExhausted_then504() throws Exception {
+        mockMvc.perform(get("/api/v1/rentals/filter/end-before")
+                        .param("before", "2025-06-30")
+                        .header("X-Request-Timeout-Ms", "0"))
+                .andExpect(status().isGatewayTimeout());
+        verifyNoInteractions(rentalService);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Abgebrochene Abfrage → 504")
+    void whenQueryTimesOut_then504() throws Exception {
+        when(rentalService.getByEndDateBefore(LocalDate.of(2025, 6, 30)))
+                .thenThrow(new QueryTimeoutException("Statement abgebrochen"));
+
+        mockMvc.perform(get("/api/v1/rentals/filter/end-before")
+                        .param("before", "2025-06-30")
+                        .header("X-Request-Timeout-Ms", "500"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.message").value("Zeitlimit der Anfrage überschritten"));
+    }
 }
@@ -0,0 +1,53 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.OccupancyReport;
+import org.example.m295nick.services.ReportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReportController.class)
+class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportService reportService;
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/reports/occupancy?month=2025-06 liefert Bitsets pro Fahrzeug")
+    void whenGetOccupancy_thenCompactReport() throws Exception {
+        when(reportService.getOccupancy(YearMonth.of(2025, 6)))
+                .thenReturn(new OccupancyReport(YearMonth.of(2025, 6), 30, Map.of("1", "AwAAAA==")));
+
+        mockMvc.perform(get("/api/v1/reports/occupancy").param("month", "2025-06")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2025-06"))
+                .andExpect(jsonPath("$.days").value(30))
+                .andExpect(jsonPath("$.vehicles.1").value("AwAAAA=="));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/reports/occupancy mit ungültigem Monat liefert 400")
+    void whenGetOccupancy_invalidMonth_then400() throws Exception {
+        mockMvc.perform(get("/api/v1/reports/occupancy").param("month", "Juni"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(reportService);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.SyncResponse;
+import org.example.m295nick.models.Tombstone;
+import org.example.m295nick.services.SyncService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SyncController.class)
+class SyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SyncService syncService;
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/sync?since= liefert Token und Tombstones mit String-IDs")
+    void whenSync_thenTokenAndTombstones() throws Exception {
+        when(syncService.getChanges("123"))
+                .thenReturn(new SyncResponse("456", false, false, List.of(), List.of(), List.of(new Tombstone("Rental", 9L))));
+
+        mockMvc.perform(get("/api/v1/sync").param("since", "123").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("456"))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.tombstones[0].entityType").value("Rental"))
+                .andExpect(jsonPath("$.tombstones[0].entityId").value("9"))
+                .andExpect(jsonPath("$.tombstones[0].id").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/sync mit ungültigem Token liefert 400")
+    void whenSyncInvalidToken_then400() throws Exception {
+        when(syncService.getChanges("abc")).thenThrow(new IllegalArgumentException("Ungültiges Sync-Token: abc"));
+
+        mockMvc.perform(get("/api/v1/sync").param("since", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,7 +1,12 @@
 package org.example.m295nick.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.m295nick.models.BulkItemResult;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.FieldSet;
 import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.services.FieldProjectionService;
+import org.example.m295nick.services.ResponseByteCache;
 import org.example.m295nick.services.VehicleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,24 +14,39 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(VehicleController.class)
+@Import(ResponseByteCache.class)
 class VehicleControllerTest {
 
     @Autowired
@@ -35,13 +55,21 @@ class VehicleControllerTest {
     @MockBean
     private VehicleService vehicleService;
 
+    @MockBean
+    private FieldProjectionService fieldProjectionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ResponseByteCache responseByteCache;
+
     private Vehicle sampleVehicle;
 
     @BeforeEach
     void setUp() {
+        // Der Kontext (und damit der Cache) wird zwischen den Tests wiederverwendet
+        responseByteCache.invalidate();
         sampleVehicle = new Vehicle();
         sampleVehicle.setId(1L);
         sampleVehicle.setBrand("VW");
@@ -238,4 +266,116 @@ class VehicleControllerTest {
                         .with(csrf()))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/vehicles?fields=id,brand,pricePerDay liefert nur diese Felder")
+    void whenGetAllWithFields_thenOnlySelectedFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", "1");
+        row.put("brand", "VW");
+        row.put("pricePerDay", new BigDecimal("100.00"));
+        when(fieldProjectionService.getVehicles(FieldSet.parse("id,brand,pricePerDay", FieldSet.VEHICLE_FIELDS)))
+                .thenReturn(List.of(row));
+
+        mockMvc.perform(get("/api/v1/vehicles").param("fields", "id,brand,pricePerDay")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("1"))
+                .andExpect(jsonPath("$[0].brand").value("VW"))
+                .andExpect(jsonPath("$[0].pricePerDay").value(100.0))
+                .andExpect(jsonPath("$[0].model").doesNotExist());
+        verify(vehicleService, never()).getAll();
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/vehicles?fields=unbekannt liefert 400")
+    void whenGetAllWithUnknownField_then400() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles").param("fields", "id,rentals"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("rentals")));
+        verifyNoInteractions(fieldProjectionService);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST /api/v1/vehicles/bulk?partial=true returns 207 with per-item status")
+    void whenBulkPartial_then207() throws Exception {
+        BulkResult result = BulkResult.of(List.of(
+                BulkItemResult.failed(0, 400, "Fahrzeug darf nicht älter als 30 Jahre sein"),
+                BulkItemResult.created(1, 7L)));
+        when(vehicleService.createAllPartial(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/vehicles/bulk")
+                        .with(csrf())
+                        .param("partial", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleVehicle, sampleVehicle))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].status").value(400))
+                .andExpect(jsonPath("$.items[1].id").value("7"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/vehicles serves cached bytes until a write invalidates them")
+    void whenGetAllTwice_thenServedFromByteCache() throws Exception {
+        when(vehicleService.getAll()).thenReturn(List.of(sampleVehicle));
+
+        mockMvc.perform(get("/api/v1/vehicles")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/vehicles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("1"));
+        verify(vehicleService, times(1)).getAll();
+
+        responseByteCache.invalidate();
+        mockMvc.perform(get("/api/v1/vehicles")).andExpect(status().isOk());
+        verify(vehicleService, times(2)).getAll();
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/vehicles with Accept-Encoding gzip returns the pre-compressed variant")
+    void whenGetAllWithGzip_thenCompressedBody() throws Exception {
+        when(vehicleService.getAll()).thenReturn(List.of(sampleVehicle));
+
+        byte[] body = mockMvc.perform(get("/api/v1/vehicles").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("-gz")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(objectMapper.readTree(json).get(0).get("brand").asText()).isEqualTo("VW");
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET /api/v1/vehicles with matching If-None-Match returns 304")
+    void whenGetAllWithMatchingEtag_then304() throws Exception {
+        when(vehicleService.getAll()).thenReturn(List.of(sampleVehicle));
+
+        String etag = mockMvc.perform(get("/api/v1/vehicles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/vehicles").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("acceptsGzip honours q=0")
+    void acceptsGzip_parsesHeader() {
+        assertThat(VehicleController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(VehicleController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(VehicleController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(VehicleController.acceptsGzip("identity")).isFalse();
+        assertThat(VehicleController.acceptsGzip(null)).isFalse();
+    }
 }
@@ -0,0 +1,165 @@
+package org.example.m295nick.controllers;
+
+import org.example.m295nick.models.VehicleMedia;
+import org.example.m295nick.services.ThumbnailGenerator;
+import org.example.m295nick.services.VehicleMediaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(VehicleMediaController.class)
+class VehicleMediaControllerTest {
+
+    private static final String SHA256 = "ab".repeat(32);
+    private static final String ETAG = "\"" + SHA256 + "\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VehicleMediaService vehicleMediaService;
+
+    @TempDir
+    Path tempDir;
+
+    private VehicleMedia media;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.write(tempDir.resolve(SHA256), content);
+
+        media = new VehicleMedia();
+        media.setId(10L);
+        media.setVehicleId(1L);
+        media.setFileName("front.jpg");
+        media.setContentType("image/jpeg");
+        media.setSize(content.length);
+        media.setSha256(SHA256);
+        when(vehicleMediaService.getById(1L, 10L)).thenReturn(Optional.of(media));
+        when(vehicleMediaService.getContent(media)).thenReturn(file);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("GET liefert den ganzen Inhalt mit ETag und Accept-Ranges")
+    void whenGet_thenFullContent() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", 1000))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Range: bytes=100-199 → 206 mit Content-Range und genau diesen Bytes")
+    void whenRange_thenPartialContent() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10").header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/1000"))
+                .andExpect(header().longValue("Content-Length", 100))
+                .andExpect(content().bytes(Arrays.copyOfRange(content, 100, 200)));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Suffix-Range: bytes=-10 → die letzten 10 Bytes")
+    void whenSuffixRange_thenTail() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10").header("Range", "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 990-999/1000"))
+                .andExpect(content().bytes(Arrays.copyOfRange(content, 990, 1000)));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Bereich ausserhalb der Datei → 416")
+    void whenRangeUnsatisfiable_then416() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10").header("Range", "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */1000"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("If-Range mit veraltetem ETag → ganze Datei statt Bereich")
+    void whenIfRangeStale_thenFullContent() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10")
+                        .header("Range", "bytes=0-9").header("If-Range", "\"veraltet\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Passendes If-None-Match → 304 ohne Inhalt")
+    void whenIfNoneMatch_then304() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Vorschaubild noch in Arbeit → 202 mit Retry-After")
+    void whenThumbnailPending_then202() throws Exception {
+        when(vehicleMediaService.requestThumbnail(media)).thenReturn(ThumbnailGenerator.State.PENDING);
+
+        mockMvc.perform(get("/api/v1/vehicles/1/media/10/thumbnail"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    @DisplayName("Unbekanntes Medium → 404")
+    void whenMediaMissing_then404() throws Exception {
+        when(vehicleMediaService.getById(1L, 11L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/vehicles/1/media/11"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("POST (multipart) → 201 mit Location")
+    void whenUpload_thenCreated() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "front.jpg", "image/jpeg", content);
+        when(vehicleMediaService.upload(eq(1L), eq("front.jpg"), eq("image/jpeg"), any(InputStream.class)))
+                .thenReturn(media);
+
+        mockMvc.perform(multipart("/api/v1/vehicles/1/media").file(file).with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/vehicles/1/media/10"))
+                .andExpect(jsonPath("$.sha256").value(SHA256))
+                .andExpect(jsonPath("$.size").value(1000));
+    }
+}
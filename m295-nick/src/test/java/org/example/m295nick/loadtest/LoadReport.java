@@ -0,0 +1,121 @@
+package org.example.m295nick.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Schreibt die Ergebnisse eines Lasttests als {@code report.json}, {@code report.html}
+ * und pro Endpoint eine {@code .hgrm}-Datei (Percentile-Verteilung, lesbar mit dem
+ * HdrHistogram-Plotter). Alle Zeiten im Report in Millisekunden.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadReport() {
+    }
+
+    static Map<String, Object> summarize(Map<String, OpenModelDriver.EndpointStats> stats) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((name, s) -> {
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("requests", s.requests.get());
+            e.put("errors", s.errors.get());
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            s.statuses.forEach((k, v) -> statuses.put(k, v.get()));
+            e.put("statuses", statuses);
+            e.put("corrected", percentiles(s.corrected));
+            e.put("service", percentiles(s.service));
+            endpoints.put(name, e);
+        });
+        return endpoints;
+    }
+
+    static void write(Path dir, Map<String, Object> config, Map<String, OpenModelDriver.EndpointStats> stats)
+            throws IOException {
+        Files.createDirectories(dir);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("endpoints", summarize(stats));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve("report.json").toFile(), report);
+
+        StringBuilder html = new StringBuilder("""
+                <!DOCTYPE html>
+                <html lang="de"><head><meta charset="utf-8"><title>Lasttest</title>
+                <style>body{font-family:sans-serif}td,th{padding:2px 10px;text-align:right}
+                th:first-child,td:first-child{text-align:left}</style></head><body>
+                <h1>Lasttest</h1>
+                """);
+        html.append("<p>").append(escape(config.toString())).append("</p>\n");
+        html.append("<p>Latenz ab geplantem Start (korrigiert um Coordinated Omission), "
+                + "in Klammern reine Antwortzeit; Angaben in ms.</p>\n");
+        html.append("<table><tr><th>Endpoint</th><th>Requests</th><th>Fehler</th>");
+        for (double p : PERCENTILES) {
+            html.append("<th>p").append(format(p)).append("</th>");
+        }
+        html.append("<th>max</th><th>Status</th></tr>\n");
+        stats.forEach((name, s) -> {
+            html.append("<tr><td>").append(escape(name)).append("</td><td>").append(s.requests.get())
+                    .append("</td><td>").append(s.errors.get()).append("</td>");
+            for (double p : PERCENTILES) {
+                html.append("<td>").append(ms(s.corrected.getValueAtPercentile(p)))
+                        .append(" (").append(ms(s.service.getValueAtPercentile(p))).append(")</td>");
+            }
+            html.append("<td>").append(ms(s.corrected.getMaxValue())).append("</td><td>")
+                    .append(escape(s.statuses.toString())).append("</td></tr>\n");
+        });
+        html.append("</table>\n");
+        for (Map.Entry<String, OpenModelDriver.EndpointStats> entry : stats.entrySet()) {
+            String distribution = distribution(entry.getValue().corrected);
+            Files.writeString(dir.resolve(fileName(entry.getKey()) + ".hgrm"), distribution);
+            html.append("<h2>").append(escape(entry.getKey())).append("</h2><pre>")
+                    .append(escape(distribution)).append("</pre>\n");
+        }
+        html.append("</body></html>\n");
+        Files.writeString(dir.resolve("report.html"), html);
+    }
+
+    private static Map<String, Object> percentiles(Histogram h) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            p.put("p" + format(percentile), ms(h.getValueAtPercentile(percentile)));
+        }
+        p.put("max", ms(h.getMaxValue()));
+        p.put("mean", ms((long) h.getMean()));
+        return p;
+    }
+
+    // Verteilung in ms (Histogramm ist in µs)
+    private static String distribution(Histogram h) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        h.outputPercentileDistribution(new PrintStream(out, true, StandardCharsets.UTF_8), 5, 1000.0);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static double ms(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.m295nick.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lastgenerator im offenen Modell: Requests starten zu festen Zeitpunkten
+ * (Ankunftsrate), unabhängig davon, ob frühere schon beantwortet sind.
+ * <p>
+ * Die Latenz wird ab dem <em>geplanten</em> Startzeitpunkt gemessen. Stauen sich Requests,
+ * weil alle virtuellen User belegt sind oder der Server hängt, zählt die Wartezeit mit
+ * (Korrektur für Coordinated Omission). Zusätzlich wird die reine Antwortzeit
+ * ab dem tatsächlichen Senden erfasst.
+ */
+class OpenModelDriver {
+
+    private final HttpClient client;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    OpenModelDriver(List<Scenario> scenarios) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        scenarios.forEach(s -> stats.put(s.endpoint(), new EndpointStats()));
+    }
+
+    /**
+     * Erzeugt {@code ratePerSecond} Requests pro Sekunde während {@code duration}.
+     * Die Szenarien werden deterministisch nach Gewicht gemischt.
+     *
+     * @param users Anzahl virtueller User (gleichzeitig offene Requests)
+     */
+    Map<String, EndpointStats> run(double ratePerSecond, Duration duration, int users) throws InterruptedException {
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long total = (long) (duration.toNanos() / intervalNanos);
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = pick(i);
+                long n = i;
+                pool.execute(() -> call(scenario, n, intended));
+            }
+        } finally {
+            pool.shutdown();
+            // Nachzügler abwarten; was dann noch hängt, zählt als Timeout
+            if (!pool.awaitTermination(60, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        }
+        return stats;
+    }
+
+    private Scenario pick(long i) {
+        long slot = (i * 7919) % totalWeight; // über den Mix gestreut statt in Blöcken
+        for (Scenario s : scenarios) {
+            slot -= s.weight();
+            if (slot < 0) {
+                return s;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void call(Scenario scenario, long n, long intendedNanos) {
+        EndpointStats s = stats.get(scenario.endpoint());
+        long sent = System.nanoTime();
+        String status;
+        try {
+            HttpResponse<Void> response = client.send(scenario.request().apply(n), HttpResponse.BodyHandlers.discarding());
+            status = String.valueOf(response.statusCode());
+        } catch (Exception e) {
+            status = e.getClass().getSimpleName();
+        }
+        long done = System.nanoTime();
+        s.corrected.recordValue(Math.max(1, (done - intendedNanos) / 1000));
+        s.service.recordValue(Math.max(1, (done - sent) / 1000));
+        s.requests.incrementAndGet();
+        s.statuses.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+        if (!status.startsWith("2")) {
+            s.errors.incrementAndGet();
+        }
+    }
+
+    /** Messwerte eines Endpoints; Histogramme in Mikrosekunden. */
+    static final class EndpointStats {
+        final Histogram corrected = new ConcurrentHistogram(3);
+        final Histogram service = new ConcurrentHistogram(3);
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        // HTTP-Status bzw. Exception-Name → Anzahl
+        final Map<String, AtomicLong> statuses = new ConcurrentSkipListMap<>();
+    }
+}
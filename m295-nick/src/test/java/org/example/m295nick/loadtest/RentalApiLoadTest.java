@@ -0,0 +1,160 @@
+package org.example.m295nick.loadtest;
+
+import org.example.m295nick.M295NickApplication;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.services.VehicleService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Lasttest der REST-API gegen eine frisch gestartete App mit H2.
+ * <p>
+ * Nicht Teil des normalen Builds; ausführen mit {@code mvn -Ploadtest test}.
+ * Parameter (System-Properties): {@code loadtest.rate} (Requests/s, Default 50),
+ * {@code loadtest.duration-s} (Default 30), {@code loadtest.users} (virtuelle User, Default 64).
+ * Report unter {@code target/loadtest/}.
+ */
+@Tag("loadtest")
+class RentalApiLoadTest {
+
+    private static final String[] BRANDS = {"VW", "BMW", "Audi", "Skoda", "Seat", "Opel", "Ford", "Toyota"};
+    private static final int VEHICLES = 200;
+    private static final int BULK_SIZE = 20;
+
+    // Benutzer aus SecurityConfig
+    private static final String ADMIN = basic("admin", "adminPass");
+    private static final String USER = basic("user", "userPass");
+
+    @Test
+    @DisplayName("Szenario-Mix im offenen Modell mit fester Ankunftsrate")
+    void runScenarios() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "50"));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-s", 30));
+        int users = Integer.getInteger("loadtest.users", 64);
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(M295NickApplication.class)
+                .run(args())) {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/api/v1";
+            List<Long> vehicleIds = seed(ctx.getBean(VehicleService.class));
+
+            List<Scenario> scenarios = List.of(
+                    new Scenario("GET /vehicles", 40, n -> get(base + "/vehicles", USER)),
+                    new Scenario("GET /vehicles/{id}", 20,
+                            n -> get(base + "/vehicles/" + vehicleIds.get((int) (n % VEHICLES)), USER)),
+                    new Scenario("GET /vehicles/filter/brand", 25,
+                            n -> get(base + "/vehicles/filter/brand?brand=" + BRANDS[(int) (n % BRANDS.length)], USER)),
+                    new Scenario("POST /rentals", 12,
+                            n -> post(base + "/rentals", rentalJson(vehicleIds, n))),
+                    new Scenario("POST /vehicles/bulk", 3, n -> post(base + "/vehicles/bulk", bulkJson(n))));
+
+            // kurzes Aufwärmen (JIT, Verbindungen), fliesst nicht in den Report ein
+            new OpenModelDriver(scenarios).run(rate, Duration.ofSeconds(5), users);
+
+            Map<String, OpenModelDriver.EndpointStats> stats = new OpenModelDriver(scenarios).run(rate, duration, users);
+
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("ratePerSecond", rate);
+            config.put("durationSeconds", duration.toSeconds());
+            config.put("users", users);
+            Path dir = Path.of("target", "loadtest");
+            LoadReport.write(dir, config, stats);
+            System.out.println("Lasttest-Report: " + dir.toAbsolutePath().resolve("report.html"));
+
+            // Kein Latenz-Kriterium (hängt von der Maschine ab); Timeouts unter Überlast stehen im Report,
+            // Serverfehler dagegen sind Bugs
+            stats.forEach((endpoint, s) -> {
+                assertThat(s.requests.get()).as(endpoint).isPositive();
+                assertThat(s.statuses.keySet()).as(endpoint).noneMatch(status -> status.startsWith("5"));
+            });
+        }
+    }
+
+    private static String[] args() {
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("spring.main.banner-mode", "off");
+        props.put("server.port", "0");
+        props.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("logging.level.root", "WARN");
+        props.put("logging.level.org.example.m295nick", "WARN");
+        props.put("audit.journal.enabled", "false");
+        props.put("rentals.archive.enabled", "false");
+        // als Kommandozeilenargumente, damit sie application.properties überschreiben
+        return props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+    }
+
+    private static List<Long> seed(VehicleService vehicleService) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle v = new Vehicle();
+            v.setBrand(BRANDS[i % BRANDS.length]);
+            v.setModel("Modell " + i);
+            v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+            v.setHasAirConditioning(i % 2 == 0);
+            v.setPricePerDay(new BigDecimal("80.00"));
+            v.setSeats(5);
+            ids.add(vehicleService.create(v).getId());
+        }
+        return ids;
+    }
+
+    // jedes n ergibt eine eigene Kombination aus Fahrzeug und Zeitraum → keine Überschneidungen
+    private static String rentalJson(List<Long> vehicleIds, long n) {
+        LocalDate start = LocalDate.of(2030, 1, 1).plusDays((n / VEHICLES) * 3);
+        return """
+                {"customer":"Last %d","vehicleId":"%d","startDate":"%s","endDate":"%s","totalCost":0}"""
+                .formatted(n, vehicleIds.get((int) (n % VEHICLES)), start, start.plusDays(1));
+    }
+
+    private static String bulkJson(long n) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < BULK_SIZE; i++) {
+            json.add("""
+                    {"brand":"%s","model":"Import %d-%d","firstRegistration":"2021-05-01",\
+                    "hasAirConditioning":true,"pricePerDay":70.00,"seats":5}"""
+                    .formatted(BRANDS[i % BRANDS.length], n, i));
+        }
+        return json.toString();
+    }
+
+    private static HttpRequest get(String url, String auth) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", auth)
+                .timeout(Duration.ofSeconds(30))
+                .GET().build();
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", ADMIN)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static String basic(String user, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
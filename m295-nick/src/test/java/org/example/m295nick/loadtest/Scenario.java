@@ -0,0 +1,14 @@
+package org.example.m295nick.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.LongFunction;
+
+/**
+ * Ein Lasttest-Szenario: erzeugt pro Aufruf einen HTTP-Request.
+ *
+ * @param endpoint Name im Report (z. B. "GET /vehicles")
+ * @param weight   Anteil am Request-Mix (relativ zu den anderen Szenarien)
+ * @param request  baut den Request; Argument ist die laufende Nummer des Aufrufs
+ */
+record Scenario(String endpoint, int weight, LongFunction<HttpRequest> request) {
+}
@@ -0,0 +1,104 @@
+package org.example.m295nick.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SnowflakeTest {
+
+    @Test
+    @DisplayName("IDs sind streng monoton und enthalten Zeit und Node-ID")
+    void whenNextId_thenMonotonicWithNodeAndTime() {
+        long now = Instant.parse("2025-06-01T10:00:00Z").toEpochMilli();
+        Snowflake snowflake = new Snowflake(42, () -> now);
+
+        long first = snowflake.nextId();
+        long second = snowflake.nextId();
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(Snowflake.nodeIdOf(first)).isEqualTo(42);
+        assertThat(Snowflake.timestampOf(first)).isEqualTo(Instant.ofEpochMilli(now));
+    }
+
+    @Test
+    @DisplayName("Nach 4096 IDs in einer Millisekunde wird auf die nächste gewartet")
+    void whenSequenceExhausted_thenWaitForNextMillis() {
+        AtomicLong clock = new AtomicLong(Snowflake.EPOCH + 1000);
+        // jeder 5000. Aufruf lässt die Uhr eine Millisekunde weiterlaufen
+        AtomicLong calls = new AtomicLong();
+        Snowflake snowflake = new Snowflake(1, () -> calls.incrementAndGet() % 5000 == 0
+                ? clock.incrementAndGet() : clock.get());
+
+        long last = -1;
+        for (int i = 0; i < 10_000; i++) {
+            long id = snowflake.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Kleiner Uhrsprung rückwärts wird abgewartet, grosser abgelehnt")
+    void whenClockMovesBackwards_thenWaitOrFail() {
+        AtomicLong clock = new AtomicLong(Snowflake.EPOCH + 10_000);
+        Snowflake snowflake = new Snowflake(1, clock::get);
+        long before = snowflake.nextId();
+
+        clock.addAndGet(-100);
+        assertThatThrownBy(snowflake::nextId).isInstanceOf(IllegalStateException.class);
+
+        clock.addAndGet(100);
+        assertThat(snowflake.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Parallele Vergabe liefert keine Duplikate")
+    void whenConcurrent_thenUnique() throws InterruptedException {
+        Snowflake snowflake = new Snowflake(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(snowflake.nextId());
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(ids).hasSize(80_000);
+    }
+
+    @Test
+    @DisplayName("Ungültige Node-ID wird abgelehnt")
+    void whenNodeIdOutOfRange_thenThrow() {
+        assertThatThrownBy(() -> new Snowflake(Snowflake.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("IDs gehen als String ins JSON und werden als String oder Zahl gelesen")
+    void whenJson_thenIdsAsStrings() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        long big = (1L << 53) + 1; // als double nicht exakt darstellbar
+        Rental rental = new Rental();
+        rental.setId(big);
+        rental.setVehicleId(big + 1);
+
+        String json = mapper.writeValueAsString(rental);
+        assertThat(json).contains("\"id\":\"" + big + "\"", "\"vehicleId\":\"" + (big + 1) + "\"");
+
+        assertThat(mapper.readValue("{\"vehicleId\":\"" + big + "\"}", Rental.class).getVehicleId()).isEqualTo(big);
+        assertThat(mapper.readValue("{\"vehicleId\":7}", Rental.class).getVehicleId()).isEqualTo(7L);
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.AuditRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private AuditJournal newJournal(int segmentBytes) {
+        return new AuditJournal(dir.toString(), segmentBytes, 1024, AuditJournal.FsyncPolicy.BATCH, 0, true);
+    }
+
+    private static AuditRecord record(long ts, String entity, long id, String action) {
+        return new AuditRecord(Instant.ofEpochMilli(ts), entity, id, action, "{\"id\":" + id + "}");
+    }
+
+    @Test
+    @DisplayName("Geschriebene Einträge lassen sich vollständig zurücklesen")
+    void whenAppend_thenReadBack() throws Exception {
+        AuditJournal journal = newJournal(64 * 1024);
+        journal.start();
+        journal.append(record(1000, "Vehicle", 1, "CREATED"));
+        journal.append(record(2000, "Rental", 5, "UPDATED"));
+        journal.append(new AuditRecord(Instant.ofEpochMilli(3000), "Rental", null, "ALL_DELETED", "{}"));
+        journal.stop();
+
+        List<AuditRecord> all = AuditJournalReader.read(dir, null, null, null, null, 100);
+        assertThat(all).hasSize(3);
+        assertThat(all.get(1)).isEqualTo(record(2000, "Rental", 5, "UPDATED"));
+        assertThat(all.get(2).entityId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Filter nach Entität, ID und Zeitraum")
+    void whenFilter_thenOnlyMatching() throws Exception {
+        AuditJournal journal = newJournal(64 * 1024);
+        journal.start();
+        for (int i = 1; i <= 10; i++) {
+            journal.append(record(i * 1000L, i % 2 == 0 ? "Rental" : "Vehicle", i, "CREATED"));
+        }
+        journal.stop();
+
+        assertThat(AuditJournalReader.read(dir, "rental", null, null, null, 100)).hasSize(5);
+        assertThat(AuditJournalReader.read(dir, "Rental", 4L, null, null, 100))
+                .extracting(AuditRecord::entityId).containsExactly(4L);
+        assertThat(AuditJournalReader.read(dir, null, null, Instant.ofEpochMilli(3000), Instant.ofEpochMilli(6000), 100))
+                .extracting(AuditRecord::entityId).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Volles Segment wird gerollt und beim Neustart wird weitergeschrieben")
+    void whenSegmentFull_thenRolloverAndResume() throws Exception {
+        AuditJournal journal = newJournal(256);
+        journal.start();
+        for (int i = 0; i < 20; i++) {
+            journal.append(record(i, "Vehicle", i, "UPDATED"));
+        }
+        journal.stop();
+        assertThat(AuditJournalReader.listSegments(dir)).hasSizeGreaterThan(1);
+
+        AuditJournal restarted = newJournal(256);
+        restarted.start();
+        restarted.append(record(99, "Vehicle", 99, "DELETED"));
+        restarted.stop();
+
+        List<AuditRecord> all = AuditJournalReader.read(dir, null, null, null, null, 1000);
+        assertThat(all).hasSize(21);
+        assertThat(all.get(20).action()).isEqualTo("DELETED");
+    }
+
+    @Test
+    @DisplayName("from ist inklusiv, auch wenn das nächste Segment genau bei from beginnt")
+    void whenNextSegmentStartsAtFrom_thenCurrentSegmentStillRead() throws Exception {
+        AuditJournal journal = newJournal(256);
+        journal.start();
+        journal.append(record(1000, "Vehicle", 0, "UPDATED"));
+        for (int i = 1; i < 20; i++) {
+            journal.append(record(5000, "Vehicle", i, "UPDATED"));
+        }
+        journal.stop();
+        assertThat(AuditJournalReader.listSegments(dir)).hasSizeGreaterThan(2);
+
+        assertThat(AuditJournalReader.read(dir, null, null, Instant.ofEpochMilli(5000), null, 1000))
+                .extracting(AuditRecord::entityId).hasSize(19).doesNotContain(0L);
+    }
+
+    @Test
+    @DisplayName("Verspätete Einträge werden angehoben, Zeitstempel im Journal bleiben monoton")
+    void whenOutOfOrderAppend_thenTimestampsMonotonic() throws Exception {
+        AuditJournal journal = newJournal(256);
+        journal.start();
+        for (int i = 0; i < 10; i++) {
+            journal.append(record(1000 + i, "Vehicle", i, "UPDATED"));
+        }
+        // Commit eines älteren Threads kommt erst jetzt an
+        journal.append(record(500, "Rental", 77, "CREATED"));
+        journal.append(record(2000, "Vehicle", 10, "UPDATED"));
+        journal.stop();
+
+        List<AuditRecord> all = AuditJournalReader.read(dir, null, null, null, null, 100);
+        assertThat(all).extracting(AuditRecord::timestamp).isSorted();
+        // Der Zeitraum-Filter findet den verspäteten Eintrag trotz Segment-Überspringen
+        assertThat(AuditJournalReader.read(dir, "Rental", 77L, Instant.ofEpochMilli(1009), null, 100)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("INTERVAL: im Leerlauf werden die letzten Einträge trotzdem gesichert")
+    void whenIntervalPolicyIdle_thenForced() throws Exception {
+        AuditJournal journal = new AuditJournal(dir.toString(), 64 * 1024, 1024, AuditJournal.FsyncPolicy.INTERVAL, 50, true);
+        journal.start();
+        try {
+            journal.append(record(1000, "Vehicle", 1, "CREATED"));
+            long deadline = System.currentTimeMillis() + 5000;
+            // erst lesen, dann Flag prüfen: sonst kann der Eintrag zwischen den beiden Abfragen erscheinen
+            while (System.currentTimeMillis() < deadline && (AuditJournalReader.read(dir, null, null, null, null, 10).isEmpty()
+                    || journal.hasUnsyncedWrites())) {
+                Thread.sleep(20);
+            }
+            assertThat(AuditJournalReader.read(dir, null, null, null, null, 10)).hasSize(1);
+            assertThat(journal.hasUnsyncedWrites()).isFalse();
+        } finally {
+            journal.stop();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.m295nick.services;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.BulkItemResult;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BulkWriterTest {
+
+    private ValidatorFactory validatorFactory;
+    private BulkWriter bulkWriter;
+
+    // Gespeicherte Blöcke, um Batching und Einzelversuche nachzuvollziehen
+    private final List<Integer> chunkSizes = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        bulkWriter = new BulkWriter(mock(PlatformTransactionManager.class), validatorFactory.getValidator(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private Vehicle vehicle(String brand) {
+        Vehicle v = new Vehicle();
+        v.setBrand(brand);
+        v.setModel("M");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("100.00"));
+        v.setSeats(5);
+        return v;
+    }
+
+    // Speichert den Block, lehnt ihn aber komplett ab, sobald er eine "DUP"-Marke enthält
+    private final Function<List<Vehicle>, List<Vehicle>> save = chunk -> {
+        chunkSizes.add(chunk.size());
+        for (Vehicle v : chunk) {
+            v.setId(ids.incrementAndGet());
+        }
+        if (chunk.stream().anyMatch(v -> v.getBrand().equals("DUP"))) {
+            throw new DataIntegrityViolationException("duplicate key");
+        }
+        return chunk;
+    };
+
+    private BulkResult write(List<Vehicle> vehicles) {
+        return bulkWriter.write(vehicles,
+                v -> {
+                    if (v.getBrand().equals("UNKNOWN")) {
+                        throw new ResourceNotFoundException("Vehicle", "brand", v.getBrand());
+                    }
+                    if (v.getFirstRegistration().isBefore(LocalDate.now().minusYears(30))) {
+                        throw new IllegalArgumentException("Fahrzeug darf nicht älter als 30 Jahre sein");
+                    }
+                },
+                save, Vehicle::getId, v -> v.setId(null));
+    }
+
+    @Test
+    @DisplayName("Gültige Elemente werden blockweise gespeichert, ungültige pro Index gemeldet")
+    void whenMixedItems_thenPartialSuccess() {
+        Vehicle old = vehicle("Oldie");
+        old.setFirstRegistration(LocalDate.of(1980, 1, 1));
+        Vehicle noBrand = vehicle("");
+
+        BulkResult result = write(List.of(vehicle("A"), old, vehicle("B"), noBrand, vehicle("UNKNOWN"), vehicle("C")));
+
+        assertThat(result.total()).isEqualTo(6);
+        assertThat(result.succeeded()).isEqualTo(3);
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.items()).extracting(BulkItemResult::index).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(result.items()).extracting(BulkItemResult::status).containsExactly(201, 400, 201, 400, 404, 201);
+        assertThat(result.items().get(1).error()).contains("30 Jahre");
+        assertThat(result.items().get(3).error()).startsWith("brand:");
+        assertThat(result.items().get(0).id()).isNotNull();
+        assertThat(result.failedIndexes()).containsExactly(1, 3, 4);
+        // Batch-Grösse 2: die drei gültigen Elemente gehen in zwei Blöcken
+        assertThat(chunkSizes).containsExactly(2, 1);
+    }
+
+    @Test
+    @DisplayName("Scheitert ein Block beim Speichern, wird nur das verursachende Element abgelehnt")
+    void whenChunkFails_thenRetriedItemByItem() {
+        BulkResult result = write(List.of(vehicle("A"), vehicle("DUP"), vehicle("B")));
+
+        assertThat(result.items()).extracting(BulkItemResult::status).containsExactly(201, 409, 201);
+        assertThat(result.items().get(1).id()).isNull();
+        assertThat(result.items().get(1).error()).contains("duplicate key");
+        // Block [A, DUP] scheitert, danach A und DUP einzeln, dann Block [B]
+        assertThat(chunkSizes).containsExactly(2, 1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("Statusabbildung entspricht dem RestExceptionHandler")
+    void statusOf_mapsLikeExceptionHandler() {
+        assertThat(BulkWriter.statusOf(new IllegalArgumentException("x"))).isEqualTo(400);
+        assertThat(BulkWriter.statusOf(new ResourceNotFoundException("Vehicle", "id", 1L))).isEqualTo(404);
+        assertThat(BulkWriter.statusOf(new DataIntegrityViolationException("x"))).isEqualTo(409);
+        assertThat(BulkWriter.statusOf(new IllegalStateException("x"))).isEqualTo(500);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.m295nick.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.m295nick.models.CacheRegionStats;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Second-Level- und Query-Cache für Vehicle. Ohne Test-Transaktion, damit jeder
+ * Service-Aufruf eine eigene Transaktion (und Session) hat wie im Betrieb.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VehicleServiceImpl.class, CacheStatisticsServiceImpl.class, ReadCoalescer.class})
+class CacheStatisticsServiceTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private BulkWriter bulkWriter;
+
+    @MockBean
+    private ResponseByteCache responseByteCache;
+
+    @MockBean
+    private RentalArchiveService rentalArchiveService;
+
+    @MockBean
+    private VehicleMediaService vehicleMediaService;
+
+    @BeforeEach
+    void setUp() {
+        cacheStatisticsService.evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vehicleRepository.deleteAll();
+    }
+
+    private Vehicle vehicle(String brand) {
+        Vehicle v = new Vehicle();
+        v.setBrand(brand);
+        v.setModel("M");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("80.00"));
+        v.setSeats(5);
+        return v;
+    }
+
+    private CacheRegionStats region(String name) {
+        return cacheStatisticsService.getRegionStatistics().stream()
+                .filter(s -> s.region().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Zweiter gleicher Filter kommt aus dem Query-Cache")
+    void whenSameFilterTwice_thenServedFromQueryCache() {
+        vehicleService.create(vehicle("VW"));
+
+        assertThat(vehicleService.getByBrand("vw")).hasSize(1);
+        assertThat(vehicleService.getByBrand("vw")).hasSize(1);
+
+        CacheRegionStats queries = region("vehicle-queries");
+        assertThat(queries.puts()).isEqualTo(1);
+        assertThat(queries.hits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getById liest ein gespeichertes Fahrzeug aus dem Entity-Cache")
+    void whenGetById_thenServedFromEntityCache() {
+        Vehicle saved = vehicleService.create(vehicle("VW"));
+
+        assertThat(vehicleService.getById(saved.getId())).isPresent();
+        assertThat(vehicleService.getById(saved.getId())).isPresent();
+
+        assertThat(region("vehicle").hits()).isEqualTo(2);
+        assertThat(region("vehicle").misses()).isZero();
+    }
+
+    @Test
+    @DisplayName("Update eines Fahrzeugs verwirft gecachte Filter-Ergebnisse")
+    void whenVehicleUpdated_thenQueryCacheInvalidated() {
+        Vehicle saved = vehicleService.create(vehicle("VW"));
+        assertThat(vehicleService.getByBrand("VW")).hasSize(1);
+
+        Vehicle changed = vehicle("Audi");
+        vehicleService.update(saved.getId(), changed);
+
+        assertThat(vehicleService.getByBrand("VW")).isEmpty();
+        assertThat(vehicleService.getByBrand("Audi")).extracting(Vehicle::getBrand).containsExactly("Audi");
+        assertThat(region("vehicle-queries").hits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sammel-Löschung leert Entity- und Query-Cache")
+    void whenDeleteAll_thenCachesInvalidated() {
+        Vehicle saved = vehicleService.create(vehicle("VW"));
+        assertThat(vehicleService.getByAirConditioning(true)).hasSize(1);
+        assertThat(vehicleService.getById(saved.getId())).isPresent();
+
+        vehicleService.deleteAll();
+
+        assertThat(vehicleService.getByAirConditioning(true)).isEmpty();
+        assertThat(vehicleService.getById(saved.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.m295nick.services;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ContinuousRecordingTest {
+
+    @TempDir
+    Path dumpDir;
+
+    private ContinuousRecording recording;
+
+    @AfterEach
+    void tearDown() {
+        if (recording != null) {
+            recording.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Dump enthält die eigenen Fach-Events der letzten Minuten")
+    void whenDump_thenFileContainsDomainEvents() throws Exception {
+        recording = new ContinuousRecording(true, "default", 5, 50, 0, dumpDir.toString(), 5);
+        recording.start();
+
+        FlightEvents.rentalPhase("pricing", 3, () -> { });
+        FlightEvents.CacheLookup lookup = FlightEvents.cacheLookup("response-bytes", "vehicles.all");
+        lookup.hit = true;
+        lookup.commit();
+
+        Path file = recording.dump(1);
+
+        assertThat(file).startsWith(dumpDir.toAbsolutePath()).hasExtension("jfr");
+        assertThat(Files.size(file)).isPositive();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.getEventType().getName()).isEqualTo("m295.RentalCreatePhase");
+            assertThat(e.getString("phase")).isEqualTo("pricing");
+            assertThat(e.getInt("rentals")).isEqualTo(3);
+        });
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.getEventType().getName()).isEqualTo("m295.CacheLookup");
+            assertThat(e.getBoolean("hit")).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("Nur die neuesten jfr.dump-keep Dumps bleiben im Verzeichnis")
+    void whenMoreDumpsThanKept_thenOldestDeleted() throws Exception {
+        recording = new ContinuousRecording(true, "default", 5, 50, 0, dumpDir.toString(), 2);
+        recording.start();
+
+        Path first = recording.dump(1);
+        Thread.sleep(5);
+        Path second = recording.dump(1);
+        Thread.sleep(5);
+        Path third = recording.dump(1);
+
+        assertThat(first).doesNotExist();
+        try (var files = Files.list(dumpDir)) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .containsExactlyInAnyOrder(second.getFileName().toString(), third.getFileName().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Zeitraum ausserhalb der Pufferdauer wird abgelehnt")
+    void whenMinutesOutOfRange_thenIllegalArgument() throws Exception {
+        recording = new ContinuousRecording(true, "default", 5, 50, 0, dumpDir.toString(), 5);
+        recording.start();
+
+        assertThatThrownBy(() -> recording.dump(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recording.dump(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Abgeschaltet: keine Aufzeichnung, Dump nicht möglich")
+    void whenDisabled_thenNotRunning() throws Exception {
+        recording = new ContinuousRecording(false, "default", 5, 50, 0, dumpDir.toString(), 5);
+        recording.start();
+
+        assertThat(recording.isRunning()).isFalse();
+        assertThatThrownBy(() -> recording.dump(1)).isInstanceOf(IllegalStateException.class);
+    }
+}
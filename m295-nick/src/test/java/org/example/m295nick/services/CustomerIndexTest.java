@@ -0,0 +1,74 @@
+package org.example.m295nick.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CustomerIndexTest {
+
+    private CustomerIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerIndex();
+        index.add(1L, CustomerIndex.normalize("Max Mustermann"));
+        index.add(2L, CustomerIndex.normalize("Erika Mustermann"));
+        index.add(3L, CustomerIndex.normalize("Jürg Müller"));
+        index.add(4L, CustomerIndex.normalize("Anna"));
+        index.add(5L, CustomerIndex.normalize("Anne"));
+    }
+
+    @Test
+    @DisplayName("normalize entfernt Akzente, Grossschreibung und doppelte Leerzeichen")
+    void whenNormalize_thenCanonicalForm() {
+        assertThat(CustomerIndex.normalize("  Jürg   MÜLLER ")).isEqualTo("jurg muller");
+        assertThat(CustomerIndex.normalize("Strauß")).isEqualTo("strauss");
+        assertThat(CustomerIndex.normalize(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("boundedLevenshtein liefert die Distanz bis k und sonst k + 1")
+    void whenBoundedLevenshtein_thenCappedDistance() {
+        assertThat(CustomerIndex.boundedLevenshtein("mustermann", "mustermann", 2)).isZero();
+        assertThat(CustomerIndex.boundedLevenshtein("mustermann", "musterman", 2)).isEqualTo(1);
+        assertThat(CustomerIndex.boundedLevenshtein("mustermann", "mustremann", 2)).isEqualTo(2);
+        assertThat(CustomerIndex.boundedLevenshtein("mustermann", "meier", 2)).isEqualTo(3);
+        assertThat(CustomerIndex.boundedLevenshtein("", "ab", 2)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("search findet Namen mit Tippfehlern, nach Distanz sortiert")
+    void whenSearchWithTypo_thenRankedMatches() {
+        List<CustomerIndex.Match> matches = index.search("Max Mustremann", 2, 10);
+
+        assertThat(matches).extracting(CustomerIndex.Match::id).containsExactly(1L);
+        assertThat(matches.get(0).distance()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("search findet Akzent-Varianten ohne Änderungen")
+    void whenSearchWithoutAccents_thenExactMatch() {
+        assertThat(index.search("jurg muller", 2, 10))
+                .extracting(CustomerIndex.Match::id, CustomerIndex.Match::distance)
+                .containsExactly(tuple(3L, 0));
+    }
+
+    @Test
+    @DisplayName("kurze Namen erlauben höchstens eine Änderung")
+    void whenSearchShortName_thenOneEditOnly() {
+        assertThat(CustomerIndex.maxEditsFor("anna", 2)).isEqualTo(1);
+        assertThat(index.search("Anni", 2, 10)).extracting(CustomerIndex.Match::id).containsExactly(4L, 5L);
+        assertThat(index.search("Ann", 2, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search begrenzt die Trefferzahl")
+    void whenSearchWithLimit_thenTruncated() {
+        assertThat(index.search("mustermann", 2, 10)).isEmpty();
+        assertThat(index.search("Max Mustermann", 6, 1)).hasSize(1);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.ArchivedRentalRepository;
+import org.example.m295nick.repositories.CustomerRepository;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Kunden-Dimension gegen H2. Ohne Test-Transaktion, da neue Kunden in eigenen
+ * Transaktionen angelegt werden.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "customers.backfill.initial-delay-ms=3600000")
+@Import(CustomerServiceImpl.class)
+class CustomerServiceTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @AfterEach
+    void tearDown() {
+        rentalRepository.deleteAll();
+        archivedRentalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("resolveId vergibt pro normalisiertem Namen genau einen Code")
+    void whenResolveIdVariants_thenSameCode() {
+        Long id = customerService.resolveId("Jürg Müller");
+
+        assertThat(customerService.resolveId("  jurg   MULLER")).isEqualTo(id);
+        assertThat(customerService.resolveId("Anna")).isNotEqualTo(id);
+        assertThat(customerRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findIds findet exakt nur den normalisierten Namen, unscharf auch Tippfehler")
+    void whenFindIds_thenExactOrFuzzy() {
+        Long id = customerService.resolveId("Max Mustermann");
+
+        assertThat(customerService.findIds("max mustermann", false)).containsExactly(id);
+        assertThat(customerService.findIds("Max Mustremann", false)).isEmpty();
+        assertThat(customerService.findIds("Max Mustremann", true)).containsExactly(id);
+    }
+
+    @Test
+    @DisplayName("backfill trägt Kunden-Codes bei bestehenden Rentals nach")
+    void whenBackfill_thenCustomerIdsSet() {
+        Vehicle v = new Vehicle();
+        v.setBrand("VW");
+        v.setModel("Golf");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("80.00"));
+        v.setSeats(5);
+        v = vehicleRepository.save(v);
+        Rental r = new Rental();
+        r.setCustomer("Erika Mustermann");
+        r.setStartDate(LocalDate.of(2030, 1, 1));
+        r.setEndDate(LocalDate.of(2030, 1, 2));
+        r.setTotalCost(new BigDecimal("160.00"));
+        r.setVehicle(v);
+        r = rentalRepository.save(r);
+
+        assertThat(customerService.backfill()).isEqualTo(1);
+
+        Long id = customerService.findIds("erika mustermann", false).get(0);
+        assertThat(rentalRepository.findByCustomerIdIn(List.of(id)))
+                .extracting(Rental::getId).containsExactly(r.getId());
+        assertThat(customerService.backfill()).isZero();
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class EventStreamServiceTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    private EventStreamService eventStreamService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        eventStreamService = new EventStreamService(outboxService, 60_000, 72, 2, 2) {
+            @Override
+            protected SseEmitter createEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+        when(outboxService.getAfter(anyLong())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStreamService.stop();
+    }
+
+    @Test
+    @DisplayName("relay veröffentlicht offene Events und verteilt sie an alle Abonnenten")
+    void whenRelay_thenPublishAndFanOut() throws Exception {
+        when(outboxService.getLatestSeq()).thenReturn(0L);
+        eventStreamService.relay(); // initialisiert nur den Relay-Stand
+        RecordingEmitter a = (RecordingEmitter) eventStreamService.subscribe(null);
+        RecordingEmitter b = (RecordingEmitter) eventStreamService.subscribe(null);
+        when(outboxService.getAfter(0L)).thenReturn(List.of(event(1), event(2)));
+
+        eventStreamService.relay();
+
+        verify(outboxService, atLeastOnce()).publishPending();
+        awaitIds(a, 2);
+        awaitIds(b, 2);
+        assertThat(a.ids).containsExactly(1L, 2L);
+        assertThat(b.ids).containsExactly(1L, 2L);
+        assertThat(eventStreamService.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Resume mit Last-Event-ID liefert nach und geht lückenlos in den Live-Feed über")
+    void whenSubscribeWithLastEventId_thenReplayThenLive() throws Exception {
+        when(outboxService.getLatestSeq()).thenReturn(5L);
+        eventStreamService.relay();
+        // Outbox enthält bereits Position 6, die noch nicht live verteilt wurde
+        when(outboxService.getAfter(3L)).thenReturn(List.of(event(4), event(5), event(6)));
+        // vor subscribe stubben: die Nachlieferung liest die Outbox bereits im Sender-Pool
+        when(outboxService.getAfter(5L)).thenReturn(List.of(event(6)));
+
+        RecordingEmitter emitter = (RecordingEmitter) eventStreamService.subscribe(3L);
+        eventStreamService.relay();
+
+        awaitIds(emitter, 3);
+        assertThat(emitter.ids).containsExactly(4L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("Resume ohne Relay-Start initialisiert den Stand selbst")
+    void whenSubscribeBeforeFirstRelay_thenInitCursor() throws Exception {
+        when(outboxService.getLatestSeq()).thenReturn(2L);
+        when(outboxService.getAfter(0L)).thenReturn(List.of(event(1), event(2)));
+
+        RecordingEmitter emitter = (RecordingEmitter) eventStreamService.subscribe(0L);
+
+        awaitIds(emitter, 2);
+        assertThat(emitter.ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Langsamer Client blockiert die anderen nicht und wird bei voller Warteschlange getrennt")
+    void whenSubscriberSlow_thenOthersServedAndSlowDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        eventStreamService.stop();
+        eventStreamService = new EventStreamService(outboxService, 60_000, 72, 2, 2) {
+            private boolean first = true;
+
+            @Override
+            protected SseEmitter createEmitter() {
+                RecordingEmitter emitter = first ? new RecordingEmitter(release) : new RecordingEmitter();
+                first = false;
+                return emitter;
+            }
+        };
+        when(outboxService.getLatestSeq()).thenReturn(0L);
+        eventStreamService.relay();
+        RecordingEmitter slow = (RecordingEmitter) eventStreamService.subscribe(null);
+        RecordingEmitter fast = (RecordingEmitter) eventStreamService.subscribe(null);
+
+        // Event 1 hängt beim langsamen Client im send, 2 und 3 füllen seine Warteschlange, 4 läuft über
+        for (long seq = 1; seq <= 4; seq++) {
+            when(outboxService.getAfter(seq - 1)).thenReturn(List.of(event(seq)));
+            eventStreamService.relay();
+            awaitIds(fast, (int) seq);
+        }
+
+        assertThat(fast.ids).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(eventStreamService.getSubscriberCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("purge löscht nach konfigurierter Aufbewahrungsfrist")
+    void whenPurge_thenDelegateWithRetention() {
+        eventStreamService.purge();
+        verify(outboxService).purgeOlderThanHours(72);
+    }
+
+    private static OutboxEvent event(long seq) {
+        OutboxEvent event = new OutboxEvent("Vehicle", seq, OutboxEvent.UPDATED, "{}");
+        event.setId(seq * 100);
+        event.setSeq(seq);
+        return event;
+    }
+
+    private static void awaitIds(RecordingEmitter emitter, int count) throws InterruptedException {
+        for (int i = 0; i < 100 && emitter.ids.size() < count; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    /** Merkt sich die IDs der gesendeten Events statt sie zu schreiben; optional hängt send bis zur Freigabe. */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("id:(\\d+)");
+
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                Matcher m = ID.matcher(String.valueOf(part.getData()));
+                if (m.find()) {
+                    ids.add(Long.parseLong(m.group(1)));
+                }
+            }
+        }
+    }
+}
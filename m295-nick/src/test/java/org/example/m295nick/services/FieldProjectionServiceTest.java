@@ -0,0 +1,182 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.FieldSet;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.ArchivedRentalRepository;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@code ?fields=}: die Auswahl muss bis in die SELECT-Liste durchgereicht werden.
+ * Das SQL wird über einen StatementInspector mitgeschnitten.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.example.m295nick.services.FieldProjectionServiceTest$SqlCapture")
+@Import(FieldProjectionServiceImpl.class)
+class FieldProjectionServiceTest {
+
+    /** Merkt sich alle SQL-Statements der Session-Factory. */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    private FieldProjectionService fieldProjectionService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @MockBean
+    private RentalArchiveService rentalArchiveService;
+
+    @MockBean
+    private CustomerService customerService;
+
+    private Vehicle vehicle;
+    private Rental rental;
+
+    @BeforeEach
+    void setUp() {
+        vehicle = new Vehicle();
+        vehicle.setBrand("VW");
+        vehicle.setModel("Golf");
+        vehicle.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        vehicle.setHasAirConditioning(true);
+        vehicle.setPricePerDay(new BigDecimal("80.00"));
+        vehicle.setSeats(5);
+        vehicle = vehicleRepository.save(vehicle);
+
+        rental = new Rental();
+        rental.setCustomer("Anna");
+        rental.setStartDate(LocalDate.of(2030, 1, 1));
+        rental.setEndDate(LocalDate.of(2030, 1, 3));
+        rental.setTotalCost(new BigDecimal("240.00"));
+        rental.setVehicle(vehicle);
+        rental = rentalRepository.save(rental);
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rentalRepository.deleteAll();
+        archivedRentalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    private String lastSelect() {
+        return SqlCapture.STATEMENTS.stream().filter(s -> s.startsWith("select")).reduce((a, b) -> b).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Vehicles: nur die angefragten Spalten werden selektiert, IDs als String")
+    void whenGetVehiclesWithFields_thenNarrowSelect() {
+        List<Map<String, Object>> rows = fieldProjectionService.getVehicles(
+                FieldSet.parse("id,brand,pricePerDay", FieldSet.VEHICLE_FIELDS));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "brand", "pricePerDay")
+                .containsEntry("id", vehicle.getId().toString())
+                .containsEntry("brand", "VW");
+        String sql = lastSelect();
+        assertThat(sql.substring(0, sql.indexOf(" from "))).contains("brand", "price_per_day")
+                .doesNotContain("model", "seats", "first_registration");
+    }
+
+    @Test
+    @DisplayName("Vehicles nach Marke: Platzhalter im Suchtext werden nicht interpretiert")
+    void whenGetVehiclesByBrand_thenContainsIgnoreCase() {
+        FieldSet fields = FieldSet.parse("id", FieldSet.VEHICLE_FIELDS);
+
+        assertThat(fieldProjectionService.getVehiclesByBrand("vw", fields)).hasSize(1);
+        assertThat(fieldProjectionService.getVehiclesByBrand("%", fields)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Rentals: vehicleId kommt aus dem Fremdschlüssel, ohne Join auf vehicle")
+    void whenGetRentalsWithVehicleId_thenNoJoin() {
+        List<Map<String, Object>> rows = fieldProjectionService.getRentals(
+                FieldSet.parse("id,vehicleId", FieldSet.RENTAL_FIELDS));
+
+        assertThat(rows).containsExactly(Map.of("id", rental.getId().toString(), "vehicleId", vehicle.getId().toString()));
+        assertThat(lastSelect()).doesNotContain("join").doesNotContain("customer");
+    }
+
+    @Test
+    @DisplayName("Rentals nach EndDate: Archiv wird nur abgefragt, wenn es beitragen kann")
+    void whenGetRentalsByEndDateBefore_thenArchiveIncludedOnlyIfRelevant() {
+        Rental alt = new Rental();
+        alt.setId(1L);
+        alt.setCustomer("Alt");
+        alt.setStartDate(LocalDate.of(2020, 1, 1));
+        alt.setEndDate(LocalDate.of(2020, 1, 2));
+        alt.setTotalCost(new BigDecimal("160.00"));
+        alt.setVehicleId(vehicle.getId());
+        archivedRentalRepository.save(ArchivedRental.of(alt));
+        FieldSet fields = FieldSet.parse("id,customer", FieldSet.RENTAL_FIELDS);
+
+        when(rentalArchiveService.mayContainEndBefore(any())).thenReturn(true);
+        assertThat(fieldProjectionService.getRentalsByEndDateBefore(LocalDate.of(2031, 1, 1), fields))
+                .extracting(m -> m.get("customer")).containsExactly("Anna", "Alt");
+
+        when(rentalArchiveService.mayContainEndBefore(any())).thenReturn(false);
+        SqlCapture.STATEMENTS.clear();
+        assertThat(fieldProjectionService.getRentalsByEndDateBefore(LocalDate.of(2031, 1, 1), fields))
+                .extracting(m -> m.get("customer")).containsExactly("Anna");
+        assertThat(SqlCapture.STATEMENTS).noneMatch(s -> s.contains("rental_archive"));
+    }
+
+    @Test
+    @DisplayName("Rental nach ID fällt auf das Archiv zurück")
+    void whenGetRentalByIdArchived_thenFromArchive() {
+        Rental alt = new Rental();
+        alt.setId(1L);
+        alt.setCustomer("Alt");
+        alt.setStartDate(LocalDate.of(2020, 1, 1));
+        alt.setEndDate(LocalDate.of(2020, 1, 2));
+        alt.setTotalCost(new BigDecimal("160.00"));
+        alt.setVehicleId(vehicle.getId());
+        archivedRentalRepository.save(ArchivedRental.of(alt));
+
+        assertThat(fieldProjectionService.getRentalById(1L, FieldSet.parse("customer,vehicleId", FieldSet.RENTAL_FIELDS)))
+                .contains(Map.of("customer", "Alt", "vehicleId", vehicle.getId().toString()));
+        assertThat(fieldProjectionService.getRentalById(2L, FieldSet.parse("id", FieldSet.RENTAL_FIELDS))).isEmpty();
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.Hold;
+import org.example.m295nick.models.Rental;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HoldServiceTest {
+
+    @Mock
+    private RentalService rentalService;
+
+    @Mock
+    private VehicleService vehicleService;
+
+    private HoldRegistry holdRegistry;
+    private HoldServiceImpl holdService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        holdRegistry = new HoldRegistry(900, 10, 64);
+        holdService = new HoldServiceImpl(holdRegistry, rentalService, vehicleService);
+        when(vehicleService.existsById(1L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        holdRegistry.stop();
+    }
+
+    private Hold hold(LocalDate start, LocalDate end) {
+        Hold h = new Hold();
+        h.setVehicleId(1L);
+        h.setCustomer("Anna");
+        h.setStartDate(start);
+        h.setEndDate(end);
+        return h;
+    }
+
+    @Test
+    @DisplayName("create vergibt ID und Ablaufzeit und blockiert das Fahrzeug")
+    void whenCreate_thenHeld() {
+        Hold created = holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5)));
+
+        assertThat(created.getId()).isNotBlank();
+        assertThat(created.getExpiresAt()).isNotNull();
+        assertThat(holdRegistry.overlaps(1L, LocalDate.of(2025, 7, 5), LocalDate.of(2025, 7, 8))).isTrue();
+        assertThat(holdRegistry.overlaps(1L, LocalDate.of(2025, 7, 6), LocalDate.of(2025, 7, 8))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Überlappender zweiter Hold wird abgelehnt")
+    void whenCreateOverlapping_thenNotAvailable() {
+        holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5)));
+
+        assertThatThrownBy(() -> holdService.create(hold(LocalDate.of(2025, 7, 3), LocalDate.of(2025, 7, 4))))
+                .isInstanceOf(VehicleNotAvailableException.class);
+    }
+
+    @Test
+    @DisplayName("Hold auf bereits vermieteten Zeitraum wird abgelehnt")
+    void whenRentalOverlaps_thenNotAvailable() {
+        when(rentalService.isBooked(eq(1L), any(), any())).thenReturn(true);
+
+        assertThatThrownBy(() -> holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5))))
+                .isInstanceOf(VehicleNotAvailableException.class);
+        assertThat(holdRegistry.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Buchungsprüfung und Eintragen laufen unter der Fahrzeug-Sperre der Hold-Prüfung")
+    void whenBookingChecked_thenHoldCheckWaitsForRegistration() throws Exception {
+        // erster Hold legt die Fahrzeug-Sperre an, zweiter (anderer Zeitraum) prüft darunter
+        holdService.create(hold(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2)));
+        CountDownLatch checking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rentalService.isBooked(eq(1L), any(), any())).thenAnswer(inv -> {
+            checking.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return false;
+        });
+        CompletableFuture<Hold> creating = CompletableFuture.supplyAsync(
+                () -> holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5))));
+        assertThat(checking.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Prüfung einer Miete (wie checkNotHeld) wartet, bis der Hold eingetragen ist
+        CompletableFuture<Boolean> rentalCheck = CompletableFuture.supplyAsync(
+                () -> holdRegistry.overlaps(1L, LocalDate.of(2025, 7, 2), LocalDate.of(2025, 7, 3)));
+        Thread.sleep(100);
+        assertThat(rentalCheck).isNotDone();
+
+        release.countDown();
+        assertThat(creating.get(5, TimeUnit.SECONDS).getId()).isNotBlank();
+        assertThat(rentalCheck.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("convertToRental legt Miete an und entfernt den Hold")
+    void whenConvert_thenRentalCreated() {
+        Hold created = holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5)));
+        when(rentalService.createFromHold(any(Rental.class), eq(created.getId()))).thenAnswer(inv -> inv.getArgument(0));
+
+        Rental rental = holdService.convertToRental(created.getId());
+
+        assertThat(rental.getCustomer()).isEqualTo("Anna");
+        assertThat(rental.getVehicle().getId()).isEqualTo(1L);
+        assertThat(holdService.getById(created.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagene Umwandlung behält den Hold und meldet den ursprünglichen Fehler")
+    void whenConvertFails_thenHoldKept() {
+        Hold created = holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5)));
+        when(rentalService.createFromHold(any(Rental.class), any())).thenThrow(new IllegalArgumentException("kaputt"));
+
+        assertThatThrownBy(() -> holdService.convertToRental(created.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("kaputt");
+        assertThat(holdService.getById(created.getId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Während der Umwandlung blockiert der Hold weiterhin andere Kunden")
+    void whenConverting_thenOtherHoldsStillRejected() {
+        Hold created = holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5)));
+        when(rentalService.createFromHold(any(Rental.class), eq(created.getId()))).thenAnswer(inv -> {
+            // paralleler Kunde versucht genau jetzt einen überlappenden Hold
+            assertThatThrownBy(() -> holdService.create(hold(LocalDate.of(2025, 7, 2), LocalDate.of(2025, 7, 3))))
+                    .isInstanceOf(VehicleNotAvailableException.class);
+            // zweite Umwandlung desselben Holds wird abgewiesen
+            assertThatThrownBy(() -> holdService.convertToRental(created.getId()))
+                    .isInstanceOf(VehicleNotAvailableException.class);
+            return inv.getArgument(0);
+        });
+
+        holdService.convertToRental(created.getId());
+
+        verify(rentalService, times(1)).createFromHold(any(Rental.class), eq(created.getId()));
+        assertThat(holdService.getById(created.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("overlaps ignoriert den ausgenommenen Hold")
+    void whenExemptHold_thenNotBlocking() {
+        Hold created = holdService.create(hold(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5)));
+
+        assertThat(holdRegistry.overlaps(1L, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5), created.getId())).isFalse();
+        assertThat(holdRegistry.overlaps(1L, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 5), "andere")).isTrue();
+    }
+
+    @Test
+    @DisplayName("release eines unbekannten Holds wirft ResourceNotFoundException")
+    void whenReleaseUnknown_thenNotFound() {
+        assertThatThrownBy(() -> holdService.release("nope"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Timer Wheel führt fällige Tasks aus und überspringt abgebrochene")
+    void timerWheel_expiresAndCancels() throws InterruptedException {
+        HashedTimerWheel wheel = new HashedTimerWheel(5, TimeUnit.MILLISECONDS, 8, "test-wheel");
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            boolean[] cancelledRan = {false};
+            // Verzögerung länger als eine Radumdrehung (8 × 5 ms), um die Runden zu prüfen
+            wheel.schedule(fired::countDown, 120, TimeUnit.MILLISECONDS);
+            wheel.schedule(() -> cancelledRan[0] = true, 20, TimeUnit.MILLISECONDS).cancel();
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(cancelledRan[0]).isFalse();
+        } finally {
+            wheel.stop();
+        }
+    }
+}
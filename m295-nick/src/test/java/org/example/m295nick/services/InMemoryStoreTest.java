@@ -0,0 +1,244 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.BulkItemResult;
+import org.example.m295nick.models.BulkResult;
+import org.example.m295nick.models.Hold;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class InMemoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private ObjectMapper objectMapper;
+    private InMemoryStore store;
+    private InMemoryVehicleService vehicleService;
+    private InMemoryRentalService rentalService;
+    private HoldRegistry holdRegistry;
+    private final OutboxService outboxService = mock(OutboxService.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        holdRegistry = new HoldRegistry(900, 10, 64);
+        open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        holdRegistry.stop();
+    }
+
+    private void open() throws Exception {
+        store = new InMemoryStore(objectMapper, dir.toString(), true, true);
+        store.load();
+        BulkWriter bulkWriter = new BulkWriter(mock(PlatformTransactionManager.class),
+                Validation.buildDefaultValidatorFactory().getValidator(), 500);
+        vehicleService = new InMemoryVehicleService(store, bulkWriter, new ResponseByteCache(objectMapper),
+                mock(VehicleMediaService.class), outboxService);
+        rentalService = new InMemoryRentalService(store, holdRegistry, bulkWriter, outboxService);
+    }
+
+    private Vehicle vehicle(String brand) {
+        Vehicle v = new Vehicle();
+        v.setBrand(brand);
+        v.setModel("M");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("100.00"));
+        v.setSeats(5);
+        return v;
+    }
+
+    private Rental rental(Long vehicleId, LocalDate start, LocalDate end) {
+        Rental r = new Rental();
+        r.setCustomer("Anna");
+        r.setVehicleId(vehicleId);
+        r.setStartDate(start);
+        r.setEndDate(end);
+        return r;
+    }
+
+    @Test
+    @DisplayName("create berechnet totalCost wie die JPA-Variante")
+    void whenCreateRental_thenPriced() {
+        Vehicle v = vehicleService.create(vehicle("VW"));
+
+        Rental r = rentalService.create(rental(v.getId(), LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 4)));
+
+        assertThat(r.getId()).isNotNull();
+        assertThat(r.getTotalCost()).isEqualByComparingTo("400.00");
+        assertThat(r.getVehicleId()).isEqualTo(v.getId());
+    }
+
+    @Test
+    @DisplayName("Aktiver Hold blockiert auch im InMemoryStore, Belegung wird erkannt")
+    void whenHeldOrBooked_thenNotAvailable() {
+        Vehicle v = vehicleService.create(vehicle("VW"));
+        Hold hold = new Hold();
+        hold.setVehicleId(v.getId());
+        hold.setCustomer("Ben");
+        hold.setStartDate(LocalDate.of(2025, 8, 1));
+        hold.setEndDate(LocalDate.of(2025, 8, 3));
+        Hold held = holdRegistry.add(hold);
+
+        assertThatThrownBy(() -> rentalService.create(rental(v.getId(), LocalDate.of(2025, 8, 2), LocalDate.of(2025, 8, 4))))
+                .isInstanceOf(VehicleNotAvailableException.class);
+        rentalService.createFromHold(rental(v.getId(), LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 3)), held.getId());
+        assertThat(rentalService.isBooked(v.getId(), LocalDate.of(2025, 8, 3), LocalDate.of(2025, 8, 9))).isTrue();
+        assertThat(rentalService.isBooked(v.getId(), LocalDate.of(2025, 8, 4), LocalDate.of(2025, 8, 9))).isFalse();
+    }
+
+    @Test
+    @DisplayName("createAllPartial legt gültige Rentals an und meldet Fehler pro Index")
+    void whenCreateAllPartial_thenPerItemStatus() {
+        Vehicle v = vehicleService.create(vehicle("VW"));
+        Rental ok = rental(v.getId(), LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 2));
+        Rental unknown = rental(99L, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 2));
+        Rental reversed = rental(v.getId(), LocalDate.of(2025, 7, 5), LocalDate.of(2025, 7, 2));
+        for (Rental r : List.of(ok, unknown, reversed)) {
+            r.setTotalCost(BigDecimal.ZERO);
+        }
+
+        BulkResult result = rentalService.createAllPartial(List.of(ok, unknown, reversed));
+
+        assertThat(result.items()).extracting(BulkItemResult::status).containsExactly(201, 404, 400);
+        assertThat(rentalService.getById(result.items().get(0).id()).orElseThrow().getTotalCost())
+                .isEqualByComparingTo("200.00");
+        assertThat(rentalService.getAll()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Änderungen im Store gehen in die Outbox, auch mitgelöschte Rentals")
+    void whenMutated_thenOutboxEventsRecorded() {
+        Vehicle v = vehicleService.create(vehicle("VW"));
+        Rental r = rentalService.create(rental(v.getId(), LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 4)));
+        rentalService.markReturned(r.getId());
+
+        vehicleService.deleteById(v.getId());
+
+        verify(outboxService).record(eq("Vehicle"), eq(v.getId()), eq(OutboxEvent.CREATED), any());
+        verify(outboxService).record(eq("Rental"), eq(r.getId()), eq(OutboxEvent.CREATED), any());
+        verify(outboxService).record(eq("Rental"), eq(r.getId()), eq(OutboxEvent.RETURNED), any());
+        verify(outboxService).record(eq("Rental"), eq(r.getId()), eq(OutboxEvent.DELETED), any());
+        verify(outboxService).record(eq("Vehicle"), eq(v.getId()), eq(OutboxEvent.DELETED), any());
+    }
+
+    @Test
+    @DisplayName("create mit unbekanntem Fahrzeug wirft ResourceNotFoundException")
+    void whenCreateRental_unknownVehicle_thenThrow() {
+        assertThatThrownBy(() -> rentalService.create(rental(99L, LocalDate.now(), LocalDate.now())))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Datumsfilter laufen über die Spalten und Löschen eines Fahrzeugs entfernt dessen Rentals")
+    void whenFilterAndCascade_thenConsistent() {
+        Long vw = vehicleService.create(vehicle("VW")).getId();
+        Long bmw = vehicleService.create(vehicle("BMW")).getId();
+        rentalService.create(rental(vw, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        rentalService.create(rental(bmw, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2)));
+        rentalService.create(rental(vw, LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 2)));
+
+        assertThat(rentalService.getByStartDateAfter(LocalDate.of(2025, 5, 1))).hasSize(2);
+        assertThat(rentalService.getByEndDateBefore(LocalDate.of(2025, 6, 1))).hasSize(1);
+        assertThat(vehicleService.getByBrand("bm")).extracting(Vehicle::getId).containsExactly(bmw);
+
+        vehicleService.deleteById(vw);
+
+        assertThat(rentalService.getAll()).extracting(Rental::getVehicleId).containsExactly(bmw);
+    }
+
+    @Test
+    @DisplayName("Snapshot + Journal stellen den Zustand nach einem Neustart wieder her")
+    void whenReopen_thenStateRestored() throws Exception {
+        Long v1 = vehicleService.create(vehicle("VW")).getId();
+        rentalService.create(rental(v1, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)));
+        store.snapshot();
+        Long v2 = vehicleService.create(vehicle("Audi")).getId();
+        Long r2 = rentalService.create(rental(v2, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 1))).getId();
+        rentalService.deleteById(r2);
+
+        open();
+
+        assertThat(vehicleService.getAll()).extracting(Vehicle::getBrand).containsExactly("VW", "Audi");
+        assertThat(rentalService.getAll()).hasSize(1);
+        assertThat(rentalService.getAll().get(0).getTotalCost()).isEqualByComparingTo("300.00");
+        // neue IDs setzen nach dem höchsten geladenen Wert fort
+        assertThat(vehicleService.create(vehicle("Seat")).getId()).isGreaterThan(v2);
+    }
+
+    @Test
+    @DisplayName("Nach Löschen eines Fahrzeugs bleiben dessen Rentals auch nach Neustart (nur Journal) weg")
+    void whenReopenAfterVehicleDelete_thenNoOrphanRentals() throws Exception {
+        Long vw = vehicleService.create(vehicle("VW")).getId();
+        Long bmw = vehicleService.create(vehicle("BMW")).getId();
+        rentalService.create(rental(vw, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        rentalService.create(rental(bmw, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2)));
+        vehicleService.deleteById(vw);
+
+        open();
+
+        assertThat(rentalService.getAll()).extracting(Rental::getVehicleId).containsExactly(bmw);
+    }
+
+    @Test
+    @DisplayName("Replay eines älteren Journals ohne R- kaskadiert V- auf die Rentals")
+    void whenReplayLegacyVehicleDelete_thenCascade() throws Exception {
+        Files.writeString(dir.resolve("journal.jsonl"), String.join("\n",
+                "{\"op\":\"V+\",\"d\":{\"id\":1,\"brand\":\"VW\",\"model\":\"M\",\"firstRegistration\":\"2020-01-01\",\"hasAirConditioning\":true,\"pricePerDay\":100.00,\"seats\":5}}",
+                "{\"op\":\"R+\",\"d\":{\"id\":1,\"customer\":\"Anna\",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-01-02\",\"totalCost\":200.00,\"vehicleId\":1}}",
+                "{\"op\":\"V-\",\"d\":1}") + "\n");
+
+        open();
+
+        assertThat(vehicleService.getAll()).isEmpty();
+        assertThat(rentalService.getAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("LongHashMap verhält sich bei zufälligen put/remove wie HashMap")
+    void longHashMap_matchesHashMap() {
+        LongHashMap<Long> map = new LongHashMap<>(4);
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertThat(map.put(key, (long) i)).isEqualTo(reference.put(key, (long) i));
+            } else {
+                assertThat(map.remove(key)).isEqualTo(reference.remove(key));
+            }
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        reference.forEach((k, v) -> assertThat(map.get(k)).isEqualTo(v));
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.m295nick.models.AuditRecord;
+import org.example.m295nick.models.OutboxCursor;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Tombstone;
+import org.example.m295nick.repositories.OutboxCursorRepository;
+import org.example.m295nick.repositories.OutboxEventRepository;
+import org.example.m295nick.repositories.TombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxCursorRepository outboxCursorRepository;
+
+    @Mock
+    private AuditJournal auditJournal;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxService = new OutboxServiceImpl(outboxEventRepository, outboxCursorRepository, new ObjectMapper(), auditJournal,
+                tombstoneRepository);
+    }
+
+    @Test
+    @DisplayName("record speichert Event mit JSON-Payload")
+    void whenRecord_thenSaveSerializedEvent() {
+        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        outboxService.record("Vehicle", 7L, OutboxEvent.DELETED, Map.of("id", 7L));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent saved = captor.getValue();
+        assertThat(saved.getAggregateType()).isEqualTo("Vehicle");
+        assertThat(saved.getAggregateId()).isEqualTo(7L);
+        assertThat(saved.getEventType()).isEqualTo(OutboxEvent.DELETED);
+        assertThat(saved.getPayload()).isEqualTo("{\"id\":7}");
+        assertThat(saved.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("record hinterlässt für Löschungen einen Tombstone, für andere Events nicht")
+    void whenRecordDeletion_thenTombstone() {
+        outboxService.record("Rental", null, OutboxEvent.ALL_DELETED, Map.of());
+        outboxService.record("Rental", 3L, OutboxEvent.UPDATED, Map.of("id", 3L));
+
+        ArgumentCaptor<Tombstone> captor = ArgumentCaptor.forClass(Tombstone.class);
+        verify(tombstoneRepository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getEntityType()).isEqualTo("Rental");
+        assertThat(captor.getValue().getEntityId()).isNull();
+    }
+
+    @Test
+    @DisplayName("record ohne laufende Transaktion schreibt direkt ins Audit-Journal")
+    void whenRecord_thenAppendAuditRecord() {
+        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        outboxService.record("Rental", 3L, OutboxEvent.UPDATED, Map.of("id", 3L));
+
+        verify(auditJournal).append(argThat((AuditRecord r) ->
+                r.entity().equals("Rental") && r.entityId() == 3L && r.action().equals(OutboxEvent.UPDATED)));
+    }
+
+    @Test
+    @DisplayName("getAfter ohne Last-Event-ID liest ab dem Anfang")
+    void whenGetAfter_null_thenReadFromStart() {
+        OutboxEvent e = new OutboxEvent("Rental", 1L, OutboxEvent.CREATED, "{}");
+        when(outboxEventRepository.findTop500BySeqGreaterThanOrderBySeqAsc(0L)).thenReturn(List.of(e));
+
+        assertThat(outboxService.getAfter(null)).containsExactly(e);
+    }
+
+    @Test
+    @DisplayName("publishPending nummeriert offene Events ab dem gesperrten Zählerstand")
+    void whenPublishPending_thenAssignSeqFromCursor() {
+        OutboxCursor cursor = new OutboxCursor(OutboxCursor.SINGLETON_ID, 41L);
+        OutboxEvent a = new OutboxEvent("Vehicle", 1L, OutboxEvent.CREATED, "{}");
+        OutboxEvent b = new OutboxEvent("Vehicle", 2L, OutboxEvent.CREATED, "{}");
+        when(outboxCursorRepository.findForUpdate(OutboxCursor.SINGLETON_ID)).thenReturn(Optional.of(cursor));
+        when(outboxEventRepository.findTop500BySeqIsNullOrderByIdAsc()).thenReturn(List.of(a, b));
+
+        assertThat(outboxService.publishPending()).isEqualTo(2);
+        assertThat(a.getSeq()).isEqualTo(42L);
+        assertThat(b.getSeq()).isEqualTo(43L);
+        assertThat(cursor.getLastSeq()).isEqualTo(43L);
+    }
+
+    @Test
+    @DisplayName("publishPending legt den Zähler beim ersten Lauf an")
+    void whenPublishPending_noCursor_thenCreateCursor() {
+        when(outboxCursorRepository.findForUpdate(OutboxCursor.SINGLETON_ID)).thenReturn(Optional.empty());
+        when(outboxCursorRepository.saveAndFlush(any(OutboxCursor.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(outboxEventRepository.findTop500BySeqIsNullOrderByIdAsc()).thenReturn(List.of());
+
+        assertThat(outboxService.publishPending()).isZero();
+        verify(outboxCursorRepository).saveAndFlush(argThat(c -> c.getLastSeq() == 0L));
+    }
+}
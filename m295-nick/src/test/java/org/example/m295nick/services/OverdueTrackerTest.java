@@ -0,0 +1,149 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Fälligkeits-Warteschlange gegen H2, ohne Test-Transaktion; der Stichtag wird explizit übergeben.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OverdueTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 5);
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxService outboxService;
+    private OverdueTracker overdueTracker;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        // Eigener Tracker pro Test, damit Warteschlange und Horizont nicht über Tests hinweg bestehen
+        outboxService = mock(OutboxService.class);
+        overdueTracker = new OverdueTracker(rentalRepository, outboxService, transactionManager, 7);
+
+        Vehicle v = new Vehicle();
+        v.setBrand("VW");
+        v.setModel("Golf");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("80.00"));
+        v.setSeats(5);
+        vehicle = vehicleRepository.save(v);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rentalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    private Rental rental(LocalDate end, boolean returned) {
+        Rental r = new Rental();
+        r.setCustomer("Anna");
+        r.setStartDate(end.minusDays(2));
+        r.setEndDate(end);
+        r.setTotalCost(new BigDecimal("240.00"));
+        r.setVehicle(vehicle);
+        r.setReturnedAt(returned ? Instant.now() : null);
+        return rentalRepository.save(r);
+    }
+
+    @Test
+    @DisplayName("Tick meldet nur fällige, offene Rentals und jedes nur einmal")
+    void whenTick_thenOnlyDueOpenRentalsFlaggedOnce() {
+        Rental overdue = rental(LocalDate.of(2030, 1, 3), false);
+        rental(LocalDate.of(2030, 1, 1), true);
+        Rental soon = rental(LocalDate.of(2030, 1, 10), false);
+        rental(LocalDate.of(2030, 3, 1), false);
+
+        assertThat(overdueTracker.tick(TODAY)).isEqualTo(1);
+        verify(outboxService).record(eq("Rental"), eq(overdue.getId()), eq(OutboxEvent.OVERDUE), any());
+        assertThat(rentalRepository.findById(overdue.getId()).orElseThrow().getOverdueAt()).isNotNull();
+        // Nur die Fälligkeit im Horizont (10.1.) wartet noch, der 1.3. ist noch nicht geladen
+        assertThat(overdueTracker.queued()).isEqualTo(1);
+
+        assertThat(overdueTracker.tick(TODAY)).isZero();
+        assertThat(overdueTracker.tick(LocalDate.of(2030, 1, 11))).isEqualTo(1);
+        verify(outboxService).record(eq("Rental"), eq(soon.getId()), eq(OutboxEvent.OVERDUE), any());
+    }
+
+    @Test
+    @DisplayName("Nachgemeldete Rentals werden erfasst, zwischenzeitlich zurückgegebene nicht gemeldet")
+    void whenTrackedAndReturned_thenStateCheckedOnPop() {
+        assertThat(overdueTracker.tick(TODAY)).isZero();
+
+        Rental late = rental(LocalDate.of(2030, 1, 6), false);
+        overdueTracker.track(late);
+        Rental returned = rental(LocalDate.of(2030, 1, 6), false);
+        overdueTracker.track(returned);
+        returned.setReturnedAt(Instant.now());
+        rentalRepository.save(returned);
+
+        assertThat(overdueTracker.tick(LocalDate.of(2030, 1, 7))).isEqualTo(1);
+        verify(outboxService).record(eq("Rental"), eq(late.getId()), eq(OutboxEvent.OVERDUE), any());
+        verify(outboxService, never()).record(eq("Rental"), eq(returned.getId()), eq(OutboxEvent.OVERDUE), any());
+        assertThat(overdueTracker.queued()).isZero();
+    }
+
+    @Test
+    @DisplayName("In einer Transaktion wird erst nach dem Commit eingereiht, nach Rollback gar nicht")
+    void whenTrackedInTransaction_thenQueuedAfterCommit() {
+        assertThat(overdueTracker.tick(TODAY)).isZero();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            overdueTracker.track(rental(LocalDate.of(2030, 1, 6), false));
+            assertThat(overdueTracker.queued()).isZero();
+        });
+        assertThat(overdueTracker.queued()).isEqualTo(1);
+
+        tx.executeWithoutResult(status -> {
+            overdueTracker.track(rental(LocalDate.of(2030, 1, 6), false));
+            status.setRollbackOnly();
+        });
+        assertThat(overdueTracker.queued()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Überfällig-Abfrage läuft über returned_at und end_date")
+    void findOverdue_excludesReturnedAndFuture() {
+        Rental overdue = rental(LocalDate.of(2030, 1, 3), false);
+        rental(LocalDate.of(2030, 1, 2), true);
+        rental(LocalDate.of(2030, 1, 9), false);
+
+        assertThat(rentalRepository.findByReturnedAtIsNullAndEndDateBeforeOrderByEndDateAsc(TODAY))
+                .extracting(Rental::getId).containsExactly(overdue.getId());
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.ArchivedRentalRepository;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * R2DBC gegen dieselbe H2-Datenbank, die JPA befüllt. Ohne Test-Transaktion,
+ * damit die Daten für die zweite Verbindung sichtbar sind.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:r2test;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "rentals.reactive.url=r2dbc:h2:mem:///r2test;DB_CLOSE_DELAY=-1",
+        "rentals.reactive.username=sa",
+        "rentals.reactive.password="
+})
+@Import(ReactiveRentalServiceImpl.class)
+class ReactiveRentalServiceTest {
+
+    @Autowired
+    private ReactiveRentalService reactiveRentalService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @MockBean
+    private RentalArchiveService rentalArchiveService;
+
+    private Rental future;
+    private Rental archived;
+
+    @BeforeEach
+    void setUp() {
+        Vehicle v = new Vehicle();
+        v.setBrand("VW");
+        v.setModel("Golf");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("80.00"));
+        v.setSeats(5);
+        v = vehicleRepository.save(v);
+
+        rental(v, "Anna", LocalDate.of(2030, 1, 1));
+        rental(v, "Ben", LocalDate.of(2030, 2, 1));
+        future = rental(v, "Cleo", LocalDate.of(2030, 3, 1));
+
+        Rental alt = new Rental();
+        alt.setId(1L);
+        alt.setCustomer("Alt");
+        alt.setStartDate(LocalDate.of(2020, 1, 1));
+        alt.setEndDate(LocalDate.of(2020, 1, 2));
+        alt.setTotalCost(new BigDecimal("160.00"));
+        alt.setVehicleId(v.getId());
+        archivedRentalRepository.save(ArchivedRental.of(alt));
+        archived = alt;
+    }
+
+    private Rental rental(Vehicle v, String customer, LocalDate start) {
+        Rental r = new Rental();
+        r.setCustomer(customer);
+        r.setStartDate(start);
+        r.setEndDate(start.plusDays(1));
+        r.setTotalCost(new BigDecimal("160.00"));
+        r.setVehicle(v);
+        return rentalRepository.save(r);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedRentalRepository.deleteAll();
+        rentalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("getAll streamt nach ID sortiert und respektiert die angeforderte Menge")
+    void whenGetAll_thenBackPressured() {
+        StepVerifier.create(reactiveRentalService.getAll(), 1)
+                .expectNextMatches(r -> r.getCustomer().equals("Anna"))
+                .thenRequest(2)
+                .expectNextMatches(r -> r.getCustomer().equals("Ben"))
+                .expectNextMatches(r -> r.getCustomer().equals("Cleo") && r.getVehicleId() != null)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Filter liefern heisse und archivierte Rentals wie die v1-API")
+    void whenFilter_thenHotAndArchive() {
+        when(rentalArchiveService.mayContainEndBefore(any())).thenReturn(true);
+        when(rentalArchiveService.mayContainStartAfter(any())).thenReturn(true);
+        StepVerifier.create(reactiveRentalService.getByEndDateBefore(LocalDate.of(2030, 1, 10)))
+                .expectNextMatches(r -> r.getCustomer().equals("Anna"))
+                .expectNextMatches(r -> r.getCustomer().equals("Alt"))
+                .verifyComplete();
+        StepVerifier.create(reactiveRentalService.getByStartDateAfter(LocalDate.of(2030, 2, 15)))
+                .expectNextMatches(r -> r.getId().equals(future.getId())
+                        && r.getTotalCost().compareTo(new BigDecimal("160.00")) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Archiv wird übersprungen, wenn sein Datumsbereich nichts beitragen kann")
+    void whenArchiveOutOfRange_thenArchiveSkipped() {
+        when(rentalArchiveService.mayContainEndBefore(any())).thenReturn(false);
+
+        StepVerifier.create(reactiveRentalService.getByEndDateBefore(LocalDate.of(2030, 1, 10)))
+                .expectNextMatches(r -> r.getCustomer().equals("Anna"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getById fällt auf das Archiv zurück und ist leer für unbekannte IDs")
+    void whenGetById_thenHotArchiveOrEmpty() {
+        StepVerifier.create(reactiveRentalService.getById(future.getId()))
+                .expectNextMatches(r -> r.getCustomer().equals("Cleo"))
+                .verifyComplete();
+        StepVerifier.create(reactiveRentalService.getById(archived.getId()))
+                .expectNextMatches(r -> r.getCustomer().equals("Alt"))
+                .verifyComplete();
+        StepVerifier.create(reactiveRentalService.getById(42L)).verifyComplete();
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.DeadlineExceededException;
+import org.example.m295nick.models.CoalescingStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadCoalescerTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    // Startet den Leader, der blockiert, bis "release" freigegeben wird
+    private Future<String> startLeader(ReadCoalescer coalescer, AtomicInteger calls,
+                                       CountDownLatch started, CountDownLatch release) {
+        return pool.submit(() -> coalescer.execute("vehicle.byBrand", "VW", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "Ergebnis";
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige identische Aufrufe teilen sich eine Abfrage")
+    void whenConcurrentIdenticalCalls_thenOneQuery() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(true, 5000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startLeader(coalescer, calls, started, release);
+        await(started);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(pool.submit(() -> coalescer.execute("vehicle.byBrand", "VW", () -> {
+                calls.incrementAndGet();
+                return "eigene Abfrage";
+            })));
+        }
+        // Warten, bis alle Mitläufer registriert sind
+        while (coalescer.getStatistics().get(0).coalesced() < 5) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThat(leader.get()).isEqualTo("Ergebnis");
+        for (Future<String> f : followers) {
+            assertThat(f.get()).isEqualTo("Ergebnis");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(coalescer.getStatistics()).containsExactly(new CoalescingStats("vehicle.byBrand", 1, 5, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Unterschiedliche Argumente werden nicht gebündelt")
+    void whenDifferentArguments_thenSeparateQueries() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(true, 5000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startLeader(coalescer, calls, started, release);
+        await(started);
+        String other = coalescer.execute("vehicle.byBrand", "BMW", () -> {
+            calls.incrementAndGet();
+            return "BMW";
+        });
+        release.countDown();
+
+        assertThat(other).isEqualTo("BMW");
+        assertThat(leader.get()).isEqualTo("Ergebnis");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Nach dem Timeout fragt der Mitläufer selbst ab")
+    void whenLeaderTooSlow_thenFollowerQueriesItself() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(true, 50);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startLeader(coalescer, calls, started, release);
+        await(started);
+        String own = coalescer.execute("vehicle.byBrand", "VW", () -> {
+            calls.incrementAndGet();
+            return "eigene Abfrage";
+        });
+        release.countDown();
+
+        assertThat(own).isEqualTo("eigene Abfrage");
+        assertThat(leader.get()).isEqualTo("Ergebnis");
+        assertThat(coalescer.getStatistics().get(0).timeouts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Fehler des Leaders erreicht auch die Mitläufer")
+    void whenLeaderFails_thenFollowersSeeException() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(true, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> coalescer.execute("rental.byId", 1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("DB weg");
+        }));
+        await(started);
+        Future<String> follower = pool.submit(() -> coalescer.execute("rental.byId", 1L, () -> "nie"));
+        while (coalescer.getStatistics().get(0).coalesced() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThatThrownBy(follower::get).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(leader::get).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Innerhalb einer Transaktion wird nicht gebündelt")
+    void whenTransactionActive_thenBypassed() {
+        ReadCoalescer coalescer = new ReadCoalescer(true, 5000);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(coalescer.execute("vehicle.all", null, () -> "direkt")).isEqualTo("direkt");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(coalescer.getStatistics()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Mitläufer wartet nur bis zu seiner Request-Deadline")
+    void whenFollowerDeadlineExpires_thenDeadlineExceeded() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(true, 5000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startLeader(coalescer, calls, started, release);
+        await(started);
+        Future<String> follower = pool.submit(() -> {
+            RequestDeadline.start(50);
+            try {
+                return coalescer.execute("vehicle.byBrand", "VW", () -> "eigene Abfrage");
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+
+        assertThatThrownBy(() -> follower.get(2, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        release.countDown();
+        assertThat(leader.get()).isEqualTo("Ergebnis");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+}
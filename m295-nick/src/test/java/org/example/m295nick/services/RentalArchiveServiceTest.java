@@ -0,0 +1,142 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.ArchivedRental;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.repositories.ArchivedRentalRepository;
+import org.example.m295nick.repositories.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RentalArchiveServiceTest {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    private RentalArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        archiveService = new RentalArchiveServiceImpl(rentalRepository, archivedRentalRepository, 365, 2, 60_000);
+    }
+
+    @Test
+    @DisplayName("archiveBatch kopiert abgeschlossene Rentals ins Archiv und löscht sie heiss")
+    void whenArchiveBatch_thenCopyAndDelete() {
+        Rental old = new Rental();
+        old.setId(1L);
+        old.setCustomer("Alt");
+        old.setStartDate(LocalDate.of(2020, 1, 1));
+        old.setEndDate(LocalDate.of(2020, 1, 2));
+        old.setTotalCost(new BigDecimal("100.00"));
+        old.setVehicleId(3L);
+
+        when(rentalRepository.findByEndDateBeforeOrderByIdAsc(any(), any())).thenReturn(List.of(old));
+
+        int count = archiveService.archiveBatch();
+
+        assertThat(count).isEqualTo(1);
+        verify(archivedRentalRepository).saveAll(argThat((Iterable<ArchivedRental> it) -> {
+            ArchivedRental a = it.iterator().next();
+            return a.getId() == 1L && a.getVehicleId() == 3L && a.getCustomer().equals("Alt");
+        }));
+        verify(rentalRepository).deleteAllInBatch(List.of(old));
+    }
+
+    @Test
+    @DisplayName("archiveBatch ohne Kandidaten macht nichts")
+    void whenArchiveBatch_nothingDue_thenZero() {
+        when(rentalRepository.findByEndDateBeforeOrderByIdAsc(any(), any())).thenReturn(List.of());
+
+        assertThat(archiveService.archiveBatch()).isZero();
+        verify(archivedRentalRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Archiv wird bei StartDate nach dem jüngsten Archiv-Enddatum nicht abgefragt")
+    void whenStartAfterOutsideArchiveRange_thenSkipArchive() {
+        when(archivedRentalRepository.findMinEndDate()).thenReturn(LocalDate.of(2019, 1, 1));
+        when(archivedRentalRepository.findMaxEndDate()).thenReturn(LocalDate.of(2021, 1, 1));
+
+        assertThat(archiveService.getByStartDateAfter(LocalDate.of(2022, 1, 1))).isEmpty();
+        verify(archivedRentalRepository, never()).findByStartDateAfter(any());
+    }
+
+    @Test
+    @DisplayName("deleteByVehicleIds löscht die Archiv-Einträge der Fahrzeuge und liefert deren IDs")
+    void whenDeleteByVehicleIds_thenDeleteArchivedRentals() {
+        when(archivedRentalRepository.findIdsByVehicleIdIn(List.of(3L))).thenReturn(List.of(1L, 2L));
+
+        assertThat(archiveService.deleteByVehicleIds(List.of(3L))).containsExactly(1L, 2L);
+        verify(archivedRentalRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Leeres Archiv wird nie abgefragt")
+    void whenArchiveEmpty_thenSkipArchive() {
+        when(archivedRentalRepository.findMinEndDate()).thenReturn(null);
+
+        assertThat(archiveService.getByEndDateBefore(LocalDate.of(2030, 1, 1))).isEmpty();
+        verify(archivedRentalRepository, never()).findByEndDateBefore(any());
+    }
+
+    @Test
+    @DisplayName("Datumsbereich wird erst nach dem Commit der Archivierung verworfen")
+    void whenArchiveBatchInTransaction_thenInvalidateRangeAfterCommit() {
+        when(archivedRentalRepository.findMinEndDate()).thenReturn(LocalDate.of(2019, 1, 1));
+        when(archivedRentalRepository.findMaxEndDate()).thenReturn(LocalDate.of(2019, 6, 1));
+        archiveService.getByStartDateAfter(LocalDate.of(2020, 1, 1)); // Bereich cachen
+
+        Rental old = new Rental();
+        old.setId(1L);
+        old.setStartDate(LocalDate.of(2020, 3, 1));
+        old.setEndDate(LocalDate.of(2020, 3, 2));
+        old.setVehicleId(3L);
+        when(rentalRepository.findByEndDateBeforeOrderByIdAsc(any(), any())).thenReturn(List.of(old));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            archiveService.archiveBatch();
+            // Vor dem Commit gilt noch der alte Bereich
+            archiveService.getByStartDateAfter(LocalDate.of(2020, 1, 1));
+            verify(archivedRentalRepository, times(1)).findMinEndDate();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        when(archivedRentalRepository.findMaxEndDate()).thenReturn(LocalDate.of(2020, 3, 2));
+        archiveService.getByStartDateAfter(LocalDate.of(2020, 1, 1));
+        verify(archivedRentalRepository, times(2)).findMinEndDate();
+        verify(archivedRentalRepository).findByStartDateAfter(LocalDate.of(2020, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Gecachter Datumsbereich wird nach Ablauf der TTL neu geladen")
+    void whenRangeTtlExpired_thenReload() {
+        RentalArchiveServiceImpl shortTtl = new RentalArchiveServiceImpl(rentalRepository, archivedRentalRepository, 365, 2, -1);
+        when(archivedRentalRepository.findMinEndDate()).thenReturn(null);
+
+        shortTtl.getByEndDateBefore(LocalDate.of(2030, 1, 1));
+        shortTtl.getByEndDateBefore(LocalDate.of(2030, 1, 1));
+
+        verify(archivedRentalRepository, times(2)).findMinEndDate();
+    }
+}
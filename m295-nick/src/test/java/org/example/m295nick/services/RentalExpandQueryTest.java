@@ -0,0 +1,136 @@
+package org.example.m295nick.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RentalWithVehicle;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * {@code ?expand=vehicle}: Rentals samt Fahrzeug in genau einem SQL-Statement.
+ * Ohne Test-Transaktion, damit das Ergebnis wie im Controller ausserhalb der Session serialisiert wird.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RentalServiceImpl.class, ReadCoalescer.class})
+class RentalExpandQueryTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private RentalArchiveService rentalArchiveService;
+
+    @MockBean
+    private HoldRegistry holdRegistry;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @MockBean
+    private BulkWriter bulkWriter;
+
+    @MockBean
+    private RentalGroupCommitter groupCommitter;
+
+    @MockBean
+    private OverdueTracker overdueTracker;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            Vehicle v = new Vehicle();
+            v.setBrand("Marke" + i);
+            v.setModel("M");
+            v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+            v.setHasAirConditioning(true);
+            v.setPricePerDay(new BigDecimal("80.00"));
+            v.setSeats(5);
+            v = vehicleRepository.save(v);
+
+            Rental r = new Rental();
+            r.setCustomer("Kunde " + i);
+            r.setStartDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            r.setEndDate(LocalDate.of(2030, 1, 2).plusDays(i));
+            r.setTotalCost(new BigDecimal("160.00"));
+            r.setVehicle(v);
+            rentalRepository.save(r);
+        }
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // Second-Level-Cache leeren, damit die Fahrzeuge wirklich aus dem Query kommen müssen
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rentalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("getAllWithVehicle lädt alle Rentals samt Fahrzeug mit einem Statement")
+    void whenGetAllWithVehicle_thenSingleStatement() {
+        List<RentalWithVehicle> result = rentalService.getAllWithVehicle().stream()
+                .map(RentalWithVehicle::of).toList();
+
+        assertThat(result).hasSize(ROWS).allSatisfy(r -> assertThat(r.vehicle().brand()).startsWith("Marke"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Filter mit expand=vehicle: ein Statement, auch ohne archivierte Treffer")
+    void whenFilterWithVehicle_thenSingleStatement() {
+        List<RentalWithVehicle> result = rentalService.getByStartDateAfterWithVehicle(LocalDate.of(2029, 12, 31))
+                .stream().map(RentalWithVehicle::of).toList();
+
+        assertThat(result).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ohne expand bleibt das Fahrzeug ein Lazy-Proxy")
+    void whenGetAllWithoutExpand_thenVehicleNotLoaded() {
+        List<Rental> result = rentalService.getAll();
+
+        assertThat(result).hasSize(ROWS)
+                .allSatisfy(r -> assertThat(Hibernate.isInitialized(r.getVehicle())).isFalse());
+    }
+}
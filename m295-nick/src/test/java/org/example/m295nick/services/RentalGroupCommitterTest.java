@@ -0,0 +1,153 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.DeadlineExceededException;
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.Rental;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RentalGroupCommitterTest {
+
+    private RentalGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() {
+        if (committer != null) {
+            committer.stop();
+        }
+    }
+
+    private Rental rental(String customer) {
+        Rental r = new Rental();
+        r.setCustomer(customer);
+        return r;
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Creates landen in wenigen Batches, jeder Aufrufer bekommt sein Ergebnis")
+    void whenConcurrentSubmits_thenBatchedAndCompletedIndividually() throws Exception {
+        committer = new RentalGroupCommitter(true, 50, 200, 30_000);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong ids = new AtomicLong();
+        committer.bind(batch -> {
+            batchSizes.add(batch.size());
+            for (RentalGroupCommitter.Pending p : batch) {
+                p.rental().setId(ids.incrementAndGet());
+                p.complete(p.rental());
+            }
+        });
+
+        int callers = 40;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Rental>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                String customer = "Kunde " + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return committer.submit(rental(customer));
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < callers; i++) {
+                Rental r = results.get(i).get();
+                assertThat(r.getCustomer()).isEqualTo("Kunde " + i);
+                assertThat(r.getId()).isNotNull();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(callers);
+        assertThat(batchSizes.size()).isLessThan(callers);
+    }
+
+    @Test
+    @DisplayName("Fehler eines Elements kommt nur beim betroffenen Aufrufer als Exception an")
+    void whenItemFails_thenSubmitThrowsOriginalException() {
+        committer = new RentalGroupCommitter(true, 1, 200, 30_000);
+        committer.bind(batch -> batch.forEach(p -> {
+            if (p.rental().getCustomer().equals("kaputt")) {
+                p.fail(new ResourceNotFoundException("Vehicle", "id", 99L));
+            } else {
+                p.complete(p.rental());
+            }
+        }));
+
+        assertThat(committer.submit(rental("ok")).getCustomer()).isEqualTo("ok");
+        assertThatThrownBy(() -> committer.submit(rental("kaputt")))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Vergisst der Handler ein Element, wartet der Aufrufer nicht ewig")
+    void whenHandlerSkipsItem_thenCallerFails() {
+        committer = new RentalGroupCommitter(true, 1, 200, 30_000);
+        committer.bind(batch -> { });
+
+        assertThatThrownBy(() -> committer.submit(rental("x")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Error im Handler beendet den Worker nicht; spätere Aufrufer werden weiter bedient")
+    void whenHandlerThrowsError_thenWorkerSurvives() {
+        committer = new RentalGroupCommitter(true, 1, 200, 30_000);
+        committer.bind(batch -> batch.forEach(p -> {
+            if (p.rental().getCustomer().equals("kaputt")) {
+                throw new StackOverflowError();
+            }
+            p.complete(p.rental());
+        }));
+
+        assertThatThrownBy(() -> committer.submit(rental("kaputt")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(committer.submit(rental("ok")).getCustomer()).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("Hängt der Handler, bricht submit nach dem Timeout ab")
+    void whenHandlerStalls_thenSubmitTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        committer = new RentalGroupCommitter(true, 1, 200, 200);
+        committer.bind(batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            assertThatThrownBy(() -> committer.submit(rental("x")))
+                    .isInstanceOf(DeadlineExceededException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deaktiviert: kein Worker, submit wird abgelehnt")
+    void whenDisabled_thenSubmitRejected() {
+        committer = new RentalGroupCommitter(false, 5, 200, 30_000);
+        committer.bind(batch -> { });
+
+        assertThat(committer.isEnabled()).isFalse();
+        assertThatThrownBy(() -> committer.submit(rental("x")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -1,6 +1,9 @@
 package org.example.m295nick.services;
 
+import org.example.m295nick.exceptions.RentalArchivedException;
 import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.exceptions.VehicleNotAvailableException;
+import org.example.m295nick.models.OutboxEvent;
 import org.example.m295nick.models.Rental;
 import org.example.m295nick.models.Vehicle;
 import org.example.m295nick.repositories.RentalRepository;
@@ -12,8 +15,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,6 +38,33 @@ class RentalServiceTest {
     @Mock
     private VehicleRepository vehicleRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private RentalArchiveService rentalArchiveService;
+
+    @Mock
+    private HoldRegistry holdRegistry;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private BulkWriter bulkWriter;
+
+    @Mock
+    private RentalGroupCommitter groupCommitter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OverdueTracker overdueTracker;
+
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(true, 2000);
+
     @InjectMocks
     private RentalServiceImpl rentalService;
 
@@ -181,6 +214,72 @@ class RentalServiceTest {
         verify(rentalRepository, times(1)).findByEndDateBefore(LocalDate.of(2000, 1, 1));
     }
 
+    @Test
+    @DisplayName("getByEndDateBefore hängt Treffer aus dem Archiv an")
+    void whenGetByEndDateBefore_withArchive_thenMergeResults() {
+        Rental archived = new Rental();
+        archived.setId(9L);
+        archived.setCustomer("Archiv");
+        archived.setStartDate(LocalDate.of(2020, 1, 1));
+        archived.setEndDate(LocalDate.of(2020, 1, 3));
+
+        when(rentalRepository.findByEndDateBefore(LocalDate.of(2025, 6, 10))).thenReturn(List.of(sampleRental));
+        when(rentalArchiveService.getByEndDateBefore(LocalDate.of(2025, 6, 10))).thenReturn(List.of(archived));
+
+        List<Rental> result = rentalService.getByEndDateBefore(LocalDate.of(2025, 6, 10));
+        assertThat(result).containsExactly(sampleRental, archived);
+    }
+
+    @Test
+    @DisplayName("create wirft VehicleNotAvailableException, wenn ein Hold den Zeitraum blockiert")
+    void whenCreate_vehicleHeld_thenThrowNotAvailable() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
+        when(holdRegistry.overlaps(eq(1L), eq(sampleRental.getStartDate()), eq(sampleRental.getEndDate()), isNull())).thenReturn(true);
+
+        assertThatThrownBy(() -> rentalService.create(sampleRental))
+                .isInstanceOf(VehicleNotAvailableException.class);
+        verify(rentalRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("getById fällt auf das Archiv zurück, wenn Rental nicht mehr heiss ist")
+    void whenGetById_archived_thenReturnFromArchive() {
+        when(rentalRepository.findById(5L)).thenReturn(Optional.empty());
+        when(rentalArchiveService.getById(5L)).thenReturn(Optional.of(sampleRental));
+
+        assertThat(rentalService.getById(5L)).contains(sampleRental);
+    }
+
+    @Test
+    @DisplayName("create mit aktivem Group Commit reiht ein statt selbst zu speichern")
+    void whenCreate_groupCommitEnabled_thenSubmitted() {
+        when(groupCommitter.isEnabled()).thenReturn(true);
+        when(groupCommitter.submit(sampleRental)).thenReturn(sampleRental);
+
+        Rental result = rentalService.create(sampleRental);
+
+        assertThat(result).isSameAs(sampleRental);
+        verify(groupCommitter).submit(sampleRental);
+        verifyNoInteractions(rentalRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("create mit nur vehicleId (wie aus dem JSON-Body) verknüpft das Fahrzeug")
+    void whenCreate_onlyVehicleId_thenVehicleResolved() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
+        when(rentalRepository.save(any(Rental.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Rental toSave = new Rental();
+        toSave.setCustomer("Anna");
+        toSave.setStartDate(LocalDate.of(2025, 7, 1));
+        toSave.setEndDate(LocalDate.of(2025, 7, 2));
+        toSave.setVehicleId(1L);
+
+        Rental saved = rentalService.create(toSave);
+
+        assertThat(saved.getVehicle()).isSameAs(sampleVehicle);
+    }
+
     @Test
     @DisplayName("create valid Rental berechnet totalCost für mehrere Tage und speichert")
     void whenCreate_validRentalMultipleDays_thenCalculateTotalCostAndSave() {
@@ -285,6 +384,51 @@ class RentalServiceTest {
         verify(rentalRepository, times(1)).save(any(Rental.class));
     }
 
+    @Test
+    @DisplayName("update mit neuem Enddatum setzt die Überfällig-Meldung zurück und meldet dem Tracker")
+    void whenUpdate_endDateChanged_thenOverdueCleared() {
+        sampleRental.setOverdueAt(Instant.now());
+        when(rentalRepository.findById(1L)).thenReturn(Optional.of(sampleRental));
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
+        when(rentalRepository.save(any(Rental.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Rental updateData = new Rental();
+        updateData.setCustomer("Max Mustermann");
+        updateData.setStartDate(sampleRental.getStartDate());
+        updateData.setEndDate(sampleRental.getEndDate().plusDays(3));
+        updateData.setVehicle(sampleVehicle);
+
+        Rental updated = rentalService.update(1L, updateData);
+
+        assertThat(updated.getOverdueAt()).isNull();
+        verify(overdueTracker).track(updated);
+    }
+
+    @Test
+    @DisplayName("markReturned setzt returnedAt einmalig und schreibt ein RETURNED-Event")
+    void whenMarkReturned_thenReturnedOnce() {
+        when(rentalRepository.findById(1L)).thenReturn(Optional.of(sampleRental));
+        when(rentalRepository.save(any(Rental.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Rental returned = rentalService.markReturned(1L);
+        Instant first = returned.getReturnedAt();
+        rentalService.markReturned(1L);
+
+        assertThat(first).isNotNull();
+        assertThat(sampleRental.getReturnedAt()).isEqualTo(first);
+        verify(rentalRepository, times(1)).save(sampleRental);
+        verify(outboxService, times(1)).record("Rental", 1L, OutboxEvent.RETURNED, sampleRental);
+    }
+
+    @Test
+    @DisplayName("markReturned für archivierte Rental wirft RentalArchivedException")
+    void whenMarkReturned_archived_thenConflict() {
+        when(rentalRepository.findById(5L)).thenReturn(Optional.empty());
+        when(rentalArchiveService.existsById(5L)).thenReturn(true);
+
+        assertThatThrownBy(() -> rentalService.markReturned(5L)).isInstanceOf(RentalArchivedException.class);
+    }
+
     @Test
     @DisplayName("update nicht vorhandener Rental wirft ResourceNotFoundException")
     void whenUpdate_nonExisting_thenThrowResourceNotFoundException() {
@@ -305,6 +449,28 @@ class RentalServiceTest {
         verify(rentalRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("update archivierter Rental wirft RentalArchivedException")
+    void whenUpdate_archived_thenThrowRentalArchivedException() {
+        when(rentalRepository.findById(5L)).thenReturn(Optional.empty());
+        when(rentalArchiveService.existsById(5L)).thenReturn(true);
+
+        assertThatThrownBy(() -> rentalService.update(5L, sampleRental))
+                .isInstanceOf(RentalArchivedException.class)
+                .hasMessageContaining("archiviert");
+        verify(rentalRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("existsById prüft das Archiv ohne die Zeile zu laden")
+    void whenExistsById_archived_thenTrueWithoutLoading() {
+        when(rentalRepository.existsById(5L)).thenReturn(false);
+        when(rentalArchiveService.existsById(5L)).thenReturn(true);
+
+        assertThat(rentalService.existsById(5L)).isTrue();
+        verify(rentalArchiveService, never()).getById(anyLong());
+    }
+
     @Test
     @DisplayName("update mit nicht vorhandenem Vehicle wirft ResourceNotFoundException")
     void whenUpdate_existingRentalVehicleNotFound_thenThrowResourceNotFoundException() {
@@ -349,6 +515,16 @@ class RentalServiceTest {
         verify(rentalRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    @DisplayName("deleteById schreibt ein DELETED-Event in die Outbox")
+    void whenDeleteById_existing_thenRecordOutboxEvent() {
+        when(rentalRepository.existsById(1L)).thenReturn(true);
+
+        rentalService.deleteById(1L);
+
+        verify(outboxService, times(1)).record(eq("Rental"), eq(1L), eq("DELETED"), any());
+    }
+
     @Test
     @DisplayName("deleteAll ruft Repository.deleteAll auf")
     void deleteAll_callsRepositoryDeleteAll() {
@@ -481,4 +657,36 @@ class RentalServiceTest {
         verify(rentalRepository, never()).saveAll(anyList());
     }
 
+    @Test
+    @DisplayName("create setzt den Kunden-Code aus der Kunden-Dimension")
+    void whenCreate_thenCustomerIdResolved() {
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
+        when(customerService.resolveId("Max Mustermann")).thenReturn(42L);
+        when(rentalRepository.save(any(Rental.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Rental saved = rentalService.create(sampleRental);
+
+        assertThat(saved.getCustomerId()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("getByCustomer sucht über die Kunden-Codes in heisser Tabelle und Archiv")
+    void whenGetByCustomer_thenQueryByCustomerIds() {
+        Rental archived = new Rental();
+        archived.setId(9L);
+        when(customerService.findIds("mustermann", true)).thenReturn(List.of(42L, 43L));
+        when(rentalRepository.findByCustomerIdIn(List.of(42L, 43L))).thenReturn(List.of(sampleRental));
+        when(rentalArchiveService.getByCustomerIds(List.of(42L, 43L))).thenReturn(List.of(archived));
+
+        assertThat(rentalService.getByCustomer("mustermann", true)).containsExactly(sampleRental, archived);
+    }
+
+    @Test
+    @DisplayName("getByCustomer ohne bekannten Kunden fragt keine Rentals ab")
+    void whenGetByCustomer_unknown_thenEmptyWithoutQuery() {
+        when(customerService.findIds("Niemand", false)).thenReturn(List.of());
+
+        assertThat(rentalService.getByCustomer("Niemand", false)).isEmpty();
+        verify(rentalRepository, never()).findByCustomerIdIn(any());
+    }
 }
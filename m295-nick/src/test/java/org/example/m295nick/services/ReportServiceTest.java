@@ -0,0 +1,86 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.OccupancyReport;
+import org.example.m295nick.models.RentalSpan;
+import org.example.m295nick.repositories.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReportServiceTest {
+
+    private static final YearMonth JUNI = YearMonth.of(2025, 6);
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private RentalArchiveService rentalArchiveService;
+
+    private ReportServiceImpl reportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reportService = new ReportServiceImpl(rentalRepository, rentalArchiveService);
+    }
+
+    private static BitSet decode(String base64) {
+        return BitSet.valueOf(Base64.getDecoder().decode(base64));
+    }
+
+    @Test
+    @DisplayName("getOccupancy setzt pro Fahrzeug die Bits der gemieteten Tage, auf den Monat zugeschnitten")
+    void whenGetOccupancy_thenBitsPerVehicleClippedToMonth() {
+        LocalDate first = LocalDate.of(2025, 6, 1);
+        LocalDate last = LocalDate.of(2025, 6, 30);
+        when(rentalRepository.findSpansOverlapping(first, last)).thenReturn(List.of(
+                new RentalSpan(2L, LocalDate.of(2025, 5, 28), LocalDate.of(2025, 6, 2)),
+                new RentalSpan(2L, LocalDate.of(2025, 6, 10), LocalDate.of(2025, 6, 10)),
+                new RentalSpan(1L, LocalDate.of(2025, 6, 29), LocalDate.of(2025, 7, 5))));
+        when(rentalArchiveService.getSpansOverlapping(first, last)).thenReturn(List.of(
+                new RentalSpan(3L, LocalDate.of(2025, 6, 15), LocalDate.of(2025, 6, 16))));
+
+        OccupancyReport report = reportService.getOccupancy(JUNI);
+
+        assertThat(report.days()).isEqualTo(30);
+        assertThat(report.vehicles()).containsOnlyKeys("1", "2", "3");
+        assertThat(report.vehicles().keySet()).containsExactly("1", "2", "3");
+        assertThat(decode(report.vehicles().get("2")).stream().toArray()).containsExactly(0, 1, 9);
+        assertThat(decode(report.vehicles().get("1")).stream().toArray()).containsExactly(28, 29);
+        assertThat(decode(report.vehicles().get("3")).stream().toArray()).containsExactly(14, 15);
+        verify(rentalRepository, times(1)).findSpansOverlapping(first, last);
+    }
+
+    @Test
+    @DisplayName("Bitsets haben feste Länge, auch wenn nur die ersten Tage belegt sind")
+    void whenEncode_thenFixedLength() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+
+        assertThat(Base64.getDecoder().decode(ReportServiceImpl.encode(bits, 31))).hasSize(4);
+        assertThat(ReportServiceImpl.encode(new BitSet(), 28)).isEqualTo("AAAAAA==");
+    }
+
+    @Test
+    @DisplayName("Monat ohne Rentals liefert leere Map")
+    void whenNoRentals_thenEmptyReport() {
+        when(rentalRepository.findSpansOverlapping(any(), any())).thenReturn(List.of());
+        when(rentalArchiveService.getSpansOverlapping(any(), any())).thenReturn(List.of());
+
+        assertThat(reportService.getOccupancy(YearMonth.of(2024, 2)).vehicles()).isEmpty();
+        assertThat(reportService.getOccupancy(YearMonth.of(2024, 2)).days()).isEqualTo(29);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.RepricingResult;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(RepricingServiceImpl.class)
+@TestPropertySource(properties = "repricing.chunk-size=2")
+class RepricingServiceTest {
+
+    @Autowired
+    private RepricingService repricingService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    private Vehicle vw;
+    private Vehicle bmw;
+
+    @BeforeEach
+    void setUp() {
+        vw = vehicleRepository.save(vehicle("VW", "100.00"));
+        bmw = vehicleRepository.save(vehicle("BMW", "150.00"));
+        LocalDate today = LocalDate.now();
+        // alte Preise: vw 80/Tag, bmw 150/Tag
+        rental(vw, today.plusDays(1), today.plusDays(2), "160.00");
+        rental(vw, today.minusDays(1), today.plusDays(1), "240.00");
+        rental(vw, today.plusDays(10), today.plusDays(10), "80.00");
+        rental(vw, today.minusDays(10), today.minusDays(5), "480.00"); // abgeschlossen → unverändert
+        rental(bmw, today.plusDays(3), today.plusDays(3), "150.00");
+        vehicleRepository.flush();
+    }
+
+    private Vehicle vehicle(String brand, String price) {
+        Vehicle v = new Vehicle();
+        v.setBrand(brand);
+        v.setModel("M");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal(price));
+        v.setSeats(5);
+        return v;
+    }
+
+    private void rental(Vehicle v, LocalDate start, LocalDate end, String cost) {
+        Rental r = new Rental();
+        r.setCustomer("Kunde");
+        r.setStartDate(start);
+        r.setEndDate(end);
+        r.setTotalCost(new BigDecimal(cost));
+        r.setVehicle(v);
+        rentalRepository.save(r);
+    }
+
+    @Test
+    @DisplayName("dryRun liefert Delta, ändert aber nichts")
+    void whenDryRun_thenOnlyReport() {
+        RepricingResult result = repricingService.repriceVehicle(vw.getId(), true);
+
+        assertThat(result.getRentalsChecked()).isEqualTo(3);
+        assertThat(result.getRentalsChanged()).isEqualTo(3);
+        assertThat(result.getDelta()).isEqualByComparingTo("120.00");
+        assertThat(rentalRepository.findAll()).extracting(Rental::getTotalCost)
+                .anyMatch(c -> c.compareTo(new BigDecimal("160.00")) == 0);
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    @DisplayName("Flotten-Repricing aktualisiert nur offene Rentals mit geändertem Preis")
+    void whenRepriceFleet_thenOpenRentalsUpdated() {
+        RepricingResult result = repricingService.repriceFleet(false);
+
+        assertThat(result.getRentalsChecked()).isEqualTo(4);
+        assertThat(result.getRentalsChanged()).isEqualTo(3);
+        assertThat(result.getNewTotal()).isEqualByComparingTo("750.00");
+        assertThat(rentalRepository.findAll()).extracting(Rental::getTotalCost)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(new BigDecimal("200.00"), new BigDecimal("300.00"),
+                        new BigDecimal("100.00"), new BigDecimal("480.00"), new BigDecimal("150.00"));
+        // Chunkgrösse 2 → zwei Chunks mit Änderungen, je ein Sammel-Event statt einem pro Rental
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(outboxService, times(2)).record(eq("Rental"), isNull(), eq("REPRICED"), payloads.capture());
+        assertThat(payloads.getAllValues())
+                .extracting(p -> ((List<?>) ((Map<?, ?>) p).get("rentals")).size())
+                .containsExactly(2, 1);
+        verify(outboxService, never()).record(eq("Rental"), any(), eq("UPDATED"), any());
+    }
+
+    @Test
+    @DisplayName("Unbekanntes Fahrzeug wirft ResourceNotFoundException")
+    void whenUnknownVehicle_thenNotFound() {
+        assertThatThrownBy(() -> repricingService.repriceVehicle(999L, true))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
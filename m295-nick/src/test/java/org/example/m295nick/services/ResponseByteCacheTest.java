@@ -0,0 +1,83 @@
+package org.example.m295nick.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ResponseByteCacheTest {
+
+    private final ResponseByteCache cache = new ResponseByteCache(new ObjectMapper());
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] out = new byte[buffer.remaining()];
+        buffer.get(out);
+        return out;
+    }
+
+    @Test
+    @DisplayName("Gleiche Version wird nur einmal serialisiert, gzip-Variante entpackt zum selben JSON")
+    void whenSameVersion_thenLoadedOnce() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseByteCache.Entry first = cache.get("k", () -> {
+            loads.incrementAndGet();
+            return List.of("a", "b");
+        });
+        ResponseByteCache.Entry second = cache.get("k", () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        byte[] json = bytes(first.body(false));
+        assertThat(new String(json)).isEqualTo("[\"a\",\"b\"]");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes(first.body(true))))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+        // Jeder Request bekommt eine eigene Sicht auf den Buffer
+        assertThat(first.body(false).remaining()).isEqualTo(json.length);
+        assertThat(first.body(false).isDirect()).isTrue();
+    }
+
+    @Test
+    @DisplayName("invalidate erzwingt neuen Aufbau und neuen ETag")
+    void whenInvalidated_thenRebuilt() {
+        ResponseByteCache.Entry before = cache.get("k", () -> List.of(1));
+        cache.invalidate();
+        ResponseByteCache.Entry after = cache.get("k", () -> List.of(2));
+
+        assertThat(new String(bytes(after.body(false)))).isEqualTo("[2]");
+        assertThat(after.etag(false)).isNotEqualTo(before.etag(false));
+        assertThat(after.etag(true)).isNotEqualTo(after.etag(false));
+    }
+
+    @Test
+    @DisplayName("In einer Transaktion wird nach dem Commit erneut invalidiert")
+    void whenInvalidatedInTransaction_thenAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate();
+            // Ein Leser zwischen Schreiben und Commit sieht noch den alten Stand
+            ResponseByteCache.Entry duringTx = cache.get("k", () -> List.of("alt"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            ResponseByteCache.Entry afterCommit = cache.get("k", () -> List.of("neu"));
+            assertThat(afterCommit).isNotSameAs(duringTx);
+            assertThat(new String(bytes(afterCommit.body(false)))).isEqualTo("[\"neu\"]");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
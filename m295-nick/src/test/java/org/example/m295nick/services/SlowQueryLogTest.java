@@ -0,0 +1,138 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.configs.SlowQueryDataSource;
+import org.example.m295nick.models.SlowQuery;
+import org.example.m295nick.models.SlowQueryShape;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Slow-Query-Log gegen H2 mit Schwelle 0 ms, damit jedes Statement erfasst wird.
+ */
+class SlowQueryLogTest {
+
+    private final DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+    private SlowQueryDataSource dataSource;
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        slowQueryLog = new SlowQueryLog(true, 0, 10, 600_000, beans.getBeanProvider(DataSource.class));
+        beans.registerSingleton("slowQueryLog", slowQueryLog);
+        dataSource = new SlowQueryDataSource(h2, beans.getBeanProvider(SlowQueryLog.class));
+        beans.registerSingleton("dataSource", dataSource);
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            s.execute("CREATE TABLE IF NOT EXISTS rental (id BIGINT PRIMARY KEY, status VARCHAR(20), end_date DATE)");
+        }
+        slowQueryLog.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            s.execute("DROP TABLE rental");
+        }
+        slowQueryLog.stop();
+    }
+
+    @Test
+    @DisplayName("Statement wird mit Parametern, Dauer und aufrufender Methode erfasst")
+    void whenStatementAboveThreshold_thenRecorded() throws Exception {
+        query("select r1_0.id from rental r1_0 where r1_0.status=? and r1_0.end_date<?", "ACTIVE", "2030-01-01");
+
+        List<SlowQuery> recent = slowQueryLog.getRecent();
+        assertThat(recent).hasSize(1);
+        assertThat(recent.get(0).parameters()).containsExactly("ACTIVE", "2030-01-01");
+        assertThat(recent.get(0).durationMs()).isGreaterThanOrEqualTo(0);
+        assertThat(recent.get(0).serviceMethod()).isEqualTo("SlowQueryLogTest.query");
+    }
+
+    @Test
+    @DisplayName("EXPLAIN wird erfasst; Tabellenscan ergibt Index-Vorschlag, Gleichheit vor Bereich")
+    void whenTableScan_thenIndexSuggested() throws Exception {
+        query("select r1_0.id from rental r1_0 where r1_0.end_date<? and r1_0.status=?", "2030-01-01", "ACTIVE");
+
+        SlowQueryShape shape = awaitPlan();
+        assertThat(shape.plan()).containsIgnoringCase("tableScan");
+        assertThat(shape.suggestions())
+                .containsExactly("CREATE INDEX idx_rental_status_end_date ON rental (status, end_date)");
+        // Das EXPLAIN selbst landet nicht im Log
+        assertThat(slowQueryLog.getRecent()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("IN-Listen unterschiedlicher Länge ergeben dieselbe Abfrageform")
+    void whenInListsDiffer_thenSameShape() {
+        assertThat(SlowQueryLog.shape("select * from rental where id in (?, ?)"))
+                .isEqualTo(SlowQueryLog.shape("select *  from rental\n where id in (?,?,?)"));
+    }
+
+    @Test
+    @DisplayName("MySQL-Plan mit Filesort → Index über die ORDER-BY-Spalten")
+    void whenFilesort_thenOrderByIndexSuggested() {
+        String sql = "select v1_0.id from vehicle v1_0 where v1_0.id=? order by v1_0.daily_rate desc";
+        String plan = "id=1, select_type=SIMPLE, table=v1_0, type=const, extra=Using filesort";
+
+        assertThat(SlowQueryLog.suggestIndexes(sql, plan))
+                .containsExactly("CREATE INDEX idx_vehicle_daily_rate ON vehicle (daily_rate) -- vermeidet Filesort");
+    }
+
+    @Test
+    @DisplayName("Report aggregiert pro Form, sortiert nach Gesamtdauer und filtert nach Repository")
+    void whenReport_thenAggregatedAndFiltered() {
+        slowQueryLog.record("insert into audit values (?)", Map.of(1, "x"), 50, "AuditRepository.save", null);
+        slowQueryLog.record("update vehicle set daily_rate=?", Map.of(1, 10), 300, "VehicleRepository.saveAll", null);
+        slowQueryLog.record("insert into rental values (?)", Map.of(1, 1), 100, "RentalRepository.save", null);
+        slowQueryLog.record("insert into rental values (?)", Map.of(1, 2), 400, "RentalRepository.save", null);
+
+        List<SlowQueryShape> all = slowQueryLog.getReport(null, 10);
+        assertThat(all).extracting(SlowQueryShape::totalMs).containsExactly(500L, 300L, 50L);
+        assertThat(all.get(0).count()).isEqualTo(2);
+        assertThat(all.get(0).maxMs()).isEqualTo(400);
+        assertThat(all.get(0).avgMs()).isEqualTo(250.0);
+
+        assertThat(slowQueryLog.getReport("VehicleRepository", 10))
+                .extracting(SlowQueryShape::repositoryMethod).containsExactly("VehicleRepository.saveAll");
+        assertThat(slowQueryLog.getReport(null, 1)).hasSize(1);
+    }
+
+    private void query(String sql, Object... parameters) throws Exception {
+        try (Connection c = dataSource.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rs.getLong(1);
+                }
+            }
+        }
+    }
+
+    private SlowQueryShape awaitPlan() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            List<SlowQueryShape> report = slowQueryLog.getReport(null, 1);
+            if (!report.isEmpty() && report.get(0).plan() != null) {
+                return report.get(0);
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Kein EXPLAIN-Plan erfasst");
+    }
+}
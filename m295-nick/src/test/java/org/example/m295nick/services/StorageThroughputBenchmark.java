@@ -0,0 +1,159 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.M295NickApplication;
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Vehicle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Durchsatzvergleich JPA (H2) gegen InMemoryStore über dieselben Service-Interfaces.
+ * <p>
+ * Nicht Teil des normalen Builds; ausführen mit {@code mvn -Pbenchmark test}.
+ * H2 läuft dabei selbst im Speicher – der Vergleich misst also den JPA-Pfad
+ * (Hibernate, Outbox, Transaktionen), nicht die Platte einer MySQL-Instanz.
+ */
+@Tag("benchmark")
+class StorageThroughputBenchmark {
+
+    private static final int VEHICLES = 50;
+    private static final int RENTALS = 5_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int RANGE_QUERIES = 200;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("InMemoryStore gegen JPA: Schreib- und Lesedurchsatz")
+    void compareThroughput() {
+        Map<String, Object> jpa = new HashMap<>(common());
+        jpa.put("spring.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        jpa.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        jpa.put("spring.datasource.username", "sa");
+        jpa.put("spring.datasource.password", "");
+
+        Map<String, Object> memory = new HashMap<>(common());
+        memory.put("spring.profiles.active", "inmemory");
+        memory.put("inmemory.dir", dir.resolve("nofsync").toString());
+        memory.put("inmemory.fsync", "false");
+
+        Map<String, Object> memoryFsync = new HashMap<>(memory);
+        memoryFsync.put("inmemory.dir", dir.resolve("fsync").toString());
+        memoryFsync.put("inmemory.fsync", "true");
+
+        Result jpaResult = run("JPA/H2", jpa);
+        Result memResult = run("InMemory", memory);
+        Result fsyncResult = run("InMemory+fsync", memoryFsync);
+
+        System.out.printf("%n%-16s %14s %14s %14s%n", "Backend", "create/s", "getById/s", "Datumsfilter/s");
+        for (Result r : List.of(jpaResult, memResult, fsyncResult)) {
+            System.out.printf("%-16s %14.0f %14.0f %14.1f%n", r.name, r.createsPerSec, r.lookupsPerSec, r.rangePerSec);
+        }
+        System.out.printf("Faktor InMemory/JPA: create %.1fx, getById %.1fx, Datumsfilter %.1fx%n%n",
+                memResult.createsPerSec / jpaResult.createsPerSec,
+                memResult.lookupsPerSec / jpaResult.lookupsPerSec,
+                memResult.rangePerSec / jpaResult.rangePerSec);
+
+        // Kein hartes 10x-Kriterium (hängt von Maschine und Platte ab), nur Plausibilität
+        assertThat(memResult.lookupsPerSec).isGreaterThan(jpaResult.lookupsPerSec);
+    }
+
+    private static Map<String, Object> common() {
+        Map<String, Object> props = new HashMap<>();
+        props.put("spring.main.banner-mode", "off");
+        props.put("server.port", "0");
+        props.put("logging.level.root", "WARN");
+        props.put("logging.level.org.example.m295nick", "WARN");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("audit.journal.enabled", "false");
+        props.put("rentals.archive.enabled", "false");
+        return props;
+    }
+
+    private Result run(String name, Map<String, Object> props) {
+        // als Kommandozeilenargumente, damit sie application.properties überschreiben
+        String[] args = props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(M295NickApplication.class)
+                .run(args)) {
+            VehicleService vehicleService = ctx.getBean(VehicleService.class);
+            RentalService rentalService = ctx.getBean(RentalService.class);
+
+            List<Long> vehicleIds = new ArrayList<>();
+            for (int i = 0; i < VEHICLES; i++) {
+                vehicleIds.add(vehicleService.create(vehicle(i)).getId());
+            }
+
+            // Aufwärmen (JIT, Verbindungspool, Statement-Cache)
+            List<Long> rentalIds = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                rentalIds.add(rentalService.create(rental(vehicleIds.get(i % VEHICLES), i)).getId());
+            }
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < RENTALS; i++) {
+                rentalIds.add(rentalService.create(rental(vehicleIds.get(i % VEHICLES), 500 + i)).getId());
+            }
+            double creates = RENTALS / seconds(t0);
+
+            Random random = new Random(7);
+            t0 = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                rentalService.getById(rentalIds.get(random.nextInt(rentalIds.size())));
+            }
+            double lookups = LOOKUPS / seconds(t0);
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < RANGE_QUERIES; i++) {
+                rentalService.getByStartDateAfter(LocalDate.of(2030, 1, 1).plusDays(random.nextInt(5_000)));
+            }
+            double ranges = RANGE_QUERIES / seconds(t0);
+
+            return new Result(name, creates, lookups, ranges);
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private static Vehicle vehicle(int i) {
+        Vehicle v = new Vehicle();
+        v.setBrand("Marke" + i);
+        v.setModel("Modell");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("80.00"));
+        v.setSeats(5);
+        return v;
+    }
+
+    private static Rental rental(Long vehicleId, int i) {
+        Vehicle stub = new Vehicle();
+        stub.setId(vehicleId);
+        Rental r = new Rental();
+        r.setCustomer("Kunde " + i);
+        r.setVehicle(stub);
+        r.setStartDate(LocalDate.of(2030, 1, 1).plusDays(i));
+        r.setEndDate(LocalDate.of(2030, 1, 3).plusDays(i));
+        return r;
+    }
+
+    private record Result(String name, double createsPerSec, double lookupsPerSec, double rangePerSec) {
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.models.Rental;
+import org.example.m295nick.models.Snowflake;
+import org.example.m295nick.models.SyncResponse;
+import org.example.m295nick.models.Tombstone;
+import org.example.m295nick.models.Vehicle;
+import org.example.m295nick.repositories.RentalRepository;
+import org.example.m295nick.repositories.TombstoneRepository;
+import org.example.m295nick.repositories.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Delta-Sync gegen H2, ohne Test-Transaktion (jede Änderung ist sofort committet).
+ * Sichtbarkeitsverzögerung 0 und kleine Seiten, damit Paging greift.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"sync.visibility-lag-ms=0", "sync.page-size=2"})
+@Import(SyncServiceImpl.class)
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        rentalRepository.deleteAll();
+        vehicleRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    private Vehicle vehicle(String brand) {
+        Vehicle v = new Vehicle();
+        v.setBrand(brand);
+        v.setModel("Golf");
+        v.setFirstRegistration(LocalDate.of(2020, 1, 1));
+        v.setHasAirConditioning(true);
+        v.setPricePerDay(new BigDecimal("80.00"));
+        v.setSeats(5);
+        return vehicleRepository.save(v);
+    }
+
+    private Rental rental(Vehicle v) {
+        Rental r = new Rental();
+        r.setCustomer("Anna");
+        r.setStartDate(LocalDate.of(2030, 1, 1));
+        r.setEndDate(LocalDate.of(2030, 1, 3));
+        r.setTotalCost(new BigDecimal("240.00"));
+        r.setVehicle(v);
+        return rentalRepository.save(r);
+    }
+
+    // Sync bis zum Ende der Seiten; liefert die letzte Antwort
+    private SyncResponse drain(String token) {
+        SyncResponse response;
+        do {
+            response = syncService.getChanges(token);
+            token = response.token();
+        } while (response.hasMore());
+        return response;
+    }
+
+    @Test
+    @DisplayName("Erster Sync liefert alles (full), danach nur noch Änderungen")
+    void whenSyncTwice_thenOnlyDelta() throws Exception {
+        Vehicle vw = vehicle("VW");
+        SyncResponse first = syncService.getChanges(null);
+        assertThat(first.full()).isTrue();
+        assertThat(first.vehicles()).extracting(Vehicle::getId).containsExactly(vw.getId());
+
+        Thread.sleep(2);
+        assertThat(syncService.getChanges(first.token()).vehicles()).isEmpty();
+
+        vw.setBrand("Volkswagen");
+        vehicleRepository.save(vw);
+        Rental r = rental(vw);
+        Thread.sleep(2);
+
+        SyncResponse delta = syncService.getChanges(first.token());
+        assertThat(delta.full()).isFalse();
+        assertThat(delta.vehicles()).extracting(Vehicle::getBrand).containsExactly("Volkswagen");
+        assertThat(delta.rentals()).extracting(Rental::getId).containsExactly(r.getId());
+        assertThat(Long.parseLong(delta.token())).isGreaterThan(Long.parseLong(first.token()));
+    }
+
+    @Test
+    @DisplayName("Volle Seiten liefern hasMore und ein Token mitten im Bereich, ohne Lücken")
+    void whenMoreThanPageSize_thenPaged() throws Exception {
+        Vehicle a = vehicle("A");
+        Vehicle b = vehicle("B");
+        rental(a);
+        Thread.sleep(2);
+
+        SyncResponse page1 = syncService.getChanges(null);
+        assertThat(page1.hasMore()).isTrue();
+        assertThat(page1.vehicles().size() + page1.rentals().size()).isEqualTo(2);
+
+        SyncResponse page2 = syncService.getChanges(page1.token());
+        assertThat(page2.hasMore()).isFalse();
+        assertThat(page2.vehicles().size() + page2.rentals().size()).isEqualTo(1);
+        assertThat(page1.vehicles().size() + page2.vehicles().size()).isEqualTo(2);
+        assertThat(b.getChangeSeq()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Löschungen kommen als Tombstones, beim vollständigen Sync nicht")
+    void whenDeleted_thenTombstoneInDelta() throws Exception {
+        Vehicle vw = vehicle("VW");
+        String token = drain(null).token();
+
+        vehicleRepository.delete(vw);
+        tombstoneRepository.save(new Tombstone("Vehicle", vw.getId()));
+        Thread.sleep(2);
+
+        SyncResponse delta = syncService.getChanges(token);
+        assertThat(delta.vehicles()).isEmpty();
+        assertThat(delta.tombstones()).extracting(Tombstone::getEntityType, Tombstone::getEntityId)
+                .containsExactly(tuple("Vehicle", vw.getId()));
+        assertThat(syncService.getChanges(null).tombstones()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Token älter als die Tombstone-Aufbewahrung erzwingt einen vollständigen Sync")
+    void whenTokenExpired_thenFull() {
+        vehicle("VW");
+        long old = Snowflake.maxIdAt(Instant.now().minus(Duration.ofDays(31)).toEpochMilli());
+
+        SyncResponse response = syncService.getChanges(Long.toString(old));
+
+        assertThat(response.full()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ungültiges Token → IllegalArgumentException (400)")
+    void whenInvalidToken_thenIllegalArgument() {
+        assertThatThrownBy(() -> syncService.getChanges("abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> syncService.getChanges("-5")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("backfill vergibt Änderungsnummern an Altbestände")
+    void whenBackfill_thenChangeSeqAssigned() throws Exception {
+        Vehicle vw = vehicle("VW");
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("update vehicle set change_seq = null");
+        }
+
+        assertThat(syncService.backfill()).isEqualTo(1);
+        Thread.sleep(2);
+
+        Long seq = vehicleRepository.findById(vw.getId()).orElseThrow().getChangeSeq();
+        assertThat(seq).isGreaterThan(vw.getChangeSeq());
+        assertThat(drain(null).vehicles()).extracting(Vehicle::getId).containsExactly(vw.getId());
+    }
+}
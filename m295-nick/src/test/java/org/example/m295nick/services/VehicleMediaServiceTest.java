@@ -0,0 +1,186 @@
+package org.example.m295nick.services;
+
+import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.VehicleMedia;
+import org.example.m295nick.repositories.VehicleMediaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class VehicleMediaServiceTest {
+
+    private static final long VEHICLE_ID = 1L;
+
+    @Mock
+    private VehicleMediaRepository vehicleMediaRepository;
+
+    @Mock
+    private VehicleService vehicleService;
+
+    @TempDir
+    Path tempDir;
+
+    private MediaStore mediaStore;
+    private ThumbnailGenerator thumbnailGenerator;
+    private VehicleMediaServiceImpl vehicleMediaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mediaStore = new MediaStore(tempDir.toString());
+        thumbnailGenerator = new ThumbnailGenerator(mediaStore, 64, 1, 100_000);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("vehicleService", vehicleService);
+        vehicleMediaService = new VehicleMediaServiceImpl(vehicleMediaRepository, beans.getBeanProvider(VehicleService.class), mediaStore,
+                thumbnailGenerator, "image/png, application/pdf");
+
+        AtomicLong ids = new AtomicLong();
+        when(vehicleService.existsById(VEHICLE_ID)).thenReturn(true);
+        when(vehicleMediaRepository.save(any(VehicleMedia.class))).thenAnswer(inv -> {
+            VehicleMedia media = inv.getArgument(0);
+            media.setId(ids.incrementAndGet());
+            return media;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailGenerator.stop();
+    }
+
+    @Test
+    @DisplayName("Gleicher Inhalt wird nur einmal abgelegt (content-adressiert)")
+    void whenSameContentUploadedTwice_thenStoredOnce() throws Exception {
+        byte[] pdf = "%PDF-1.4 Fahrzeugschein".getBytes(StandardCharsets.UTF_8);
+
+        VehicleMedia first = upload("schein.pdf", "application/pdf", pdf);
+        VehicleMedia second = upload("kopie.pdf", "application/pdf", pdf);
+
+        assertThat(first.getSha256()).isEqualTo(second.getSha256()).hasSize(64);
+        assertThat(first.getSize()).isEqualTo(pdf.length);
+        Path blob = vehicleMediaService.getContent(first);
+        assertThat(Files.readAllBytes(blob)).isEqualTo(pdf);
+        assertThat(blob.getParent().getParent().getFileName().toString()).isEqualTo(first.getSha256().substring(0, 2));
+        try (var staged = Files.list(tempDir.resolve("tmp"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Datei wird erst gelöscht, wenn kein Eintrag mehr darauf verweist")
+    void whenDeleted_thenBlobRemovedWithLastReference() throws Exception {
+        VehicleMedia media = upload("schein.pdf", "application/pdf", new byte[]{1, 2, 3});
+        Path blob = vehicleMediaService.getContent(media);
+        when(vehicleMediaRepository.findByIdAndVehicleId(media.getId(), VEHICLE_ID)).thenReturn(Optional.of(media));
+
+        when(vehicleMediaRepository.existsBySha256(media.getSha256())).thenReturn(true);
+        vehicleMediaService.deleteById(VEHICLE_ID, media.getId());
+        assertThat(blob).exists();
+
+        when(vehicleMediaRepository.existsBySha256(media.getSha256())).thenReturn(false);
+        vehicleMediaService.deleteById(VEHICLE_ID, media.getId());
+        assertThat(blob).doesNotExist();
+        verify(vehicleMediaRepository, times(2)).delete(media);
+    }
+
+    @Test
+    @DisplayName("Fahrzeug gelöscht → Einträge weg, nur nicht mehr referenzierte Dateien gelöscht")
+    void whenVehiclesDeleted_thenMediaAndUnreferencedBlobsRemoved() throws Exception {
+        VehicleMedia own = upload("schein.pdf", "application/pdf", new byte[]{1, 2, 3});
+        VehicleMedia shared = upload("kopie.pdf", "application/pdf", new byte[]{4, 5, 6});
+        Path ownBlob = vehicleMediaService.getContent(own);
+        Path sharedBlob = vehicleMediaService.getContent(shared);
+        when(vehicleMediaRepository.findByVehicleIdIn(List.of(VEHICLE_ID))).thenReturn(List.of(own, shared));
+        when(vehicleMediaRepository.existsBySha256(own.getSha256())).thenReturn(false);
+        // Gleicher Inhalt hängt noch an einem anderen Fahrzeug
+        when(vehicleMediaRepository.existsBySha256(shared.getSha256())).thenReturn(true);
+
+        vehicleMediaService.deleteByVehicleIds(List.of(VEHICLE_ID));
+
+        verify(vehicleMediaRepository).deleteAllInBatch(List.of(own, shared));
+        assertThat(ownBlob).doesNotExist();
+        assertThat(sharedBlob).exists();
+    }
+
+    @Test
+    @DisplayName("Nicht erlaubter Dateityp → IllegalArgumentException, nichts gespeichert")
+    void whenTypeNotAllowed_thenRejected() {
+        assertThatThrownBy(() -> upload("x.html", "text/html", new byte[]{1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(vehicleMediaRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Unbekanntes Fahrzeug → ResourceNotFoundException")
+    void whenVehicleMissing_thenNotFound() {
+        assertThatThrownBy(() -> vehicleMediaService.upload(99L, "a.png", "image/png", new ByteArrayInputStream(new byte[]{1})))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Vorschaubild wird im Hintergrund erzeugt und auf die Zielgrösse verkleinert")
+    void whenImageUploaded_thenThumbnailGenerated() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB), "png", png);
+
+        VehicleMedia media = upload("front.png", "image/png", png.toByteArray());
+
+        ThumbnailGenerator.State state = vehicleMediaService.requestThumbnail(media);
+        for (int i = 0; i < 100 && state != ThumbnailGenerator.State.READY; i++) {
+            Thread.sleep(50);
+            state = vehicleMediaService.requestThumbnail(media);
+        }
+        assertThat(state).isEqualTo(ThumbnailGenerator.State.READY);
+        BufferedImage thumbnail = ImageIO.read(vehicleMediaService.getThumbnail(media).toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(64);
+        assertThat(thumbnail.getHeight()).isEqualTo(32);
+    }
+
+    @Test
+    @DisplayName("Bild über der Pixelgrenze wird nicht dekodiert und bekommt kein Vorschaubild")
+    void whenImageTooLarge_thenThumbnailUnsupported() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(500, 201, BufferedImage.TYPE_BYTE_BINARY), "png", png);
+
+        VehicleMedia media = upload("bombe.png", "image/png", png.toByteArray());
+
+        ThumbnailGenerator.State state = vehicleMediaService.requestThumbnail(media);
+        for (int i = 0; i < 100 && state == ThumbnailGenerator.State.PENDING; i++) {
+            Thread.sleep(50);
+            state = vehicleMediaService.requestThumbnail(media);
+        }
+        assertThat(state).isEqualTo(ThumbnailGenerator.State.UNSUPPORTED);
+        assertThat(vehicleMediaService.getThumbnail(media)).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Dokumente haben kein Vorschaubild")
+    void whenDocument_thenThumbnailUnsupported() throws Exception {
+        VehicleMedia media = upload("schein.pdf", "application/pdf", new byte[]{1});
+        assertThat(vehicleMediaService.requestThumbnail(media)).isEqualTo(ThumbnailGenerator.State.UNSUPPORTED);
+    }
+
+    private VehicleMedia upload(String fileName, String contentType, byte[] content) throws Exception {
+        return vehicleMediaService.upload(VEHICLE_ID, fileName, contentType, new ByteArrayInputStream(content));
+    }
+}
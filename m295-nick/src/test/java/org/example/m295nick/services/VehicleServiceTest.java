@@ -1,6 +1,8 @@
 package org.example.m295nick.services;
 
 import org.example.m295nick.exceptions.ResourceNotFoundException;
+import org.example.m295nick.models.OutboxEvent;
+import org.example.m295nick.models.Rental;
 import org.example.m295nick.models.Vehicle;
 import org.example.m295nick.repositories.VehicleRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,8 +20,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class VehicleServiceTest {
@@ -26,6 +28,24 @@ class VehicleServiceTest {
     @Mock
     private VehicleRepository vehicleRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BulkWriter bulkWriter;
+
+    @Mock
+    private ResponseByteCache responseByteCache;
+
+    @Mock
+    private RentalArchiveService rentalArchiveService;
+
+    @Mock
+    private VehicleMediaService vehicleMediaService;
+
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(true, 2000);
+
     @InjectMocks
     private VehicleServiceImpl vehicleService;
 
@@ -84,6 +104,28 @@ class VehicleServiceTest {
         verify(vehicleRepository, times(1)).save(toSave);
     }
 
+    @Test
+    @DisplayName("create schreibt ein CREATED-Event in die Outbox")
+    void whenCreate_thenRecordOutboxEvent() {
+        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(sampleVehicle);
+
+        vehicleService.create(sampleVehicle);
+
+        verify(outboxService, times(1)).record("Vehicle", 1L, "CREATED", sampleVehicle);
+    }
+
+    @Test
+    @DisplayName("create und deleteById invalidieren den Antwort-Cache")
+    void whenWrite_thenResponseCacheInvalidated() {
+        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(sampleVehicle);
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
+
+        vehicleService.create(sampleVehicle);
+        vehicleService.deleteById(1L);
+
+        verify(responseByteCache, times(2)).invalidate();
+    }
+
     @Test
     @DisplayName("create Vehicle älter als 30 Jahre wirft IllegalArgumentException")
     void whenCreate_oldVehicle_thenThrowIllegalArgumentException() {
@@ -146,31 +188,47 @@ class VehicleServiceTest {
     @Test
     @DisplayName("deleteById nicht existierende ID wirft ResourceNotFoundException")
     void whenDeleteById_nonExisting_thenThrowResourceNotFoundException() {
-        when(vehicleRepository.existsById(2L)).thenReturn(false);
+        when(vehicleRepository.findById(2L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> vehicleService.deleteById(2L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Vehicle wurde nicht gefunden");
-        verify(vehicleRepository, times(1)).existsById(2L);
-        verify(vehicleRepository, never()).deleteById(any());
+        verify(vehicleRepository, times(1)).findById(2L);
+        verify(vehicleRepository, never()).delete(any());
     }
 
     @Test
-    @DisplayName("deleteById existierende ID ruft deleteById() auf")
-    void whenDeleteById_existing_thenCallDeleteById() {
-        when(vehicleRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(vehicleRepository).deleteById(1L);
+    @DisplayName("deleteById existierende ID löscht Fahrzeug und meldet mitgelöschte Rentals")
+    void whenDeleteById_existing_thenDeleteAndRecordCascadedRentals() {
+        Rental rental = new Rental();
+        rental.setId(10L);
+        sampleVehicle.addRental(rental);
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
+        when(rentalArchiveService.deleteByVehicleIds(List.of(1L))).thenReturn(List.of(20L));
 
         vehicleService.deleteById(1L);
-        verify(vehicleRepository, times(1)).deleteById(1L);
+
+        verify(vehicleRepository, times(1)).delete(sampleVehicle);
+        verify(vehicleMediaService).deleteByVehicleIds(List.of(1L));
+        verify(outboxService).record(eq("Rental"), eq(10L), eq(OutboxEvent.DELETED), any());
+        // Archivierte Rental des Fahrzeugs wird mitgelöscht und ebenfalls gemeldet
+        verify(outboxService).record(eq("Rental"), eq(20L), eq(OutboxEvent.DELETED), any());
+        verify(outboxService).record(eq("Vehicle"), eq(1L), eq(OutboxEvent.DELETED), any());
     }
 
     @Test
-    @DisplayName("deleteAll ruft repository.deleteAll() auf")
-    void whenDeleteAll_thenCallRepositoryDeleteAll() {
-        doNothing().when(vehicleRepository).deleteAll();
+    @DisplayName("deleteAll löscht alle Fahrzeuge inkl. Rental-Events")
+    void whenDeleteAll_thenDeleteAllAndRecordCascadedRentals() {
+        Rental rental = new Rental();
+        rental.setId(11L);
+        sampleVehicle.addRental(rental);
+        when(vehicleRepository.findAll()).thenReturn(List.of(sampleVehicle));
+
         vehicleService.deleteAll();
-        verify(vehicleRepository, times(1)).deleteAll();
+
+        verify(vehicleRepository, times(1)).deleteAll(List.of(sampleVehicle));
+        verify(outboxService).record(eq("Rental"), eq(11L), eq(OutboxEvent.DELETED), any());
+        verify(outboxService).record(eq("Vehicle"), isNull(), eq(OutboxEvent.ALL_DELETED), any());
     }
 
     @Test